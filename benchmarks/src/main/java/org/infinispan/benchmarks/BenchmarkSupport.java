@@ -0,0 +1,54 @@
+package org.infinispan.benchmarks;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.manager.DefaultCacheManager;
+
+import java.io.File;
+import java.util.Random;
+
+/**
+ * The data shared by the benchmarks. All the random data is generated from {@link #SEED}, so that the results of two
+ * runs can be compared.
+ *
+ * @since 7.1
+ */
+final class BenchmarkSupport {
+   static final long SEED = 0x5eedL;
+
+   private BenchmarkSupport() {
+   }
+
+   static String[] keys(int count) {
+      String[] keys = new String[count];
+      for (int i = 0; i < count; i++) {
+         keys[i] = "key" + i;
+      }
+      return keys;
+   }
+
+   static byte[] value(int size) {
+      byte[] value = new byte[size];
+      new Random(SEED).nextBytes(value);
+      return value;
+   }
+
+   /**
+    * Creates a local cache manager with statistics and JMX disabled, so that they don't add to the measurements.
+    */
+   static DefaultCacheManager cacheManager(ConfigurationBuilder builder) {
+      GlobalConfigurationBuilder global = new GlobalConfigurationBuilder();
+      global.globalJmxStatistics().disable().allowDuplicateDomains(true);
+      return new DefaultCacheManager(global.build(), builder.build());
+   }
+
+   static void recursiveDelete(File file) {
+      File[] children = file.listFiles();
+      if (children != null) {
+         for (File child : children) {
+            recursiveDelete(child);
+         }
+      }
+      file.delete();
+   }
+}
@@ -0,0 +1,66 @@
+package org.infinispan.benchmarks;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.util.concurrent.BoundedConcurrentHashMap;
+import org.infinispan.util.concurrent.BoundedConcurrentHashMap.Eviction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and writes on a {@link BoundedConcurrentHashMap} that holds a tenth of the keys, so that most writes evict an
+ * entry.
+ *
+ * @since 7.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BoundedConcurrentHashMapBenchmark {
+
+   @Param({"100000"})
+   public int keySpace;
+
+   @Param({"LRU", "LIRS", "TINY_LFU"})
+   public Eviction eviction;
+
+   @Param({"16"})
+   public int concurrencyLevel;
+
+   private BoundedConcurrentHashMap<String, String> map;
+   private String[] keys;
+
+   @Setup
+   public void setUp() {
+      map = new BoundedConcurrentHashMap<String, String>(keySpace / 10, concurrencyLevel, eviction,
+            AnyEquivalence.<String>getInstance(), AnyEquivalence.<String>getInstance());
+      keys = BenchmarkSupport.keys(keySpace);
+      for (String key : keys) {
+         map.put(key, key);
+      }
+   }
+
+   @Benchmark
+   public String get(KeySequence sequence) {
+      return map.get(keys[sequence.next(keySpace)]);
+   }
+
+   @Benchmark
+   public String put(KeySequence sequence) {
+      String key = keys[sequence.next(keySpace)];
+      return map.put(key, key);
+   }
+}
@@ -0,0 +1,77 @@
+package org.infinispan.benchmarks;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.manager.DefaultCacheManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and writes on a local cache. Plain gets read the data container directly, while getCacheEntry and the writes
+ * go through the whole interceptor chain.
+ *
+ * @since 7.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CacheBenchmark {
+
+   @Param({"1000", "100000"})
+   public int keySpace;
+
+   @Param({"100"})
+   public int valueSize;
+
+   private DefaultCacheManager cacheManager;
+   private AdvancedCache<String, byte[]> cache;
+   private String[] keys;
+   private byte[] value;
+
+   @Setup
+   public void setUp() {
+      cacheManager = BenchmarkSupport.cacheManager(new ConfigurationBuilder());
+      cache = cacheManager.<String, byte[]>getCache().getAdvancedCache();
+      keys = BenchmarkSupport.keys(keySpace);
+      value = BenchmarkSupport.value(valueSize);
+      for (String key : keys) {
+         cache.put(key, value);
+      }
+   }
+
+   @TearDown
+   public void tearDown() {
+      cacheManager.stop();
+   }
+
+   @Benchmark
+   public byte[] get(KeySequence sequence) {
+      return cache.get(keys[sequence.next(keySpace)]);
+   }
+
+   @Benchmark
+   public CacheEntry<String, byte[]> getCacheEntry(KeySequence sequence) {
+      return cache.getCacheEntry(keys[sequence.next(keySpace)]);
+   }
+
+   @Benchmark
+   public byte[] put(KeySequence sequence) {
+      return cache.put(keys[sequence.next(keySpace)], value);
+   }
+}
@@ -0,0 +1,79 @@
+package org.infinispan.benchmarks;
+
+import org.infinispan.commons.hash.MurmurHash3;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.distribution.ch.impl.DefaultConsistentHashFactory;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.remoting.transport.jgroups.JGroupsAddress;
+import org.jgroups.util.UUID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up the owners of a key in a {@link org.infinispan.distribution.ch.impl.DefaultConsistentHash}.
+ *
+ * @since 7.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ConsistentHashBenchmark {
+
+   @Param({"4", "32"})
+   public int numNodes;
+
+   @Param({"2"})
+   public int numOwners;
+
+   @Param({"60", "600"})
+   public int numSegments;
+
+   @Param({"100000"})
+   public int keySpace;
+
+   private ConsistentHash ch;
+   private String[] keys;
+
+   @Setup
+   public void setUp() {
+      Random random = new Random(BenchmarkSupport.SEED);
+      List<Address> members = new ArrayList<Address>(numNodes);
+      for (int i = 0; i < numNodes; i++) {
+         members.add(new JGroupsAddress(new UUID(random.nextLong(), random.nextLong())));
+      }
+      ch = new DefaultConsistentHashFactory().create(MurmurHash3.getInstance(), numOwners, numSegments, members, null);
+      keys = BenchmarkSupport.keys(keySpace);
+   }
+
+   @Benchmark
+   public int getSegment(KeySequence sequence) {
+      return ch.getSegment(keys[sequence.next(keySpace)]);
+   }
+
+   @Benchmark
+   public Address locatePrimaryOwner(KeySequence sequence) {
+      return ch.locatePrimaryOwner(keys[sequence.next(keySpace)]);
+   }
+
+   @Benchmark
+   public List<Address> locateOwners(KeySequence sequence) {
+      return ch.locateOwners(keys[sequence.next(keySpace)]);
+   }
+}
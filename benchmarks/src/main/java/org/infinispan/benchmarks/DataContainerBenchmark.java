@@ -0,0 +1,81 @@
+package org.infinispan.benchmarks;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and writes on the {@link org.infinispan.container.DefaultDataContainer} of a local cache, without and with
+ * eviction. With eviction, the container holds half of the keys.
+ *
+ * @since 7.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DataContainerBenchmark {
+
+   @Param({"100000"})
+   public int keySpace;
+
+   @Param({"NONE", "LRU", "LIRS"})
+   public EvictionStrategy eviction;
+
+   private DefaultCacheManager cacheManager;
+   private DataContainer<String, byte[]> container;
+   private String[] keys;
+   private byte[] value;
+   private Metadata metadata;
+
+   @Setup
+   public void setUp() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      if (eviction.isEnabled()) {
+         builder.eviction().strategy(eviction).maxEntries(keySpace / 2);
+      }
+      cacheManager = BenchmarkSupport.cacheManager(builder);
+      container = cacheManager.<String, byte[]>getCache().getAdvancedCache().getDataContainer();
+      keys = BenchmarkSupport.keys(keySpace);
+      value = BenchmarkSupport.value(100);
+      metadata = new EmbeddedMetadata.Builder().build();
+      for (String key : keys) {
+         container.put(key, value, metadata);
+      }
+   }
+
+   @TearDown
+   public void tearDown() {
+      cacheManager.stop();
+   }
+
+   @Benchmark
+   public InternalCacheEntry<String, byte[]> get(KeySequence sequence) {
+      return container.get(keys[sequence.next(keySpace)]);
+   }
+
+   @Benchmark
+   public void put(KeySequence sequence) {
+      container.put(keys[sequence.next(keySpace)], value, metadata);
+   }
+}
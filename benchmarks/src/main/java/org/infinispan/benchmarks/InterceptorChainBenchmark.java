@@ -0,0 +1,105 @@
+package org.infinispan.benchmarks;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.InterceptorConfiguration;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.interceptors.base.BaseCustomInterceptor;
+import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.manager.DefaultCacheManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and writes on a local cache, with and without skipping the interceptors that only pass the command on (the
+ * {@code infinispan.interceptors.specialize} system property). Custom interceptors that only handle clear commands
+ * can be added to the chain to see how the gain grows with the number of interceptors skipped.
+ * <p/>
+ * The property is read when the chain is built, and it is disabled by default.
+ *
+ * @since 7.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class InterceptorChainBenchmark {
+   @Param({"true", "false"})
+   public String specialize;
+
+   @Param({"0", "3"})
+   public int clearInterceptors;
+
+   @Param({"1000"})
+   public int keySpace;
+
+   private DefaultCacheManager cacheManager;
+   private AdvancedCache<String, byte[]> cache;
+   private String[] keys;
+   private byte[] value;
+
+   @Setup
+   public void setUp() {
+      // Before the chain is built
+      System.setProperty(CommandInterceptor.SPECIALIZED_CHAIN_PROPERTY, specialize);
+      BaseCustomInterceptor[] interceptors = {new ClearInterceptor1(), new ClearInterceptor2(), new ClearInterceptor3()};
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      for (int i = 0; i < clearInterceptors; i++) {
+         builder.customInterceptors().addInterceptor().interceptor(interceptors[i])
+               .position(InterceptorConfiguration.Position.LAST);
+      }
+      cacheManager = BenchmarkSupport.cacheManager(builder);
+      cache = cacheManager.<String, byte[]>getCache().getAdvancedCache();
+      keys = BenchmarkSupport.keys(keySpace);
+      value = BenchmarkSupport.value(100);
+      for (String key : keys) {
+         cache.put(key, value);
+      }
+   }
+
+   @TearDown
+   public void tearDown() {
+      cacheManager.stop();
+   }
+
+   // Plain gets skip the interceptor chain when there are no custom interceptors
+   @Benchmark
+   public CacheEntry<String, byte[]> getCacheEntry(KeySequence sequence) {
+      return cache.getCacheEntry(keys[sequence.next(keySpace)]);
+   }
+
+   @Benchmark
+   public byte[] put(KeySequence sequence) {
+      return cache.put(keys[sequence.next(keySpace)], value);
+   }
+
+   public static class ClearInterceptor1 extends BaseCustomInterceptor {
+      @Override
+      public Object visitClearCommand(InvocationContext ctx, ClearCommand command) throws Throwable {
+         return invokeNextInterceptor(ctx, command);
+      }
+   }
+
+   // The interceptor classes must be different to be in the same chain
+   public static class ClearInterceptor2 extends ClearInterceptor1 {
+   }
+
+   public static class ClearInterceptor3 extends ClearInterceptor1 {
+   }
+}
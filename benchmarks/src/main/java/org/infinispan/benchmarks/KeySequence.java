@@ -0,0 +1,39 @@
+package org.infinispan.benchmarks;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A per-thread sequence of random key indexes. The sequence is generated in advance from {@link
+ * BenchmarkSupport#SEED}, so that generating the random numbers is not measured and every run accesses the same keys.
+ *
+ * @since 7.1
+ */
+@State(Scope.Thread)
+public class KeySequence {
+   private static final int SIZE = 1 << 16;
+   private static final int MASK = SIZE - 1;
+   private static final AtomicInteger threadCounter = new AtomicInteger();
+
+   private final int[] sequence = new int[SIZE];
+   private int position;
+
+   @Setup
+   public void setUp() {
+      Random random = new Random(BenchmarkSupport.SEED + threadCounter.getAndIncrement());
+      for (int i = 0; i < SIZE; i++) {
+         sequence[i] = random.nextInt(Integer.MAX_VALUE);
+      }
+   }
+
+   /**
+    * @return the next index, between 0 (inclusive) and {@code bound} (exclusive)
+    */
+   public int next(int bound) {
+      return sequence[position++ & MASK] % bound;
+   }
+}
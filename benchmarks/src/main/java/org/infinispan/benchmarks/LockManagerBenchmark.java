@@ -0,0 +1,75 @@
+package org.infinispan.benchmarks;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.context.InvocationContextFactory;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.util.concurrent.locks.LockManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Acquires and releases the lock of a key from several threads. With a small number of keys, most acquisitions wait
+ * for another thread.
+ *
+ * @since 7.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@Threads(4)
+public class LockManagerBenchmark {
+   private static final long LOCK_TIMEOUT = TimeUnit.SECONDS.toMillis(10);
+
+   @Param({"1", "16", "1024"})
+   public int keySpace;
+
+   @Param({"false", "true"})
+   public boolean lockStriping;
+
+   private DefaultCacheManager cacheManager;
+   private LockManager lockManager;
+   private InvocationContextFactory contextFactory;
+   private String[] keys;
+
+   @Setup
+   public void setUp() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.locking().useLockStriping(lockStriping).lockAcquisitionTimeout(LOCK_TIMEOUT);
+      cacheManager = BenchmarkSupport.cacheManager(builder);
+      AdvancedCache<Object, Object> cache = cacheManager.getCache().getAdvancedCache();
+      lockManager = cache.getLockManager();
+      contextFactory = cache.getComponentRegistry().getComponent(InvocationContextFactory.class);
+      keys = BenchmarkSupport.keys(keySpace);
+   }
+
+   @TearDown
+   public void tearDown() {
+      cacheManager.stop();
+   }
+
+   @Benchmark
+   public boolean lockAndUnlock(KeySequence sequence) throws InterruptedException {
+      InvocationContext ctx = contextFactory.createSingleKeyNonTxInvocationContext();
+      boolean locked = lockManager.lockAndRecord(keys[sequence.next(keySpace)], ctx, LOCK_TIMEOUT);
+      lockManager.unlockAll(ctx);
+      return locked;
+   }
+}
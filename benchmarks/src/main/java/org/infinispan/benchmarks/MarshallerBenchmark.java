@@ -0,0 +1,88 @@
+package org.infinispan.benchmarks;
+
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.Flag;
+import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Marshalls and unmarshalls a value and a replicated write command with the global marshaller.
+ *
+ * @since 7.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MarshallerBenchmark {
+
+   @Param({"100", "10000"})
+   public int valueSize;
+
+   private DefaultCacheManager cacheManager;
+   private StreamingMarshaller marshaller;
+   private byte[] value;
+   private PutKeyValueCommand command;
+   private byte[] marshalledValue;
+   private byte[] marshalledCommand;
+
+   @Setup
+   public void setUp() throws Exception {
+      cacheManager = BenchmarkSupport.cacheManager(new ConfigurationBuilder());
+      // The global marshaller is created with the first cache
+      cacheManager.getCache();
+      marshaller = cacheManager.getGlobalComponentRegistry().getComponent(StreamingMarshaller.class,
+                                                                          KnownComponentNames.GLOBAL_MARSHALLER);
+      value = BenchmarkSupport.value(valueSize);
+      command = new PutKeyValueCommand("key", value, false, null, new EmbeddedMetadata.Builder().build(),
+                                       Collections.<Flag>emptySet(), AnyEquivalence.getInstance());
+      marshalledValue = marshaller.objectToByteBuffer(value);
+      marshalledCommand = marshaller.objectToByteBuffer(command);
+   }
+
+   @TearDown
+   public void tearDown() {
+      cacheManager.stop();
+   }
+
+   @Benchmark
+   public byte[] marshallValue() throws Exception {
+      return marshaller.objectToByteBuffer(value);
+   }
+
+   @Benchmark
+   public Object unmarshallValue() throws Exception {
+      return marshaller.objectFromByteBuffer(marshalledValue);
+   }
+
+   @Benchmark
+   public byte[] marshallCommand() throws Exception {
+      return marshaller.objectToByteBuffer(command);
+   }
+
+   @Benchmark
+   public Object unmarshallCommand() throws Exception {
+      return marshaller.objectFromByteBuffer(marshalledCommand);
+   }
+}
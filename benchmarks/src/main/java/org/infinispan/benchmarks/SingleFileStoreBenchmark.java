@@ -0,0 +1,83 @@
+package org.infinispan.benchmarks;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.marshall.core.MarshalledEntryImpl;
+import org.infinispan.persistence.file.SingleFileStore;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes entries directly to a {@link SingleFileStore}, by default in a temporary directory. The store can be created
+ * in a sub-directory of another directory, e.g. on the disk used in production, with the {@code location} parameter.
+ *
+ * @since 7.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SingleFileStoreBenchmark {
+
+   @Param({"10000"})
+   public int keySpace;
+
+   @Param({"100", "1000"})
+   public int valueSize;
+
+   @Param({""})
+   public String location;
+
+   private File directory;
+   private DefaultCacheManager cacheManager;
+   private SingleFileStore<Object, Object> store;
+   private StreamingMarshaller marshaller;
+   private String[] keys;
+   private byte[] value;
+
+   @Setup
+   @SuppressWarnings("unchecked")
+   public void setUp() throws Exception {
+      directory = location.isEmpty() ? File.createTempFile("SingleFileStoreBenchmark", "")
+            : new File(location, "SingleFileStoreBenchmark");
+      BenchmarkSupport.recursiveDelete(directory);
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.persistence().addSingleFileStore().location(directory.getAbsolutePath());
+      cacheManager = BenchmarkSupport.cacheManager(builder);
+      AdvancedCache<Object, Object> cache = cacheManager.getCache().getAdvancedCache();
+      store = cache.getComponentRegistry().getComponent(PersistenceManager.class)
+            .getStores(SingleFileStore.class).iterator().next();
+      marshaller = cache.getComponentRegistry().getCacheMarshaller();
+      keys = BenchmarkSupport.keys(keySpace);
+      value = BenchmarkSupport.value(valueSize);
+   }
+
+   @TearDown
+   public void tearDown() {
+      cacheManager.stop();
+      BenchmarkSupport.recursiveDelete(directory);
+   }
+
+   @Benchmark
+   public void write(KeySequence sequence) {
+      store.write(new MarshalledEntryImpl<Object, Object>(keys[sequence.next(keySpace)], value, null, marshaller));
+   }
+}
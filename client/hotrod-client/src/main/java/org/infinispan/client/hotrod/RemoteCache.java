@@ -23,10 +23,10 @@
  * is returned instead. E.g. {@link java.util.Map#put(Object, Object)} returns the previous value associated to the
  * supplied key. In case of RemoteCache, this returns null.
  * <p/>
- * <b>Synthetic operations</b>: aggregate operations are being implemented based on other Hot Rod operations. E.g. all
- * the {@link java.util.Map#putAll(java.util.Map)} is implemented through multiple individual puts. This means that the
- * these operations are not atomic and that they are costly, e.g. as the number of network round-trips is not one, but
- * the size of the added map. All these synthetic operations are documented as such.
+ * <b>Synthetic operations</b>: aggregate operations are being implemented based on other Hot Rod operations. E.g. with
+ * protocol versions older than 2.2 the {@link java.util.Map#putAll(java.util.Map)} is implemented through multiple
+ * individual puts. This means that the these operations are not atomic and that they are costly, e.g. as the number of
+ * network round-trips is not one, but the size of the added map. All these synthetic operations are documented as such.
  * <p/>
  * <b>changing default behavior through {@link org.infinispan.client.hotrod.Flag}s</b>: it is possible to change the
  * default cache behaviour by using flags on an per invocation basis. E.g.
@@ -188,9 +188,10 @@
    Set<Entry<K, V>> entrySet();
 
    /**
-    * Synthetic operation. The client iterates over the set of keys and calls put for each one of them. This results in
-    * operation not being atomic (if a failure happens after few puts it is not rolled back) and costly (for each key in
-    * the parameter map a remote call is performed).
+    * Synthetic operation. The client groups the entries by the server owning their keys and stores each group with a
+    * single request, the requests to the different servers being sent in parallel. The operation is not atomic: if a
+    * request fails, the entries stored by the other requests are not rolled back. With protocol versions older than 2.2
+    * the client calls put for each entry instead, which costs a remote call per key in the parameter map.
     */
    @Override
    void putAll(Map<? extends K, ? extends V> map, long lifespan, TimeUnit unit);
@@ -270,6 +271,16 @@
     */
    Map<K, V> getBulk(int size);
 
+   /**
+    * Retrieves the values of a set of keys. The client groups the keys by the server owning them and reads each group
+    * with a single request, the requests to the different servers being sent in parallel. With protocol versions older
+    * than 2.2 the keys are read one at a time.
+    *
+    * @return the entries of the keys that are mapped to a value. The returned Map is unmodifiable.
+    * @since 7.1
+    */
+   Map<K, V> getAll(Set<? extends K> keys);
+
 
    /**
     * Returns the HotRod protocol version supported by this RemoteCache implementation
@@ -583,6 +583,13 @@ public void start() {
       log.version(RemoteCacheManager.class.getPackage().getImplementationVersion());
 
       started = true;
+
+      // The near caches add their listeners once the operations can be executed
+      synchronized (cacheName2RemoteCache) {
+         for (RemoteCacheHolder rcc : cacheName2RemoteCache.values()) {
+            rcc.remoteCache.start();
+         }
+      }
    }
 
    /**
@@ -631,6 +638,9 @@ private <K, V> RemoteCache<K, V> createRemoteCache(String cacheName, Boolean for
                }
             }
             // If ping on startup is disabled, or cache is defined in server
+            if (started) {
+               result.start();
+            }
             cacheName2RemoteCache.put(cacheName, rcc);
             return result;
          } else {
@@ -652,7 +662,8 @@ private void startRemoteCache(RemoteCacheHolder remoteCacheHolder, AtomicInteger
       OperationsFactory operationsFactory = new OperationsFactory(
             transportFactory, remoteCache.getName(), topologyId, remoteCacheHolder.forceReturnValue,
             codec, listenerNotifier);
-      remoteCache.init(marshaller, asyncExecutorService, operationsFactory, configuration.keySizeEstimate(), configuration.valueSizeEstimate());
+      remoteCache.init(marshaller, asyncExecutorService, operationsFactory, configuration.keySizeEstimate(), configuration.valueSizeEstimate(),
+            configuration.nearCache());
    }
 
    public Marshaller getMarshaller() {
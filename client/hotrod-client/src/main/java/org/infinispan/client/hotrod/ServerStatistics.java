@@ -59,6 +59,16 @@ public interface ServerStatistics {
     */
    String REMOVE_MISSES = "removeMisses";
 
+   /**
+    * Number of reads served by the near cache of the client, if enabled.
+    */
+   String NEAR_CACHE_HITS = "nearCacheHits";
+
+   /**
+    * Number of reads not found in the near cache of the client, if enabled.
+    */
+   String NEAR_CACHE_MISSES = "nearCacheMisses";
+
    Map<String, String> getStatsMap();
 
    String getStatistic(String statsName);
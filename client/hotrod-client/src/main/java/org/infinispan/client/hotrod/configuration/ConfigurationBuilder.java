@@ -63,6 +63,7 @@ public class ConfigurationBuilder implements ConfigurationChildBuilder, Builder<
    private Class<? extends TransportFactory> transportFactory = TcpTransportFactory.class;
    private int valueSizeEstimate = ConfigurationProperties.DEFAULT_VALUE_SIZE;
    private int maxRetries = ConfigurationProperties.DEFAULT_MAX_RETRIES;
+   private final NearCacheConfigurationBuilder nearCache;
 
 
    public ConfigurationBuilder() {
@@ -70,6 +71,7 @@ public ConfigurationBuilder() {
       this.connectionPool = new ConnectionPoolConfigurationBuilder(this);
       this.asyncExecutorFactory = new ExecutorFactoryConfigurationBuilder(this);
       this.security = new SecurityConfigurationBuilder(this);
+      this.nearCache = new NearCacheConfigurationBuilder(this);
    }
 
    @Override
@@ -180,6 +182,11 @@ public ConfigurationBuilder marshaller(Marshaller marshaller) {
       return this;
    }
 
+   @Override
+   public NearCacheConfigurationBuilder nearCache() {
+      return nearCache;
+   }
+
    @Override
    public ConfigurationBuilder pingOnStartup(boolean pingOnStartup) {
       this.pingOnStartup = pingOnStartup;
@@ -278,6 +285,7 @@ public ConfigurationBuilder withProperties(Properties properties) {
       }
       this.valueSizeEstimate(typed.getIntProperty(ConfigurationProperties.VALUE_SIZE_ESTIMATE, valueSizeEstimate));
       this.maxRetries(typed.getIntProperty(ConfigurationProperties.MAX_RETRIES, maxRetries));
+      this.nearCache.withNearCacheProperties(typed);
       return this;
    }
 
@@ -286,6 +294,7 @@ public void validate() {
       connectionPool.validate();
       asyncExecutorFactory.validate();
       security.validate();
+      nearCache.validate();
       if (maxRetries < 0) {
          throw log.invalidMaxRetries(maxRetries);
       }
@@ -304,11 +313,11 @@ public Configuration create() {
       if (marshaller == null) {
          return new Configuration(asyncExecutorFactory.create(), balancingStrategy, classLoader == null ? null : classLoader.get(), connectionPool.create(), connectionTimeout,
                consistentHashImpl, forceReturnValues, keySizeEstimate, marshallerClass, pingOnStartup, protocolVersion, servers, socketTimeout, security.create(), tcpNoDelay, tcpKeepAlive, transportFactory,
-               valueSizeEstimate, maxRetries);
+               valueSizeEstimate, maxRetries, nearCache.create());
       } else {
          return new Configuration(asyncExecutorFactory.create(), balancingStrategy, classLoader == null ? null : classLoader.get(), connectionPool.create(), connectionTimeout,
                consistentHashImpl, forceReturnValues, keySizeEstimate, marshaller, pingOnStartup, protocolVersion, servers, socketTimeout, security.create(), tcpNoDelay, tcpKeepAlive, transportFactory,
-               valueSizeEstimate, maxRetries);
+               valueSizeEstimate, maxRetries, nearCache.create());
       }
    }
 
@@ -351,6 +360,7 @@ public ConfigurationBuilder read(Configuration template) {
       this.transportFactory = template.transportFactory();
       this.valueSizeEstimate = template.valueSizeEstimate();
       this.maxRetries = template.maxRetries();
+      this.nearCache.read(template.nearCache());
       return this;
    }
 }
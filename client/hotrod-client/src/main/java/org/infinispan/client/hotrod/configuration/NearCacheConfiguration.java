@@ -0,0 +1,29 @@
+package org.infinispan.client.hotrod.configuration;
+
+/**
+ * NearCacheConfiguration.
+ *
+ * @since 7.1
+ */
+public class NearCacheConfiguration {
+   private final NearCacheMode mode;
+   private final int maxEntries;
+
+   NearCacheConfiguration(NearCacheMode mode, int maxEntries) {
+      this.mode = mode;
+      this.maxEntries = maxEntries;
+   }
+
+   public NearCacheMode mode() {
+      return mode;
+   }
+
+   public int maxEntries() {
+      return maxEntries;
+   }
+
+   @Override
+   public String toString() {
+      return "NearCacheConfiguration [mode=" + mode + ", maxEntries=" + maxEntries + "]";
+   }
+}
@@ -0,0 +1,77 @@
+package org.infinispan.client.hotrod.configuration;
+
+import java.util.Properties;
+
+import org.infinispan.client.hotrod.impl.ConfigurationProperties;
+import org.infinispan.client.hotrod.impl.TypedProperties;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+import org.infinispan.commons.configuration.Builder;
+
+/**
+ * Configures the near cache of the remote caches.
+ *
+ * @since 7.1
+ */
+public class NearCacheConfigurationBuilder extends AbstractConfigurationChildBuilder implements Builder<NearCacheConfiguration> {
+
+   private static final Log log = LogFactory.getLog(NearCacheConfigurationBuilder.class, Log.class);
+
+   private NearCacheMode mode = NearCacheMode.DISABLED;
+   private int maxEntries = ConfigurationProperties.DEFAULT_NEAR_CACHE_MAX_ENTRIES;
+
+   NearCacheConfigurationBuilder(ConfigurationBuilder builder) {
+      super(builder);
+   }
+
+   /**
+    * Whether the values read from the server are kept in a near cache. Defaults to {@link NearCacheMode#DISABLED}.
+    */
+   public NearCacheConfigurationBuilder mode(NearCacheMode mode) {
+      this.mode = mode;
+      return this;
+   }
+
+   /**
+    * The maximum number of entries kept in the near cache of each remote cache. When the limit is reached, the least
+    * recently used entry is evicted. Defaults to 1000.
+    */
+   public NearCacheConfigurationBuilder maxEntries(int maxEntries) {
+      this.maxEntries = maxEntries;
+      return this;
+   }
+
+   /**
+    * Configures the near cache according to properties
+    */
+   public NearCacheConfigurationBuilder withNearCacheProperties(Properties properties) {
+      TypedProperties typed = TypedProperties.toTypedProperties(properties);
+      mode(NearCacheMode.valueOf(typed.getProperty(ConfigurationProperties.NEAR_CACHE_MODE, mode.name())));
+      maxEntries(typed.getIntProperty(ConfigurationProperties.NEAR_CACHE_MAX_ENTRIES, maxEntries));
+      return this;
+   }
+
+   @Override
+   public void validate() {
+      if (mode.enabled() && maxEntries <= 0) {
+         throw log.invalidNearCacheMaxEntries(maxEntries);
+      }
+   }
+
+   @Override
+   public NearCacheConfiguration create() {
+      return new NearCacheConfiguration(mode, maxEntries);
+   }
+
+   @Override
+   public NearCacheConfigurationBuilder read(NearCacheConfiguration template) {
+      mode = template.mode();
+      maxEntries = template.maxEntries();
+      return this;
+   }
+
+   @Override
+   public String toString() {
+      return "NearCacheConfigurationBuilder [mode=" + mode + ", maxEntries=" + maxEntries + "]";
+   }
+}
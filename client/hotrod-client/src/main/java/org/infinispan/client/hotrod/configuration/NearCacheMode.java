@@ -0,0 +1,23 @@
+package org.infinispan.client.hotrod.configuration;
+
+/**
+ * Decides whether the remote caches keep a near cache of the values they read.
+ *
+ * @since 7.1
+ */
+public enum NearCacheMode {
+   /**
+    * The values are always read from the server.
+    */
+   DISABLED,
+   /**
+    * The values read from the server are kept in a bounded near cache, whose entries are evicted in least recently
+    * used order and invalidated by the events of a client listener. The entries with a lifespan or a max idle time
+    * are not cached, they are always read from the server.
+    */
+   INVALIDATED;
+
+   public boolean enabled() {
+      return this != DISABLED;
+   }
+}
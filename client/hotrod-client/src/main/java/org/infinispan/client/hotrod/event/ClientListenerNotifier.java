@@ -105,6 +105,8 @@ public void failoverClientListeners(Set<SocketAddress> failedServers) {
 
    private void invokeFailoverEvent(EventDispatcher dispatcher) {
       List<ClientListenerInvocation> callbacks = dispatcher.invocables.get(ClientCacheFailover.class);
+      if (callbacks == null)
+         return;
       for (ClientListenerInvocation callback : callbacks) {
          callback.invoke(new ClientCacheFailoverEvent() {
             @Override
@@ -239,6 +241,8 @@ public void run() {
                   log.unexpectedErrorConsumingEvent(clientEvent, e);
                }  else {
                   log.unrecoverableErrorReadingEvent(e, transport.getRemoteSocketAddress());
+                  // The events are lost until the listener fails over, let the listener drop any state built from them
+                  invokeFailoverEvent(this);
                   return; // Server is likely gone!
                }
             } catch (CancelledKeyException e) {
@@ -7,6 +7,7 @@
 import java.util.Properties;
 import java.util.Set;
 
+import org.infinispan.client.hotrod.configuration.NearCacheMode;
 import org.infinispan.client.hotrod.impl.async.DefaultAsyncExecutorFactory;
 import org.infinispan.client.hotrod.impl.transport.tcp.RoundRobinBalancingStrategy;
 import org.infinispan.client.hotrod.impl.transport.tcp.TcpTransportFactory;
@@ -42,6 +43,8 @@ public class ConfigurationProperties {
    public static final String TRUST_STORE_FILE_NAME = "infinispan.client.hotrod.trust_store_file_name";
    public static final String TRUST_STORE_PASSWORD = "infinispan.client.hotrod.trust_store_password";
    public static final String MAX_RETRIES = "infinispan.client.hotrod.max_retries";
+   public static final String NEAR_CACHE_MODE = "infinispan.client.hotrod.near_cache.mode";
+   public static final String NEAR_CACHE_MAX_ENTRIES = "infinispan.client.hotrod.near_cache.max_entries";
 
    // defaults
 
@@ -51,13 +54,15 @@ public class ConfigurationProperties {
    public static final int DEFAULT_SO_TIMEOUT = 60000;
    public static final int DEFAULT_CONNECT_TIMEOUT = 60000;
    public static final int DEFAULT_MAX_RETRIES = 10;
+   public static final int DEFAULT_NEAR_CACHE_MAX_ENTRIES = 1000;
+   public static final String PROTOCOL_VERSION_22 = "2.2";
    public static final String PROTOCOL_VERSION_21 = "2.1";
    public static final String PROTOCOL_VERSION_20 = "2.0";
    public static final String PROTOCOL_VERSION_13 = "1.3";
    public static final String PROTOCOL_VERSION_12 = "1.2";
    public static final String PROTOCOL_VERSION_11 = "1.1";
    public static final String PROTOCOL_VERSION_10 = "1.0";
-   public static final String DEFAULT_PROTOCOL_VERSION = PROTOCOL_VERSION_21;
+   public static final String DEFAULT_PROTOCOL_VERSION = PROTOCOL_VERSION_22;
 
    private final TypedProperties props;
 
@@ -179,4 +184,12 @@ public int getMaxRetries() {
       return props.getIntProperty(MAX_RETRIES, DEFAULT_MAX_RETRIES);
    }
 
+   public String getNearCacheMode() {
+      return props.getProperty(NEAR_CACHE_MODE, NearCacheMode.DISABLED.name());
+   }
+
+   public int getNearCacheMaxEntries() {
+      return props.getIntProperty(NEAR_CACHE_MAX_ENTRIES, DEFAULT_NEAR_CACHE_MAX_ENTRIES);
+   }
+
 }
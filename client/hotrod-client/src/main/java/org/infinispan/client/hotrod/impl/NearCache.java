@@ -0,0 +1,175 @@
+package org.infinispan.client.hotrod.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import net.jcip.annotations.ThreadSafe;
+import org.infinispan.client.hotrod.MetadataValue;
+import org.infinispan.client.hotrod.RemoteCache;
+import org.infinispan.client.hotrod.annotation.ClientCacheEntryModified;
+import org.infinispan.client.hotrod.annotation.ClientCacheEntryRemoved;
+import org.infinispan.client.hotrod.annotation.ClientCacheFailover;
+import org.infinispan.client.hotrod.annotation.ClientListener;
+import org.infinispan.client.hotrod.event.ClientCacheEntryModifiedEvent;
+import org.infinispan.client.hotrod.event.ClientCacheEntryRemovedEvent;
+import org.infinispan.client.hotrod.event.ClientCacheFailoverEvent;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+
+/**
+ * A bounded cache of the values read by a {@link RemoteCacheImpl}, so that the reads of the same keys don't go to the
+ * server.
+ * <p/>
+ * The entries are evicted in least recently used order, and they are kept consistent with the server by a client
+ * listener: the entries modified or removed by any client are invalidated when their events are received, and all the
+ * entries are invalidated when the listener fails over to another server, as events might have been missed.
+ * <p/>
+ * A value read from the server is only cached if no entry was invalidated while it was being read, otherwise an event
+ * received before the response could be lost. The keys are compared with {@code equals()}, so they must be equal
+ * whenever their marshalled forms are.
+ * <p/>
+ * Only the entries that never expire are cached: the server sends no event when an entry expires, and the reads served
+ * by the near cache don't reset the max idle time of the server's entry.
+ *
+ * @since 7.1
+ */
+@ThreadSafe
+public class NearCache<K, V> {
+
+   private static final Log log = LogFactory.getLog(NearCache.class, Log.class);
+
+   private final Map<Object, V> entries;
+   private final InvalidationListener listener = new InvalidationListener();
+   // Guarded by entries
+   private boolean listening;
+   private long invalidations;
+   private long hits;
+   private long misses;
+
+   public NearCache(final int maxEntries) {
+      this.entries = new LinkedHashMap<Object, V>(16, 0.75f, true) {
+         @Override
+         protected boolean removeEldestEntry(Map.Entry<Object, V> eldest) {
+            return size() > maxEntries;
+         }
+      };
+   }
+
+   /**
+    * Adds the listener invalidating the entries to the remote cache, and clears any entry cached before.
+    */
+   public void start(RemoteCache<K, V> remoteCache) {
+      remoteCache.addClientListener(listener);
+      synchronized (entries) {
+         listening = true;
+         invalidations++;
+         entries.clear();
+      }
+   }
+
+   /**
+    * Removes the listener if the remote cache is still started, and stops caching values as they can't be invalidated
+    * anymore.
+    */
+   public void stop(RemoteCache<K, V> remoteCache, boolean removeListener) {
+      synchronized (entries) {
+         listening = false;
+         invalidations++;
+         entries.clear();
+      }
+      if (removeListener) {
+         remoteCache.removeClientListener(listener);
+      }
+   }
+
+   /**
+    * @return the cached value, or {@code null} if the value must be read from the server
+    */
+   public V get(Object key) {
+      synchronized (entries) {
+         V value = entries.get(key);
+         if (value != null) {
+            hits++;
+         } else {
+            misses++;
+         }
+         return value;
+      }
+   }
+
+   /**
+    * To be invoked before reading a value from the server, and passed to {@link #putIfNotInvalidated}.
+    */
+   public long invalidationCount() {
+      synchronized (entries) {
+         return invalidations;
+      }
+   }
+
+   /**
+    * Caches the value read from the server, unless it expires or an entry was invalidated since the read started.
+    */
+   public void putIfNotInvalidated(Object key, MetadataValue<V> value, long invalidationCount) {
+      if (value == null || value.getLifespan() >= 0 || value.getMaxIdle() >= 0) {
+         return;
+      }
+      synchronized (entries) {
+         if (listening && invalidations == invalidationCount) {
+            entries.put(key, value.getValue());
+         }
+      }
+   }
+
+   public void invalidate(Object key) {
+      synchronized (entries) {
+         invalidations++;
+         entries.remove(key);
+      }
+   }
+
+   public void clear() {
+      synchronized (entries) {
+         invalidations++;
+         entries.clear();
+      }
+   }
+
+   public int size() {
+      synchronized (entries) {
+         return entries.size();
+      }
+   }
+
+   public long getHits() {
+      synchronized (entries) {
+         return hits;
+      }
+   }
+
+   public long getMisses() {
+      synchronized (entries) {
+         return misses;
+      }
+   }
+
+   @ClientListener
+   private final class InvalidationListener {
+      @ClientCacheEntryModified
+      public void entryModified(ClientCacheEntryModifiedEvent<K> event) {
+         invalidate(event.getKey());
+      }
+
+      @ClientCacheEntryRemoved
+      public void entryRemoved(ClientCacheEntryRemovedEvent<K> event) {
+         invalidate(event.getKey());
+      }
+
+      @ClientCacheFailover
+      public void failover(ClientCacheFailoverEvent event) {
+         if (log.isTraceEnabled()) {
+            log.trace("Client listener failed over, clearing the near cache");
+         }
+         clear();
+      }
+   }
+}
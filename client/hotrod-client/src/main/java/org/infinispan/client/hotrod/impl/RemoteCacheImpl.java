@@ -9,8 +9,10 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import org.infinispan.client.hotrod.Flag;
@@ -20,6 +22,7 @@
 import org.infinispan.client.hotrod.ServerStatistics;
 import org.infinispan.client.hotrod.Version;
 import org.infinispan.client.hotrod.VersionedValue;
+import org.infinispan.client.hotrod.configuration.NearCacheConfiguration;
 import org.infinispan.client.hotrod.event.ClientListenerNotifier;
 import org.infinispan.client.hotrod.exceptions.HotRodClientException;
 import org.infinispan.client.hotrod.exceptions.RemoteCacheManagerNotStartedException;
@@ -28,6 +31,8 @@
 import org.infinispan.client.hotrod.logging.LogFactory;
 import org.infinispan.client.hotrod.marshall.MarshallerUtil;
 import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.util.concurrent.CompletableNotifyingFuture;
+import org.infinispan.commons.util.concurrent.FutureListener;
 import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.commons.util.concurrent.NotifyingFutureImpl;
 
@@ -46,6 +51,7 @@
    private OperationsFactory operationsFactory;
    private int estimateKeySize;
    private int estimateValueSize;
+   private volatile NearCache<K, V> nearCache;
 
    public RemoteCacheImpl(RemoteCacheManager rcm, String name) {
       if (log.isTraceEnabled()) {
@@ -56,11 +62,21 @@ public RemoteCacheImpl(RemoteCacheManager rcm, String name) {
    }
 
    public void init(Marshaller marshaller, ExecutorService executorService, OperationsFactory operationsFactory, int estimateKeySize, int estimateValueSize) {
+      init(marshaller, executorService, operationsFactory, estimateKeySize, estimateValueSize, null);
+   }
+
+   public void init(Marshaller marshaller, ExecutorService executorService, OperationsFactory operationsFactory, int estimateKeySize, int estimateValueSize,
+         NearCacheConfiguration nearCacheConfiguration) {
       this.marshaller = marshaller;
       this.executorService = executorService;
       this.operationsFactory = operationsFactory;
       this.estimateKeySize = estimateKeySize;
       this.estimateValueSize = estimateValueSize;
+      if (nearCacheConfiguration != null && nearCacheConfiguration.mode().enabled()) {
+         this.nearCache = new NearCache<K, V>(nearCacheConfiguration.maxEntries());
+      } else {
+         this.nearCache = null;
+      }
    }
 
    public OperationsFactory getOperationsFactory() {
@@ -77,6 +93,7 @@ public boolean removeWithVersion(K key, long version) {
       assertRemoteCacheManagerIsStarted();
       RemoveIfUnmodifiedOperation op = operationsFactory.newRemoveIfUnmodifiedOperation(obj2bytes(key, true), version);
       VersionedOperationResponse response = op.execute();
+      invalidateNearCache(key);
       return response.getCode().isUpdated();
    }
 
@@ -114,6 +131,7 @@ public boolean replaceWithVersion(K key, V newValue, long version, int lifespanS
       assertRemoteCacheManagerIsStarted();
       ReplaceIfUnmodifiedOperation op = operationsFactory.newReplaceIfUnmodifiedOperation(obj2bytes(key, true), obj2bytes(newValue, false), lifespanSeconds, maxIdleTimeSeconds, version);
       VersionedOperationResponse response = op.execute();
+      invalidateNearCache(key);
       return response.getCode().isUpdated();
    }
 
@@ -165,8 +183,33 @@ public MetadataValue<V> getWithMetadata(K key) {
    @Override
    public void putAll(Map<? extends K, ? extends V> map, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
       assertRemoteCacheManagerIsStarted();
+      if (!operationsFactory.isMultiKeySupported()) {
+         for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue(), lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit);
+         }
+         return;
+      }
+      if (map.isEmpty()) {
+         return;
+      }
+      Map<byte[], byte[]> entries = new HashMap<byte[], byte[]>(map.size());
       for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
-         put(entry.getKey(), entry.getValue(), lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit);
+         entries.put(obj2bytes(entry.getKey(), true), obj2bytes(entry.getValue(), false));
+      }
+      int lifespanSecs = toSeconds(lifespan, lifespanUnit);
+      int maxIdleSecs = toSeconds(maxIdleTime, maxIdleTimeUnit);
+      applyDefaultExpirationFlags(lifespan, maxIdleTime);
+      if (log.isTraceEnabled()) {
+         log.tracef("About to add %d entries, lifespanSecs:%d, maxIdleSecs:%d", entries.size(), lifespanSecs, maxIdleSecs);
+      }
+      PutAllParallelOperation op = operationsFactory.newPutAllOperation(entries, lifespanSecs, maxIdleSecs);
+      try {
+         op.execute();
+      } finally {
+         // Some of the entries might have been stored even if the operation failed
+         for (K key : map.keySet()) {
+            invalidateNearCache(key);
+         }
       }
    }
 
@@ -221,49 +264,72 @@ public ServerStatistics stats() {
       for (Map.Entry<String, String> entry : statsMap.entrySet()) {
          stats.addStats(entry.getKey(), entry.getValue());
       }
+      NearCache<K, V> nearCache = this.nearCache;
+      if (nearCache != null) {
+         stats.addStats(ServerStatistics.NEAR_CACHE_HITS, String.valueOf(nearCache.getHits()));
+         stats.addStats(ServerStatistics.NEAR_CACHE_MISSES, String.valueOf(nearCache.getMisses()));
+      }
       return stats;
    }
 
    @Override
    public V put(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
       assertRemoteCacheManagerIsStarted();
+      PutOperation op = newPutOperation(key, value, lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit);
+      byte[] result = op.execute();
+      invalidateNearCache(key);
+      return MarshallerUtil.bytes2obj(marshaller, result);
+   }
+
+   private PutOperation newPutOperation(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
       int lifespanSecs = toSeconds(lifespan, lifespanUnit);
       int maxIdleSecs = toSeconds(maxIdleTime, maxIdleTimeUnit);
       applyDefaultExpirationFlags(lifespan, maxIdleTime);
       if (log.isTraceEnabled()) {
          log.tracef("About to add (K,V): (%s, %s) lifespanSecs:%d, maxIdleSecs:%d", key, value, lifespanSecs, maxIdleSecs);
       }
-      PutOperation op = operationsFactory.newPutKeyValueOperation(obj2bytes(key, true), obj2bytes(value, false), lifespanSecs, maxIdleSecs);
-      byte[] result = op.execute();
-      return MarshallerUtil.bytes2obj(marshaller, result);
+      return operationsFactory.newPutKeyValueOperation(obj2bytes(key, true), obj2bytes(value, false), lifespanSecs, maxIdleSecs);
    }
 
 
    @Override
    public V putIfAbsent(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
       assertRemoteCacheManagerIsStarted();
+      PutIfAbsentOperation op = newPutIfAbsentOperation(key, value, lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit);
+      byte[] bytes = op.execute();
+      invalidateNearCache(key);
+      return MarshallerUtil.bytes2obj(marshaller, bytes);
+   }
+
+   private PutIfAbsentOperation newPutIfAbsentOperation(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
       int lifespanSecs = toSeconds(lifespan, lifespanUnit);
       int maxIdleSecs = toSeconds(maxIdleTime, maxIdleTimeUnit);
       applyDefaultExpirationFlags(lifespan, maxIdleTime);
-      PutIfAbsentOperation op = operationsFactory.newPutIfAbsentOperation(obj2bytes(key, true), obj2bytes(value, false), lifespanSecs, maxIdleSecs);
-      byte[] bytes = op.execute();
-      return MarshallerUtil.bytes2obj(marshaller, bytes);
+      return operationsFactory.newPutIfAbsentOperation(obj2bytes(key, true), obj2bytes(value, false), lifespanSecs, maxIdleSecs);
    }
 
    @Override
    public V replace(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
       assertRemoteCacheManagerIsStarted();
+      ReplaceOperation op = newReplaceOperation(key, value, lifespan, lifespanUnit, maxIdleTime, maxIdleTimeUnit);
+      byte[] bytes = op.execute();
+      invalidateNearCache(key);
+      return MarshallerUtil.bytes2obj(marshaller, bytes);
+   }
+
+   private ReplaceOperation newReplaceOperation(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdleTime, TimeUnit maxIdleTimeUnit) {
       int lifespanSecs = toSeconds(lifespan, lifespanUnit);
       int maxIdleSecs = toSeconds(maxIdleTime, maxIdleTimeUnit);
       applyDefaultExpirationFlags(lifespan, maxIdleTime);
-      ReplaceOperation op = operationsFactory.newReplaceOperation(obj2bytes(key, true), obj2bytes(value, false), lifespanSecs, maxIdleSecs);
-      byte[] bytes = op.execute();
-      return MarshallerUtil.bytes2obj(marshaller, bytes);
+      return operationsFactory.newReplaceOperation(obj2bytes(key, true), obj2bytes(value, false), lifespanSecs, maxIdleSecs);
    }
 
    @Override
    public NotifyingFuture<V> putAsync(final K key, final V value, final long lifespan, final TimeUnit lifespanUnit, final long maxIdle, final TimeUnit maxIdleUnit) {
       assertRemoteCacheManagerIsStarted();
+      if (operationsFactory.isAsyncSupported()) {
+         return unmarshallAsync(newPutOperation(key, value, lifespan, lifespanUnit, maxIdle, maxIdleUnit).executeAsync(), key);
+      }
       final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
       Future<V> future = executorService.submit(new Callable<V>() {
          @Override
@@ -293,6 +359,9 @@ public V call() throws Exception {
    @Override
    public NotifyingFuture<Void> clearAsync() {
       assertRemoteCacheManagerIsStarted();
+      if (operationsFactory.isAsyncSupported()) {
+         return clearNearCacheOnCompletion(operationsFactory.newClearOperation().executeAsync());
+      }
       final NotifyingFutureImpl<Void> result = new NotifyingFutureImpl<Void>();
       Future<Void> future = executorService.submit(new Callable<Void>() {
          @Override
@@ -322,6 +391,9 @@ public Void call() throws Exception {
    @Override
    public NotifyingFuture<V> putIfAbsentAsync(final K key,final V value,final long lifespan,final TimeUnit lifespanUnit,final long maxIdle,final TimeUnit maxIdleUnit) {
       assertRemoteCacheManagerIsStarted();
+      if (operationsFactory.isAsyncSupported()) {
+         return unmarshallAsync(newPutIfAbsentOperation(key, value, lifespan, lifespanUnit, maxIdle, maxIdleUnit).executeAsync(), key);
+      }
       final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
       Future<V> future = executorService.submit(new Callable<V>() {
          @Override
@@ -351,6 +423,9 @@ public V call() throws Exception {
    @Override
    public NotifyingFuture<V> removeAsync(final Object key) {
       assertRemoteCacheManagerIsStarted();
+      if (operationsFactory.isAsyncSupported()) {
+         return unmarshallAsync(operationsFactory.newRemoveOperation(obj2bytes(key, true)).executeAsync(), key);
+      }
       final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
       Future<V> future = executorService.submit(new Callable<V>() {
          @Override
@@ -380,6 +455,9 @@ public V call() throws Exception {
    @Override
    public NotifyingFuture<V> replaceAsync(final K key,final V value,final long lifespan,final TimeUnit lifespanUnit,final long maxIdle,final TimeUnit maxIdleUnit) {
       assertRemoteCacheManagerIsStarted();
+      if (operationsFactory.isAsyncSupported()) {
+         return unmarshallAsync(newReplaceOperation(key, value, lifespan, lifespanUnit, maxIdle, maxIdleUnit).executeAsync(), key);
+      }
       final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
       Future<V> future = executorService.submit(new Callable<V>() {
          @Override
@@ -416,10 +494,27 @@ public boolean containsKey(Object key) {
    @Override
    public V get(Object key) {
       assertRemoteCacheManagerIsStarted();
+      NearCache<K, V> nearCache = this.nearCache;
+      long invalidationCount = 0;
+      if (nearCache != null) {
+         V cached = getFromNearCache(nearCache, key);
+         if (cached != null) {
+            return cached;
+         }
+         invalidationCount = nearCache.invalidationCount();
+      }
       byte[] keyBytes = obj2bytes(key, true);
-      GetOperation gco = operationsFactory.newGetKeyOperation(keyBytes);
-      byte[] bytes = gco.execute();
-      V result = MarshallerUtil.bytes2obj(marshaller, bytes);
+      V result;
+      if (nearCache != null) {
+         // the near cache needs to know whether the entry expires
+         MetadataValue<V> value = binary2MetadataValue(operationsFactory.newGetWithMetadataOperation(keyBytes).execute());
+         nearCache.putIfNotInvalidated(key, value, invalidationCount);
+         result = value != null ? value.getValue() : null;
+      } else {
+         GetOperation gco = operationsFactory.newGetKeyOperation(keyBytes);
+         byte[] bytes = gco.execute();
+         result = MarshallerUtil.bytes2obj(marshaller, bytes);
+      }
       if (log.isTraceEnabled()) {
          log.tracef("For key(%s) returning %s", key, result);
       }
@@ -445,11 +540,59 @@ public Map<K, V> getBulk(int size) {
       return Collections.unmodifiableMap(toReturn);
    }
 
+   @Override
+   public Map<K, V> getAll(Set<? extends K> keys) {
+      assertRemoteCacheManagerIsStarted();
+      Map<K, V> result = new HashMap<K, V>();
+      Set<K> missingKeys = new HashSet<K>();
+      NearCache<K, V> nearCache = this.nearCache;
+      if (nearCache != null) {
+         for (K key : keys) {
+            V cached = nearCache.get(key);
+            if (cached != null) {
+               result.put(key, cached);
+            } else {
+               missingKeys.add(key);
+            }
+         }
+      } else {
+         missingKeys.addAll(keys);
+      }
+      if (missingKeys.isEmpty()) {
+         // the flags would otherwise apply to the next operation
+         operationsFactory.clearFlags();
+         return Collections.unmodifiableMap(result);
+      }
+      if (!operationsFactory.isMultiKeySupported()) {
+         for (K key : missingKeys) {
+            V value = get(key);
+            if (value != null) {
+               result.put(key, value);
+            }
+         }
+         return Collections.unmodifiableMap(result);
+      }
+      Set<byte[]> keyBytes = new HashSet<byte[]>(missingKeys.size());
+      for (K key : missingKeys) {
+         keyBytes.add(obj2bytes(key, true));
+      }
+      // The values are not cached in the near cache, as it can't tell whether they expire without their metadata
+      GetAllParallelOperation op = operationsFactory.newGetAllOperation(keyBytes);
+      Map<byte[], byte[]> entries = op.execute();
+      for (Map.Entry<byte[], byte[]> entry : entries.entrySet()) {
+         K key = MarshallerUtil.bytes2obj(marshaller, entry.getKey());
+         V value = MarshallerUtil.bytes2obj(marshaller, entry.getValue());
+         result.put(key, value);
+      }
+      return Collections.unmodifiableMap(result);
+   }
+
    @Override
    public V remove(Object key) {
       assertRemoteCacheManagerIsStarted();
       RemoveOperation removeOperation = operationsFactory.newRemoveOperation(obj2bytes(key, true));
       byte[] existingValue = removeOperation.execute();
+      invalidateNearCache(key);
       // TODO: It sucks that you need the prev value to see if it works...
       // We need to find a better API for RemoteCache...
       return MarshallerUtil.bytes2obj(marshaller, existingValue);
@@ -460,20 +603,48 @@ public void clear() {
       assertRemoteCacheManagerIsStarted();
       ClearOperation op = operationsFactory.newClearOperation() ;
       op.execute();
+      NearCache<K, V> nearCache = this.nearCache;
+      if (nearCache != null) {
+         nearCache.clear();
+      }
    }
 
    @Override
    public void start() {
-      if (log.isDebugEnabled()) {
-         log.debugf("Start called, nothing to do here(%s)", getName());
+      NearCache<K, V> nearCache = this.nearCache;
+      if (nearCache == null) {
+         if (log.isDebugEnabled()) {
+            log.debugf("Start called, nothing to do here(%s)", getName());
+         }
+         return;
+      }
+      try {
+         nearCache.start(this);
+      } catch (HotRodClientException e) {
+         // Without the events the cached values could be stale
+         log.nearCacheListenerNotAdded(getName(), e);
+         this.nearCache = null;
       }
    }
 
    @Override
    public void stop() {
-      if (log.isDebugEnabled()) {
-         log.debugf("Stop called, nothing to do here(%s)", getName());
+      NearCache<K, V> nearCache = this.nearCache;
+      if (nearCache == null) {
+         if (log.isDebugEnabled()) {
+            log.debugf("Stop called, nothing to do here(%s)", getName());
+         }
+         return;
       }
+      // The listener is already removed if the remote cache manager was stopped
+      nearCache.stop(this, remoteCacheManager.isStarted());
+   }
+
+   /**
+    * @return the near cache of the values read by this cache, or {@code null} if it is disabled
+    */
+   public NearCache<K, V> getNearCache() {
+      return nearCache;
    }
 
    @Override
@@ -543,6 +714,19 @@ public RemoteCache<K, V> withFlags(Flag... flags) {
    @Override
    public NotifyingFuture<V> getAsync(final K key) {
       assertRemoteCacheManagerIsStarted();
+      if (operationsFactory.isAsyncSupported()) {
+         NearCache<K, V> nearCache = this.nearCache;
+         if (nearCache == null) {
+            return unmarshallAsync(operationsFactory.newGetKeyOperation(obj2bytes(key, true)).executeAsync(), null);
+         }
+         V cached = getFromNearCache(nearCache, key);
+         if (cached != null) {
+            return CompletableNotifyingFuture.completedFuture(cached);
+         }
+         long invalidationCount = nearCache.invalidationCount();
+         return cacheAsync(operationsFactory.newGetWithMetadataOperation(obj2bytes(key, true)).executeAsync(),
+               nearCache, key, invalidationCount);
+      }
       final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
       Future<V> future = executorService.submit(new Callable<V>() {
          @Override
@@ -569,6 +753,125 @@ public V call() throws Exception {
       return result;
    }
 
+   /**
+    * Completes the returned future with the unmarshalled value. The written key, if any, is invalidated in the near
+    * cache before the future completes.
+    */
+   private NotifyingFuture<V> unmarshallAsync(NotifyingFuture<byte[]> operationFuture, final Object writtenKey) {
+      final CompletableNotifyingFuture<V> result = new CompletableNotifyingFuture<V>();
+      onCompletion(operationFuture, new FutureListener<byte[]>() {
+         @Override
+         public void futureDone(Future<byte[]> future) {
+            if (writtenKey != null) {
+               invalidateNearCache(writtenKey);
+            }
+            try {
+               result.complete(MarshallerUtil.<V>bytes2obj(marshaller, future.get()));
+            } catch (ExecutionException e) {
+               result.completeExceptionally(e.getCause());
+            } catch (Throwable t) {
+               result.completeExceptionally(t);
+            }
+         }
+      });
+      return result;
+   }
+
+   /**
+    * Completes the returned future with the value read, which is cached in the near cache before, if it was not
+    * invalidated since the read started.
+    */
+   private NotifyingFuture<V> cacheAsync(NotifyingFuture<MetadataValue<byte[]>> operationFuture,
+                                         final NearCache<K, V> nearCache, final Object key, final long invalidationCount) {
+      final CompletableNotifyingFuture<V> result = new CompletableNotifyingFuture<V>();
+      onCompletion(operationFuture, new FutureListener<MetadataValue<byte[]>>() {
+         @Override
+         public void futureDone(Future<MetadataValue<byte[]>> future) {
+            try {
+               MetadataValue<V> value = binary2MetadataValue(future.get());
+               nearCache.putIfNotInvalidated(key, value, invalidationCount);
+               result.complete(value != null ? value.getValue() : null);
+            } catch (ExecutionException e) {
+               result.completeExceptionally(e.getCause());
+            } catch (Throwable t) {
+               result.completeExceptionally(t);
+            }
+         }
+      });
+      return result;
+   }
+
+   private NotifyingFuture<Void> clearNearCacheOnCompletion(NotifyingFuture<Void> operationFuture) {
+      final NearCache<K, V> nearCache = this.nearCache;
+      final CompletableNotifyingFuture<Void> result = new CompletableNotifyingFuture<Void>();
+      onCompletion(operationFuture, new FutureListener<Void>() {
+         @Override
+         public void futureDone(Future<Void> future) {
+            if (nearCache != null) {
+               nearCache.clear();
+            }
+            try {
+               result.complete(future.get());
+            } catch (ExecutionException e) {
+               result.completeExceptionally(e.getCause());
+            } catch (Throwable t) {
+               result.completeExceptionally(t);
+            }
+         }
+      });
+      return result;
+   }
+
+   /**
+    * Invokes the listener on the async executor once the operation is done. The operation is completed by the Netty
+    * thread receiving the response, which must not run the listeners of the returned futures: they could invoke
+    * synchronous operations, which would wait for a response that only the same thread can receive.
+    */
+   private <T> void onCompletion(NotifyingFuture<T> operationFuture, final FutureListener<T> listener) {
+      operationFuture.attachListener(new FutureListener<T>() {
+         @Override
+         public void futureDone(final Future<T> future) {
+            try {
+               executorService.execute(new Runnable() {
+                  @Override
+                  public void run() {
+                     listener.futureDone(future);
+                  }
+               });
+            } catch (RejectedExecutionException e) {
+               // The cache manager is stopping
+               listener.futureDone(future);
+            }
+         }
+      });
+   }
+
+   /**
+    * @return the value cached in the near cache, or {@code null} if it must be read from the server
+    */
+   private V getFromNearCache(NearCache<K, V> nearCache, Object key) {
+      V cached = nearCache.get(key);
+      if (cached != null) {
+         // no operation is created, the flags would otherwise apply to the next one
+         operationsFactory.clearFlags();
+         if (log.isTraceEnabled()) {
+            log.tracef("For key(%s) returning %s from the near cache", key, cached);
+         }
+      }
+      return cached;
+   }
+
+   /**
+    * Invalidates a key written by this client, so that its next read goes to the server even if the event of the
+    * write hasn't been received yet.
+    */
+   private void invalidateNearCache(Object key) {
+      NearCache<K, V> nearCache = this.nearCache;
+      if (nearCache != null) {
+         nearCache.invalidate(key);
+      }
+   }
+
    public PingOperation.PingResult ping() {
       return operationsFactory.newFaultTolerantPingOperation().execute();
    }
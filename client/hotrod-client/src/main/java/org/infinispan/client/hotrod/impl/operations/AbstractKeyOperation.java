@@ -45,14 +45,19 @@ protected Transport getTransport(int retryCount, Set<SocketAddress> failedServer
 
    protected short sendKeyOperation(byte[] key, Transport transport, byte opCode, byte opRespCode) {
       // 1) write [header][key length][key]
-      HeaderParams params = writeHeader(transport, opCode);
-      transport.writeArray(key);
+      HeaderParams params = writeKeyRequest(key, transport, opCode);
       transport.flush();
 
       // 2) now read the header
       return readHeaderAndValidate(transport, params);
    }
 
+   protected HeaderParams writeKeyRequest(byte[] key, Transport transport, short opCode) {
+      HeaderParams params = writeHeader(transport, opCode);
+      transport.writeArray(key);
+      return params;
+   }
+
    protected byte[] returnPossiblePrevValue(Transport transport, short status) {
       return codec.returnPossiblePrevValue(transport, status, flags);
    }
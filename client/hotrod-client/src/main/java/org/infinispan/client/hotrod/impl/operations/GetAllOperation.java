@@ -0,0 +1,65 @@
+package org.infinispan.client.hotrod.impl.operations;
+
+import java.net.SocketAddress;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.jcip.annotations.Immutable;
+import org.infinispan.client.hotrod.Flag;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
+import org.infinispan.client.hotrod.impl.transport.Transport;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+
+/**
+ * Reads the values of a group of keys with a single request. The request is sent to the server owning the keys, and
+ * retried on any other server, as the servers can read the keys they don't own from the cluster.
+ *
+ * @since 7.1
+ */
+@Immutable
+public class GetAllOperation extends RetryOnFailureOperation<Map<byte[], byte[]>> {
+
+   private final Collection<byte[]> keys;
+   private final SocketAddress server;
+
+   public GetAllOperation(Codec codec, TransportFactory transportFactory, byte[] cacheName, AtomicInteger topologyId,
+                          Flag[] flags, Collection<byte[]> keys, SocketAddress server) {
+      super(codec, transportFactory, cacheName, topologyId, flags);
+      this.keys = keys;
+      this.server = server;
+   }
+
+   @Override
+   protected Transport getTransport(int retryCount, Set<SocketAddress> failedServers) {
+      if (retryCount == 0 && server != null) {
+         return transportFactory.getAddressTransport(server);
+      } else {
+         return transportFactory.getTransport(failedServers, cacheName);
+      }
+   }
+
+   @Override
+   protected HeaderParams writeRequest(Transport transport) {
+      HeaderParams params = writeHeader(transport, GET_ALL_REQUEST);
+      transport.writeVInt(keys.size());
+      for (byte[] key : keys) {
+         transport.writeArray(key);
+      }
+      return params;
+   }
+
+   @Override
+   protected Map<byte[], byte[]> readResponse(Transport transport, HeaderParams params) {
+      readHeaderAndValidate(transport, params);
+      int size = transport.readVInt();
+      Map<byte[], byte[]> result = new HashMap<byte[], byte[]>(size);
+      for (int i = 0; i < size; i++) {
+         result.put(transport.readArray(), transport.readArray());
+      }
+      return result;
+   }
+}
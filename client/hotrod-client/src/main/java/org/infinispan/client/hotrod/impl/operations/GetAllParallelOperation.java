@@ -0,0 +1,61 @@
+package org.infinispan.client.hotrod.impl.operations;
+
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.jcip.annotations.Immutable;
+import org.infinispan.client.hotrod.Flag;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+
+/**
+ * Reads the values of a set of keys with one {@link GetAllOperation} per server owning some of the keys.
+ *
+ * @since 7.1
+ */
+@Immutable
+public class GetAllParallelOperation extends ParallelHotRodOperation<Map<byte[], byte[]>> {
+
+   private final Set<byte[]> keys;
+
+   public GetAllParallelOperation(Codec codec, TransportFactory transportFactory, byte[] cacheName,
+                                  AtomicInteger topologyId, Flag[] flags, Set<byte[]> keys) {
+      super(codec, transportFactory, cacheName, topologyId, flags);
+      this.keys = keys;
+   }
+
+   @Override
+   protected List<GetAllOperation> mapOperations() {
+      Map<SocketAddress, Collection<byte[]>> keysByServer = new HashMap<SocketAddress, Collection<byte[]>>();
+      for (byte[] key : keys) {
+         SocketAddress server = getServer(key);
+         Collection<byte[]> serverKeys = keysByServer.get(server);
+         if (serverKeys == null) {
+            serverKeys = new ArrayList<byte[]>();
+            keysByServer.put(server, serverKeys);
+         }
+         serverKeys.add(key);
+      }
+      List<GetAllOperation> operations = new ArrayList<GetAllOperation>(keysByServer.size());
+      for (Map.Entry<SocketAddress, Collection<byte[]>> entry : keysByServer.entrySet()) {
+         operations.add(new GetAllOperation(codec, transportFactory, cacheName, topologyId, flags,
+               entry.getValue(), entry.getKey()));
+      }
+      return operations;
+   }
+
+   @Override
+   protected Map<byte[], byte[]> reduce(List<Map<byte[], byte[]>> results) {
+      Map<byte[], byte[]> entries = new HashMap<byte[], byte[]>();
+      for (Map<byte[], byte[]> result : results) {
+         entries.putAll(result);
+      }
+      return entries;
+   }
+}
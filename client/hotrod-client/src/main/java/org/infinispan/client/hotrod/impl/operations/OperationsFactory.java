@@ -17,6 +17,8 @@
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -60,6 +62,22 @@ public ClientListenerNotifier getListenerNotifier() {
       return listenerNotifier;
    }
 
+   /**
+    * @return {@code true} if the operations supporting it can be executed without blocking, see
+    *         {@link RetryOnFailureOperation#executeAsync()}
+    */
+   public boolean isAsyncSupported() {
+      return transportFactory.isAsyncSupported();
+   }
+
+   /**
+    * @return {@code true} if the protocol version has the multi-key operations, see
+    *         {@link #newGetAllOperation(Set)} and {@link #newPutAllOperation(Map, int, int)}
+    */
+   public boolean isMultiKeySupported() {
+      return codec.isMultiKeySupported();
+   }
+
    public byte[] getCacheName() {
       return cacheNameBytes;
    }
@@ -137,6 +155,18 @@ public BulkGetOperation newBulkGetOperation(int size) {
             codec, transportFactory, cacheNameBytes, topologyId, flags(), size);
    }
 
+   public GetAllParallelOperation newGetAllOperation(Set<byte[]> keys) {
+      return new GetAllParallelOperation(
+            codec, transportFactory, cacheNameBytes, topologyId, flags(), keys);
+   }
+
+   public PutAllParallelOperation newPutAllOperation(Map<byte[], byte[]> entries,
+            int lifespanSecs, int maxIdleSecs) {
+      return new PutAllParallelOperation(
+            codec, transportFactory, cacheNameBytes, topologyId, flags(),
+            entries, lifespanSecs, maxIdleSecs);
+   }
+
    public BulkGetKeysOperation newBulkGetKeysOperation(int scope) {
       return new BulkGetKeysOperation(
          codec, transportFactory, cacheNameBytes, topologyId, flags(), scope);
@@ -204,6 +234,14 @@ private Flag[] flags() {
       return flags != null ? flags.toArray(new Flag[0]) : null;
    }
 
+   /**
+    * Clears the flags set for the next operation of the current thread, when the invocation is completed without
+    * creating an operation, e.g. by a near cache hit.
+    */
+   public void clearFlags() {
+      this.flagsMap.remove();
+   }
+
    public void setFlags(Flag[] flags) {
       List<Flag> list = new ArrayList<Flag>();
       for(Flag flag : flags)
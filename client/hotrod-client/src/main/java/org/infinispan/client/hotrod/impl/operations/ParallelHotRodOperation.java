@@ -0,0 +1,155 @@
+package org.infinispan.client.hotrod.impl.operations;
+
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.jcip.annotations.Immutable;
+import org.infinispan.client.hotrod.Flag;
+import org.infinispan.client.hotrod.exceptions.HotRodClientException;
+import org.infinispan.client.hotrod.exceptions.RemoteIllegalLifecycleStateException;
+import org.infinispan.client.hotrod.exceptions.RemoteNodeSuspectException;
+import org.infinispan.client.hotrod.exceptions.TransportException;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
+import org.infinispan.client.hotrod.impl.transport.Transport;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
+
+/**
+ * Base class for the multi-key operations, which are split into one operation per server owning some of the keys, see
+ * {@link TransportFactory#getServer(byte[], byte[])}. The operations of the different servers are in flight at the same
+ * time, so the whole operation costs a single round trip.
+ * <p/>
+ * When the transport factory {@link TransportFactory#isAsyncSupported() supports it}, the operations are executed with
+ * {@link RetryOnFailureOperation#executeAsync()}. Otherwise all the requests are written before reading any response,
+ * and the operations whose attempt failed are then retried one at a time with {@link RetryOnFailureOperation#execute()}.
+ *
+ * @since 7.1
+ * @param T the return type of this operation and of the operations of each server
+ */
+@Immutable
+public abstract class ParallelHotRodOperation<T> extends HotRodOperation {
+
+   protected final TransportFactory transportFactory;
+
+   protected ParallelHotRodOperation(Codec codec, TransportFactory transportFactory, byte[] cacheName,
+                                     AtomicInteger topologyId, Flag[] flags) {
+      super(codec, flags, cacheName, topologyId);
+      this.transportFactory = transportFactory;
+   }
+
+   /**
+    * @return the operations of the servers owning the keys, the keys of a {@code null} server can go to any server
+    */
+   protected abstract List<? extends RetryOnFailureOperation<T>> mapOperations();
+
+   /**
+    * Merges the results of the operations returned by {@link #mapOperations()}.
+    */
+   protected abstract T reduce(List<T> results);
+
+   protected SocketAddress getServer(byte[] key) {
+      return transportFactory.getServer(key, cacheName);
+   }
+
+   @Override
+   public T execute() {
+      List<? extends RetryOnFailureOperation<T>> operations = mapOperations();
+      if (operations.size() == 1) {
+         return operations.get(0).execute();
+      }
+      List<T> results;
+      if (transportFactory.isAsyncSupported()) {
+         results = executeAsync(operations);
+      } else {
+         results = executePipelined(operations);
+      }
+      return reduce(results);
+   }
+
+   private List<T> executeAsync(List<? extends RetryOnFailureOperation<T>> operations) {
+      List<NotifyingFuture<T>> futures = new ArrayList<NotifyingFuture<T>>(operations.size());
+      for (RetryOnFailureOperation<T> operation : operations) {
+         futures.add(operation.executeAsync());
+      }
+      List<T> results = new ArrayList<T>(operations.size());
+      for (NotifyingFuture<T> future : futures) {
+         try {
+            results.add(future.get());
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HotRodClientException(e);
+         } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+               throw (RuntimeException) e.getCause();
+            }
+            throw new HotRodClientException(e.getCause());
+         }
+      }
+      return results;
+   }
+
+   private List<T> executePipelined(List<? extends RetryOnFailureOperation<T>> operations) {
+      int count = operations.size();
+      Transport[] transports = new Transport[count];
+      HeaderParams[] params = new HeaderParams[count];
+      List<RetryOnFailureOperation<T>> failed = new ArrayList<RetryOnFailureOperation<T>>();
+      List<T> results = new ArrayList<T>(count);
+      HotRodClientException error = null;
+      try {
+         for (int i = 0; i < count; i++) {
+            RetryOnFailureOperation<T> operation = operations.get(i);
+            try {
+               transports[i] = operation.getTransport(0, null);
+               params[i] = operation.writeRequest(transports[i]);
+               transports[i].flush();
+            } catch (TransportException te) {
+               if (transports[i] != null) {
+                  transportFactory.invalidateTransport(te.getServerAddress(), transports[i]);
+                  transportFactory.releaseTransport(transports[i]);
+                  transports[i] = null;
+               }
+               failed.add(operation);
+            }
+         }
+         for (int i = 0; i < count; i++) {
+            if (transports[i] == null) {
+               continue;
+            }
+            RetryOnFailureOperation<T> operation = operations.get(i);
+            try {
+               results.add(operation.readResponse(transports[i], params[i]));
+            } catch (TransportException te) {
+               transportFactory.invalidateTransport(te.getServerAddress(), transports[i]);
+               failed.add(operation);
+            } catch (RemoteNodeSuspectException | RemoteIllegalLifecycleStateException e) {
+               failed.add(operation);
+            } catch (HotRodClientException e) {
+               // The error response was read, keep reading the responses of the other servers
+               if (error == null) {
+                  error = e;
+               }
+            } finally {
+               transportFactory.releaseTransport(transports[i]);
+               transports[i] = null;
+            }
+         }
+      } finally {
+         for (Transport transport : transports) {
+            if (transport != null) {
+               transportFactory.releaseTransport(transport);
+            }
+         }
+      }
+      if (error != null) {
+         throw error;
+      }
+      for (RetryOnFailureOperation<T> operation : failed) {
+         results.add(operation.execute());
+      }
+      return results;
+   }
+}
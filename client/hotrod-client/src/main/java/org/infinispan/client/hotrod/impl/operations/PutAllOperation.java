@@ -0,0 +1,65 @@
+package org.infinispan.client.hotrod.impl.operations;
+
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.jcip.annotations.Immutable;
+import org.infinispan.client.hotrod.Flag;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
+import org.infinispan.client.hotrod.impl.transport.Transport;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+
+/**
+ * Stores a group of entries with a single request. The request is sent to the server owning the keys, and retried on
+ * any other server.
+ *
+ * @since 7.1
+ */
+@Immutable
+public class PutAllOperation extends RetryOnFailureOperation<Void> {
+
+   private final Map<byte[], byte[]> entries;
+   private final int lifespan;
+   private final int maxIdle;
+   private final SocketAddress server;
+
+   public PutAllOperation(Codec codec, TransportFactory transportFactory, byte[] cacheName, AtomicInteger topologyId,
+                          Flag[] flags, Map<byte[], byte[]> entries, int lifespan, int maxIdle, SocketAddress server) {
+      super(codec, transportFactory, cacheName, topologyId, flags);
+      this.entries = entries;
+      this.lifespan = lifespan;
+      this.maxIdle = maxIdle;
+      this.server = server;
+   }
+
+   @Override
+   protected Transport getTransport(int retryCount, Set<SocketAddress> failedServers) {
+      if (retryCount == 0 && server != null) {
+         return transportFactory.getAddressTransport(server);
+      } else {
+         return transportFactory.getTransport(failedServers, cacheName);
+      }
+   }
+
+   @Override
+   protected HeaderParams writeRequest(Transport transport) {
+      HeaderParams params = writeHeader(transport, PUT_ALL_REQUEST);
+      transport.writeVInt(lifespan);
+      transport.writeVInt(maxIdle);
+      transport.writeVInt(entries.size());
+      for (Map.Entry<byte[], byte[]> entry : entries.entrySet()) {
+         transport.writeArray(entry.getKey());
+         transport.writeArray(entry.getValue());
+      }
+      return params;
+   }
+
+   @Override
+   protected Void readResponse(Transport transport, HeaderParams params) {
+      readHeaderAndValidate(transport, params);
+      return null;
+   }
+}
@@ -0,0 +1,60 @@
+package org.infinispan.client.hotrod.impl.operations;
+
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.jcip.annotations.Immutable;
+import org.infinispan.client.hotrod.Flag;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+
+/**
+ * Stores a map of entries with one {@link PutAllOperation} per server owning some of the keys.
+ *
+ * @since 7.1
+ */
+@Immutable
+public class PutAllParallelOperation extends ParallelHotRodOperation<Void> {
+
+   private final Map<byte[], byte[]> entries;
+   private final int lifespan;
+   private final int maxIdle;
+
+   public PutAllParallelOperation(Codec codec, TransportFactory transportFactory, byte[] cacheName,
+                                  AtomicInteger topologyId, Flag[] flags, Map<byte[], byte[]> entries,
+                                  int lifespan, int maxIdle) {
+      super(codec, transportFactory, cacheName, topologyId, flags);
+      this.entries = entries;
+      this.lifespan = lifespan;
+      this.maxIdle = maxIdle;
+   }
+
+   @Override
+   protected List<PutAllOperation> mapOperations() {
+      Map<SocketAddress, Map<byte[], byte[]>> entriesByServer = new HashMap<SocketAddress, Map<byte[], byte[]>>();
+      for (Map.Entry<byte[], byte[]> entry : entries.entrySet()) {
+         SocketAddress server = getServer(entry.getKey());
+         Map<byte[], byte[]> serverEntries = entriesByServer.get(server);
+         if (serverEntries == null) {
+            serverEntries = new HashMap<byte[], byte[]>();
+            entriesByServer.put(server, serverEntries);
+         }
+         serverEntries.put(entry.getKey(), entry.getValue());
+      }
+      List<PutAllOperation> operations = new ArrayList<PutAllOperation>(entriesByServer.size());
+      for (Map.Entry<SocketAddress, Map<byte[], byte[]>> entry : entriesByServer.entrySet()) {
+         operations.add(new PutAllOperation(codec, transportFactory, cacheName, topologyId, flags,
+               entry.getValue(), lifespan, maxIdle, entry.getKey()));
+      }
+      return operations;
+   }
+
+   @Override
+   protected Void reduce(List<Void> results) {
+      return null;
+   }
+}
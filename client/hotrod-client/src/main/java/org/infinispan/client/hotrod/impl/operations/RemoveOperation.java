@@ -3,6 +3,7 @@
 import net.jcip.annotations.Immutable;
 import org.infinispan.client.hotrod.Flag;
 import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
 import org.infinispan.client.hotrod.impl.transport.Transport;
 import org.infinispan.client.hotrod.impl.transport.TransportFactory;
 
@@ -24,8 +25,13 @@ public RemoveOperation(Codec codec, TransportFactory transportFactory,
    }
 
    @Override
-   public byte[] executeOperation(Transport transport) {
-      short status = sendKeyOperation(key, transport, REMOVE_REQUEST, REMOVE_RESPONSE);
+   protected HeaderParams writeRequest(Transport transport) {
+      return writeKeyRequest(key, transport, REMOVE_REQUEST);
+   }
+
+   @Override
+   protected byte[] readResponse(Transport transport, HeaderParams params) {
+      short status = readHeaderAndValidate(transport, params);
       byte[] result = returnPossiblePrevValue(transport, status);
       if (status == KEY_DOES_NOT_EXIST_STATUS)
          return null;
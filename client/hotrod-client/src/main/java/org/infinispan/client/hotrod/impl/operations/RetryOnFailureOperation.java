@@ -7,10 +7,15 @@
 import org.infinispan.client.hotrod.exceptions.RemoteNodeSuspectException;
 import org.infinispan.client.hotrod.exceptions.TransportException;
 import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
+import org.infinispan.client.hotrod.impl.transport.AsyncTransport;
+import org.infinispan.client.hotrod.impl.transport.ResponseHandler;
 import org.infinispan.client.hotrod.impl.transport.Transport;
 import org.infinispan.client.hotrod.impl.transport.TransportFactory;
 import org.infinispan.client.hotrod.logging.Log;
 import org.infinispan.client.hotrod.logging.LogFactory;
+import org.infinispan.commons.util.concurrent.CompletableNotifyingFuture;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 
 import java.net.SocketAddress;
 import java.util.HashSet;
@@ -20,6 +25,9 @@
 /**
  * Base class for all the operations that need retry logic: if the operation fails due to connection problems, try with 
  * another available connection.
+ * <p/>
+ * The operations implementing {@link #writeRequest(Transport)} and {@link #readResponse(Transport, HeaderParams)}
+ * instead of {@link #executeOperation(Transport)} can also be executed without blocking with {@link #executeAsync()}.
  *
  * @author Mircea.Markus@jboss.com
  * @since 4.1
@@ -75,6 +83,65 @@ public T execute() {
       throw new IllegalStateException("We should not reach here!");
    }
 
+   /**
+    * Executes the operation without blocking, if the transport factory {@link TransportFactory#isAsyncSupported()
+    * supports it}. The returned future is completed by the thread receiving the response, and the failed attempts are
+    * retried like with {@link #execute()}, from the thread that noticed the failure.
+    */
+   public NotifyingFuture<T> executeAsync() {
+      CompletableNotifyingFuture<T> future = new CompletableNotifyingFuture<T>();
+      executeAsync(future, 0, null);
+      return future;
+   }
+
+   private void executeAsync(CompletableNotifyingFuture<T> future, int retryCount, Set<SocketAddress> failedServers) {
+      Transport transport = null;
+      T response;
+      try {
+         transport = getTransport(retryCount, failedServers);
+         HeaderParams params = writeRequest(transport);
+         if (transport instanceof AsyncTransport) {
+            ((AsyncTransport) transport).flush(new AsyncResponseHandler(future, retryCount, failedServers, transport, params));
+            return;
+         }
+         // The transport factory doesn't support asynchronous responses, wait for it
+         transport.flush();
+         response = readResponse(transport, params);
+      } catch (Throwable t) {
+         attemptFailed(future, retryCount, failedServers, transport, t);
+         return;
+      }
+      releaseTransport(transport);
+      future.complete(response);
+   }
+
+   private void attemptFailed(CompletableNotifyingFuture<T> future, int retryCount, Set<SocketAddress> failedServers,
+                              Transport transport, Throwable cause) {
+      if (cause instanceof TransportException) {
+         TransportException te = (TransportException) cause;
+         if (failedServers == null) {
+            failedServers = new HashSet<SocketAddress>();
+         }
+         failedServers.add(te.getServerAddress());
+         if (transport != null) {
+            transportFactory.invalidateTransport(te.getServerAddress(), transport);
+         }
+      }
+      releaseTransport(transport);
+      if (cause instanceof TransportException || cause instanceof RemoteNodeSuspectException
+            || cause instanceof RemoteIllegalLifecycleStateException) {
+         try {
+            logErrorAndThrowExceptionIfNeeded(retryCount, (HotRodClientException) cause);
+         } catch (HotRodClientException e) {
+            future.completeExceptionally(e);
+            return;
+         }
+         executeAsync(future, retryCount + 1, failedServers);
+      } else {
+         future.completeExceptionally(cause);
+      }
+   }
+
    protected boolean shouldRetry(int retryCount) {
       return retryCount <= transportFactory.getMaxRetries();
    }
@@ -96,5 +163,57 @@ protected void releaseTransport(Transport transport) {
 
    protected abstract Transport getTransport(int retryCount, Set<SocketAddress> failedServers);
 
-   protected abstract T executeOperation(Transport transport);
+   protected T executeOperation(Transport transport) {
+      HeaderParams params = writeRequest(transport);
+      transport.flush();
+      return readResponse(transport, params);
+   }
+
+   /**
+    * Writes the request without flushing it.
+    */
+   protected HeaderParams writeRequest(Transport transport) {
+      throw new UnsupportedOperationException(getClass().getSimpleName() + " cannot be executed asynchronously");
+   }
+
+   /**
+    * Reads the response of the request written by {@link #writeRequest(Transport)}. When the operation is executed
+    * asynchronously, it can be invoked more than once, see {@link ResponseHandler#readResponse(Transport)}.
+    */
+   protected T readResponse(Transport transport, HeaderParams params) {
+      throw new UnsupportedOperationException(getClass().getSimpleName() + " cannot be executed asynchronously");
+   }
+
+   private class AsyncResponseHandler implements ResponseHandler<T> {
+      private final CompletableNotifyingFuture<T> future;
+      private final int retryCount;
+      private final Set<SocketAddress> failedServers;
+      private final Transport transport;
+      private final HeaderParams params;
+
+      AsyncResponseHandler(CompletableNotifyingFuture<T> future, int retryCount, Set<SocketAddress> failedServers,
+                           Transport transport, HeaderParams params) {
+         this.future = future;
+         this.retryCount = retryCount;
+         this.failedServers = failedServers;
+         this.transport = transport;
+         this.params = params;
+      }
+
+      @Override
+      public T readResponse(Transport transport) {
+         return RetryOnFailureOperation.this.readResponse(transport, params);
+      }
+
+      @Override
+      public void responseReceived(T response) {
+         releaseTransport(transport);
+         future.complete(response);
+      }
+
+      @Override
+      public void failed(Throwable cause) {
+         attemptFailed(future, retryCount, failedServers, transport, cause);
+      }
+   }
 }
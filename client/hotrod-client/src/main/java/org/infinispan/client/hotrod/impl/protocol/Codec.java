@@ -40,6 +40,11 @@ void writeClientListenerParams(Transport transport, ClientListener clientListene
 
    byte[] returnPossiblePrevValue(Transport transport, short status, Flag[] flags);
 
+   /**
+    * @return {@code true} if the protocol has the multi-key get and put operations, added in version 2.2
+    */
+   boolean isMultiKeySupported();
+
    /**
     * Logger for Hot Rod client codec
     */
@@ -140,6 +140,11 @@ public byte[] returnPossiblePrevValue(Transport transport, short status, Flag[]
       }
    }
 
+   @Override
+   public boolean isMultiKeySupported() {
+      return false;
+   }
+
    private boolean hasForceReturn(Flag[] flags) {
       if (flags == null) return false;
       for (Flag flag : flags) {
@@ -206,6 +206,11 @@ public byte[] returnPossiblePrevValue(Transport transport, short status, Flag[]
       }
    }
 
+   @Override
+   public boolean isMultiKeySupported() {
+      return false;
+   }
+
    protected ClientEvent createRemovedEvent(final Object key, final boolean isRetried) {
       return new ClientCacheEntryRemovedEvent() {
          @Override public Object getKey() { return key; }
@@ -0,0 +1,30 @@
+package org.infinispan.client.hotrod.impl.protocol;
+
+import org.infinispan.client.hotrod.impl.transport.Transport;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+
+/**
+ * Adds the multi-key GetAll and PutAll operations to the 2.1 protocol.
+ *
+ * @since 7.1
+ */
+public class Codec22 extends Codec21 {
+
+   private static final Log log = LogFactory.getLog(Codec22.class, Log.class);
+
+   @Override
+   public Log getLog() {
+      return log;
+   }
+
+   @Override
+   public HeaderParams writeHeader(Transport transport, HeaderParams params) {
+      return writeHeader(transport, params, HotRodConstants.VERSION_22);
+   }
+
+   @Override
+   public boolean isMultiKeySupported() {
+      return true;
+   }
+}
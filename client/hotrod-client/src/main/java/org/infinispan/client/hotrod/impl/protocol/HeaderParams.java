@@ -101,6 +101,10 @@ private short toOpRespCode(short opCode) {
             return HotRodConstants.REMOVE_CLIENT_LISTENER_RESPONSE;
          case HotRodConstants.SIZE_REQUEST:
             return HotRodConstants.SIZE_RESPONSE;
+         case HotRodConstants.PUT_ALL_REQUEST:
+            return HotRodConstants.PUT_ALL_RESPONSE;
+         case HotRodConstants.GET_ALL_REQUEST:
+            return HotRodConstants.GET_ALL_RESPONSE;
          default:
             throw new IllegalStateException("Unknown operation code: " + opCode);
       }
@@ -0,0 +1,15 @@
+package org.infinispan.client.hotrod.impl.transport;
+
+/**
+ * A transport which can send a request without waiting for its response.
+ *
+ * @since 7.1
+ */
+public interface AsyncTransport extends Transport {
+
+   /**
+    * Sends the request written so far and returns immediately. The response is passed to the handler by the thread
+    * that receives it.
+    */
+   <T> void flush(ResponseHandler<T> handler);
+}
@@ -0,0 +1,29 @@
+package org.infinispan.client.hotrod.impl.transport;
+
+/**
+ * Receives the response of a request sent with {@link AsyncTransport#flush(ResponseHandler)}.
+ * <p/>
+ * The methods are invoked by the thread receiving the responses, so they must not block.
+ *
+ * @since 7.1
+ */
+public interface ResponseHandler<T> {
+
+   /**
+    * Reads the response from the transport. If the response was not completely received yet, the reads throw an error
+    * which must not be caught, and the method is invoked again from the start of the response when more bytes are
+    * received. It must not have side effects besides the idempotent topology updates of the codec.
+    */
+   T readResponse(Transport transport);
+
+   /**
+    * Invoked after {@link #readResponse(Transport)} returned.
+    */
+   void responseReceived(T response);
+
+   /**
+    * Invoked if {@link #readResponse(Transport)} failed, or if the response could not be received, e.g. with a
+    * {@link org.infinispan.client.hotrod.exceptions.TransportException} if the connection was closed.
+    */
+   void failed(Throwable cause);
+}
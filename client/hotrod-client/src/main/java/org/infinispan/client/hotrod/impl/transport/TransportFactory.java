@@ -24,6 +24,18 @@ public interface TransportFactory {
 
    Transport getAddressTransport(SocketAddress server);
 
+   /**
+    * Returns a transport that is not shared with other operations until it is released, e.g. to receive the events of
+    * a client listener.
+    */
+   Transport getDedicatedTransport(Set<SocketAddress> failedServers, byte[] cacheName);
+
+   /**
+    * @return {@code true} if the transports returned by {@link #getTransport(Set, byte[])} and
+    *         {@link #getTransport(byte[], Set, byte[])} are {@link AsyncTransport}s
+    */
+   boolean isAsyncSupported();
+
    void releaseTransport(Transport transport);
 
    void start(Codec codec, Configuration configuration, AtomicInteger topologyId, ClientListenerNotifier listenerNotifier);
@@ -44,6 +56,12 @@ public interface TransportFactory {
 
    Transport getTransport(byte[] key, Set<SocketAddress> failedServers, byte[] cacheName);
 
+   /**
+    * @return the server {@link #getTransport(byte[], Set, byte[])} connects to for the given key, or {@code null} if
+    *         the cache has no consistent hash and the key can be sent to any server
+    */
+   SocketAddress getServer(byte[] key, byte[] cacheName);
+
    boolean isTcpNoDelay();
 
    boolean isTcpKeepAlive();
@@ -0,0 +1,478 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.ReferenceCountUtil;
+import org.infinispan.client.hotrod.exceptions.TransportException;
+import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
+import org.infinispan.client.hotrod.impl.transport.ResponseHandler;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A connection to a server shared by all the operations using the Netty transport.
+ * <p/>
+ * The operations write their requests without waiting for the responses of the other operations. The responses are
+ * matched back to their requests by the message id that follows the magic byte of every response: the operation whose
+ * response is at the head of the inbound buffer becomes the reader, and the other operations wait until it is done.
+ * <p/>
+ * The responses of the requests sent with {@link NettyTransport#flush(ResponseHandler)} are read by the Netty thread.
+ * Since the length of a response is only known to the codec, the handler reads it again from the start until it is
+ * complete. It is only read again once the bytes missing in the previous attempt have been received, and once Netty
+ * has read all the bytes available from the socket, so that a large response isn't parsed again for every chunk.
+ *
+ * @since 7.1
+ */
+public class NettyConnection extends ChannelInboundHandlerAdapter {
+
+   private static final Log log = LogFactory.getLog(NettyConnection.class, Log.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   // Thrown by the reads of a response handler when the response is not complete yet
+   private static final IncompleteResponse INCOMPLETE_RESPONSE = new IncompleteResponse();
+
+   private final SocketAddress serverAddress;
+   private final long timeoutNanos;
+   private final ReentrantLock lock = new ReentrantLock();
+   private final Condition changed = lock.newCondition();
+   private final Runnable readResponsesTask = new Runnable() {
+      @Override
+      public void run() {
+         readResponses();
+      }
+   };
+
+   // The fields below are guarded by the lock
+   private final ByteBuf inbound = Unpooled.buffer();
+   // message id -> transport waiting for the response
+   private final Map<Long, NettyTransport> pending = new HashMap<Long, NettyTransport>();
+   private NettyTransport reader;
+   private TransportException failure;
+   // The index that the last read of an incomplete response needed to reach
+   private int incompleteIndex;
+   // The bytes needed from the start of the response at the head of the inbound buffer before reading it again
+   private int awaitedBytes;
+
+   private volatile Channel channel;
+   private volatile ChannelFuture connectFuture;
+
+   public NettyConnection(SocketAddress serverAddress, int soTimeout) {
+      this.serverAddress = serverAddress;
+      this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(soTimeout > 0 ? soTimeout : Integer.MAX_VALUE);
+   }
+
+   /**
+    * Starts connecting without waiting, the requests sent in the meantime are written once connected.
+    */
+   void connect(Bootstrap bootstrap) {
+      ChannelFuture future = bootstrap.connect(serverAddress);
+      channel = future.channel();
+      connectFuture = future;
+      future.addListener(new ChannelFutureListener() {
+         @Override
+         public void operationComplete(ChannelFuture future) {
+            if (!future.isSuccess()) {
+               log.debug("Could not connect to server", future.cause());
+               fail(new TransportException("Could not connect to server", future.cause(), serverAddress));
+            } else if (trace) {
+               log.tracef("Connected %s", NettyConnection.this);
+            }
+         }
+      });
+   }
+
+   public SocketAddress getServerAddress() {
+      return serverAddress;
+   }
+
+   public boolean isOpen() {
+      Channel ch = channel;
+      return ch != null && ch.isOpen() && !isFailed();
+   }
+
+   /**
+    * @return whether the current thread is the Netty thread of the connection, which must not wait for a response
+    */
+   boolean inEventLoop() {
+      Channel ch = channel;
+      return ch != null && ch.eventLoop().inEventLoop();
+   }
+
+   private boolean isFailed() {
+      lock.lock();
+      try {
+         return failure != null;
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * Writes the request of a transport, its response will be read by the same transport or by its response handler.
+    */
+   void send(final NettyTransport transport, long messageId, final ByteBuf request) {
+      lock.lock();
+      try {
+         checkNotFailed();
+         pending.put(messageId, transport);
+      } finally {
+         lock.unlock();
+      }
+      if (trace) log.tracef("Sending request %d to %s", messageId, serverAddress);
+      if (transport.isAsync()) {
+         scheduleTimeout(transport);
+      }
+      connectFuture.addListener(new ChannelFutureListener() {
+         @Override
+         public void operationComplete(ChannelFuture future) {
+            if (!future.isSuccess()) {
+               // The pending operations are failed by the connect listener
+               ReferenceCountUtil.release(request);
+               return;
+            }
+            channel.writeAndFlush(request).addListener(new ChannelFutureListener() {
+               @Override
+               public void operationComplete(ChannelFuture future) {
+                  if (!future.isSuccess()) {
+                     fail(new TransportException("Problems writing data to stream", future.cause(), serverAddress));
+                  }
+               }
+            });
+         }
+      });
+   }
+
+   private void scheduleTimeout(final NettyTransport transport) {
+      channel.eventLoop().schedule(new Runnable() {
+         @Override
+         public void run() {
+            if (!transport.isDone()) {
+               fail(new TransportException("Timed out waiting for a response", serverAddress));
+            }
+         }
+      }, timeoutNanos, TimeUnit.NANOSECONDS);
+   }
+
+   short readByte(NettyTransport transport) {
+      lock.lock();
+      try {
+         awaitReadable(transport, 1);
+         return inbound.readUnsignedByte();
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   byte[] readByteArray(NettyTransport transport, int size) {
+      lock.lock();
+      try {
+         awaitReadable(transport, size);
+         byte[] bytes = new byte[size];
+         inbound.readBytes(bytes);
+         return bytes;
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * Lets the next response be read once a transport is released.
+    */
+   void finish(NettyTransport transport) {
+      boolean unread = false;
+      boolean readNext = false;
+      lock.lock();
+      try {
+         if (reader == transport) {
+            reader = null;
+            changed.signalAll();
+            // The next response may be for a response handler, which is only invoked by the Netty thread
+            readNext = inbound.isReadable();
+         } else if (pending.values().remove(transport)) {
+            // The length of the response is only known to the codec, so it cannot be skipped
+            unread = true;
+         }
+      } finally {
+         lock.unlock();
+      }
+      if (unread) {
+         fail(new TransportException("An operation was released before reading its response", serverAddress));
+      } else if (readNext) {
+         channel.eventLoop().execute(readResponsesTask);
+      }
+   }
+
+   byte[] dumpInbound() {
+      lock.lock();
+      try {
+         byte[] bytes = new byte[inbound.readableBytes()];
+         inbound.getBytes(inbound.readerIndex(), bytes);
+         return bytes;
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * Closes the connection, the operations waiting for their responses fail with the given exception.
+    */
+   void fail(TransportException cause) {
+      List<NettyTransport> failed = new ArrayList<NettyTransport>();
+      TransportException failure;
+      lock.lock();
+      try {
+         failLocked(cause);
+         failure = this.failure;
+         if (reader != null && reader.isAsync()) {
+            failed.add(reader);
+            reader = null;
+         }
+         for (Iterator<NettyTransport> it = pending.values().iterator(); it.hasNext(); ) {
+            NettyTransport transport = it.next();
+            if (transport.isAsync()) {
+               failed.add(transport);
+               it.remove();
+            }
+         }
+      } finally {
+         lock.unlock();
+      }
+      for (NettyTransport transport : failed) {
+         notifyHandler(transport, null, new TransportException(failure.getMessage(), failure, serverAddress));
+      }
+   }
+
+   // To be called with the lock held, closing the channel doesn't block
+   private void failLocked(TransportException cause) {
+      if (failure == null) {
+         if (trace) log.tracef(cause, "Closing %s", this);
+         failure = cause;
+         changed.signalAll();
+      }
+      close();
+   }
+
+   void close() {
+      Channel ch = channel;
+      if (ch != null) {
+         ch.close();
+      }
+   }
+
+   @Override
+   public void channelRead(ChannelHandlerContext ctx, Object msg) {
+      ByteBuf buf = (ByteBuf) msg;
+      lock.lock();
+      try {
+         inbound.discardSomeReadBytes();
+         inbound.writeBytes(buf);
+         changed.signalAll();
+      } finally {
+         lock.unlock();
+         buf.release();
+      }
+   }
+
+   @Override
+   public void channelReadComplete(ChannelHandlerContext ctx) {
+      readResponses();
+   }
+
+   @Override
+   public void channelInactive(ChannelHandlerContext ctx) {
+      fail(new TransportException("Connection closed", serverAddress));
+   }
+
+   @Override
+   public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+      fail(new TransportException(cause, serverAddress));
+   }
+
+   /**
+    * Passes the complete responses at the head of the inbound buffer to their response handlers. Only invoked by the
+    * Netty thread.
+    */
+   private void readResponses() {
+      List<Received> received = null;
+      TransportException failed;
+      lock.lock();
+      try {
+         while (failure == null) {
+            if (reader == null) {
+               selectReader();
+            }
+            NettyTransport transport = reader;
+            if (transport == null || !transport.isAsync()) {
+               // The response is read by the thread waiting for it
+               break;
+            }
+            if (inbound.readableBytes() < awaitedBytes) {
+               // The previous attempt would fail again at the same place
+               break;
+            }
+            int start = inbound.readerIndex();
+            Received r;
+            try {
+               r = new Received(transport, transport.getResponseHandler().readResponse(transport), null);
+            } catch (IncompleteResponse e) {
+               awaitedBytes = incompleteIndex - start;
+               inbound.readerIndex(start);
+               break;
+            } catch (Throwable t) {
+               // Like with a synchronous operation, the response was read before throwing the exception
+               r = new Received(transport, null, t);
+            }
+            reader = null;
+            awaitedBytes = 0;
+            if (received == null) {
+               received = new ArrayList<Received>(4);
+            }
+            received.add(r);
+         }
+         failed = failure;
+      } finally {
+         lock.unlock();
+      }
+      if (received != null) {
+         for (Received r : received) {
+            notifyHandler(r.transport, r.response, r.cause);
+         }
+      }
+      if (failed != null) {
+         // The selection of the next reader may have failed the connection
+         fail(failed);
+      }
+   }
+
+   private void notifyHandler(NettyTransport transport, Object response, Throwable cause) {
+      if (!transport.markDone()) {
+         return;
+      }
+      ResponseHandler<Object> handler = transport.getResponseHandler();
+      try {
+         if (cause == null) {
+            handler.responseReceived(response);
+         } else {
+            handler.failed(cause);
+         }
+      } catch (Throwable t) {
+         log.debug("Exception in a response handler", t);
+      }
+   }
+
+   // To be called with the lock held
+   private void awaitReadable(NettyTransport transport, int bytes) {
+      if (transport.isAsync()) {
+         // Invoked by the Netty thread, which must not wait
+         checkNotFailed();
+         if (reader != transport || inbound.readableBytes() < bytes) {
+            incompleteIndex = inbound.readerIndex() + bytes;
+            throw INCOMPLETE_RESPONSE;
+         }
+         return;
+      }
+      long remaining = timeoutNanos;
+      while (true) {
+         checkNotFailed();
+         if (reader == null) {
+            selectReader();
+            checkNotFailed();
+         }
+         if (reader == transport && inbound.readableBytes() >= bytes) {
+            return;
+         }
+         if (remaining <= 0) {
+            failLocked(new TransportException("Timed out waiting for a response", serverAddress));
+            checkNotFailed();
+         }
+         try {
+            remaining = changed.awaitNanos(remaining);
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransportException(e, serverAddress);
+         }
+      }
+   }
+
+   // To be called with the lock held, peeks at the magic and the message id of the next response
+   private void selectReader() {
+      int index = inbound.readerIndex();
+      int end = inbound.writerIndex();
+      if (index == end) {
+         return;
+      }
+      short magic = inbound.getUnsignedByte(index++);
+      if (magic != HotRodConstants.RESPONSE_MAGIC) {
+         failLocked(new TransportException(String.format("Invalid magic number. Expected %#x and received %#x",
+               HotRodConstants.RESPONSE_MAGIC, magic), serverAddress));
+         return;
+      }
+      long messageId = 0;
+      for (int shift = 0; ; shift += 7) {
+         if (index == end) {
+            return;
+         }
+         byte b = inbound.getByte(index++);
+         messageId |= (b & 0x7FL) << shift;
+         if ((b & 0x80) == 0) {
+            break;
+         }
+      }
+      reader = pending.remove(messageId);
+      if (reader == null) {
+         failLocked(new TransportException("Received a response with the unknown message id " + messageId, serverAddress));
+         return;
+      }
+      if (trace) log.tracef("Reading the response of request %d from %s", messageId, serverAddress);
+      if (reader.isAsync() && !channel.eventLoop().inEventLoop()) {
+         // Selected by a thread waiting for another response
+         channel.eventLoop().execute(readResponsesTask);
+      }
+   }
+
+   private void checkNotFailed() {
+      if (failure != null) {
+         throw new TransportException(failure.getMessage(), failure, serverAddress);
+      }
+   }
+
+   @Override
+   public String toString() {
+      return "NettyConnection{serverAddress=" + serverAddress + ", channel=" + channel + "}";
+   }
+
+   private static final class Received {
+      final NettyTransport transport;
+      final Object response;
+      final Throwable cause;
+
+      Received(NettyTransport transport, Object response, Throwable cause) {
+         this.transport = transport;
+         this.response = response;
+         this.cause = cause;
+      }
+   }
+
+   private static final class IncompleteResponse extends Error {
+      @Override
+      public Throwable fillInStackTrace() {
+         return this;
+      }
+   }
+}
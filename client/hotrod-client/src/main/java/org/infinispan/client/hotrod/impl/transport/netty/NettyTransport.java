@@ -0,0 +1,184 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.jcip.annotations.NotThreadSafe;
+import org.infinispan.client.hotrod.impl.transport.AbstractTransport;
+import org.infinispan.client.hotrod.impl.transport.AsyncTransport;
+import org.infinispan.client.hotrod.impl.transport.ResponseHandler;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+
+import java.net.SocketAddress;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The transport of a single operation over a shared {@link NettyConnection}.
+ * <p/>
+ * The request is buffered until {@link #flush()}, which sends it without waiting for the responses of the other
+ * operations using the connection. The response is read by blocking until it is at the head of the connection's
+ * inbound buffer, or by the Netty thread if the request was sent with {@link #flush(ResponseHandler)}.
+ *
+ * @since 7.1
+ */
+@NotThreadSafe
+public class NettyTransport extends AbstractTransport implements AsyncTransport {
+
+   private final NettyConnection connection;
+   private final AtomicBoolean done = new AtomicBoolean();
+   private ByteBuf request = Unpooled.buffer();
+   private volatile ResponseHandler<Object> responseHandler;
+   private volatile boolean invalid;
+
+   public NettyTransport(NettyConnection connection, TransportFactory transportFactory) {
+      super(transportFactory);
+      this.connection = connection;
+   }
+
+   @Override
+   protected void writeBytes(byte[] toAppend) {
+      request.writeBytes(toAppend);
+   }
+
+   @Override
+   public void writeByte(short toWrite) {
+      request.writeByte(toWrite);
+   }
+
+   @Override
+   public void writeVInt(int vint) {
+      while ((vint & ~0x7F) != 0) {
+         request.writeByte((vint & 0x7F) | 0x80);
+         vint >>>= 7;
+      }
+      request.writeByte(vint);
+   }
+
+   @Override
+   public void writeVLong(long l) {
+      while ((l & ~0x7F) != 0) {
+         request.writeByte((int) ((l & 0x7F) | 0x80));
+         l >>>= 7;
+      }
+      request.writeByte((int) l);
+   }
+
+   @Override
+   public void flush() {
+      if (connection.inEventLoop()) {
+         // Waiting for the response would block the thread that has to receive it
+         throw new IllegalStateException("Synchronous operations cannot be invoked from the Netty thread of the connection");
+      }
+      connection.send(this, readMessageId(), takeRequest());
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public <T> void flush(ResponseHandler<T> handler) {
+      responseHandler = (ResponseHandler<Object>) handler;
+      connection.send(this, readMessageId(), takeRequest());
+   }
+
+   private long readMessageId() {
+      // The message id follows the magic byte of the request header
+      long messageId = 0;
+      int index = request.readerIndex() + 1;
+      for (int shift = 0; ; shift += 7) {
+         byte b = request.getByte(index++);
+         messageId |= (b & 0x7FL) << shift;
+         if ((b & 0x80) == 0) {
+            break;
+         }
+      }
+      return messageId;
+   }
+
+   private ByteBuf takeRequest() {
+      ByteBuf toSend = request;
+      request = Unpooled.buffer();
+      return toSend;
+   }
+
+   ResponseHandler<Object> getResponseHandler() {
+      return responseHandler;
+   }
+
+   boolean isAsync() {
+      return responseHandler != null;
+   }
+
+   /**
+    * @return {@code true} the first time it is invoked, so that the response handler is only notified once
+    */
+   boolean markDone() {
+      return done.compareAndSet(false, true);
+   }
+
+   boolean isDone() {
+      return done.get();
+   }
+
+   @Override
+   public short readByte() {
+      return connection.readByte(this);
+   }
+
+   @Override
+   public int readVInt() {
+      byte b = (byte) readByte();
+      int i = b & 0x7F;
+      for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+         b = (byte) readByte();
+         i |= (b & 0x7F) << shift;
+      }
+      return i;
+   }
+
+   @Override
+   public long readVLong() {
+      byte b = (byte) readByte();
+      long i = b & 0x7F;
+      for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+         b = (byte) readByte();
+         i |= (b & 0x7FL) << shift;
+      }
+      return i;
+   }
+
+   @Override
+   public byte[] readByteArray(int size) {
+      return connection.readByteArray(this, size);
+   }
+
+   @Override
+   public void release() {
+      getTransportFactory().releaseTransport(this);
+   }
+
+   @Override
+   public byte[] dumpStream() {
+      return connection.dumpInbound();
+   }
+
+   @Override
+   public SocketAddress getRemoteSocketAddress() {
+      return connection.getServerAddress();
+   }
+
+   @Override
+   public void invalidate() {
+      invalid = true;
+   }
+
+   public boolean isValid() {
+      return !invalid;
+   }
+
+   public NettyConnection getConnection() {
+      return connection;
+   }
+
+   @Override
+   public String toString() {
+      return "NettyTransport{connection=" + connection + ", valid=" + !invalid + "}";
+   }
+}
@@ -0,0 +1,181 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import net.jcip.annotations.ThreadSafe;
+import org.infinispan.client.hotrod.configuration.Configuration;
+import org.infinispan.client.hotrod.event.ClientListenerNotifier;
+import org.infinispan.client.hotrod.exceptions.TransportException;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.transport.Transport;
+import org.infinispan.client.hotrod.impl.transport.tcp.TcpTransportFactory;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+import org.infinispan.commons.util.CollectionFactory;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import java.net.SocketAddress;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A transport factory which sends the requests of all the operations on a server over a single Netty connection.
+ * <p/>
+ * Unlike {@link TcpTransportFactory}, an operation doesn't hold a connection until it receives its response: the
+ * requests of concurrent operations are pipelined and the responses are matched back to their operations by the
+ * message id of the Hot Rod header. The connection pool of the superclass is still used for the client listeners,
+ * which need a connection of their own to receive the events, and when authentication is enabled.
+ * <p/>
+ * It is enabled with {@link org.infinispan.client.hotrod.configuration.ConfigurationBuilder#transportFactory(Class)}
+ * and requires Netty in the classpath.
+ *
+ * @since 7.1
+ */
+@ThreadSafe
+public class NettyTransportFactory extends TcpTransportFactory {
+
+   private static final Log log = LogFactory.getLog(NettyTransportFactory.class, Log.class);
+
+   private final ConcurrentMap<SocketAddress, NettyConnection> connections = CollectionFactory.makeConcurrentMap();
+   private volatile EventLoopGroup group;
+   private volatile Bootstrap bootstrap;
+
+   @Override
+   public void start(Codec codec, Configuration configuration, AtomicInteger defaultCacheTopologyId, ClientListenerNotifier listenerNotifier) {
+      super.start(codec, configuration, defaultCacheTopologyId, listenerNotifier);
+      if (configuration.security().authentication().enabled()) {
+         log.nettyTransportWithoutAuthentication();
+         return;
+      }
+      group = new NioEventLoopGroup(0, new DefaultThreadFactory("HotRod-client-netty", true));
+      bootstrap = new Bootstrap()
+            .group(group)
+            .channel(NioSocketChannel.class)
+            .option(ChannelOption.TCP_NODELAY, isTcpNoDelay())
+            .option(ChannelOption.SO_KEEPALIVE, isTcpKeepAlive())
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, getConnectTimeout());
+   }
+
+   @Override
+   protected Transport borrowTransport(SocketAddress server) {
+      if (bootstrap == null) {
+         return super.borrowTransport(server);
+      }
+      return new NettyTransport(getConnection(server), this);
+   }
+
+   private NettyConnection getConnection(SocketAddress server) {
+      NettyConnection connection = connections.get(server);
+      if (connection != null && connection.isOpen()) {
+         return connection;
+      }
+      NettyConnection newConnection = connect(server);
+      boolean added = connection == null ? connections.putIfAbsent(server, newConnection) == null
+            : connections.replace(server, connection, newConnection);
+      if (added) {
+         if (connection != null) {
+            connection.close();
+         }
+         return newConnection;
+      }
+      // Another thread has connected first
+      newConnection.close();
+      return getConnection(server);
+   }
+
+   private NettyConnection connect(SocketAddress server) {
+      final NettyConnection connection = new NettyConnection(server, getSoTimeout());
+      final SSLContext sslContext = getSSLContext();
+      // Connecting doesn't block, so that the operations retried by the Netty thread can open a new connection
+      connection.connect(bootstrap.clone().handler(new ChannelInitializer<SocketChannel>() {
+         @Override
+         protected void initChannel(SocketChannel ch) {
+            if (sslContext != null) {
+               SSLEngine engine = sslContext.createSSLEngine();
+               engine.setUseClientMode(true);
+               ch.pipeline().addLast(new SslHandler(engine));
+            }
+            ch.pipeline().addLast(connection);
+         }
+      }));
+      return connection;
+   }
+
+   @Override
+   public boolean isAsyncSupported() {
+      return bootstrap != null;
+   }
+
+   @Override
+   public void releaseTransport(Transport transport) {
+      if (transport instanceof NettyTransport) {
+         NettyTransport nettyTransport = (NettyTransport) transport;
+         NettyConnection connection = nettyTransport.getConnection();
+         connection.finish(nettyTransport);
+         if (!nettyTransport.isValid()) {
+            if (log.isTraceEnabled()) {
+               log.tracef("Dropping connection as it is no longer valid: %s", connection);
+            }
+            closeConnection(connection, "The connection is no longer valid");
+         }
+      } else {
+         super.releaseTransport(transport);
+      }
+   }
+
+   @Override
+   public void invalidateTransport(SocketAddress serverAddress, Transport transport) {
+      if (transport instanceof NettyTransport) {
+         closeConnection(((NettyTransport) transport).getConnection(), "The connection was invalidated");
+      } else {
+         if (transport == null) {
+            // All the connections to the server are invalidated
+            NettyConnection connection = connections.get(serverAddress);
+            if (connection != null) {
+               closeConnection(connection, "The connection was invalidated");
+            }
+         }
+         super.invalidateTransport(serverAddress, transport);
+      }
+   }
+
+   @Override
+   public void updateServers(Collection<SocketAddress> newServers, byte[] cacheName) {
+      super.updateServers(newServers, cacheName);
+      Collection<SocketAddress> servers = getServers();
+      for (Map.Entry<SocketAddress, NettyConnection> entry : connections.entrySet()) {
+         if (!servers.contains(entry.getKey())) {
+            log.removingServer(entry.getKey());
+            closeConnection(entry.getValue(), "The server was removed");
+         }
+      }
+   }
+
+   @Override
+   public void destroy() {
+      super.destroy();
+      for (NettyConnection connection : connections.values()) {
+         closeConnection(connection, "The transport factory was stopped");
+      }
+      EventLoopGroup g = group;
+      if (g != null) {
+         g.shutdownGracefully();
+      }
+   }
+
+   private void closeConnection(NettyConnection connection, String reason) {
+      connections.remove(connection.getServerAddress(), connection);
+      // Fail the operations waiting for their responses on the connection, so that they can be retried
+      connection.fail(new TransportException(reason, connection.getServerAddress()));
+   }
+}
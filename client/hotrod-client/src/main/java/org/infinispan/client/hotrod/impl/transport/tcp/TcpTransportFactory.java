@@ -206,6 +206,15 @@ public void updateHashFunction(SocketAddress[][] segmentOwners, int numSegments,
 
    @Override
    public Transport getTransport(Set<SocketAddress> failedServers, byte[] cacheName) {
+      SocketAddress server;
+      synchronized (lock) {
+         server = getNextServer(failedServers, cacheName);
+      }
+      return borrowTransport(server);
+   }
+
+   @Override
+   public Transport getDedicatedTransport(Set<SocketAddress> failedServers, byte[] cacheName) {
       SocketAddress server;
       synchronized (lock) {
          server = getNextServer(failedServers, cacheName);
@@ -233,7 +242,7 @@ private FailoverRequestBalancingStrategy getOrCreateIfAbsentBalancer(byte[] cach
 
    @Override
    public Transport getAddressTransport(SocketAddress server) {
-      return borrowTransportFromPool(server);
+      return borrowTransport(server);
    }
 
    public Transport getTransport(byte[] key, Set<SocketAddress> failedServers, byte[] cacheName) {
@@ -249,7 +258,15 @@ public Transport getTransport(byte[] key, Set<SocketAddress> failedServers, byte
             server = getNextServer(failedServers, cacheName);
          }
       }
-      return borrowTransportFromPool(server);
+      return borrowTransport(server);
+   }
+
+   @Override
+   public SocketAddress getServer(byte[] key, byte[] cacheName) {
+      synchronized (lock) {
+         ConsistentHash consistentHash = consistentHashes.get(cacheName);
+         return consistentHash != null ? consistentHash.getServer(key) : null;
+      }
    }
 
    @Override
@@ -349,6 +366,14 @@ private void logConnectionInfo(SocketAddress server) {
       }
    }
 
+   /**
+    * Returns a transport for an operation on the given server. The transports are borrowed from the connection pool,
+    * so each one is used by a single operation at a time.
+    */
+   protected Transport borrowTransport(SocketAddress server) {
+      return borrowTransportFromPool(server);
+   }
+
    private Transport borrowTransportFromPool(SocketAddress server) {
       // The borrowObject() call could take a long time, so we hold the lock only until we get the connection pool reference
       KeyedObjectPool<SocketAddress, TcpTransport> pool = getConnectionPool();
@@ -377,6 +402,11 @@ public ConsistentHashFactory getConsistentHashFactory() {
       return hashFactory;
    }
 
+   @Override
+   public boolean isAsyncSupported() {
+      return false;
+   }
+
    @Override
    public boolean isTcpNoDelay() {
       return tcpNoDelay;
@@ -180,4 +180,15 @@ public interface Log extends BasicLogger {
    @Message(value = "Unrecoverable error reading event from server %s, exiting event reader thread", id = 4043)
    void unrecoverableErrorReadingEvent(@Cause Throwable t, SocketAddress server);
 
+   @LogMessage(level = INFO)
+   @Message(value = "The Netty transport does not support authentication, using blocking connections instead", id = 4044)
+   void nettyTransportWithoutAuthentication();
+
+   @Message(value = "Invalid near cache max entries (value=%s). Value should be greater than zero.", id = 4045)
+   CacheConfigurationException invalidNearCacheMaxEntries(int maxEntries);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Unable to add the near cache listener to cache %s, its values will always be read from the server", id = 4046)
+   void nearCacheListenerNotAdded(String cacheName, @Cause Throwable t);
+
 }
@@ -0,0 +1,124 @@
+package org.infinispan.client.hotrod;
+
+import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
+import org.infinispan.client.hotrod.impl.ConfigurationProperties;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.context.Flag;
+import org.infinispan.server.hotrod.HotRodServer;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.infinispan.client.hotrod.test.HotRodClientTestingUtil.killRemoteCacheManagers;
+import static org.infinispan.client.hotrod.test.HotRodClientTestingUtil.killServers;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests the multi-key getAll and putAll operations against a distributed cluster, where the keys are split between
+ * the servers owning them.
+ *
+ * @since 7.1
+ */
+@Test(testName = "client.hotrod.GetAllPutAllDistTest", groups = "functional")
+public class GetAllPutAllDistTest extends MultipleCacheManagersTest {
+
+   private static final int NUM_SERVERS = 3;
+   private static final int NUM_ENTRIES = 100;
+
+   private HotRodServer[] hotrodServers;
+   private RemoteCacheManager remoteCacheManager;
+   private RemoteCacheManager remoteCacheManager21;
+   private RemoteCache<String, String> remoteCache;
+   private RemoteCache<String, String> remoteCache21;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      createCluster(hotRodCacheConfiguration(getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false)), NUM_SERVERS);
+      hotrodServers = new HotRodServer[NUM_SERVERS];
+      for (int i = 0; i < NUM_SERVERS; i++) {
+         hotrodServers[i] = TestHelper.startHotRodServer(manager(i));
+      }
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.addServers(TestHelper.getServersString(hotrodServers));
+      remoteCacheManager = new RemoteCacheManager(builder.build());
+      remoteCache = remoteCacheManager.getCache();
+      builder.protocolVersion(ConfigurationProperties.PROTOCOL_VERSION_21);
+      remoteCacheManager21 = new RemoteCacheManager(builder.build());
+      remoteCache21 = remoteCacheManager21.getCache();
+   }
+
+   @AfterClass
+   public void release() {
+      killRemoteCacheManagers(remoteCacheManager, remoteCacheManager21);
+      killServers(hotrodServers);
+   }
+
+   @BeforeMethod
+   public void clearCache() {
+      remoteCache.clear();
+   }
+
+   public void testPutAllGetAll() {
+      remoteCache.putAll(entries());
+      for (int i = 0; i < NUM_SERVERS; i++) {
+         int localSize = cache(i).getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL).size();
+         assertTrue(localSize < NUM_ENTRIES);
+      }
+      assertEquals(entries(), remoteCache.getAll(keys()));
+      assertEquals(entries(), remoteCache21.getAll(keys()));
+   }
+
+   public void testGetAllMissingKeys() {
+      remoteCache.put("k0", "v0");
+      Set<String> keys = new HashSet<String>();
+      keys.add("k0");
+      keys.add("missing");
+      Map<String, String> result = remoteCache.getAll(keys);
+      assertEquals(1, result.size());
+      assertEquals("v0", result.get("k0"));
+      assertFalse(result.containsKey("missing"));
+      assertTrue(remoteCache.getAll(new HashSet<String>()).isEmpty());
+   }
+
+   public void testPutAllWithOlderProtocol() {
+      remoteCache21.putAll(entries());
+      assertEquals(entries(), remoteCache.getAll(keys()));
+   }
+
+   public void testPutAllVersionsEntries() {
+      remoteCache.putAll(entries());
+      VersionedValue<String> versioned = remoteCache.getVersioned("k1");
+      assertNotNull(versioned);
+      assertTrue(remoteCache.replaceWithVersion("k1", "v1-replaced", versioned.getVersion()));
+      assertEquals("v1-replaced", remoteCache.get("k1"));
+   }
+
+   public void testPutAllWithLifespan() {
+      remoteCache.putAll(entries(), 1, TimeUnit.HOURS);
+      MetadataValue<String> metadata = remoteCache.getWithMetadata("k1");
+      assertEquals((int) TimeUnit.HOURS.toSeconds(1), metadata.getLifespan());
+   }
+
+   private static Map<String, String> entries() {
+      Map<String, String> entries = new HashMap<String, String>();
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         entries.put("k" + i, "v" + i);
+      }
+      return entries;
+   }
+
+   private static Set<String> keys() {
+      return entries().keySet();
+   }
+}
@@ -0,0 +1,169 @@
+package org.infinispan.client.hotrod;
+
+import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
+import org.infinispan.client.hotrod.configuration.NearCacheMode;
+import org.infinispan.client.hotrod.impl.NearCache;
+import org.infinispan.client.hotrod.impl.RemoteCacheImpl;
+import org.infinispan.client.hotrod.test.HotRodClientTestingUtil;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.server.hotrod.HotRodServer;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+
+/**
+ * Tests that the near cache serves the repeated reads and is invalidated by the writes of any client.
+ *
+ * @since 7.1
+ */
+@Test(testName = "client.hotrod.NearCacheTest", groups = "functional")
+public class NearCacheTest extends SingleCacheManagerTest {
+
+   private static final int MAX_ENTRIES = 10;
+
+   private HotRodServer hotrodServer;
+   private RemoteCacheManager nearCacheManager;
+   private RemoteCacheManager otherCacheManager;
+   private RemoteCache<String, String> remoteCache;
+   private RemoteCache<String, String> otherRemoteCache;
+   private NearCache<String, String> nearCache;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      return TestCacheManagerFactory.createCacheManager(hotRodCacheConfiguration());
+   }
+
+   @Override
+   protected void setup() throws Exception {
+      super.setup();
+      hotrodServer = TestHelper.startHotRodServer(cacheManager);
+      nearCacheManager = new RemoteCacheManager(nearCacheConfiguration().build());
+      remoteCache = nearCacheManager.getCache();
+      nearCache = ((RemoteCacheImpl<String, String>) remoteCache).getNearCache();
+      otherCacheManager = new RemoteCacheManager(new ConfigurationBuilder()
+            .addServer().host("127.0.0.1").port(hotrodServer.getPort()).build());
+      otherRemoteCache = otherCacheManager.getCache();
+   }
+
+   protected ConfigurationBuilder nearCacheConfiguration() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.addServer().host("127.0.0.1").port(hotrodServer.getPort())
+            .nearCache().mode(NearCacheMode.INVALIDATED).maxEntries(MAX_ENTRIES);
+      return builder;
+   }
+
+   @BeforeMethod
+   public void clearCache() {
+      remoteCache.clear();
+   }
+
+   @AfterClass
+   public void release() {
+      HotRodClientTestingUtil.killRemoteCacheManagers(nearCacheManager, otherCacheManager);
+      HotRodClientTestingUtil.killServers(hotrodServer);
+   }
+
+   public void testRepeatedReadsServedLocally() {
+      remoteCache.put("repeated", "v1");
+      long hits = nearCache.getHits();
+      assertEquals("v1", remoteCache.get("repeated"));
+      assertEquals("v1", remoteCache.get("repeated"));
+      assertEquals("v1", remoteCache.get("repeated"));
+      assertEquals(hits + 2, nearCache.getHits());
+
+      // The server doesn't see the reads served by the near cache
+      ServerStatistics stats = remoteCache.stats();
+      assertEquals(String.valueOf(nearCache.getHits()), stats.getStatistic(ServerStatistics.NEAR_CACHE_HITS));
+      assertEquals(String.valueOf(nearCache.getMisses()), stats.getStatistic(ServerStatistics.NEAR_CACHE_MISSES));
+   }
+
+   public void testAsyncReads() throws Exception {
+      remoteCache.put("async", "v1");
+      long hits = nearCache.getHits();
+      assertEquals("v1", remoteCache.getAsync("async").get());
+      assertEquals("v1", remoteCache.getAsync("async").get());
+      assertEquals("v1", remoteCache.get("async"));
+      assertEquals(hits + 2, nearCache.getHits());
+      remoteCache.put("async", "v2");
+      assertEquals("v2", remoteCache.getAsync("async").get());
+   }
+
+   public void testLocalWritesInvalidate() {
+      remoteCache.put("k", "v1");
+      assertEquals("v1", remoteCache.get("k"));
+      remoteCache.put("k", "v2");
+      assertEquals("v2", remoteCache.get("k"));
+      remoteCache.replace("k", "v3");
+      assertEquals("v3", remoteCache.get("k"));
+      remoteCache.remove("k");
+      assertNull(remoteCache.get("k"));
+   }
+
+   public void testRemoteWritesInvalidate() {
+      otherRemoteCache.put("k", "v1");
+      assertEquals("v1", remoteCache.get("k"));
+      otherRemoteCache.put("k", "v2");
+      eventually(new Condition() {
+         @Override
+         public boolean isSatisfied() throws Exception {
+            return "v2".equals(remoteCache.get("k"));
+         }
+      });
+      otherRemoteCache.remove("k");
+      eventually(new Condition() {
+         @Override
+         public boolean isSatisfied() throws Exception {
+            return remoteCache.get("k") == null;
+         }
+      });
+   }
+
+   public void testFlagsClearedByHits() {
+      remoteCache.put("flags", "v1");
+      assertEquals("v1", remoteCache.get("flags"));
+      assertEquals("v1", remoteCache.withFlags(Flag.FORCE_RETURN_VALUE).get("flags"));
+      // The flags only applied to the read served by the near cache
+      assertNull(remoteCache.put("flags", "v2"));
+      assertEquals("v2", remoteCache.get("flags"));
+      assertEquals("v2", remoteCache.withFlags(Flag.FORCE_RETURN_VALUE).getAll(Collections.singleton("flags")).get("flags"));
+      assertNull(remoteCache.put("flags", "v3"));
+   }
+
+   public void testExpiringEntriesNotCached() {
+      remoteCache.put("immortal", "v1");
+      remoteCache.put("lifespan", "v1", 1, TimeUnit.SECONDS);
+      remoteCache.put("maxIdle", "v1", -1, TimeUnit.SECONDS, 1, TimeUnit.MINUTES);
+      assertEquals("v1", remoteCache.get("immortal"));
+      assertEquals("v1", remoteCache.get("lifespan"));
+      assertEquals("v1", remoteCache.get("maxIdle"));
+      assertEquals(1, nearCache.size());
+      // The server sends no event when the entry expires
+      eventually(new Condition() {
+         @Override
+         public boolean isSatisfied() throws Exception {
+            return remoteCache.get("lifespan") == null;
+         }
+      });
+   }
+
+   public void testBounded() {
+      for (int i = 0; i < MAX_ENTRIES * 2; i++) {
+         remoteCache.put("k" + i, "v" + i);
+         assertEquals("v" + i, remoteCache.get("k" + i));
+      }
+      assertEquals(MAX_ENTRIES, nearCache.size());
+      // The least recently used entries were evicted
+      long misses = nearCache.getMisses();
+      assertEquals("v0", remoteCache.get("k0"));
+      assertEquals(misses + 1, nearCache.getMisses());
+   }
+}
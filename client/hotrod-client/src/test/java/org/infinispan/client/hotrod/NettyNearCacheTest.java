@@ -0,0 +1,22 @@
+package org.infinispan.client.hotrod;
+
+import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
+import org.infinispan.client.hotrod.impl.transport.netty.NettyTransportFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the near cache tests with {@link NettyTransportFactory}, whose asynchronous reads don't invoke the synchronous
+ * ones.
+ *
+ * @since 7.1
+ */
+@Test(groups = "functional", testName = "client.hotrod.NettyNearCacheTest")
+public class NettyNearCacheTest extends NearCacheTest {
+
+   @Override
+   protected ConfigurationBuilder nearCacheConfiguration() {
+      ConfigurationBuilder builder = super.nearCacheConfiguration();
+      builder.transportFactory(NettyTransportFactory.class);
+      return builder;
+   }
+}
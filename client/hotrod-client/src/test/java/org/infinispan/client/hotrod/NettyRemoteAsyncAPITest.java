@@ -0,0 +1,24 @@
+package org.infinispan.client.hotrod;
+
+import org.infinispan.client.hotrod.impl.ConfigurationProperties;
+import org.infinispan.client.hotrod.impl.transport.netty.NettyTransportFactory;
+import org.testng.annotations.Test;
+
+import java.util.Properties;
+
+/**
+ * Runs the tests of the asynchronous operations with {@link NettyTransportFactory}, which completes the futures from
+ * the Netty thread instead of executing the operations in a thread pool.
+ *
+ * @since 7.1
+ */
+@Test(groups = "functional", testName = "client.hotrod.NettyRemoteAsyncAPITest")
+public class NettyRemoteAsyncAPITest extends RemoteAsyncAPITest {
+
+   @Override
+   protected Properties getClientProperties() {
+      Properties props = super.getClientProperties();
+      props.put(ConfigurationProperties.TRANSPORT_FACTORY, NettyTransportFactory.class.getName());
+      return props;
+   }
+}
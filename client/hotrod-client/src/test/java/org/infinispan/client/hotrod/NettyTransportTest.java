@@ -0,0 +1,125 @@
+package org.infinispan.client.hotrod;
+
+import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
+import org.infinispan.client.hotrod.impl.transport.netty.NettyTransportFactory;
+import org.infinispan.client.hotrod.test.HotRodClientTestingUtil;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.server.hotrod.HotRodServer;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+
+/**
+ * Tests the synchronous and asynchronous operations sharing the pipelined connection of {@link NettyTransportFactory}.
+ *
+ * @since 7.1
+ */
+@Test(testName = "client.hotrod.NettyTransportTest", groups = "functional")
+public class NettyTransportTest extends SingleCacheManagerTest {
+
+   private static final int NUM_THREADS = 10;
+   private static final int NUM_KEYS = 200;
+
+   private HotRodServer hotrodServer;
+   private RemoteCacheManager remoteCacheManager;
+   private RemoteCache<String, String> remoteCache;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      return TestCacheManagerFactory.createCacheManager(hotRodCacheConfiguration());
+   }
+
+   @Override
+   protected void setup() throws Exception {
+      super.setup();
+      hotrodServer = TestHelper.startHotRodServer(cacheManager);
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.addServer().host("127.0.0.1").port(hotrodServer.getPort())
+            .transportFactory(NettyTransportFactory.class)
+            .forceReturnValues(true);
+      remoteCacheManager = new RemoteCacheManager(builder.build());
+      remoteCache = remoteCacheManager.getCache();
+   }
+
+   @AfterClass
+   public void release() {
+      HotRodClientTestingUtil.killRemoteCacheManager(remoteCacheManager);
+      HotRodClientTestingUtil.killServers(hotrodServer);
+   }
+
+   public void testConcurrentOperations() throws Exception {
+      ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+      try {
+         List<Future<Void>> futures = new ArrayList<Future<Void>>();
+         for (int t = 0; t < NUM_THREADS; t++) {
+            final String prefix = "t" + t + "-";
+            futures.add(executor.submit(new Callable<Void>() {
+               @Override
+               public Void call() {
+                  for (int i = 0; i < NUM_KEYS; i++) {
+                     String key = prefix + i;
+                     assertNull(remoteCache.put(key, "v" + i));
+                     assertEquals("v" + i, remoteCache.get(key));
+                     assertEquals("v" + i, remoteCache.replace(key, "w" + i));
+                  }
+                  for (int i = 0; i < NUM_KEYS; i++) {
+                     assertEquals("w" + i, remoteCache.remove(prefix + i));
+                  }
+                  return null;
+               }
+            }));
+         }
+         for (Future<Void> future : futures) {
+            future.get();
+         }
+      } finally {
+         executor.shutdownNow();
+      }
+      assertEquals(0, remoteCache.size());
+   }
+
+   public void testManyAsyncOperations() throws Exception {
+      List<NotifyingFuture<String>> puts = new ArrayList<NotifyingFuture<String>>();
+      for (int i = 0; i < NUM_KEYS; i++) {
+         puts.add(remoteCache.putAsync("async-" + i, "v" + i));
+      }
+      for (NotifyingFuture<String> put : puts) {
+         assertNull(put.get(10, TimeUnit.SECONDS));
+      }
+      List<NotifyingFuture<String>> gets = new ArrayList<NotifyingFuture<String>>();
+      for (int i = 0; i < NUM_KEYS; i++) {
+         gets.add(remoteCache.getAsync("async-" + i));
+      }
+      for (int i = 0; i < NUM_KEYS; i++) {
+         assertEquals("v" + i, gets.get(i).get(10, TimeUnit.SECONDS));
+      }
+      for (int i = 0; i < NUM_KEYS; i++) {
+         assertEquals("v" + i, remoteCache.removeAsync("async-" + i).get(10, TimeUnit.SECONDS));
+      }
+   }
+
+   public void testReconnectAfterInvalidation() {
+      remoteCache.put("k", "v1");
+      // Closes the shared connection, the next operation opens a new one
+      NettyTransportFactory transportFactory = TestingUtil.extractField(remoteCacheManager, "transportFactory");
+      transportFactory.invalidateTransport(new InetSocketAddress("127.0.0.1", hotrodServer.getPort()), null);
+      assertEquals("v1", remoteCache.put("k", "v2"));
+      assertEquals("v2", remoteCache.get("k"));
+   }
+}
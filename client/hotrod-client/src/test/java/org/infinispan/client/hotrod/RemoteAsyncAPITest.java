@@ -47,12 +47,16 @@ protected EmbeddedCacheManager createCacheManager() throws Exception {
    protected void setup() throws Exception {
       super.setup();
       hotrodServer = TestHelper.startHotRodServer(cacheManager);
+      rcm = new RemoteCacheManager(getClientProperties());
+      c = rcm.getCache(true);
+   }
+
+   protected Properties getClientProperties() {
       Properties props = new Properties();
       props.put("infinispan.client.hotrod.server_list", "127.0.0.1:" + hotrodServer.getPort());
       props.put("infinispan.client.hotrod.force_return_values","true");
       props.put("testOnBorrow", "false");
-      rcm = new RemoteCacheManager(props);
-      c = rcm.getCache(true);
+      return props;
    }
 
    @AfterClass
@@ -241,6 +245,28 @@ public void testReplaceWithVersionAsyncWithListener() throws Exception {
       testK("v2");
    }
 
+   public void testSyncOperationInListener() throws Exception {
+      c.put("k", "v");
+      final AtomicReference<Object> result = new AtomicReference<Object>();
+      final CountDownLatch latch = new CountDownLatch(1);
+      c.getAsync("k").attachListener(new FutureListener<String>() {
+         @Override
+         public void futureDone(Future<String> future) {
+            try {
+               result.set(c.get("k"));
+            } catch (Throwable t) {
+               result.set(t);
+            } finally {
+               latch.countDown();
+            }
+         }
+      });
+      if (!latch.await(5, TimeUnit.SECONDS)) {
+         fail("Not finished within 5 seconds");
+      }
+      assertEquals("v", result.get());
+   }
+
    private <T> void testK(T expected) {
       assertEquals(expected, c.get("k"));
    }
@@ -15,7 +15,6 @@
 import org.jboss.marshalling.Unmarshaller;
 import org.jboss.marshalling.reflect.SunReflectiveCreator;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInput;
@@ -106,8 +105,7 @@ final public void finishObjectOutput(final ObjectOutput oo) {
    @Override
    final public Object objectFromByteBuffer(final byte[] buf, final int offset, final int length) throws IOException,
            ClassNotFoundException {
-      ByteArrayInputStream is = new ByteArrayInputStream(buf, offset, length);
-      ObjectInput unmarshaller = startObjectInput(is, false);
+      ObjectInput unmarshaller = startObjectInput(buf, offset, length);
       Object o = null;
       try {
          o = objectFromObjectStream(unmarshaller);
@@ -130,6 +128,18 @@ final public ObjectInput startObjectInput(final InputStream is, final boolean is
       return unmarshaller;
    }
 
+   /**
+    * Starts an unmarshaller that reads directly from the given array region, instead of going through an {@link
+    * InputStream}. The array is not copied, so it must not be modified until {@link #finishObjectInput(ObjectInput)}
+    * is called.
+    */
+   final public ObjectInput startObjectInput(final byte[] buf, final int offset, final int length) throws IOException {
+      PerThreadInstanceHolder instanceHolder = getPerThreadInstanceHolder();
+      Unmarshaller unmarshaller = instanceHolder.getUnmarshaller();
+      unmarshaller.start(new ArrayByteInput(buf, offset, length));
+      return unmarshaller;
+   }
+
    @Override
    final public Object objectFromObjectStream(final ObjectInput in) throws IOException, ClassNotFoundException {
       return in.readObject();
@@ -0,0 +1,63 @@
+package org.infinispan.commons.marshall.jboss;
+
+import org.jboss.marshalling.ByteInput;
+
+/**
+ * A {@link ByteInput} reading a region of a byte array in place. Unlike {@link java.io.ByteArrayInputStream}, it is
+ * not synchronized.
+ *
+ * @since 7.1
+ */
+final class ArrayByteInput implements ByteInput {
+   private final byte[] buf;
+   private final int limit;
+   private int pos;
+
+   ArrayByteInput(byte[] buf, int offset, int length) {
+      this.buf = buf;
+      this.pos = offset;
+      this.limit = offset + length;
+   }
+
+   @Override
+   public int read() {
+      return pos < limit ? buf[pos++] & 0xff : -1;
+   }
+
+   @Override
+   public int read(byte[] b) {
+      return read(b, 0, b.length);
+   }
+
+   @Override
+   public int read(byte[] b, int off, int len) {
+      if (len == 0)
+         return 0;
+      int remaining = limit - pos;
+      if (remaining <= 0)
+         return -1;
+      int count = Math.min(len, remaining);
+      System.arraycopy(buf, pos, b, off, count);
+      pos += count;
+      return count;
+   }
+
+   @Override
+   public int available() {
+      return limit - pos;
+   }
+
+   @Override
+   public long skip(long n) {
+      if (n <= 0)
+         return 0;
+      int count = (int) Math.min(n, limit - pos);
+      pos += count;
+      return count;
+   }
+
+   @Override
+   public void close() {
+      // nothing to release
+   }
+}
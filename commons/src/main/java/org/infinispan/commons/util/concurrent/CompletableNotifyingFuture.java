@@ -0,0 +1,119 @@
+package org.infinispan.commons.util.concurrent;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A {@link NotifyingFuture} that is completed explicitly by calling {@link #complete(Object)} or {@link
+ * #completeExceptionally(Throwable)}, without an underlying task or thread.
+ * <p/>
+ * Only the first completion has an effect. The listeners are invoked by the thread that completes the future, after
+ * the result is available to {@link #get()}.
+ *
+ * @since 7.1
+ */
+public class CompletableNotifyingFuture<T> extends BaseNotifyingFuture<T> {
+
+   private final CountDownLatch latch = new CountDownLatch(1);
+   private boolean completing;
+   private T value;
+   private Throwable exception;
+
+   /**
+    * @return a future already completed with the given value
+    */
+   public static <T> CompletableNotifyingFuture<T> completedFuture(T value) {
+      CompletableNotifyingFuture<T> future = new CompletableNotifyingFuture<T>();
+      future.complete(value);
+      return future;
+   }
+
+   /**
+    * Completes the future with the given value, unless it is already completed.
+    *
+    * @return {@code true} if this call completed the future
+    */
+   public boolean complete(T value) {
+      synchronized (this) {
+         if (completing)
+            return false;
+         completing = true;
+         this.value = value;
+      }
+      done();
+      return true;
+   }
+
+   /**
+    * Completes the future with the given exception, unless it is already completed. {@link #get()} will throw an
+    * {@link ExecutionException} wrapping it.
+    *
+    * @return {@code true} if this call completed the future
+    */
+   public boolean completeExceptionally(Throwable exception) {
+      if (exception == null)
+         throw new IllegalArgumentException("The exception must not be null");
+      synchronized (this) {
+         if (completing)
+            return false;
+         completing = true;
+         this.exception = exception;
+      }
+      done();
+      return true;
+   }
+
+   private void done() {
+      try {
+         fireListeners();
+      } finally {
+         latch.countDown();
+      }
+   }
+
+   /**
+    * Completes the future with a {@link CancellationException}. The operation that should have completed the future is
+    * not interrupted.
+    */
+   @Override
+   public boolean cancel(boolean mayInterruptIfRunning) {
+      return completeExceptionally(new CancellationException());
+   }
+
+   @Override
+   public synchronized boolean isCancelled() {
+      return exception instanceof CancellationException;
+   }
+
+   @Override
+   public boolean isDone() {
+      return callCompleted;
+   }
+
+   @Override
+   public T get() throws InterruptedException, ExecutionException {
+      if (!callCompleted) {
+         latch.await();
+      }
+      return report();
+   }
+
+   @Override
+   public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+      if (!callCompleted && !latch.await(timeout, unit)) {
+         throw new TimeoutException();
+      }
+      return report();
+   }
+
+   private synchronized T report() throws ExecutionException {
+      if (exception instanceof CancellationException)
+         throw (CancellationException) exception;
+      if (exception != null)
+         throw new ExecutionException(exception);
+      return value;
+   }
+}
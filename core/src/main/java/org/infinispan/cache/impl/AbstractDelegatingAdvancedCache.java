@@ -27,6 +27,7 @@
 import java.util.Collection;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Similar to {@link org.infinispan.cache.impl.AbstractDelegatingCache}, but for {@link AdvancedCache}.
@@ -198,6 +199,11 @@ public CacheEntry<K, V> getCacheEntry(K key) {
       return cache.getCacheEntry(key);
    }
 
+   @Override
+   public java.util.Map<K, V> getAll(java.util.Set<?> keys) {
+      return cache.getAll(keys);
+   }
+
    @Override
    public EntryIterable<K, V> filterEntries(KeyValueFilter<? super K, ? super V> filter) {
       return cache.filterEntries(filter);
@@ -218,6 +224,11 @@ public V put(K key, V value, Metadata metadata) {
       return cache.put(key, value, metadata);
    }
 
+   @Override
+   public void putAll(Map<? extends K, ? extends V> map, Metadata metadata) {
+      cache.putAll(map, metadata);
+   }
+
    @Override
    public V replace(K key, V value, Metadata metadata) {
       return cache.replace(key, value, metadata);
@@ -9,6 +9,7 @@
 import org.infinispan.commands.control.LockControlCommand;
 import org.infinispan.commands.read.EntryRetrievalCommand;
 import org.infinispan.commands.read.EntrySetCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetCacheEntryCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.KeySetCommand;
@@ -17,6 +18,7 @@
 import org.infinispan.commands.remote.GetKeysInGroupCommand;
 import org.infinispan.commands.write.ApplyDeltaCommand;
 import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.DataWriteCommand;
 import org.infinispan.commands.write.EvictCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commands.write.PutMapCommand;
@@ -32,17 +34,23 @@
 import org.infinispan.commons.util.CloseableIteratorSet;
 import org.infinispan.commons.util.Util;
 import org.infinispan.commons.util.concurrent.AbstractInProcessNotifyingFuture;
+import org.infinispan.commons.util.concurrent.CompletableNotifyingFuture;
+import org.infinispan.commons.util.concurrent.FutureListener;
 import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.commons.util.concurrent.NotifyingFutureImpl;
+import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.format.PropertyFormatter;
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.InvocationContextContainer;
 import org.infinispan.context.InvocationContextFactory;
+import org.infinispan.context.InvocationRecycler;
+import org.infinispan.context.SingleKeyNonTxInvocationContext;
 import org.infinispan.context.impl.TxInvocationContext;
 import org.infinispan.distribution.DistributionManager;
 import org.infinispan.eviction.EvictionManager;
@@ -54,8 +62,15 @@
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.filter.KeyValueFilter;
 import org.infinispan.filter.NullValueConverter;
+import org.infinispan.interceptors.CacheMgmtInterceptor;
+import org.infinispan.interceptors.CallInterceptor;
+import org.infinispan.interceptors.EntryWrappingInterceptor;
 import org.infinispan.interceptors.InterceptorChain;
+import org.infinispan.interceptors.InvocationContextInterceptor;
+import org.infinispan.interceptors.NotificationInterceptor;
 import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.interceptors.locking.ClusteringDependentLogic;
+import org.infinispan.interceptors.locking.NonTransactionalLockingInterceptor;
 import org.infinispan.iteration.EntryIterable;
 import org.infinispan.iteration.impl.EntryRetriever;
 import org.infinispan.jmx.annotations.DataType;
@@ -68,12 +83,16 @@
 import org.infinispan.metadata.EmbeddedMetadata;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryVisited;
 import org.infinispan.notifications.cachelistener.filter.CacheEventConverter;
 import org.infinispan.notifications.cachelistener.filter.CacheEventFilter;
 import org.infinispan.partitionhandling.AvailabilityMode;
 import org.infinispan.partitionhandling.impl.PartitionHandlingManager;
+import org.infinispan.remoting.RemoteException;
 import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.transport.jgroups.SuspectException;
 import org.infinispan.security.AuthorizationManager;
+import org.infinispan.statetransfer.OutdatedTopologyException;
 import org.infinispan.stats.Stats;
 import org.infinispan.stats.impl.StatsImpl;
 import org.infinispan.topology.LocalTopologyManager;
@@ -81,6 +100,7 @@
 import org.infinispan.transaction.impl.TransactionTable;
 import org.infinispan.transaction.xa.TransactionXaAdapter;
 import org.infinispan.transaction.xa.recovery.RecoveryManager;
+import org.infinispan.util.TimeService;
 import org.infinispan.util.concurrent.locks.LockManager;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
@@ -94,6 +114,7 @@
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -121,6 +142,10 @@
 @MBean(objectName = CacheImpl.OBJECT_NAME, description = "Component that represents an individual cache instance.")
 public class CacheImpl<K, V> implements AdvancedCache<K, V> {
    public static final String OBJECT_NAME = "Cache";
+   // The interceptors that a local non-transactional read goes through, when it only reads the data container
+   private static final Set<Class<?>> LOCAL_READ_INTERCEPTORS = new HashSet<Class<?>>(Arrays.<Class<?>>asList(
+         InvocationContextInterceptor.class, CacheMgmtInterceptor.class, NotificationInterceptor.class,
+         NonTransactionalLockingInterceptor.class, EntryWrappingInterceptor.class, CallInterceptor.class));
    protected InvocationContextContainer icc;
    protected InvocationContextFactory invocationContextFactory;
    protected CommandsFactory commandsFactory;
@@ -151,6 +176,13 @@
    private boolean isClassLoaderInContext;
    private EntryRetriever<K, V> entryRetriever;
    private LocalTopologyManager localTopologyManager;
+   private ClusteringDependentLogic clusteringDependentLogic;
+   private volatile boolean asyncForwardingSupported;
+   private boolean localReadsSupported;
+   private volatile LocalReads localReads;
+   private TimeService timeService;
+   private volatile boolean recyclingSupported;
+   private InvocationRecycler recycler;
 
    public CacheImpl(String name) {
       this.name = name;
@@ -418,11 +450,56 @@ public final V get(Object key) {
    @SuppressWarnings("unchecked")
    final V get(Object key, EnumSet<Flag> explicitFlags, ClassLoader explicitClassLoader) {
       assertKeyNotNull(key);
+      if (explicitFlags == null && explicitClassLoader == null && localReadsSupported) {
+         LocalReads reads = localReads;
+         if (reads.chainModificationCount != invoker.getModificationCount()) {
+            reads = updateLocalReads();
+         }
+         if (reads.enabled && componentRegistry.getStatus() == ComponentStatus.RUNNING
+               && !notifier.hasListener(CacheEntryVisited.class) && !invoker.isProfiling()) {
+            return getLocally(key, reads.statistics);
+         }
+      }
+      if (recyclingSupported) {
+         InvocationContext ctx = setInvocationContextClassLoader(recycler.acquireContext(), explicitClassLoader);
+         return (V) invoker.invoke(ctx, recycler.acquireGetKeyValueCommand(key, explicitFlags));
+      }
       InvocationContext ctx = getInvocationContextForRead(explicitClassLoader, 1);
       GetKeyValueCommand command = commandsFactory.buildGetKeyValueCommand(key, explicitFlags);
       return (V) invoker.invoke(ctx, command);
    }
 
+   /**
+    * Reads the key from the data container, with the same outcome as the interceptor chain of a local
+    * non-transactional cache without stores, listeners, or interceptors that handle reads.
+    */
+   private V getLocally(Object key, CacheMgmtInterceptor statistics) {
+      boolean statisticsEnabled = statistics != null && statistics.getStatisticsEnabled();
+      long start = statisticsEnabled ? timeService.time() : 0;
+      InternalCacheEntry<K, V> entry = dataContainer.get(key);
+      V value = entry == null || entry.isNull() || entry.isRemoved() ? null : entry.getValue();
+      if (statisticsEnabled) {
+         statistics.recordRead(start, value != null);
+      }
+      return value;
+   }
+
+   private LocalReads updateLocalReads() {
+      int modificationCount = invoker.getModificationCount();
+      boolean enabled = true;
+      CacheMgmtInterceptor statistics = null;
+      for (CommandInterceptor interceptor : invoker.asList()) {
+         if (interceptor instanceof CacheMgmtInterceptor) {
+            statistics = (CacheMgmtInterceptor) interceptor;
+         } else if (!LOCAL_READ_INTERCEPTORS.contains(interceptor.getClass())) {
+            enabled = false;
+         }
+      }
+      LocalReads reads = new LocalReads(modificationCount, enabled, statistics);
+      localReads = reads;
+      return reads;
+   }
+
    public final CacheEntry getCacheEntry(Object key, EnumSet<Flag> explicitFlags, ClassLoader explicitClassLoader) {
       assertKeyNotNull(key);
       InvocationContext ctx = getInvocationContextForRead(explicitClassLoader, 1);
@@ -436,6 +513,21 @@ public final CacheEntry getCacheEntry(K key) {
       return getCacheEntry(key, null, null);
    }
 
+   @Override
+   public Map<K, V> getAll(Set<?> keys) {
+      return getAll(keys, null, null);
+   }
+
+   @SuppressWarnings("unchecked")
+   public final Map<K, V> getAll(Set<?> keys, EnumSet<Flag> explicitFlags, ClassLoader explicitClassLoader) {
+      for (Object key : keys) {
+         assertKeyNotNull(key);
+      }
+      InvocationContext ctx = getInvocationContextForRead(explicitClassLoader, keys.size());
+      GetAllCommand command = commandsFactory.buildGetAllCommand(keys, explicitFlags);
+      return Collections.unmodifiableMap((Map<K, V>) invoker.invoke(ctx, command));
+   }
+
    @Override
    public EntryIterable<K, V> filterEntries(KeyValueFilter<? super K, ? super V> filter) {
       return filterEntries(filter, null, null);
@@ -521,7 +613,13 @@ public final V remove(Object key) {
       return remove(key, null, null);
    }
 
+   @SuppressWarnings("unchecked")
    final V remove(Object key, EnumSet<Flag> explicitFlags, ClassLoader explicitClassLoader) {
+      if (recyclingSupported) {
+         assertKeyNotNull(key);
+         InvocationContext ctx = setInvocationContextClassLoader(recycler.acquireContext(), explicitClassLoader);
+         return (V) invoker.invoke(ctx, recycler.acquireRemoveCommand(key, explicitFlags));
+      }
       InvocationContext ctx = getInvocationContextWithImplicitTransaction(false, explicitClassLoader, 1);
       return removeInternal(key, explicitFlags, ctx);
    }
@@ -818,6 +916,40 @@ public void start() {
       isClassLoaderInContext = config.clustering().cacheMode().isClustered()
             || config.persistence().usingStores()
             || config.storeAsBinary().enabled();
+      // Writes can only skip the async executor when the originator doesn't touch the entry itself
+      asyncForwardingSupported = config.clustering().cacheMode() == CacheMode.DIST_SYNC
+            && !config.transaction().transactionMode().isTransactional()
+            && !config.clustering().l1().enabled()
+            && config.customInterceptors().interceptors().isEmpty()
+            && !config.compatibility().enabled()
+            && !config.storeAsBinary().enabled()
+            && !config.persistence().usingStores()
+            && config.sites().allBackups().isEmpty();
+      if (asyncForwardingSupported) {
+         clusteringDependentLogic = componentRegistry.getComponent(ClusteringDependentLogic.class);
+      }
+      // Plain reads can skip the interceptor chain when it would only read the data container
+      localReadsSupported = !config.clustering().cacheMode().isClustered()
+            && !config.transaction().transactionMode().isTransactional()
+            && !config.persistence().usingStores()
+            && !config.indexing().index().isEnabled()
+            && !config.compatibility().enabled()
+            && !config.storeAsBinary().enabled();
+      if (localReadsSupported) {
+         timeService = componentRegistry.getTimeService();
+         updateLocalReads();
+      }
+      // Single-key invocations can reuse their context and command when nothing can keep a reference to them once
+      // they complete: no remote node, no transaction and no custom interceptor
+      InvocationRecycler recycler = componentRegistry.getComponent(InvocationRecycler.class);
+      recyclingSupported = recycler.isEnabled()
+            && !config.clustering().cacheMode().isClustered()
+            && !config.transaction().transactionMode().isTransactional()
+            && config.customInterceptors().interceptors().isEmpty()
+            && !config.indexing().index().isEnabled();
+      if (recyclingSupported) {
+         this.recycler = recycler;
+      }
 
       if (log.isDebugEnabled()) log.debugf("Started cache %s on %s", getName(), getCacheManager().getAddress());
    }
@@ -843,16 +975,22 @@ public List<CommandInterceptor> getInterceptorChain() {
 
    @Override
    public void addInterceptor(CommandInterceptor i, int position) {
+      asyncForwardingSupported = false;
+      recyclingSupported = false;
       invoker.addInterceptor(i, position);
    }
 
    @Override
    public boolean addInterceptorAfter(CommandInterceptor i, Class<? extends CommandInterceptor> afterInterceptor) {
+      asyncForwardingSupported = false;
+      recyclingSupported = false;
       return invoker.addInterceptorAfter(i, afterInterceptor);
    }
 
    @Override
    public boolean addInterceptorBefore(CommandInterceptor i, Class<? extends CommandInterceptor> beforeInterceptor) {
+      asyncForwardingSupported = false;
+      recyclingSupported = false;
       return invoker.addInterceptorBefore(i, beforeInterceptor);
    }
 
@@ -1044,6 +1182,11 @@ public final V put(K key, V value, long lifespan, TimeUnit lifespanUnit, long ma
    @SuppressWarnings("unchecked")
    final V put(K key, V value, Metadata metadata,
          EnumSet<Flag> explicitFlags, ClassLoader explicitClassLoader) {
+      if (recyclingSupported) {
+         assertKeyValueNotNull(key, value);
+         InvocationContext ctx = setInvocationContextClassLoader(recycler.acquireContext(), explicitClassLoader);
+         return (V) invoker.invoke(ctx, recycler.acquirePutKeyValueCommand(key, value, metadata, explicitFlags));
+      }
       InvocationContext ctx = getInvocationContextWithImplicitTransaction(false, explicitClassLoader, 1);
       return putInternal(key, value, metadata, explicitFlags, ctx);
    }
@@ -1171,6 +1314,94 @@ public X get() throws InterruptedException, ExecutionException {
       }
    }
 
+   /**
+    * @return {@code true} if a write to the given key only needs to be forwarded to the primary owner, so that it can
+    * be invoked on the caller's thread with {@link #forwardAsync(DataWriteCommand, ClassLoader)}
+    */
+   private boolean canForwardAsync(Object key, EnumSet<Flag> explicitFlags) {
+      return asyncForwardingSupported && key != null && (explicitFlags == null || explicitFlags.isEmpty())
+            && !clusteringDependentLogic.localNodeIsOwner(key);
+   }
+
+   /**
+    * Invokes a write command on the caller's thread, without waiting for the primary owner to respond when the command
+    * is forwarded to it. The returned future is completed from the response callback of the transport, so no thread
+    * is blocked while the command is in flight.
+    * <p/>
+    * If the primary owner changed in the meantime, the command is retried like a synchronous write, from the async
+    * executor.
+    */
+   @SuppressWarnings("unchecked")
+   private <X> NotifyingFuture<X> forwardAsync(final DataWriteCommand command, final ClassLoader explicitClassLoader) {
+      final CompletableNotifyingFuture<X> result = new CompletableNotifyingFuture<X>();
+      SingleKeyNonTxInvocationContext ctx =
+            (SingleKeyNonTxInvocationContext) createSingleKeyNonTxInvocationContext(explicitClassLoader);
+      ctx.setAsyncForwardingEnabled(true);
+      Object retval;
+      try {
+         retval = invoker.invoke(ctx, command);
+      } catch (Throwable t) {
+         result.completeExceptionally(t);
+         return result;
+      }
+      NotifyingFuture<Object> pendingForward = ctx.getPendingForward();
+      if (pendingForward == null) {
+         // The command didn't have to be forwarded after all
+         result.complete((X) retval);
+         return result;
+      }
+      pendingForward.attachListener(new FutureListener<Object>() {
+         @Override
+         public void futureDone(Future<Object> future) {
+            try {
+               result.complete((X) future.get());
+            } catch (ExecutionException e) {
+               Throwable cause = e.getCause();
+               if (isRetriableForwardFailure(cause)) {
+                  retryForward(command, explicitClassLoader, result);
+               } else {
+                  result.completeExceptionally(cause);
+               }
+            } catch (Throwable t) {
+               result.completeExceptionally(t);
+            }
+         }
+      });
+      return result;
+   }
+
+   private static boolean isRetriableForwardFailure(Throwable t) {
+      Throwable cause = t;
+      while (cause instanceof RemoteException) {
+         cause = cause.getCause();
+      }
+      return cause instanceof OutdatedTopologyException || cause instanceof SuspectException;
+   }
+
+   @SuppressWarnings("unchecked")
+   private <X> void retryForward(final DataWriteCommand command, final ClassLoader explicitClassLoader,
+                                 final CompletableNotifyingFuture<X> result) {
+      if (trace) log.tracef("Retrying asynchronously forwarded command %s", command);
+      try {
+         asyncExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+               try {
+                  // The StateTransferInterceptor sets the current topology id, and it retries the command again
+                  // if the topology is still outdated
+                  command.setTopologyId(-1);
+                  command.setFlags(Flag.COMMAND_RETRY);
+                  result.complete((X) invoker.invoke(createSingleKeyNonTxInvocationContext(explicitClassLoader), command));
+               } catch (Throwable t) {
+                  result.completeExceptionally(t);
+               }
+            }
+         });
+      } catch (Throwable t) {
+         result.completeExceptionally(t);
+      }
+   }
+
    @Override
    public final NotifyingFuture<V> putAsync(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxIdle, TimeUnit maxIdleUnit) {
       Metadata metadata = new EmbeddedMetadata.Builder()
@@ -1180,6 +1411,10 @@ public final NotifyingFuture<V> putAsync(K key, V value, long lifespan, TimeUnit
    }
 
    final NotifyingFuture<V> putAsync(final K key, final V value, final Metadata metadata, final EnumSet<Flag> explicitFlags, final ClassLoader explicitClassLoader) {
+      if (canForwardAsync(key, explicitFlags)) {
+         assertKeyValueNotNull(key, value);
+         return forwardAsync(commandsFactory.buildPutKeyValueCommand(key, value, metadata, null), explicitClassLoader);
+      }
       final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
       final InvocationContext ctx = getInvocationContextWithImplicitTransactionForAsyncOps(false, explicitClassLoader, 1);
       Future<V> returnValue = asyncExecutor.submit(new Callable<V>() {
@@ -1325,6 +1560,9 @@ public final NotifyingFuture<V> removeAsync(Object key) {
    }
 
    final NotifyingFuture<V> removeAsync(final Object key, final EnumSet<Flag> explicitFlags, final ClassLoader explicitClassLoader) {
+      if (canForwardAsync(key, explicitFlags)) {
+         return forwardAsync(commandsFactory.buildRemoveCommand(key, null, null), explicitClassLoader);
+      }
       final NotifyingFutureImpl<V> result = new NotifyingFutureImpl<V>();
       final InvocationContext ctx = getInvocationContextWithImplicitTransactionForAsyncOps(false, explicitClassLoader, 1);
       Future<V> returnValue = asyncExecutor.submit(new Callable<V>() {
@@ -1359,6 +1597,9 @@ public final NotifyingFuture<Boolean> removeAsync(Object key, Object value) {
    }
 
    final NotifyingFuture<Boolean> removeAsync(final Object key, final Object value, final EnumSet<Flag> explicitFlags, final ClassLoader explicitClassLoader) {
+      if (canForwardAsync(key, explicitFlags)) {
+         return forwardAsync(commandsFactory.buildRemoveCommand(key, value, null), explicitClassLoader);
+      }
       final NotifyingFutureImpl<Boolean> result = new NotifyingFutureImpl<Boolean>();
       final InvocationContext ctx = getInvocationContextWithImplicitTransactionForAsyncOps(false, explicitClassLoader, 1);
       Future<Boolean> returnValue = asyncExecutor.submit(new Callable<Boolean>() {
@@ -1649,6 +1890,11 @@ public V put(K key, V value, Metadata metadata) {
       return put(key, value, merged, null, null);
    }
 
+   @Override
+   public void putAll(Map<? extends K, ? extends V> map, Metadata metadata) {
+      putAll(map, applyDefaultMetadata(metadata), null, null);
+   }
+
    private Metadata applyDefaultMetadata(Metadata metadata) {
       Metadata.Builder builder = metadata.builder();
       return builder != null ? builder.merge(defaultMetadata).build() : metadata;
@@ -1724,4 +1970,19 @@ private void resumePreviousOngoingTransaction(Transaction transaction, boolean f
    public Properties getConfigurationAsProperties() {
       return new PropertyFormatter().format(config);
    }
+
+   /**
+    * Whether plain reads can skip the interceptor chain, for a version of the chain.
+    */
+   private static final class LocalReads {
+      final int chainModificationCount;
+      final boolean enabled;
+      final CacheMgmtInterceptor statistics;
+
+      LocalReads(int chainModificationCount, boolean enabled, CacheMgmtInterceptor statistics) {
+         this.chainModificationCount = chainModificationCount;
+         this.enabled = enabled;
+         this.statistics = statistics;
+      }
+   }
 }
@@ -12,6 +12,7 @@
 import org.infinispan.commands.control.LockControlCommand;
 import org.infinispan.commands.read.DistributedExecuteCommand;
 import org.infinispan.commands.read.EntrySetCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetCacheEntryCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.KeySetCommand;
@@ -149,6 +150,14 @@ public interface CommandsFactory {
     */
    GetCacheEntryCommand buildGetCacheEntryCommand(Object key, Set<Flag> explicitFlags);
 
+   /**
+    * Builds a GetAllCommand
+    * @param keys keys to get
+    * @param explicitFlags Command flags provided by cache
+    * @return a GetAllCommand
+    */
+   GetAllCommand buildGetAllCommand(Collection<?> keys, Set<Flag> explicitFlags);
+
    /**
     * Builds a KeySetCommand
     * @param flags Command flags provided by cache
@@ -15,6 +15,7 @@
 import org.infinispan.commands.module.ModuleCommandInitializer;
 import org.infinispan.commands.read.DistributedExecuteCommand;
 import org.infinispan.commands.read.EntrySetCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetCacheEntryCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.KeySetCommand;
@@ -483,6 +484,9 @@ public void initializeReplicableCommand(ReplicableCommand c, boolean isRemote) {
             GetKeysInGroupCommand getKeysInGroupCommand = (GetKeysInGroupCommand) c;
             getKeysInGroupCommand.setGroupManager(groupManager);
             break;
+         case GetAllCommand.COMMAND_ID:
+            ((GetAllCommand) c).init(entryFactory);
+            break;
          default:
             ModuleCommandInitializer mci = moduleCommandInitializers.get(c.getCommandId());
             if (mci != null) {
@@ -635,4 +639,9 @@ public GetCacheEntryCommand buildGetCacheEntryCommand(Object key, Set<Flag> expl
       return new GetCacheEntryCommand(key, explicitFlags, entryFactory);
    }
 
+   @Override
+   public GetAllCommand buildGetAllCommand(Collection<?> keys, Set<Flag> explicitFlags) {
+      return new GetAllCommand(keys, explicitFlags, entryFactory);
+   }
+
 }
@@ -4,6 +4,7 @@
 import org.infinispan.commands.module.ExtendedModuleCommandFactory;
 import org.infinispan.commands.module.ModuleCommandFactory;
 import org.infinispan.commands.read.DistributedExecuteCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetCacheEntryCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.MapCombineCommand;
@@ -92,59 +93,72 @@ public void inject(EmbeddedCacheManager cacheManager, GlobalComponentRegistry re
     * @return a replicable command
     */
    public ReplicableCommand fromStream(byte id, Object[] parameters, byte type) {
-      ReplicableCommand command;
-      if (type == 0) {
-         switch (id) {
-            case PutKeyValueCommand.COMMAND_ID:
-               command = new PutKeyValueCommand();
-               break;
-            case PutMapCommand.COMMAND_ID:
-               command = new PutMapCommand();
-               break;
-            case RemoveCommand.COMMAND_ID:
-               command = new RemoveCommand();
-               break;
-            case ReplaceCommand.COMMAND_ID:
-               command = new ReplaceCommand();
-               break;
-            case GetKeyValueCommand.COMMAND_ID:
-               command = new GetKeyValueCommand();
-               break;
-            case ClearCommand.COMMAND_ID:
-               command = new ClearCommand();
-               break;
-            case InvalidateCommand.COMMAND_ID:
-               command = new InvalidateCommand();
-               break;
-            case InvalidateL1Command.COMMAND_ID:
-               command = new InvalidateL1Command();
-               break;
-            case ApplyDeltaCommand.COMMAND_ID:
-               command = new ApplyDeltaCommand();
-               break;
-            case CacheTopologyControlCommand.COMMAND_ID:
-               command = new CacheTopologyControlCommand();
-               break;
-            case GetKeysInGroupCommand.COMMAND_ID:
-               command = new GetKeysInGroupCommand();
-               break;
-            case GetCacheEntryCommand.COMMAND_ID:
-               command = new GetCacheEntryCommand();
-               break;
-            default:
-               throw new CacheException("Unknown command id " + id + "!");
-         }
-      } else {
+      if (type != 0) {
          ModuleCommandFactory mcf = commandFactories.get(id);
          if (mcf != null)
             return mcf.fromStream(id, parameters);
          else
             throw new CacheException("Unknown command id " + id + "!");
       }
+      ReplicableCommand command = newCommand(id);
       command.setParameters(id, parameters);
       return command;
    }
 
+   /**
+    * Creates an empty core command, whose state is then read with {@link StreamableCommand#readFrom(java.io.ObjectInput)}.
+    *
+    * @param id id of the command
+    * @return a replicable command without parameters
+    */
+   public ReplicableCommand newCommand(byte id) {
+      ReplicableCommand command;
+      switch (id) {
+         case PutKeyValueCommand.COMMAND_ID:
+            command = new PutKeyValueCommand();
+            break;
+         case PutMapCommand.COMMAND_ID:
+            command = new PutMapCommand();
+            break;
+         case RemoveCommand.COMMAND_ID:
+            command = new RemoveCommand();
+            break;
+         case ReplaceCommand.COMMAND_ID:
+            command = new ReplaceCommand();
+            break;
+         case GetKeyValueCommand.COMMAND_ID:
+            command = new GetKeyValueCommand();
+            break;
+         case ClearCommand.COMMAND_ID:
+            command = new ClearCommand();
+            break;
+         case InvalidateCommand.COMMAND_ID:
+            command = new InvalidateCommand();
+            break;
+         case InvalidateL1Command.COMMAND_ID:
+            command = new InvalidateL1Command();
+            break;
+         case ApplyDeltaCommand.COMMAND_ID:
+            command = new ApplyDeltaCommand();
+            break;
+         case CacheTopologyControlCommand.COMMAND_ID:
+            command = new CacheTopologyControlCommand();
+            break;
+         case GetKeysInGroupCommand.COMMAND_ID:
+            command = new GetKeysInGroupCommand();
+            break;
+         case GetCacheEntryCommand.COMMAND_ID:
+            command = new GetCacheEntryCommand();
+            break;
+         case GetAllCommand.COMMAND_ID:
+            command = new GetAllCommand();
+            break;
+         default:
+            throw new CacheException("Unknown command id " + id + "!");
+      }
+      return command;
+   }
+
    /**
     * Resolve an {@link CacheRpcCommand} from the stream.
     *
@@ -155,119 +169,131 @@ public ReplicableCommand fromStream(byte id, Object[] parameters, byte type) {
     * @return              an instance of {@link CacheRpcCommand}
     */
    public CacheRpcCommand fromStream(byte id, Object[] parameters, byte type, String cacheName) {
-      CacheRpcCommand command;
-      if (type == 0) {
-         switch (id) {
-            case LockControlCommand.COMMAND_ID:
-               command = new LockControlCommand(cacheName);
-               break;
-            case PrepareCommand.COMMAND_ID:
-               command = new PrepareCommand(cacheName);
-               break;
-            case VersionedPrepareCommand.COMMAND_ID:
-               command = new VersionedPrepareCommand(cacheName);
-               break;
-            case TotalOrderNonVersionedPrepareCommand.COMMAND_ID:
-               command = new TotalOrderNonVersionedPrepareCommand(cacheName);
-               break;
-            case TotalOrderVersionedPrepareCommand.COMMAND_ID:
-               command = new TotalOrderVersionedPrepareCommand(cacheName);
-               break;
-            case CommitCommand.COMMAND_ID:
-               command = new CommitCommand(cacheName);
-               break;
-            case VersionedCommitCommand.COMMAND_ID:
-               command = new VersionedCommitCommand(cacheName);
-               break;
-            case TotalOrderCommitCommand.COMMAND_ID:
-               command = new TotalOrderCommitCommand(cacheName);
-               break;
-            case TotalOrderVersionedCommitCommand.COMMAND_ID:
-               command = new TotalOrderVersionedCommitCommand(cacheName);
-               break;
-            case RollbackCommand.COMMAND_ID:
-               command = new RollbackCommand(cacheName);
-               break;
-            case TotalOrderRollbackCommand.COMMAND_ID:
-               command = new TotalOrderRollbackCommand(cacheName);
-               break;
-            case MultipleRpcCommand.COMMAND_ID:
-               command = new MultipleRpcCommand(cacheName);
-               break;
-            case SingleRpcCommand.COMMAND_ID:
-               command = new SingleRpcCommand(cacheName);
-               break;
-            case ClusteredGetCommand.COMMAND_ID:
-               command = new ClusteredGetCommand(cacheName);
-               break;
-            case StateRequestCommand.COMMAND_ID:
-               command = new StateRequestCommand(cacheName);
-               break;
-            case StateResponseCommand.COMMAND_ID:
-               command = new StateResponseCommand(cacheName);
-               break;
-            case RemoveCacheCommand.COMMAND_ID:
-               ComponentRegistry namedCacheRegistry = registry.getNamedComponentRegistry(cacheName);
-               command = new RemoveCacheCommand(cacheName, cacheManager, this.registry,
-                     namedCacheRegistry.getComponent(PersistenceManager.class),
-                     namedCacheRegistry.getComponent(CacheJmxRegistration.class));
-               break;
-            case TxCompletionNotificationCommand.COMMAND_ID:
-               command = new TxCompletionNotificationCommand(cacheName);
-               break;
-            case GetInDoubtTransactionsCommand.COMMAND_ID:
-               command = new GetInDoubtTransactionsCommand(cacheName);
-               break;
-            case MapCombineCommand.COMMAND_ID:
-               command = new MapCombineCommand(cacheName);
-               break;
-            case ReduceCommand.COMMAND_ID:
-               command = new ReduceCommand(cacheName);
-               break;
-            case DistributedExecuteCommand.COMMAND_ID:
-               command = new DistributedExecuteCommand(cacheName);
-               break;
-            case GetInDoubtTxInfoCommand.COMMAND_ID:
-               command = new GetInDoubtTxInfoCommand(cacheName);
-               break;
-            case CompleteTransactionCommand.COMMAND_ID:
-               command = new CompleteTransactionCommand(cacheName);
-               break;
-            case CreateCacheCommand.COMMAND_ID:
-               command = new CreateCacheCommand(cacheName);
-               break;
-            case XSiteAdminCommand.COMMAND_ID:
-               command = new XSiteAdminCommand(cacheName);
-               break;
-            case CancelCommand.COMMAND_ID:
-               command = new CancelCommand(cacheName);
-               break;
-            case XSiteStateTransferControlCommand.COMMAND_ID:
-               command = new XSiteStateTransferControlCommand(cacheName);
-               break;
-            case XSiteStatePushCommand.COMMAND_ID:
-               command = new XSiteStatePushCommand(cacheName);
-               break;
-            case SingleXSiteRpcCommand.COMMAND_ID:
-               command = new SingleXSiteRpcCommand(cacheName);
-               break;
-            case EntryRequestCommand.COMMAND_ID:
-               command = new EntryRequestCommand(cacheName);
-               break;
-            case EntryResponseCommand.COMMAND_ID:
-               command = new EntryResponseCommand(cacheName);
-               break;
-            default:
-               throw new CacheException("Unknown command id " + id + "!");
-         }
-      } else {
+      if (type != 0) {
          ExtendedModuleCommandFactory mcf = (ExtendedModuleCommandFactory) commandFactories.get(id);
          if (mcf != null)
             return mcf.fromStream(id, parameters, cacheName);
          else
             throw new CacheException("Unknown command id " + id + "!");
       }
+      CacheRpcCommand command = newCacheRpcCommand(id, cacheName);
       command.setParameters(id, parameters);
       return command;
    }
+
+   /**
+    * Creates an empty core {@link CacheRpcCommand}, whose state is then read with {@link
+    * StreamableCommand#readFrom(java.io.ObjectInput)}.
+    *
+    * @param id        id of the command
+    * @param cacheName cache name at which this command is directed
+    * @return a cache command without parameters
+    */
+   public CacheRpcCommand newCacheRpcCommand(byte id, String cacheName) {
+      CacheRpcCommand command;
+      switch (id) {
+         case LockControlCommand.COMMAND_ID:
+            command = new LockControlCommand(cacheName);
+            break;
+         case PrepareCommand.COMMAND_ID:
+            command = new PrepareCommand(cacheName);
+            break;
+         case VersionedPrepareCommand.COMMAND_ID:
+            command = new VersionedPrepareCommand(cacheName);
+            break;
+         case TotalOrderNonVersionedPrepareCommand.COMMAND_ID:
+            command = new TotalOrderNonVersionedPrepareCommand(cacheName);
+            break;
+         case TotalOrderVersionedPrepareCommand.COMMAND_ID:
+            command = new TotalOrderVersionedPrepareCommand(cacheName);
+            break;
+         case CommitCommand.COMMAND_ID:
+            command = new CommitCommand(cacheName);
+            break;
+         case VersionedCommitCommand.COMMAND_ID:
+            command = new VersionedCommitCommand(cacheName);
+            break;
+         case TotalOrderCommitCommand.COMMAND_ID:
+            command = new TotalOrderCommitCommand(cacheName);
+            break;
+         case TotalOrderVersionedCommitCommand.COMMAND_ID:
+            command = new TotalOrderVersionedCommitCommand(cacheName);
+            break;
+         case RollbackCommand.COMMAND_ID:
+            command = new RollbackCommand(cacheName);
+            break;
+         case TotalOrderRollbackCommand.COMMAND_ID:
+            command = new TotalOrderRollbackCommand(cacheName);
+            break;
+         case MultipleRpcCommand.COMMAND_ID:
+            command = new MultipleRpcCommand(cacheName);
+            break;
+         case SingleRpcCommand.COMMAND_ID:
+            command = new SingleRpcCommand(cacheName);
+            break;
+         case ClusteredGetCommand.COMMAND_ID:
+            command = new ClusteredGetCommand(cacheName);
+            break;
+         case StateRequestCommand.COMMAND_ID:
+            command = new StateRequestCommand(cacheName);
+            break;
+         case StateResponseCommand.COMMAND_ID:
+            command = new StateResponseCommand(cacheName);
+            break;
+         case RemoveCacheCommand.COMMAND_ID:
+            ComponentRegistry namedCacheRegistry = registry.getNamedComponentRegistry(cacheName);
+            command = new RemoveCacheCommand(cacheName, cacheManager, this.registry,
+                  namedCacheRegistry.getComponent(PersistenceManager.class),
+                  namedCacheRegistry.getComponent(CacheJmxRegistration.class));
+            break;
+         case TxCompletionNotificationCommand.COMMAND_ID:
+            command = new TxCompletionNotificationCommand(cacheName);
+            break;
+         case GetInDoubtTransactionsCommand.COMMAND_ID:
+            command = new GetInDoubtTransactionsCommand(cacheName);
+            break;
+         case MapCombineCommand.COMMAND_ID:
+            command = new MapCombineCommand(cacheName);
+            break;
+         case ReduceCommand.COMMAND_ID:
+            command = new ReduceCommand(cacheName);
+            break;
+         case DistributedExecuteCommand.COMMAND_ID:
+            command = new DistributedExecuteCommand(cacheName);
+            break;
+         case GetInDoubtTxInfoCommand.COMMAND_ID:
+            command = new GetInDoubtTxInfoCommand(cacheName);
+            break;
+         case CompleteTransactionCommand.COMMAND_ID:
+            command = new CompleteTransactionCommand(cacheName);
+            break;
+         case CreateCacheCommand.COMMAND_ID:
+            command = new CreateCacheCommand(cacheName);
+            break;
+         case XSiteAdminCommand.COMMAND_ID:
+            command = new XSiteAdminCommand(cacheName);
+            break;
+         case CancelCommand.COMMAND_ID:
+            command = new CancelCommand(cacheName);
+            break;
+         case XSiteStateTransferControlCommand.COMMAND_ID:
+            command = new XSiteStateTransferControlCommand(cacheName);
+            break;
+         case XSiteStatePushCommand.COMMAND_ID:
+            command = new XSiteStatePushCommand(cacheName);
+            break;
+         case SingleXSiteRpcCommand.COMMAND_ID:
+            command = new SingleXSiteRpcCommand(cacheName);
+            break;
+         case EntryRequestCommand.COMMAND_ID:
+            command = new EntryRequestCommand(cacheName);
+            break;
+         case EntryResponseCommand.COMMAND_ID:
+            command = new EntryResponseCommand(cacheName);
+            break;
+         default:
+            throw new CacheException("Unknown command id " + id + "!");
+      }
+      return command;
+   }
 }
@@ -0,0 +1,31 @@
+package org.infinispan.commands;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * A {@link ReplicableCommand} that writes its state directly to the stream, instead of boxing it in the array
+ * returned by {@link #getParameters()}.
+ * <p/>
+ * The compact format is only used when all the nodes in the cluster understand it, i.e. when the marshalling version
+ * configured with {@link org.infinispan.configuration.global.SerializationConfigurationBuilder#version(String)} is
+ * at least 7.1. Otherwise the command is still marshalled with {@link #getParameters()}, so both methods must be kept.
+ * <p/>
+ * At read time, the command is created by {@link RemoteCommandsFactory} with its default (or cache name) constructor
+ * and then {@link #readFrom(ObjectInput)} is invoked.
+ *
+ * @since 7.1
+ */
+public interface StreamableCommand extends ReplicableCommand {
+
+   /**
+    * Writes the state of the command. The command id, the cache name and the topology id are written by the caller.
+    */
+   void writeTo(ObjectOutput output) throws IOException;
+
+   /**
+    * Reads the state written by {@link #writeTo(ObjectOutput)}.
+    */
+   void readFrom(ObjectInput input) throws IOException, ClassNotFoundException;
+}
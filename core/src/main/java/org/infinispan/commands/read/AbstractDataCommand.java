@@ -4,6 +4,7 @@
 import org.infinispan.commands.DataCommand;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
+import org.infinispan.context.Recyclable;
 import org.infinispan.lifecycle.ComponentStatus;
 
 import java.util.Set;
@@ -17,6 +18,7 @@
  */
 public abstract class AbstractDataCommand extends AbstractFlagAffectedCommand implements DataCommand {
    protected Object key;
+   private Recyclable.State recycleState = Recyclable.State.NOT_POOLED;
 
    @Override
    public Object getKey() {
@@ -97,4 +99,29 @@ public boolean isReturnValueExpected() {
    public boolean canBlock() {
       return false;
    }
+
+   /**
+    * Implements {@link Recyclable#getRecycleState()} for the subclasses that can be pooled.
+    */
+   public Recyclable.State getRecycleState() {
+      return recycleState;
+   }
+
+   public void setRecycleState(Recyclable.State recycleState) {
+      this.recycleState = recycleState;
+   }
+
+   protected final void assertNotReleased() {
+      if (recycleState == Recyclable.State.RELEASED)
+         throw new IllegalStateException(getClass().getSimpleName() + " used after the end of its invocation");
+   }
+
+   /**
+    * Clears the fields set by the constructor, for the subclasses that implement {@link Recyclable}.
+    */
+   protected void recycleFields() {
+      key = null;
+      flags = null;
+      setTopologyId(-1);
+   }
 }
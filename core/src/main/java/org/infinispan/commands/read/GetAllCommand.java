@@ -0,0 +1,121 @@
+package org.infinispan.commands.read;
+
+import org.infinispan.commands.AbstractFlagAffectedCommand;
+import org.infinispan.commands.VisitableCommand;
+import org.infinispan.commands.Visitor;
+import org.infinispan.container.InternalEntryFactory;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.context.Flag;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.lifecycle.ComponentStatus;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Retrieves the values mapped to several keys with a single invocation.
+ * <p/>
+ * On the originator the command returns a {@link Map} from the keys found to their values. When executed remotely,
+ * on behalf of an originator that does not own the keys, it returns a {@link Map} from the keys found to their
+ * {@link org.infinispan.container.entries.InternalCacheValue}s, so that the originator can wrap them with their
+ * metadata.
+ *
+ * @since 7.1
+ */
+public class GetAllCommand extends AbstractFlagAffectedCommand implements VisitableCommand {
+
+   public static final byte COMMAND_ID = 44;
+
+   private Collection<?> keys;
+   private transient InternalEntryFactory entryFactory;
+
+   public GetAllCommand(Collection<?> keys, Set<Flag> flags, InternalEntryFactory entryFactory) {
+      this.keys = keys;
+      this.entryFactory = entryFactory;
+      setFlags(flags);
+   }
+
+   public GetAllCommand() {
+   }
+
+   public void init(InternalEntryFactory entryFactory) {
+      this.entryFactory = entryFactory;
+   }
+
+   @Override
+   public Object acceptVisitor(InvocationContext ctx, Visitor visitor) throws Throwable {
+      return visitor.visitGetAllCommand(ctx, this);
+   }
+
+   @Override
+   public Object perform(InvocationContext ctx) throws Throwable {
+      boolean originLocal = ctx.isOriginLocal();
+      Map<Object, Object> map = new HashMap<>(keys.size());
+      for (Object key : keys) {
+         CacheEntry entry = ctx.lookupEntry(key);
+         if (entry == null || entry.isNull() || entry.isRemoved() || entry.getValue() == null) {
+            continue;
+         }
+         map.put(key, originLocal ? entry.getValue() : entryFactory.createValue(entry));
+      }
+      return map;
+   }
+
+   public Collection<?> getKeys() {
+      return keys;
+   }
+
+   public void setKeys(Collection<?> keys) {
+      this.keys = keys;
+   }
+
+   @Override
+   public byte getCommandId() {
+      return COMMAND_ID;
+   }
+
+   @Override
+   public Object[] getParameters() {
+      return new Object[]{keys, flags};
+   }
+
+   @Override
+   @SuppressWarnings("unchecked")
+   public void setParameters(int commandId, Object[] parameters) {
+      if (commandId != COMMAND_ID) {
+         throw new IllegalArgumentException("Wrong command id");
+      }
+      keys = (Collection<?>) parameters[0];
+      flags = (Set<Flag>) parameters[1];
+   }
+
+   @Override
+   public boolean isReturnValueExpected() {
+      return true;
+   }
+
+   @Override
+   public boolean canBlock() {
+      return false;
+   }
+
+   @Override
+   public boolean shouldInvoke(InvocationContext ctx) {
+      return true;
+   }
+
+   @Override
+   public boolean ignoreCommandOnStatus(ComponentStatus status) {
+      return false;
+   }
+
+   @Override
+   public String toString() {
+      return "GetAllCommand{" +
+            "keys=" + keys +
+            ", flags=" + flags +
+            '}';
+   }
+}
@@ -5,6 +5,7 @@
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
+import org.infinispan.context.Recyclable;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -19,7 +20,7 @@
  * @author Manik Surtani (<a href="mailto:manik@jboss.org">manik@jboss.org</a>)
  * @since 4.0
  */
-public class GetKeyValueCommand extends AbstractDataCommand implements RemoteFetchingCommand {
+public class GetKeyValueCommand extends AbstractDataCommand implements RemoteFetchingCommand, Recyclable {
 
    public static final byte COMMAND_ID = 4;
    private static final Log log = LogFactory.getLog(GetKeyValueCommand.class);
@@ -42,6 +43,7 @@ public Object acceptVisitor(InvocationContext ctx, Visitor visitor) throws Throw
 
    @Override
    public Object perform(InvocationContext ctx) throws Throwable {
+      assertNotReleased();
       CacheEntry entry = ctx.lookupEntry(key);
       if (entry == null || entry.isNull()) {
          if (trace) {
@@ -92,6 +94,13 @@ public InternalCacheEntry getRemotelyFetchedValue() {
       return remotelyFetchedValue;
    }
 
+   @Override
+   public void recycle() {
+      recycleFields();
+      remotelyFetchedValue = null;
+   }
+
+   @Override
    public String toString() {
       return new StringBuilder()
             .append("GetKeyValueCommand {key=")
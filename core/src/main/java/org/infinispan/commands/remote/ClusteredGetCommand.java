@@ -2,6 +2,7 @@
 
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commands.LocalFlagAffectedCommand;
+import org.infinispan.commands.StreamableCommand;
 import org.infinispan.commands.control.LockControlCommand;
 import org.infinispan.commands.read.GetCacheEntryCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
@@ -21,6 +22,9 @@
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.Set;
@@ -33,7 +37,7 @@
  * @author Mircea.Markus@jboss.com
  * @since 4.0
  */
-public class ClusteredGetCommand extends BaseRpcCommand implements LocalFlagAffectedCommand {
+public class ClusteredGetCommand extends BaseRpcCommand implements LocalFlagAffectedCommand, StreamableCommand {
 
    public static final byte COMMAND_ID = 16;
    private static final Log log = LogFactory.getLog(ClusteredGetCommand.class);
@@ -150,6 +154,24 @@ public void setParameters(int commandId, Object[] args) {
       gtx = (GlobalTransaction) args[i];
    }
 
+   @Override
+   public void writeTo(ObjectOutput output) throws IOException {
+      output.writeObject(key);
+      Flag.writeFlags(flags, output);
+      output.writeBoolean(acquireRemoteLock);
+      if (acquireRemoteLock) {
+         output.writeObject(gtx);
+      }
+   }
+
+   @Override
+   public void readFrom(ObjectInput input) throws IOException, ClassNotFoundException {
+      key = input.readObject();
+      flags = Flag.readFlags(input);
+      acquireRemoteLock = input.readBoolean();
+      gtx = acquireRemoteLock ? (GlobalTransaction) input.readObject() : null;
+   }
+
    @Override
    public boolean equals(Object o) {
       if (this == o) return true;
@@ -1,12 +1,17 @@
 package org.infinispan.commands.remote;
 
 import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commands.StreamableCommand;
 import org.infinispan.commands.VisitableCommand;
 import org.infinispan.commands.tx.TransactionBoundaryCommand;
+import org.infinispan.commons.io.UnsignedNumeric;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.Arrays;
 import java.util.List;
 
@@ -20,7 +25,7 @@
  * @author Mircea.Markus@jboss.com
  * @since 4.0
  */
-public class MultipleRpcCommand extends BaseRpcInvokingCommand {
+public class MultipleRpcCommand extends BaseRpcInvokingCommand implements StreamableCommand {
 
    public static final byte COMMAND_ID = 2;
 
@@ -83,6 +88,23 @@ public void setParameters(int commandId, Object[] args) {
       System.arraycopy(args, 0, commands, 0, numCommands);
    }
 
+   @Override
+   public void writeTo(ObjectOutput output) throws IOException {
+      UnsignedNumeric.writeUnsignedInt(output, commands.length);
+      for (ReplicableCommand command : commands) {
+         output.writeObject(command);
+      }
+   }
+
+   @Override
+   public void readFrom(ObjectInput input) throws IOException, ClassNotFoundException {
+      int numCommands = UnsignedNumeric.readUnsignedInt(input);
+      commands = new ReplicableCommand[numCommands];
+      for (int i = 0; i < numCommands; i++) {
+         commands[i] = (ReplicableCommand) input.readObject();
+      }
+   }
+
    @Override
    public boolean equals(Object o) {
       if (this == o) return true;
@@ -1,15 +1,20 @@
 package org.infinispan.commands.remote;
 
 import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commands.StreamableCommand;
 import org.infinispan.context.InvocationContext;
 
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
 /**
  * Similar to {@link org.infinispan.commands.remote.MultipleRpcCommand}, but it only aggregates a single command for
  * replication.
  *
  * @author Mircea.Markus@jboss.com
  */
-public class SingleRpcCommand extends BaseRpcInvokingCommand {
+public class SingleRpcCommand extends BaseRpcInvokingCommand implements StreamableCommand {
    public static final int COMMAND_ID = 1;
 
    private ReplicableCommand command;
@@ -33,6 +38,16 @@ public void setParameters(int commandId, Object[] parameters) {
       command = (ReplicableCommand) parameters[0];
    }
 
+   @Override
+   public void writeTo(ObjectOutput output) throws IOException {
+      output.writeObject(command);
+   }
+
+   @Override
+   public void readFrom(ObjectInput input) throws IOException, ClassNotFoundException {
+      command = (ReplicableCommand) input.readObject();
+   }
+
    @Override
    public byte getCommandId() {
       return COMMAND_ID;
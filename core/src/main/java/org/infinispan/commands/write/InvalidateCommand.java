@@ -1,6 +1,7 @@
 package org.infinispan.commands.write;
 
 import org.infinispan.commands.Visitor;
+import org.infinispan.commons.io.UnsignedNumeric;
 import org.infinispan.commons.util.Util;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
@@ -9,6 +10,9 @@
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Set;
@@ -108,6 +112,32 @@ public void setParameters(int commandId, Object[] args) {
       }
    }
 
+   @Override
+   public void writeTo(ObjectOutput output) throws IOException {
+      writeKeys(output);
+   }
+
+   @Override
+   public void readFrom(ObjectInput input) throws IOException, ClassNotFoundException {
+      readKeys(input);
+   }
+
+   protected final void writeKeys(ObjectOutput output) throws IOException {
+      int size = keys == null ? 0 : keys.length;
+      UnsignedNumeric.writeUnsignedInt(output, size);
+      for (int i = 0; i < size; i++) {
+         output.writeObject(keys[i]);
+      }
+   }
+
+   protected final void readKeys(ObjectInput input) throws IOException, ClassNotFoundException {
+      int size = UnsignedNumeric.readUnsignedInt(input);
+      keys = new Object[size];
+      for (int i = 0; i < size; i++) {
+         keys[i] = input.readObject();
+      }
+   }
+
    @Override
    public Object acceptVisitor(InvocationContext ctx, Visitor visitor) throws Throwable {
       return visitor.visitInvalidateCommand(ctx, this);
@@ -1,5 +1,8 @@
 package org.infinispan.commands.write;
 
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Set;
@@ -138,6 +141,18 @@ public void setParameters(int commandId, Object[] args) {
       }
    }
 
+   @Override
+   public void writeTo(ObjectOutput output) throws IOException {
+      output.writeObject(writeOrigin);
+      writeKeys(output);
+   }
+
+   @Override
+   public void readFrom(ObjectInput input) throws IOException, ClassNotFoundException {
+      writeOrigin = (Address) input.readObject();
+      readKeys(input);
+   }
+
    @Override
    public Object acceptVisitor(InvocationContext ctx, Visitor visitor) throws Throwable {
       return visitor.visitInvalidateL1Command(ctx, this);
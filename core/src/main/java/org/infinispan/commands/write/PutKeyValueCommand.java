@@ -1,6 +1,7 @@
 package org.infinispan.commands.write;
 
 import org.infinispan.atomic.CopyableDeltaAware;
+import org.infinispan.commands.StreamableCommand;
 import org.infinispan.commons.equivalence.Equivalence;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.metadata.Metadata;
@@ -11,8 +12,12 @@
 import org.infinispan.container.entries.MVCCEntry;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
+import org.infinispan.context.Recyclable;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
 
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.Set;
 
 import static org.infinispan.commons.util.Util.toStr;
@@ -23,7 +28,7 @@
  * @author Mircea.Markus@jboss.com
  * @since 4.0
  */
-public class PutKeyValueCommand extends AbstractDataWriteCommand implements MetadataAwareCommand {
+public class PutKeyValueCommand extends AbstractDataWriteCommand implements MetadataAwareCommand, StreamableCommand, Recyclable {
 
    public static final byte COMMAND_ID = 8;
 
@@ -73,6 +78,7 @@ public Object acceptVisitor(InvocationContext ctx, Visitor visitor) throws Throw
 
    @Override
    public Object perform(InvocationContext ctx) throws Throwable {
+      assertNotReleased();
       // It's not worth looking up the entry if we're never going to apply the change.
       if (valueMatcher == ValueMatcher.MATCH_NEVER) {
          successful = false;
@@ -117,6 +123,27 @@ public void setParameters(int commandId, Object[] parameters) {
       flags = (Set<Flag>) parameters[5];
    }
 
+   @Override
+   public void writeTo(ObjectOutput output) throws IOException {
+      output.writeObject(key);
+      // Only write deltas so that replication can be more efficient
+      output.writeObject(value instanceof DeltaAware ? ((DeltaAware) value).delta() : value);
+      output.writeObject(metadata);
+      output.writeBoolean(putIfAbsent);
+      output.writeByte(valueMatcher.ordinal());
+      Flag.writeFlags(Flag.copyWithoutRemotableFlags(flags), output);
+   }
+
+   @Override
+   public void readFrom(ObjectInput input) throws IOException, ClassNotFoundException {
+      key = input.readObject();
+      value = input.readObject();
+      metadata = (Metadata) input.readObject();
+      putIfAbsent = input.readBoolean();
+      valueMatcher = ValueMatcher.values()[input.readByte()];
+      flags = Flag.readFlags(input);
+   }
+
    @Override
    public Metadata getMetadata() {
       return metadata;
@@ -159,6 +186,16 @@ public int hashCode() {
       return result;
    }
 
+   @Override
+   public void recycle() {
+      recycleFields();
+      value = null;
+      metadata = null;
+      putIfAbsent = false;
+      successful = true;
+      valueMatcher = ValueMatcher.MATCH_ALWAYS;
+   }
+
    @Override
    public String toString() {
       return new StringBuilder()
@@ -1,5 +1,6 @@
 package org.infinispan.commands.write;
 
+import org.infinispan.commands.StreamableCommand;
 import org.infinispan.commands.Visitor;
 import org.infinispan.commons.equivalence.Equivalence;
 import org.infinispan.configuration.cache.Configuration;
@@ -7,12 +8,16 @@
 import org.infinispan.container.entries.MVCCEntry;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
+import org.infinispan.context.Recyclable;
 import org.infinispan.lifecycle.ComponentStatus;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.Set;
 
 
@@ -21,7 +26,7 @@
  * @author <a href="mailto:galder.zamarreno@jboss.com">Galder Zamarreno</a>
  * @since 4.0
  */
-public class RemoveCommand extends AbstractDataWriteCommand {
+public class RemoveCommand extends AbstractDataWriteCommand implements StreamableCommand, Recyclable {
    private static final Log log = LogFactory.getLog(RemoveCommand.class);
    public static final byte COMMAND_ID = 10;
    protected CacheNotifier notifier;
@@ -60,6 +65,7 @@ public Object acceptVisitor(InvocationContext ctx, Visitor visitor) throws Throw
 
    @Override
    public Object perform(InvocationContext ctx) throws Throwable {
+      assertNotReleased();
       // It's not worth looking up the entry if we're never going to apply the change.
       if (valueMatcher == ValueMatcher.MATCH_NEVER) {
          successful = false;
@@ -125,6 +131,15 @@ public int hashCode() {
    }
 
 
+   @Override
+   public void recycle() {
+      recycleFields();
+      value = null;
+      successful = true;
+      nonExistent = false;
+      valueMatcher = ValueMatcher.MATCH_ALWAYS;
+   }
+
    @Override
    public String toString() {
       return new StringBuilder()
@@ -161,6 +176,22 @@ public void setParameters(int commandId, Object[] parameters) {
       valueMatcher = (ValueMatcher) parameters[3];
    }
 
+   @Override
+   public void writeTo(ObjectOutput output) throws IOException {
+      output.writeObject(key);
+      output.writeObject(value);
+      Flag.writeFlags(Flag.copyWithoutRemotableFlags(flags), output);
+      output.writeByte(valueMatcher.ordinal());
+   }
+
+   @Override
+   public void readFrom(ObjectInput input) throws IOException, ClassNotFoundException {
+      key = input.readObject();
+      value = input.readObject();
+      flags = Flag.readFlags(input);
+      valueMatcher = ValueMatcher.values()[input.readByte()];
+   }
+
    @Override
    public Object[] getParameters() {
       return new Object[]{key, value, Flag.copyWithoutRemotableFlags(flags), valueMatcher};
@@ -16,14 +16,16 @@ public class AsyncConfiguration {
    private final long replicationQueueInterval;
    private final int replicationQueueMaxElements;
    private final boolean useReplicationQueue;
+   private final boolean replicationQueueAdaptive;
 
    AsyncConfiguration(boolean asyncMarshalling, ReplicationQueue replicationQueue, long replicationQueueInterval,
-         int replicationQueueMaxElements, boolean useReplicationQueue) {
+         int replicationQueueMaxElements, boolean useReplicationQueue, boolean replicationQueueAdaptive) {
       this.asyncMarshalling = asyncMarshalling;
       this.replicationQueue = replicationQueue;
       this.replicationQueueInterval = replicationQueueInterval;
       this.replicationQueueMaxElements = replicationQueueMaxElements;
       this.useReplicationQueue = useReplicationQueue;
+      this.replicationQueueAdaptive = replicationQueueAdaptive;
    }
 
    /**
@@ -67,6 +69,14 @@ public boolean useReplQueue() {
       return useReplicationQueue;
    }
 
+   /**
+    * If useReplQueue is set to true, this attribute enables the adaptive batching of the replication queue: the
+    * commands are sent as soon as the queue is idle, and batched only while they arrive faster than they can be sent.
+    */
+   public boolean replQueueAdaptive() {
+      return replicationQueueAdaptive;
+   }
+
    @Override
    public String toString() {
       return "AsyncConfiguration{" +
@@ -75,6 +85,7 @@ public String toString() {
             ", replicationQueueInterval=" + replicationQueueInterval +
             ", replicationQueueMaxElements=" + replicationQueueMaxElements +
             ", useReplicationQueue=" + useReplicationQueue +
+            ", replicationQueueAdaptive=" + replicationQueueAdaptive +
             '}';
    }
 
@@ -91,6 +102,7 @@ public boolean equals(Object o) {
       if (replicationQueueMaxElements != that.replicationQueueMaxElements)
          return false;
       if (useReplicationQueue != that.useReplicationQueue) return false;
+      if (replicationQueueAdaptive != that.replicationQueueAdaptive) return false;
       if (replicationQueue != null ? !replicationQueue.equals(that.replicationQueue) : that.replicationQueue != null)
          return false;
 
@@ -104,6 +116,7 @@ public int hashCode() {
       result = 31 * result + (int) (replicationQueueInterval ^ (replicationQueueInterval >>> 32));
       result = 31 * result + replicationQueueMaxElements;
       result = 31 * result + (useReplicationQueue ? 1 : 0);
+      result = 31 * result + (replicationQueueAdaptive ? 1 : 0);
       return result;
    }
 
@@ -21,6 +21,7 @@ public class AsyncConfigurationBuilder extends AbstractClusteringConfigurationCh
    private long replicationQueueInterval = 10;
    private int replicationQueueMaxElements = 1000;
    private boolean useReplicationQueue = false;
+   private boolean replicationQueueAdaptive = false;
 
    protected AsyncConfigurationBuilder(ClusteringConfigurationBuilder builder) {
       super(builder);
@@ -90,6 +91,17 @@ public AsyncConfigurationBuilder replQueueMaxElements(int elements) {
       return this;
    }
 
+   /**
+    * If useReplQueue is set to true, this attribute enables the adaptive batching of the replication queue. Instead of
+    * waiting for the flush interval, the queue sends the commands as soon as it is idle, and it only holds them back
+    * (for at most replQueueInterval) while the commands arrive faster than they can be sent. Successive writes to the
+    * same key in a batch are coalesced, and replQueueMaxElements limits the size of a batch.
+    */
+   public AsyncConfigurationBuilder replQueueAdaptive(boolean adaptive) {
+      this.replicationQueueAdaptive = adaptive;
+      return this;
+   }
+
    /**
     * If true, forces all async communications to be queued up and sent out periodically as a
     * batch.
@@ -116,7 +128,8 @@ public void validate(GlobalConfiguration globalConfig) {
    @Override
    public
    AsyncConfiguration create() {
-      return new AsyncConfiguration(asyncMarshalling, replicationQueue, replicationQueueInterval, replicationQueueMaxElements, useReplicationQueue);
+      return new AsyncConfiguration(asyncMarshalling, replicationQueue, replicationQueueInterval, replicationQueueMaxElements, useReplicationQueue,
+                                   replicationQueueAdaptive);
    }
 
    @Override
@@ -126,6 +139,7 @@ public AsyncConfigurationBuilder read(AsyncConfiguration template) {
       this.replicationQueueInterval = template.replQueueInterval();
       this.replicationQueueMaxElements = template.replQueueMaxElements();
       this.useReplicationQueue = template.useReplQueue();
+      this.replicationQueueAdaptive = template.replQueueAdaptive();
 
       return this;
    }
@@ -138,6 +152,7 @@ public String toString() {
             ", replicationQueueInterval=" + replicationQueueInterval +
             ", replicationQueueMaxElements=" + replicationQueueMaxElements +
             ", useReplicationQueue=" + useReplicationQueue +
+            ", replicationQueueAdaptive=" + replicationQueueAdaptive +
             '}';
    }
 }
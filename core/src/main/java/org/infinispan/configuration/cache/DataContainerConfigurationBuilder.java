@@ -21,6 +21,7 @@ public class DataContainerConfigurationBuilder extends AbstractConfigurationChil
    private DataContainer dataContainer;
    private Equivalence keyEquivalence = AnyEquivalence.getInstance();
    private Equivalence valueEquivalence = AnyEquivalence.getInstance();
+   private boolean offHeap = false;
    // TODO: What are properties used for? Is it just legacy?
    private Properties properties = new Properties();
 
@@ -91,6 +92,20 @@ public <V> DataContainerConfigurationBuilder valueEquivalence(Equivalence<V> val
       return this;
    }
 
+   /**
+    * Stores the serialized form of keys, values and metadata outside of the Java heap, in native memory. Entries are
+    * materialized into {@link org.infinispan.container.entries.InternalCacheEntry} instances only when read. Keys are
+    * compared using their serialized form, so they must marshall deterministically. Ignored if a custom
+    * {@link #dataContainer(DataContainer)} is configured.
+    *
+    * @param offHeap whether the default data container should store its entries off-heap
+    * @return this configuration builder
+    */
+   public DataContainerConfigurationBuilder offHeap(boolean offHeap) {
+      this.offHeap = offHeap;
+      return this;
+   }
+
    @Override
    public void validate() {
    }
@@ -103,7 +118,7 @@ public void validate(GlobalConfiguration globalConfig) {
    public DataContainerConfiguration create() {
       return new DataContainerConfiguration(dataContainer,
             TypedProperties.toTypedProperties(properties), keyEquivalence,
-            valueEquivalence);
+            valueEquivalence, offHeap);
    }
 
    @Override
@@ -112,6 +127,7 @@ public DataContainerConfigurationBuilder read(DataContainerConfiguration templat
       this.properties = template.properties();
       this.keyEquivalence = template.keyEquivalence();
       this.valueEquivalence = template.valueEquivalence();
+      this.offHeap = template.offHeap();
 
       return this;
    }
@@ -123,6 +139,7 @@ public String toString() {
             ", properties=" + properties +
             ", keyEquivalence=" + keyEquivalence +
             ", valueEquivalence=" + valueEquivalence +
+            ", offHeap=" + offHeap +
             '}';
    }
 }
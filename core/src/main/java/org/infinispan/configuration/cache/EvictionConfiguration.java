@@ -1,25 +1,32 @@
 package org.infinispan.configuration.cache;
 
+import org.infinispan.eviction.EntrySizeCalculator;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.eviction.EvictionThreadPolicy;
+import org.infinispan.eviction.EvictionType;
 
 /**
  * Controls the eviction settings for the cache.
  */
 public class EvictionConfiguration {
    
-   private final int maxEntries;
+   private final long size;
+   private final EvictionType type;
    private final EvictionStrategy strategy;
    private final EvictionThreadPolicy threadPolicy;
+   private final EntrySizeCalculator sizeCalculator;
    
-   EvictionConfiguration(int maxEntries, EvictionStrategy strategy, EvictionThreadPolicy threadPolicy) {
-      this.maxEntries = maxEntries;
+   EvictionConfiguration(long size, EvictionType type, EvictionStrategy strategy, EvictionThreadPolicy threadPolicy,
+                         EntrySizeCalculator sizeCalculator) {
+      this.size = size;
+      this.type = type;
       this.strategy = strategy;
       this.threadPolicy = threadPolicy;
+      this.sizeCalculator = sizeCalculator;
    }
    
    /**
-    * Eviction strategy. Available options are 'UNORDERED', 'LRU', 'LIRS' and 'NONE' (to disable
+    * Eviction strategy. Available options are 'UNORDERED', 'LRU', 'LIRS', 'TINY_LFU' and 'NONE' (to disable
     * eviction).
     */
    public EvictionStrategy strategy() {
@@ -32,22 +39,50 @@ public EvictionStrategy strategy() {
    public EvictionThreadPolicy threadPolicy() {
       return threadPolicy;
    }
+
+   /**
+    * Whether the cache is bounded by the number of entries or by the estimated memory they occupy.
+    */
+   public EvictionType type() {
+      return type;
+   }
+
+   /**
+    * Upper bound of the cache instance: the maximum number of entries when the eviction {@link #type()} is
+    * {@link EvictionType#COUNT}, or the maximum number of bytes when it is {@link EvictionType#MEMORY}.
+    */
+   public long size() {
+      return size;
+   }
    
    /**
     * Maximum number of entries in a cache instance. Cache size is guaranteed not to exceed upper
     * limit specified by max entries. However, due to the nature of eviction it is unlikely to ever
     * be exactly maximum number of entries specified here.
+    * <p />
+    * Returns -1 if the cache is bounded by memory rather than by the number of entries.
     */
    public int maxEntries() {
-      return maxEntries;
+      return type == EvictionType.COUNT ? (int) size : -1;
+   }
+
+   /**
+    * The calculator used to estimate the size of the entries when the eviction {@link #type()} is
+    * {@link EvictionType#MEMORY}. If <tt>null</tt>, {@link org.infinispan.eviction.impl.DefaultEntrySizeCalculator}
+    * is used.
+    */
+   public EntrySizeCalculator sizeCalculator() {
+      return sizeCalculator;
    }
 
    @Override
    public String toString() {
       return "EvictionConfiguration{" +
-            "maxEntries=" + maxEntries +
+            "size=" + size +
+            ", type=" + type +
             ", strategy=" + strategy +
             ", threadPolicy=" + threadPolicy +
+            ", sizeCalculator=" + sizeCalculator +
             '}';
    }
 
@@ -58,18 +93,23 @@ public boolean equals(Object o) {
 
       EvictionConfiguration that = (EvictionConfiguration) o;
 
-      if (maxEntries != that.maxEntries) return false;
+      if (size != that.size) return false;
+      if (type != that.type) return false;
       if (strategy != that.strategy) return false;
       if (threadPolicy != that.threadPolicy) return false;
+      if (sizeCalculator != null ? !sizeCalculator.equals(that.sizeCalculator) : that.sizeCalculator != null)
+         return false;
 
       return true;
    }
 
    @Override
    public int hashCode() {
-      int result = maxEntries;
+      int result = (int) (size ^ (size >>> 32));
+      result = 31 * result + (type != null ? type.hashCode() : 0);
       result = 31 * result + (strategy != null ? strategy.hashCode() : 0);
       result = 31 * result + (threadPolicy != null ? threadPolicy.hashCode() : 0);
+      result = 31 * result + (sizeCalculator != null ? sizeCalculator.hashCode() : 0);
       return result;
    }
 
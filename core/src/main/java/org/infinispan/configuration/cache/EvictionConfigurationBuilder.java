@@ -3,8 +3,10 @@
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.eviction.EntrySizeCalculator;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.eviction.EvictionThreadPolicy;
+import org.infinispan.eviction.EvictionType;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -15,9 +17,11 @@ public class EvictionConfigurationBuilder extends AbstractConfigurationChildBuil
 
    private static final Log log = LogFactory.getLog(EvictionConfigurationBuilder.class);
 
-   private int maxEntries = -1;
+   private long size = -1;
+   private EvictionType type = EvictionType.COUNT;
    private EvictionStrategy strategy = EvictionStrategy.NONE;
    private EvictionThreadPolicy threadPolicy = EvictionThreadPolicy.DEFAULT;
+   private EntrySizeCalculator sizeCalculator;
 
    EvictionConfigurationBuilder(ConfigurationBuilder builder) {
       super(builder);
@@ -25,7 +29,7 @@ public class EvictionConfigurationBuilder extends AbstractConfigurationChildBuil
 
 
    /**
-    * Eviction strategy. Available options are 'UNORDERED', 'LRU', 'LIRS' and 'NONE' (to disable
+    * Eviction strategy. Available options are 'UNORDERED', 'LRU', 'LIRS', 'TINY_LFU' and 'NONE' (to disable
     * eviction).
     *
     * @param evictionStrategy
@@ -54,10 +58,52 @@ public EvictionConfigurationBuilder threadPolicy(EvictionThreadPolicy policy) {
     * limit specified by max entries. However, due to the nature of eviction it is unlikely to ever
     * be exactly maximum number of entries specified here.
     *
+    * <p />
+    * Equivalent to {@link #size(long)} for the default {@link EvictionType#COUNT} eviction type.
+    *
     * @param maxEntries
     */
    public EvictionConfigurationBuilder maxEntries(int maxEntries) {
-      this.maxEntries = maxEntries;
+      this.size = maxEntries;
+      return this;
+   }
+
+   /**
+    * Whether the cache is bounded by the number of entries (the default) or by the estimated memory they
+    * occupy. Memory based eviction is only supported by the 'LRU' strategy.
+    *
+    * @param type
+    */
+   public EvictionConfigurationBuilder type(EvictionType type) {
+      this.type = type;
+      return this;
+   }
+
+   /**
+    * Upper bound of the cache instance: the maximum number of entries when the eviction type is
+    * {@link EvictionType#COUNT}, or the maximum number of bytes occupied by keys, values and entry overhead
+    * when it is {@link EvictionType#MEMORY}.
+    * <p />
+    * The memory bound is split evenly across the segments of the data container (see
+    * {@link LockingConfigurationBuilder#concurrencyLevel(int)}), so entries larger than a segment's share are
+    * evicted as soon as they are stored.
+    *
+    * @param size
+    */
+   public EvictionConfigurationBuilder size(long size) {
+      this.size = size;
+      return this;
+   }
+
+   /**
+    * The calculator used to estimate the size of the entries when the eviction type is
+    * {@link EvictionType#MEMORY}. Defaults to {@link org.infinispan.eviction.impl.DefaultEntrySizeCalculator},
+    * which is exact with regards to the stored payload when storeAsBinary is enabled.
+    *
+    * @param sizeCalculator
+    */
+   public EvictionConfigurationBuilder sizeCalculator(EntrySizeCalculator sizeCalculator) {
+      this.sizeCalculator = sizeCalculator;
       return this;
    }
 
@@ -67,12 +113,17 @@ public void validate() {
          log.passivationWithoutEviction();
       if(strategy == EvictionStrategy.FIFO)
          log.warnFifoStrategyIsDeprecated();
-      if (strategy.isEnabled() && maxEntries <= 0)
+      if (strategy.isEnabled() && size <= 0)
          throw new CacheConfigurationException("Eviction maxEntries value cannot be less than or equal to zero if eviction is enabled");
-      if (maxEntries > 0 && !strategy.isEnabled()) {
-         strategy = EvictionStrategy.LIRS;
-         log.debugf("Max entries configured (%d) without eviction strategy. Eviction strategy overriden to %s", maxEntries, strategy);
+      if (type == EvictionType.COUNT && size > Integer.MAX_VALUE)
+         throw new CacheConfigurationException("Eviction size cannot be greater than " + Integer.MAX_VALUE + " if the eviction type is COUNT");
+      if (size > 0 && !strategy.isEnabled()) {
+         // LIRS cannot be bounded by memory
+         strategy = type == EvictionType.MEMORY ? EvictionStrategy.LRU : EvictionStrategy.LIRS;
+         log.debugf("Max entries configured (%d) without eviction strategy. Eviction strategy overriden to %s", size, strategy);
       }
+      if (type == EvictionType.MEMORY && (strategy == EvictionStrategy.LIRS || strategy == EvictionStrategy.TINY_LFU))
+         throw new CacheConfigurationException("Memory based eviction is not supported by the " + strategy + " eviction strategy");
    }
 
    @Override
@@ -81,14 +132,16 @@ public void validate(GlobalConfiguration globalConfig) {
 
    @Override
    public EvictionConfiguration create() {
-      return new EvictionConfiguration(maxEntries, strategy, threadPolicy);
+      return new EvictionConfiguration(size, type, strategy, threadPolicy, sizeCalculator);
    }
 
    @Override
    public EvictionConfigurationBuilder read(EvictionConfiguration template) {
-      this.maxEntries = template.maxEntries();
+      this.size = template.size();
+      this.type = template.type();
       this.strategy = template.strategy();
       this.threadPolicy = template.threadPolicy();
+      this.sizeCalculator = template.sizeCalculator();
 
       return this;
    }
@@ -96,9 +149,11 @@ public EvictionConfigurationBuilder read(EvictionConfiguration template) {
    @Override
    public String toString() {
       return "EvictionConfigurationBuilder{" +
-            "maxEntries=" + maxEntries +
+            "size=" + size +
+            ", type=" + type +
             ", strategy=" + strategy +
             ", threadPolicy=" + threadPolicy +
+            ", sizeCalculator=" + sizeCalculator +
             '}';
    }
 }
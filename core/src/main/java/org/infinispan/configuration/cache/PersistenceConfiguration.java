@@ -9,10 +9,12 @@
 public class PersistenceConfiguration {
 
    private final boolean passivation;
+   private final int preloadRate;
    private final List<StoreConfiguration> stores;
 
-   PersistenceConfiguration(boolean passivation, List<StoreConfiguration> stores) {
+   PersistenceConfiguration(boolean passivation, int preloadRate, List<StoreConfiguration> stores) {
       this.passivation = passivation;
+      this.preloadRate = preloadRate;
       this.stores = stores;
    }
 
@@ -29,6 +31,14 @@ public boolean passivation() {
       return passivation;
    }
 
+   /**
+    * The maximum number of entries per second loaded into memory when preloading the cache, or 0 if the preload is
+    * not throttled.
+    */
+   public int preloadRate() {
+      return preloadRate;
+   }
+
    public List<StoreConfiguration> stores() {
       return stores;
    }
@@ -74,6 +84,7 @@ public String toString() {
       return "PersistenceConfiguration{" +
             "persistence=" + stores +
             ", passivation=" + passivation +
+            ", preloadRate=" + preloadRate +
             '}';
    }
 
@@ -85,6 +96,7 @@ public boolean equals(Object o) {
       PersistenceConfiguration that = (PersistenceConfiguration) o;
 
       if (passivation != that.passivation) return false;
+      if (preloadRate != that.preloadRate) return false;
       if (stores != null ? !stores.equals(that.stores) : that.stores != null)
          return false;
 
@@ -94,6 +106,7 @@ public boolean equals(Object o) {
    @Override
    public int hashCode() {
       int result = (passivation ? 1 : 0);
+      result = 31 * result + preloadRate;
       result = 31 * result + (stores != null ? stores.hashCode() : 0);
       return result;
    }
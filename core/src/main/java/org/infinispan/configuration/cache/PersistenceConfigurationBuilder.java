@@ -17,6 +17,7 @@
 public class PersistenceConfigurationBuilder extends AbstractConfigurationChildBuilder implements Builder<PersistenceConfiguration> {
 
    private boolean passivation = false;
+   private int preloadRate = 0;
    private List<StoreConfigurationBuilder<?,?>> stores = new ArrayList<StoreConfigurationBuilder<?,?>>(2);
 
    protected PersistenceConfigurationBuilder(ConfigurationBuilder builder) {
@@ -41,6 +42,16 @@ boolean passivation() {
       return passivation;
    }
 
+   /**
+    * Limits the number of entries per second loaded into memory when preloading the cache at startup, so that the
+    * preload of a large store doesn't saturate the disk or the CPU of a node that is already serving requests.
+    * Defaults to 0, which means the preload is not throttled.
+    */
+   public PersistenceConfigurationBuilder preloadRate(int entriesPerSecond) {
+      this.preloadRate = entriesPerSecond;
+      return this;
+   }
+
    /**
     * Adds a cache loader which uses the specified builder class to build its configuration
     */
@@ -107,6 +118,8 @@ public void validate() {
       }
       if (numFetchPersistentState > 1)
          throw new CacheConfigurationException("Maximum one store can be set to 'fetchPersistentState'!");
+      if (preloadRate < 0)
+         throw new CacheConfigurationException("The preload rate cannot be negative!");
    }
 
    @Override
@@ -121,7 +134,7 @@ public PersistenceConfiguration create() {
       List<StoreConfiguration> stores = new ArrayList<StoreConfiguration>(this.stores.size());
       for (StoreConfigurationBuilder<?, ?> loader : this.stores)
          stores.add(loader.create());
-      return new PersistenceConfiguration(passivation, stores);
+      return new PersistenceConfiguration(passivation, preloadRate, stores);
    }
 
    @SuppressWarnings("unchecked")
@@ -137,6 +150,7 @@ public PersistenceConfigurationBuilder read(PersistenceConfiguration template) {
          builder.read(c);
       }
       this.passivation = template.passivation();
+      this.preloadRate = template.preloadRate();
       return this;
    }
 
@@ -149,6 +163,7 @@ public String toString() {
       return "PersistenceConfigurationBuilder{" +
             "stores=" + stores +
             ", passivation=" + passivation +
+            ", preloadRate=" + preloadRate +
             '}';
    }
 }
@@ -22,14 +22,18 @@ public class SingleFileStoreConfiguration extends AbstractStoreConfiguration {
 
    private final float fragmentationFactor;
 
+   private final boolean memoryMapped;
+
    public SingleFileStoreConfiguration(boolean purgeOnStartup, boolean fetchPersistentState,
                                        boolean ignoreModifications, AsyncStoreConfiguration async,
                                        SingletonStoreConfiguration singletonStore, boolean preload, boolean shared,
-                                       Properties properties, String location, int maxEntries, float fragmentationFactor) {
+                                       Properties properties, String location, int maxEntries, float fragmentationFactor,
+                                       boolean memoryMapped) {
       super(purgeOnStartup, fetchPersistentState, ignoreModifications, async, singletonStore, preload, shared, properties);
       this.location = location;
       this.maxEntries = maxEntries;
       this.fragmentationFactor  = fragmentationFactor;
+      this.memoryMapped = memoryMapped;
    }
 
    public String location() {
@@ -44,6 +48,10 @@ public float fragmentationFactor () {
       return fragmentationFactor;
    }
 
+   public boolean memoryMapped() {
+      return memoryMapped;
+   }
+
    @Override
    public boolean equals(Object o) {
       if (this == o) return true;
@@ -56,6 +64,7 @@ public boolean equals(Object o) {
       if (location != null ? !location.equals(that.location) : that.location != null)
          return false;
       if (fragmentationFactor  != that.fragmentationFactor) return false;
+      if (memoryMapped != that.memoryMapped) return false;
 
       return true;
    }
@@ -66,6 +75,7 @@ public int hashCode() {
       result = 31 * result + (location != null ? location.hashCode() : 0);
       result = 31 * result + maxEntries;
       result = 31 * result + Float.floatToIntBits(fragmentationFactor);
+      result = 31 * result + (memoryMapped ? 1 : 0);
       return result;
    }
 
@@ -75,6 +85,7 @@ public String toString() {
             "location='" + location + '\'' +
             ", maxEntries=" + maxEntries +
             ", fragmentationFactor =" + fragmentationFactor  +
+            ", memoryMapped=" + memoryMapped +
             '}';
    }
 
@@ -17,6 +17,8 @@
 
    private float fragmentationFactor  = 0.75f;
 
+   private boolean memoryMapped = false;
+
    public SingleFileStoreConfigurationBuilder(PersistenceConfigurationBuilder builder) {
       super(builder);
    }
@@ -69,11 +71,22 @@ public SingleFileStoreConfigurationBuilder fragmentationFactor(float fragmentati
       return this;
    }
 
+   /**
+    * If true, the store reads the entries through read-only memory mappings of the data file instead of reading
+    * them through the file channel. This avoids a system call and a temporary buffer for every load, at the cost of
+    * address space: if the file cannot be mapped, the store falls back to channel reads. Defaults to false.
+    */
+   public SingleFileStoreConfigurationBuilder memoryMapped(boolean memoryMapped) {
+      this.memoryMapped = memoryMapped;
+      return this;
+   }
+
    @Override
    public SingleFileStoreConfiguration create() {
       return new SingleFileStoreConfiguration(purgeOnStartup, fetchPersistentState,ignoreModifications,
                                                     async.create(), singletonStore.create(), preload,
-                                                    shared, properties, location, maxEntries, fragmentationFactor);
+                                                    shared, properties, location, maxEntries, fragmentationFactor,
+                                                    memoryMapped);
    }
 
    @Override
@@ -84,6 +97,7 @@ public Builder<?> read(SingleFileStoreConfiguration template) {
       location = template.location();
       maxEntries = template.maxEntries();
       fragmentationFactor  = template.fragmentationFactor();
+      memoryMapped = template.memoryMapped();
 
       return this;
    }
@@ -65,11 +65,13 @@ public enum Attribute {
     MAX_RETRIES("max-retries"),
     MAX_THREADS("max-threads"),
     MBEAN_SERVER_LOOKUP("mbean-server-lookup"),
+    MEMORY_MAPPED("memory-mapped"),
     MODE("mode"),
     NODE_NAME("node-name"),
     MODIFICATION_QUEUE_SIZE("modification-queue-size"),
     MODULE("module"),
     NAME("name"),
+    OFF_HEAP("off-heap"),
     ON_REHASH("onRehash"),
     OWNERS("owners"),
     PATH("path"),
@@ -78,8 +80,10 @@ public enum Attribute {
     PERSISTENCE_EXECUTOR("persistence-executor"),
     POSITION("position"),
     PRELOAD("preload"),
+    PRELOAD_RATE("preload-rate"),
     PRIORITY("priority"),
     PURGE("purge"),
+    QUEUE_ADAPTIVE("queue-adaptive"),
     QUEUE_FLUSH_INTERVAL("queue-flush-interval"),
     QUEUE_LENGTH("queue-length"),
     QUEUE_SIZE("queue-size"),
@@ -100,6 +104,7 @@ public enum Attribute {
     SHUTDOWN_TIMEOUT("shutdown-timeout"),
     SINGLETON("singleton"),
     SITE("site"),
+    SIZE("size"),
     SPIN_DURATION("deadlock-detection-spin"),
     STATISTICS("statistics"),
     START("start"),
@@ -120,6 +125,7 @@ public enum Attribute {
     TRANSACTION_MANAGER_LOOKUP_CLASS("transaction-manager-lookup"),
     TRANSACTION_PROTOCOL("protocol"),
     TRANSPORT("transport"),
+    TYPE("type"),
     UNRELIABLE_RETURN_VALUES("unreliable-return-values"),
     USE_TWO_PHASE_COMMIT("two-phase-commit"),
     VALUE("value"),
@@ -23,6 +23,7 @@
 import org.infinispan.distribution.group.Grouper;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.eviction.EvictionThreadPolicy;
+import org.infinispan.eviction.EvictionType;
 import org.infinispan.factories.threads.DefaultThreadFactory;
 import org.infinispan.interceptors.base.CommandInterceptor;
 import org.infinispan.jmx.MBeanServerLookup;
@@ -1136,6 +1137,9 @@ private void parseDataContainer(final XMLExtendedStreamReader reader, final Conf
             case VALUE_EQUIVALENCE:
                builder.dataContainer().valueEquivalence(Util.<Equivalence>getInstance(value, holder.getClassLoader()));
                break;
+            case OFF_HEAP:
+               builder.dataContainer().offHeap(Boolean.parseBoolean(value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -1365,6 +1369,14 @@ protected void parseEviction(XMLExtendedStreamReader reader, ConfigurationBuilde
                builder.eviction().threadPolicy(EvictionThreadPolicy.valueOf(value));
                break;
             }
+            case TYPE: {
+               builder.eviction().type(EvictionType.valueOf(value));
+               break;
+            }
+            case SIZE: {
+               builder.eviction().size(Long.parseLong(value));
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedAttribute(reader, i);
             }
@@ -1444,6 +1456,10 @@ private void parseClusteredCacheAttribute(XMLExtendedStreamReader reader,
             builder.clustering().async().replQueueInterval(Long.parseLong(value));
             break;
          }
+         case QUEUE_ADAPTIVE: {
+            builder.clustering().async().replQueueAdaptive(Boolean.parseBoolean(value));
+            break;
+         }
          case REMOTE_TIMEOUT: {
             builder.clustering().sync().replTimeout(Long.parseLong(value));
             break;
@@ -1614,6 +1630,9 @@ private void parsePersistence(final XMLExtendedStreamReader reader, final Config
             case PASSIVATION:
                builder.persistence().passivation(Boolean.parseBoolean(value));
                break;
+            case PRELOAD_RATE:
+               builder.persistence().preloadRate(Integer.parseInt(value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -1682,6 +1701,10 @@ protected void parseFileStore(XMLExtendedStreamReader reader, ConfigurationBuild
                storeBuilder.fragmentationFactor(Float.parseFloat(value));
                break;
             }
+            case MEMORY_MAPPED: {
+               storeBuilder.memoryMapped(Boolean.parseBoolean(value));
+               break;
+            }
             default: {
                parseStoreAttribute(reader, i, storeBuilder);
             }
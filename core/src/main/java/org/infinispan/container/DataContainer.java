@@ -82,6 +82,14 @@
     */
    int size();
 
+   /**
+    * Returns the estimated number of bytes occupied by the entries in the container, if the container is bounded by
+    * memory (see {@link org.infinispan.eviction.EvictionType#MEMORY}).
+    *
+    * @return the estimated memory usage, or -1 if the container is not bounded by memory
+    */
+   long memoryUsage();
+
    /**
     * Removes all entries in the container
     */
@@ -116,8 +124,10 @@
 
    /**
     * Purges entries that have passed their expiry time
+    *
+    * @return the number of entries purged
     */
-   void purgeExpired();
+   int purgeExpired();
 
    /**
     * Atomically, it removes the key from {@code DataContainer} and passivates it to persistence.
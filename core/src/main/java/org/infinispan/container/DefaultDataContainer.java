@@ -12,6 +12,7 @@
 import org.infinispan.commons.util.concurrent.jdk8backported.EquivalentConcurrentHashMapV8;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.eviction.ActivationManager;
+import org.infinispan.eviction.EntrySizeCalculator;
 import org.infinispan.eviction.EvictionManager;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.eviction.EvictionThreadPolicy;
@@ -60,6 +61,7 @@
    private final ConcurrentMap<K, InternalCacheEntry<K, V>> entries;
    private final DefaultEvictionListener evictionListener;
    private final ExtendedMap<K, V> extendedMap;
+   private final ExpirationIndex<K> expirationIndex;
    protected InternalEntryFactory entryFactory;
    private EvictionManager evictionManager;
    private PassivationManager passivator;
@@ -72,6 +74,7 @@ public DefaultDataContainer(int concurrencyLevel) {
       entries = CollectionFactory.makeConcurrentParallelMap(128, concurrencyLevel);
       evictionListener = null;
       extendedMap = new EquivalentConcurrentExtendedMap();
+      expirationIndex = new ExpirationIndex<K>(null);
    }
 
    public DefaultDataContainer(int concurrencyLevel,
@@ -80,11 +83,23 @@ public DefaultDataContainer(int concurrencyLevel,
       entries = CollectionFactory.makeConcurrentParallelMap(128, concurrencyLevel, keyEq, AnyEquivalence.getInstance());
       evictionListener = null;
       extendedMap = new EquivalentConcurrentExtendedMap();
+      expirationIndex = new ExpirationIndex<K>(keyEq);
    }
 
    protected DefaultDataContainer(int concurrencyLevel, int maxEntries,
          EvictionStrategy strategy, EvictionThreadPolicy policy,
          Equivalence<? super K> keyEquivalence) {
+      this(concurrencyLevel, maxEntries, strategy, policy, keyEquivalence, null);
+   }
+
+   /**
+    * Creates a container bounded by the number of entries if {@code sizeCalculator} is null, or by the estimated
+    * number of bytes computed by {@code sizeCalculator} otherwise.
+    */
+   protected DefaultDataContainer(int concurrencyLevel, long maxSize,
+         EvictionStrategy strategy, EvictionThreadPolicy policy,
+         Equivalence<? super K> keyEquivalence,
+         EntrySizeCalculator<? super K, ? super InternalCacheEntry<K, V>> sizeCalculator) {
       // translate eviction policy and strategy
       switch (policy) {
          case PIGGYBACK:
@@ -105,13 +120,17 @@ protected DefaultDataContainer(int concurrencyLevel, int maxEntries,
          case LIRS:
             eviction = Eviction.LIRS;
             break;
+         case TINY_LFU:
+            eviction = Eviction.TINY_LFU;
+            break;
          default:
             throw new IllegalArgumentException("No such eviction strategy " + strategy);
       }
 
-      entries = new BoundedConcurrentHashMap<K, InternalCacheEntry<K, V>>(maxEntries, concurrencyLevel, eviction, evictionListener,
-                                                                          keyEquivalence, AnyEquivalence.getInstance());
+      entries = new BoundedConcurrentHashMap<K, InternalCacheEntry<K, V>>(maxSize, concurrencyLevel, eviction, evictionListener,
+                                                                          keyEquivalence, AnyEquivalence.getInstance(), sizeCalculator);
       extendedMap = new BoundedConcurrentExtendedMap();
+      expirationIndex = new ExpirationIndex<K>(keyEquivalence);
    }
 
    @Inject
@@ -132,6 +151,14 @@ public static <K, V> DataContainer<K, V> boundedDataContainer(int concurrencyLev
             policy, keyEquivalence);
    }
 
+   public static <K, V> DataContainer<K, V> memoryBoundedDataContainer(int concurrencyLevel, long maxMemory,
+            EvictionStrategy strategy, EvictionThreadPolicy policy,
+            Equivalence<? super K> keyEquivalence,
+            EntrySizeCalculator<? super K, ? super InternalCacheEntry<K, V>> sizeCalculator) {
+      return new DefaultDataContainer<K, V>(concurrencyLevel, maxMemory, strategy,
+            policy, keyEquivalence, sizeCalculator);
+   }
+
    public static <K, V> DataContainer<K, V> unBoundedDataContainer(int concurrencyLevel,
          Equivalence<? super K> keyEquivalence) {
       return new DefaultDataContainer(concurrencyLevel, keyEquivalence);
@@ -152,7 +179,7 @@ public InternalCacheEntry<K, V> get(Object k) {
       if (e != null && e.canExpire()) {
          long currentTimeMillis = timeService.wallClockTime();
          if (e.isExpired(currentTimeMillis)) {
-            entries.remove(k);
+            extendedMap.purgeIfExpired((K) k, currentTimeMillis);
             e = null;
          } else {
             e.touch(currentTimeMillis);
@@ -191,9 +218,12 @@ public void put(K k, V v, Metadata metadata) {
    @Override
    public boolean containsKey(Object k) {
       InternalCacheEntry<K, V> ice = peek(k);
-      if (ice != null && ice.canExpire() && ice.isExpired(timeService.wallClockTime())) {
-         entries.remove(k);
-         ice = null;
+      if (ice != null && ice.canExpire()) {
+         long currentTimeMillis = timeService.wallClockTime();
+         if (ice.isExpired(currentTimeMillis)) {
+            extendedMap.purgeIfExpired((K) k, currentTimeMillis);
+            ice = null;
+         }
       }
       return ice != null;
    }
@@ -209,10 +239,19 @@ public int size() {
       return entries.size();
    }
 
+   @Override
+   public long memoryUsage() {
+      if (entries instanceof BoundedConcurrentHashMap) {
+         return ((BoundedConcurrentHashMap<K, InternalCacheEntry<K, V>>) entries).memoryUsage();
+      }
+      return -1;
+   }
+
    @Override
    public void clear() {
       log.tracef("Clearing data container");
       entries.clear();
+      expirationIndex.clear();
    }
 
    @Override
@@ -231,14 +270,38 @@ public Set<InternalCacheEntry<K, V>> entrySet() {
    }
 
    @Override
-   public void purgeExpired() {
+   public int purgeExpired() {
       long currentTimeMillis = timeService.wallClockTime();
-      for (Iterator<InternalCacheEntry<K, V>> purgeCandidates = entries.values().iterator(); purgeCandidates.hasNext();) {
-         InternalCacheEntry e = purgeCandidates.next();
-         if (e.isExpired(currentTimeMillis)) {
-            purgeCandidates.remove();
+      int purged = 0;
+      // only visit the entries indexed as due, instead of iterating over the whole container
+      for (K key : expirationIndex.pollDue(currentTimeMillis)) {
+         if (extendedMap.purgeIfExpired(key, currentTimeMillis)) {
+            purged++;
          }
       }
+      if (trace) {
+         log.tracef("Purged %d expired entries, %d entries left in the expiration index", purged, expirationIndex.size());
+      }
+      return purged;
+   }
+
+   /**
+    * @return the number of keys in the expiration index, for testing
+    */
+   int expirationIndexSize() {
+      return expirationIndex.size();
+   }
+
+   /**
+    * Updates the expiration index after {@code entry} was stored under {@code key}, or removed if {@code entry} is
+    * {@code null}. Must be called while holding the lock of the key.
+    */
+   private void updateExpirationIndex(K key, InternalCacheEntry<K, V> entry) {
+      if (entry != null && entry.canExpire()) {
+         expirationIndex.add(key, entry.getExpiryTime());
+      } else {
+         expirationIndex.remove(key);
+      }
    }
 
    @Override
@@ -260,6 +323,19 @@ private final class DefaultEvictionListener implements EvictionListener<K, Inter
 
       @Override
       public void onEntryEviction(Map<K, InternalCacheEntry<K, V>> evicted) {
+         BoundedConcurrentHashMap<K, InternalCacheEntry<K, V>> boundedMap =
+               (BoundedConcurrentHashMap<K, InternalCacheEntry<K, V>>) entries;
+         for (K key : evicted.keySet()) {
+            // the key might have been written again since it was evicted, and indexed with its new entry
+            boundedMap.lock(key);
+            try {
+               if (boundedMap.get(key) == null) {
+                  expirationIndex.remove(key);
+               }
+            } finally {
+               boundedMap.unlock(key);
+            }
+         }
          evictionManager.onEntryEviction(evicted);
       }
 
@@ -446,6 +522,14 @@ public void apply(K key, InternalCacheEntry<K, V> value) {
       void putAndActivate(InternalCacheEntry<K, V> newEntry);
 
       InternalCacheEntry<K, V> removeAndActivate(Object key);
+
+      /**
+       * Removes the entry mapped to {@code key} and its index entry if it is expired, or indexes it again with its
+       * current expiry time.
+       *
+       * @return {@code true} if the entry was removed
+       */
+      boolean purgeIfExpired(K key, long currentTimeMillis);
    }
 
    private class EquivalentConcurrentExtendedMap implements ExtendedMap<K, V> {
@@ -472,9 +556,11 @@ public InternalCacheEntry<K, V> apply(K key, InternalCacheEntry<K, V> oldEntry)
                         return oldEntry;
                      } else if (newEntry == null) {
                         activator.onRemove(key, false);
+                        expirationIndex.remove(key);
                         return null;
                      }
                      activator.onUpdate(key, oldEntry == null);
+                     updateExpirationIndex(key, newEntry);
                      if (trace)
                         log.tracef("Store %s in container", newEntry);
                      return newEntry;
@@ -489,6 +575,7 @@ public void putAndActivate(final InternalCacheEntry<K, V> newEntry) {
                   @Override
                   public InternalCacheEntry<K, V> apply(K key, InternalCacheEntry<K, V> entry) {
                      activator.onUpdate(key, entry == null);
+                     updateExpirationIndex(key, newEntry);
                      return newEntry;
                   }
                });
@@ -502,12 +589,32 @@ public InternalCacheEntry<K, V> removeAndActivate(Object key) {
                   @Override
                   public InternalCacheEntry<K, V> apply(Object key, InternalCacheEntry<K, V> entry) {
                      activator.onRemove(key, entry == null);
+                     expirationIndex.remove(key);
                      reference.set(entry);
                      return null;
                   }
                });
          return reference.get();
       }
+
+      @Override
+      public boolean purgeIfExpired(K key, final long currentTimeMillis) {
+         final boolean[] expired = new boolean[1];
+         ((EquivalentConcurrentHashMapV8<K, InternalCacheEntry<K, V>>) entries)
+               .computeIfPresent(key, new EquivalentConcurrentHashMapV8.BiFun<K, InternalCacheEntry<K, V>, InternalCacheEntry<K, V>>() {
+                  @Override
+                  public InternalCacheEntry<K, V> apply(K key, InternalCacheEntry<K, V> entry) {
+                     if (entry.isExpired(currentTimeMillis)) {
+                        expired[0] = true;
+                        expirationIndex.remove(key);
+                        return null;
+                     }
+                     updateExpirationIndex(key, entry);
+                     return entry;
+                  }
+               });
+         return expired[0];
+      }
    }
 
    private class BoundedConcurrentExtendedMap implements ExtendedMap<K, V> {
@@ -529,12 +636,14 @@ public InternalCacheEntry<K, V> compute(K key, final ComputeAction<K, V> action)
             } else if (newEntry == null) {
                activator.onRemove(key, false);
                boundedMap.remove(key);
+               expirationIndex.remove(key);
                return null;
             }
             if (trace)
                log.tracef("Store %s in container", newEntry);
             //put already activate the entry if it is new.
             boundedMap.put(key, newEntry);
+            updateExpirationIndex(key, newEntry);
             return newEntry;
          } finally {
             boundedMap.unlock(key);
@@ -545,6 +654,11 @@ public InternalCacheEntry<K, V> compute(K key, final ComputeAction<K, V> action)
       public void putAndActivate(InternalCacheEntry<K, V> newEntry) {
          //put already activate the entry if it is new.
          entries.put(newEntry.getKey(), newEntry);
+         // the key is not locked here, so never remove it from the index: a concurrent write might have indexed it
+         // again, and a stale deadline is dropped by purgeIfExpired() anyway
+         if (newEntry.canExpire()) {
+            expirationIndex.add(newEntry.getKey(), newEntry.getExpiryTime());
+         }
       }
 
       @Override
@@ -555,10 +669,33 @@ public InternalCacheEntry<K, V> removeAndActivate(Object key) {
          try {
             InternalCacheEntry<K, V> oldEntry = boundedMap.remove(key);
             activator.onRemove(key, oldEntry == null);
+            expirationIndex.remove(key);
             return oldEntry;
          } finally {
             boundedMap.unlock(key);
          }
       }
+
+      @Override
+      public boolean purgeIfExpired(K key, long currentTimeMillis) {
+         final BoundedConcurrentHashMap<K, InternalCacheEntry<K, V>> boundedMap =
+               ((BoundedConcurrentHashMap<K, InternalCacheEntry<K, V>>) entries);
+         boundedMap.lock(key);
+         try {
+            InternalCacheEntry<K, V> entry = boundedMap.get(key);
+            if (entry == null) {
+               return false;
+            }
+            if (entry.isExpired(currentTimeMillis)) {
+               boundedMap.remove(key);
+               expirationIndex.remove(key);
+               return true;
+            }
+            updateExpirationIndex(key, entry);
+            return false;
+         } finally {
+            boundedMap.unlock(key);
+         }
+      }
    }
 }
@@ -0,0 +1,136 @@
+package org.infinispan.container;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.util.CollectionFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Time ordered index of the keys of the entries that can expire, so that purging expired entries only visits the
+ * entries that are due instead of the whole data container.
+ * <p />
+ * Keys are grouped in buckets of {@code resolution} milliseconds of expiry time, kept sorted by a skip list. The
+ * index is allowed to be stale: a key may be indexed after its entry was removed, or earlier than its entry actually
+ * expires (maxIdle expiry is postponed every time the entry is read, without updating the index). Callers must
+ * therefore check every due key against the container, and index it again if its entry has not expired yet. The
+ * only guarantee kept by the index is that a key is never indexed later than the time its entry was given when it
+ * was {@link #add(Object, long) added}.
+ *
+ * @since 7.1
+ */
+class ExpirationIndex<K> {
+
+   static final long DEFAULT_RESOLUTION = 1000;
+
+   private final long resolution;
+   private final ConcurrentMap<K, Long> deadlines;
+   private final ConcurrentSkipListMap<Long, Bucket<K>> buckets = new ConcurrentSkipListMap<Long, Bucket<K>>();
+   private final Equivalence<? super K> keyEquivalence;
+
+   ExpirationIndex(Equivalence<? super K> keyEquivalence) {
+      this(keyEquivalence, DEFAULT_RESOLUTION);
+   }
+
+   ExpirationIndex(Equivalence<? super K> keyEquivalence, long resolution) {
+      if (keyEquivalence == null) {
+         this.keyEquivalence = AnyEquivalence.getInstance();
+      } else {
+         this.keyEquivalence = keyEquivalence;
+      }
+      this.resolution = resolution;
+      this.deadlines = CollectionFactory.makeConcurrentMap(this.keyEquivalence, AnyEquivalence.<Long>getInstance());
+   }
+
+   /**
+    * Indexes {@code key} to expire at {@code expiryTime}, replacing any previous deadline of the key.
+    */
+   void add(K key, long expiryTime) {
+      Long bucketId = expiryTime / resolution;
+      Long previous = deadlines.put(key, bucketId);
+      if (previous != null) {
+         if (previous.equals(bucketId)) {
+            return;
+         }
+         removeFromBucket(key, previous);
+      }
+      while (true) {
+         Bucket<K> bucket = buckets.get(bucketId);
+         if (bucket == null) {
+            Bucket<K> newBucket = new Bucket<K>(keyEquivalence);
+            bucket = buckets.putIfAbsent(bucketId, newBucket);
+            if (bucket == null) {
+               bucket = newBucket;
+            }
+         }
+         bucket.keys.put(key, Boolean.TRUE);
+         if (!bucket.closed) {
+            return;
+         }
+         // the bucket is being drained: the key might have been missed, so index it in a fresh bucket too
+         buckets.remove(bucketId, bucket);
+      }
+   }
+
+   /**
+    * Removes {@code key} from the index, if present.
+    */
+   void remove(Object key) {
+      Long previous = deadlines.remove(key);
+      if (previous != null) {
+         removeFromBucket(key, previous);
+      }
+   }
+
+   /**
+    * Removes and returns the keys indexed to expire at or before {@code now}, including the ones in the bucket {@code
+    * now} belongs to. A key that is indexed again concurrently may be returned and still be indexed.
+    */
+   List<K> pollDue(long now) {
+      List<K> due = new ArrayList<K>();
+      Long nowBucketId = now / resolution;
+      for (Map.Entry<Long, Bucket<K>> e; (e = buckets.firstEntry()) != null && e.getKey() <= nowBucketId; ) {
+         Bucket<K> bucket = e.getValue();
+         bucket.closed = true;
+         buckets.remove(e.getKey(), bucket);
+         for (K key : bucket.keys.keySet()) {
+            if (deadlines.remove(key, e.getKey())) {
+               due.add(key);
+            }
+         }
+      }
+      return due;
+   }
+
+   /**
+    * @return the number of indexed keys
+    */
+   int size() {
+      return deadlines.size();
+   }
+
+   void clear() {
+      buckets.clear();
+      deadlines.clear();
+   }
+
+   private void removeFromBucket(Object key, Long bucketId) {
+      Bucket<K> bucket = buckets.get(bucketId);
+      if (bucket != null) {
+         bucket.keys.remove(key);
+      }
+   }
+
+   private static final class Bucket<K> {
+      final ConcurrentMap<K, Boolean> keys;
+      volatile boolean closed;
+
+      Bucket(Equivalence<? super K> keyEquivalence) {
+         keys = CollectionFactory.makeConcurrentMap(keyEquivalence, AnyEquivalence.<Boolean>getInstance());
+      }
+   }
+}
@@ -0,0 +1,1008 @@
+package org.infinispan.container;
+
+import net.jcip.annotations.ThreadSafe;
+
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.hash.MurmurHash3;
+import org.infinispan.commons.logging.Log;
+import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.util.concurrent.ParallelIterableMap.KeyValueAction;
+import org.infinispan.container.entries.ExpiryHelper;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.entries.L1InternalCacheEntry;
+import org.infinispan.container.entries.metadata.L1MetadataInternalCacheEntry;
+import org.infinispan.container.entries.metadata.MetadataAware;
+import org.infinispan.eviction.ActivationManager;
+import org.infinispan.eviction.EvictionManager;
+import org.infinispan.eviction.EvictionType;
+import org.infinispan.eviction.PassivationManager;
+import org.infinispan.factories.annotations.ComponentName;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Stop;
+import org.infinispan.filter.KeyFilter;
+import org.infinispan.filter.KeyValueFilter;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.metadata.impl.L1Metadata;
+import org.infinispan.util.CoreImmutables;
+import org.infinispan.util.TimeService;
+
+import java.io.IOException;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static org.infinispan.factories.KnownComponentNames.CACHE_MARSHALLER;
+
+/**
+ * A {@link DataContainer} storing the serialized form of keys, values and metadata in native memory, outside of the
+ * Java heap.
+ * <p />
+ * The container is split in lock stripes, each owning an off-heap hash index (an array of addresses of the first
+ * entry in each bucket) which grows independently of the others. Every entry is a single native allocation made of
+ * a fixed size header (bucket chain pointer, hash, lengths, timestamps, expiration settings and flags) followed by
+ * the key, value and metadata bytes. {@link InternalCacheEntry} instances are only materialized when an entry is
+ * read, and expiration is decided from the header alone, so neither {@link #purgeExpired()} nor eviction need to
+ * deserialize the entries they discard, unless they have to be passivated.
+ * <p />
+ * Keys are compared using their serialized form, so they must marshall deterministically. Entries returned by this
+ * container are copies: changes made to them, or to their values, are not reflected in the container until they are
+ * stored again.
+ * <p />
+ * When bounded, the container evicts with the CLOCK algorithm (an approximation of LRU), independently in every
+ * stripe, so each stripe is bounded by its share of the configured limit. With {@link EvictionType#MEMORY} the limit
+ * covers both the entries and the hash index.
+ *
+ * @since 7.1
+ */
+@ThreadSafe
+public class OffHeapDataContainer<K, V> implements DataContainer<K, V> {
+
+   private static final Log log = LogFactory.getLog(OffHeapDataContainer.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   // entry header layout
+   private static final int NEXT_OFFSET = 0;
+   private static final int HASH_OFFSET = 8;
+   private static final int KEY_LENGTH_OFFSET = 12;
+   private static final int VALUE_LENGTH_OFFSET = 16;
+   private static final int METADATA_LENGTH_OFFSET = 20;
+   private static final int CREATED_OFFSET = 24;
+   private static final int LAST_USED_OFFSET = 32;
+   private static final int LIFESPAN_OFFSET = 40;
+   private static final int MAX_IDLE_OFFSET = 48;
+   private static final int FLAGS_OFFSET = 56;
+   static final int HEADER_SIZE = 64;
+
+   private static final int REFERENCED = 1;
+   private static final int L1_ENTRY = 1 << 1;
+
+   private static final int INITIAL_BUCKET_BITS = 4;
+   private static final int MAX_STRIPES = 1 << 16;
+
+   private static final MurmurHash3 HASH = MurmurHash3.getInstance();
+
+   private final Stripe[] stripes;
+   private final int maxBucketBits;
+   private final EvictionType evictionType;
+   private final long maxSizePerStripe;
+
+   private InternalEntryFactory entryFactory;
+   private EvictionManager evictionManager;
+   private PassivationManager passivator;
+   private ActivationManager activator;
+   private TimeService timeService;
+   private StreamingMarshaller marshaller;
+
+   /**
+    * Creates an unbounded off-heap container.
+    */
+   public OffHeapDataContainer(int concurrencyLevel) {
+      this(concurrencyLevel, -1, null);
+   }
+
+   /**
+    * Creates an off-heap container bounded to {@code maxSize} entries or bytes, depending on {@code evictionType}. A
+    * negative {@code maxSize} or a {@code null} {@code evictionType} creates an unbounded container.
+    */
+   public OffHeapDataContainer(int concurrencyLevel, long maxSize, EvictionType evictionType) {
+      int stripeCount = 1;
+      while (stripeCount < concurrencyLevel && stripeCount < MAX_STRIPES) {
+         stripeCount <<= 1;
+      }
+      stripes = (Stripe[]) new OffHeapDataContainer.Stripe[stripeCount];
+      for (int i = 0; i < stripeCount; i++) {
+         stripes[i] = new Stripe();
+      }
+      // the low bits of the hash select the stripe, the high ones the bucket
+      maxBucketBits = Math.min(30, 32 - Integer.numberOfTrailingZeros(stripeCount));
+      if (maxSize < 0 || evictionType == null) {
+         this.evictionType = null;
+         this.maxSizePerStripe = -1;
+      } else {
+         this.evictionType = evictionType;
+         this.maxSizePerStripe = Math.max(1, maxSize / stripeCount);
+      }
+   }
+
+   @Inject
+   public void initialize(EvictionManager evictionManager, PassivationManager passivator,
+                          InternalEntryFactory entryFactory, ActivationManager activator, TimeService timeService,
+                          @ComponentName(CACHE_MARSHALLER) StreamingMarshaller marshaller) {
+      this.evictionManager = evictionManager;
+      this.passivator = passivator;
+      this.entryFactory = entryFactory;
+      this.activator = activator;
+      this.timeService = timeService;
+      this.marshaller = marshaller;
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> get(Object k) {
+      byte[] keyBytes = marshall(k);
+      int hash = HASH.hash(keyBytes);
+      Stripe stripe = stripeFor(hash);
+      long now;
+      stripe.readLock().lock();
+      try {
+         long address = stripe.find(hash, keyBytes);
+         if (address == 0) {
+            return null;
+         }
+         if (!canExpire(address)) {
+            markReferenced(address);
+            return materialize((K) k, address);
+         }
+         now = timeService.wallClockTime();
+         if (!isExpired(address, now)) {
+            markReferenced(address);
+            OffHeapMemory.putLongVolatile(address + LAST_USED_OFFSET, now);
+            return materialize((K) k, address);
+         }
+      } finally {
+         stripe.readLock().unlock();
+      }
+      removeExpired(stripe, hash, keyBytes, now);
+      return null;
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> peek(Object k) {
+      byte[] keyBytes = marshall(k);
+      int hash = HASH.hash(keyBytes);
+      Stripe stripe = stripeFor(hash);
+      stripe.readLock().lock();
+      try {
+         long address = stripe.find(hash, keyBytes);
+         return address == 0 ? null : materialize((K) k, address);
+      } finally {
+         stripe.readLock().unlock();
+      }
+   }
+
+   @Override
+   public void put(K k, V v, Metadata metadata) {
+      boolean l1Entry = false;
+      if (metadata instanceof L1Metadata) {
+         metadata = ((L1Metadata) metadata).metadata();
+         l1Entry = true;
+      }
+      long lifespan = metadata.lifespan();
+      long maxIdle = metadata.maxIdle();
+      long now = lifespan > -1 || maxIdle > -1 || l1Entry ? timeService.wallClockTime() : -1;
+      byte[] keyBytes = marshall(k);
+      SerializedEntry entry = new SerializedEntry(HASH.hash(keyBytes), keyBytes, marshall(v),
+            isStoreMetadata(metadata) ? marshall(metadata) : null, now, now, lifespan, maxIdle, l1Entry);
+
+      if (trace) {
+         log.tracef("Store key=%s, value=%s, metadata=%s in off-heap container", k, v, metadata);
+      }
+
+      Stripe stripe = stripeFor(entry.hash);
+      Map<K, InternalCacheEntry<K, V>> evicted;
+      stripe.writeLock().lock();
+      try {
+         boolean created = stripe.put(entry);
+         activator.onUpdate(k, created);
+         evicted = stripe.evictIfNeeded();
+      } finally {
+         stripe.writeLock().unlock();
+      }
+      notifyEvicted(evicted);
+   }
+
+   @Override
+   public boolean containsKey(Object k) {
+      byte[] keyBytes = marshall(k);
+      int hash = HASH.hash(keyBytes);
+      Stripe stripe = stripeFor(hash);
+      long now;
+      stripe.readLock().lock();
+      try {
+         long address = stripe.find(hash, keyBytes);
+         if (address == 0) {
+            return false;
+         }
+         if (!canExpire(address)) {
+            return true;
+         }
+         now = timeService.wallClockTime();
+         if (!isExpired(address, now)) {
+            return true;
+         }
+      } finally {
+         stripe.readLock().unlock();
+      }
+      removeExpired(stripe, hash, keyBytes, now);
+      return false;
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> remove(Object k) {
+      byte[] keyBytes = marshall(k);
+      int hash = HASH.hash(keyBytes);
+      Stripe stripe = stripeFor(hash);
+      InternalCacheEntry<K, V> e = null;
+      stripe.writeLock().lock();
+      try {
+         long address = stripe.find(hash, keyBytes);
+         if (address != 0) {
+            e = materialize((K) k, address);
+            stripe.remove(address);
+         }
+         activator.onRemove(k, address == 0);
+      } finally {
+         stripe.writeLock().unlock();
+      }
+      return e == null || (e.canExpire() && e.isExpired(timeService.wallClockTime())) ? null : e;
+   }
+
+   @Override
+   public int size() {
+      int size = 0;
+      for (Stripe stripe : stripes) {
+         size += stripe.count;
+      }
+      return size;
+   }
+
+   @Override
+   public long memoryUsage() {
+      long memoryUsage = 0;
+      for (Stripe stripe : stripes) {
+         memoryUsage += stripe.memoryUsage;
+      }
+      return memoryUsage;
+   }
+
+   @Override
+   public void clear() {
+      log.tracef("Clearing off-heap data container");
+      for (Stripe stripe : stripes) {
+         stripe.writeLock().lock();
+         try {
+            stripe.clear(false);
+         } finally {
+            stripe.writeLock().unlock();
+         }
+      }
+   }
+
+   /**
+    * Releases the native memory held by the hash index. Runs after {@link #clear()} released the entries.
+    */
+   @Stop(priority = 1000)
+   public void releaseMemory() {
+      for (Stripe stripe : stripes) {
+         stripe.writeLock().lock();
+         try {
+            stripe.clear(true);
+         } finally {
+            stripe.writeLock().unlock();
+         }
+      }
+   }
+
+   @Override
+   public Set<K> keySet() {
+      return Collections.unmodifiableSet(new KeySet());
+   }
+
+   @Override
+   public Collection<V> values() {
+      return new Values();
+   }
+
+   @Override
+   public Set<InternalCacheEntry<K, V>> entrySet() {
+      return new EntrySet();
+   }
+
+   @Override
+   public int purgeExpired() {
+      long currentTimeMillis = timeService.wallClockTime();
+      int purged = 0;
+      for (Stripe stripe : stripes) {
+         stripe.writeLock().lock();
+         try {
+            purged += stripe.purgeExpired(currentTimeMillis);
+         } finally {
+            stripe.writeLock().unlock();
+         }
+      }
+      return purged;
+   }
+
+   @Override
+   public void evict(K key) {
+      byte[] keyBytes = marshall(key);
+      int hash = HASH.hash(keyBytes);
+      Stripe stripe = stripeFor(hash);
+      stripe.writeLock().lock();
+      try {
+         long address = stripe.find(hash, keyBytes);
+         if (address != 0) {
+            passivator.passivate(materialize(key, address));
+            stripe.remove(address);
+         }
+      } finally {
+         stripe.writeLock().unlock();
+      }
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> compute(K key, ComputeAction<K, V> action) {
+      byte[] keyBytes = marshall(key);
+      int hash = HASH.hash(keyBytes);
+      Stripe stripe = stripeFor(hash);
+      InternalCacheEntry<K, V> newEntry;
+      Map<K, InternalCacheEntry<K, V>> evicted = null;
+      stripe.writeLock().lock();
+      try {
+         long address = stripe.find(hash, keyBytes);
+         InternalCacheEntry<K, V> oldEntry = address == 0 ? null : materialize(key, address);
+         newEntry = action.compute(key, oldEntry, entryFactory);
+         if (newEntry == oldEntry) {
+            return newEntry;
+         } else if (newEntry == null) {
+            activator.onRemove(key, false);
+            stripe.remove(address);
+            return null;
+         }
+         activator.onUpdate(key, oldEntry == null);
+         if (trace)
+            log.tracef("Store %s in container", newEntry);
+         stripe.put(serialize(hash, keyBytes, newEntry));
+         evicted = stripe.evictIfNeeded();
+      } finally {
+         stripe.writeLock().unlock();
+         notifyEvicted(evicted);
+      }
+      return newEntry;
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iterator() {
+      return new EntryIterator(null);
+   }
+
+   @Override
+   public void executeTask(KeyFilter<? super K> filter, KeyValueAction<? super K, InternalCacheEntry<K, V>> action)
+         throws InterruptedException {
+      if (filter == null)
+         throw new IllegalArgumentException("No filter specified");
+      if (action == null)
+         throw new IllegalArgumentException("No action specified");
+
+      // keys are deserialized first, so the values of rejected entries are never materialized
+      for (Iterator<InternalCacheEntry<K, V>> it = new EntryIterator(filter); it.hasNext(); ) {
+         InternalCacheEntry<K, V> entry = it.next();
+         action.apply(entry.getKey(), entry);
+         if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException();
+         }
+      }
+   }
+
+   @Override
+   public void executeTask(KeyValueFilter<? super K, ? super V> filter, KeyValueAction<? super K, InternalCacheEntry<K, V>> action)
+         throws InterruptedException {
+      if (filter == null)
+         throw new IllegalArgumentException("No filter specified");
+      if (action == null)
+         throw new IllegalArgumentException("No action specified");
+
+      for (Iterator<InternalCacheEntry<K, V>> it = new EntryIterator(null); it.hasNext(); ) {
+         InternalCacheEntry<K, V> entry = it.next();
+         if (filter.accept(entry.getKey(), entry.getValue(), entry.getMetadata())) {
+            action.apply(entry.getKey(), entry);
+         }
+         if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException();
+         }
+      }
+   }
+
+   private Stripe stripeFor(int hash) {
+      return stripes[hash & (stripes.length - 1)];
+   }
+
+   private void removeExpired(Stripe stripe, int hash, byte[] keyBytes, long now) {
+      stripe.writeLock().lock();
+      try {
+         long address = stripe.find(hash, keyBytes);
+         if (address != 0 && isExpired(address, now)) {
+            stripe.remove(address);
+         }
+      } finally {
+         stripe.writeLock().unlock();
+      }
+   }
+
+   private void notifyEvicted(Map<K, InternalCacheEntry<K, V>> evicted) {
+      if (evicted != null && !evicted.isEmpty()) {
+         evictionManager.onEntryEviction(evicted);
+      }
+   }
+
+   private static boolean isStoreMetadata(Metadata metadata) {
+      return metadata != null && (metadata.version() != null || !(metadata instanceof EmbeddedMetadata));
+   }
+
+   private static boolean canExpire(long address) {
+      return OffHeapMemory.getLong(address + LIFESPAN_OFFSET) > -1 || OffHeapMemory.getLong(address + MAX_IDLE_OFFSET) > -1;
+   }
+
+   private static boolean isExpired(long address, long now) {
+      long lifespan = OffHeapMemory.getLong(address + LIFESPAN_OFFSET);
+      long maxIdle = OffHeapMemory.getLong(address + MAX_IDLE_OFFSET);
+      if (lifespan > -1 && ExpiryHelper.isExpiredMortal(lifespan, OffHeapMemory.getLong(address + CREATED_OFFSET), now)) {
+         return true;
+      }
+      return maxIdle > -1 && ExpiryHelper.isExpiredTransient(maxIdle, OffHeapMemory.getLongVolatile(address + LAST_USED_OFFSET), now);
+   }
+
+   private static void markReferenced(long address) {
+      int flags = OffHeapMemory.getIntVolatile(address + FLAGS_OFFSET);
+      if ((flags & REFERENCED) == 0) {
+         // racing readers can only set the same bit, and the bit is only cleared under the write lock
+         OffHeapMemory.putIntVolatile(address + FLAGS_OFFSET, flags | REFERENCED);
+      }
+   }
+
+   private static long entrySize(long address) {
+      return HEADER_SIZE + OffHeapMemory.getInt(address + KEY_LENGTH_OFFSET)
+            + OffHeapMemory.getInt(address + VALUE_LENGTH_OFFSET) + OffHeapMemory.getInt(address + METADATA_LENGTH_OFFSET);
+   }
+
+   private SerializedEntry serialize(int hash, byte[] keyBytes, InternalCacheEntry<K, V> entry) {
+      byte[] metadataBytes = entry instanceof MetadataAware ? marshall(entry.getMetadata()) : null;
+      return new SerializedEntry(hash, keyBytes, marshall(entry.getValue()), metadataBytes, entry.getCreated(),
+                                 entry.getLastUsed(), entry.getLifespan(), entry.getMaxIdle(), entry.isL1Entry());
+   }
+
+   /**
+    * Creates an {@link InternalCacheEntry} from the entry stored at {@code address}. The key is deserialized if
+    * {@code key} is {@code null}. Must be called while holding the lock of the stripe containing the entry.
+    */
+   private InternalCacheEntry<K, V> materialize(K key, long address) {
+      int keyLength = OffHeapMemory.getInt(address + KEY_LENGTH_OFFSET);
+      int valueLength = OffHeapMemory.getInt(address + VALUE_LENGTH_OFFSET);
+      int metadataLength = OffHeapMemory.getInt(address + METADATA_LENGTH_OFFSET);
+      long dataAddress = address + HEADER_SIZE;
+      if (key == null) {
+         key = (K) unmarshall(dataAddress, keyLength);
+      }
+      V value = (V) unmarshall(dataAddress + keyLength, valueLength);
+      long created = OffHeapMemory.getLong(address + CREATED_OFFSET);
+      long lastUsed = OffHeapMemory.getLongVolatile(address + LAST_USED_OFFSET);
+      long lifespan = OffHeapMemory.getLong(address + LIFESPAN_OFFSET);
+      long maxIdle = OffHeapMemory.getLong(address + MAX_IDLE_OFFSET);
+      Metadata metadata = metadataLength > 0 ?
+            (Metadata) unmarshall(dataAddress + keyLength + valueLength, metadataLength) :
+            new EmbeddedMetadata.Builder().lifespan(lifespan).maxIdle(maxIdle).build();
+      if ((OffHeapMemory.getIntVolatile(address + FLAGS_OFFSET) & L1_ENTRY) != 0) {
+         return metadataLength > 0 ?
+               new L1MetadataInternalCacheEntry(key, value, metadata, created) :
+               new L1InternalCacheEntry(key, value, lifespan, created);
+      }
+      return entryFactory.create(key, value, metadata, created, lifespan, lastUsed, maxIdle);
+   }
+
+   private byte[] marshall(Object o) {
+      try {
+         return marshaller.objectToByteBuffer(o);
+      } catch (IOException e) {
+         throw new CacheException("Unable to marshall " + o + " for off-heap storage", e);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new CacheException(e);
+      }
+   }
+
+   private Object unmarshall(long address, int length) {
+      try {
+         return marshaller.objectFromByteBuffer(OffHeapMemory.read(address, length));
+      } catch (IOException | ClassNotFoundException e) {
+         throw new CacheException("Unable to unmarshall an entry stored off-heap", e);
+      }
+   }
+
+   /**
+    * The serialized form of an entry, prepared before acquiring the stripe lock.
+    */
+   private static final class SerializedEntry {
+      final int hash;
+      final byte[] key;
+      final byte[] value;
+      final byte[] metadata;
+      final long created;
+      final long lastUsed;
+      final long lifespan;
+      final long maxIdle;
+      final boolean l1Entry;
+
+      SerializedEntry(int hash, byte[] key, byte[] value, byte[] metadata, long created, long lastUsed, long lifespan,
+                      long maxIdle, boolean l1Entry) {
+         this.hash = hash;
+         this.key = key;
+         this.value = value;
+         this.metadata = metadata;
+         this.created = created;
+         this.lastUsed = lastUsed;
+         this.lifespan = lifespan;
+         this.maxIdle = maxIdle;
+         this.l1Entry = l1Entry;
+      }
+
+      long size() {
+         return HEADER_SIZE + key.length + value.length + (metadata == null ? 0 : metadata.length);
+      }
+   }
+
+   /**
+    * A lock stripe with its own off-heap hash index. The bucket of an entry is given by the high bits of its hash
+    * (the low ones select the stripe), so doubling the index splits every bucket into two adjacent ones and keeps
+    * the relative order of the entries, which allows iterators to resume after a resize.
+    */
+   private final class Stripe extends ReentrantReadWriteLock {
+
+      private static final long serialVersionUID = -3263519638493498014L;
+
+      // guarded by the write lock, read under the read lock
+      long table;
+      int bits = INITIAL_BUCKET_BITS;
+      int clockHand;
+      long protectedAddress;
+
+      volatile int count;
+      volatile long memoryUsage;
+
+      int bucket(int hash) {
+         return hash >>> (32 - bits);
+      }
+
+      long bucketAddress(int bucket) {
+         return table + ((long) bucket << 3);
+      }
+
+      long find(int hash, byte[] keyBytes) {
+         if (table == 0) {
+            return 0;
+         }
+         long address = OffHeapMemory.getLong(bucketAddress(bucket(hash)));
+         while (address != 0) {
+            if (OffHeapMemory.getInt(address + HASH_OFFSET) == hash
+                  && OffHeapMemory.getInt(address + KEY_LENGTH_OFFSET) == keyBytes.length
+                  && OffHeapMemory.equals(address + HEADER_SIZE, keyBytes)) {
+               return address;
+            }
+            address = OffHeapMemory.getLong(address + NEXT_OFFSET);
+         }
+         return 0;
+      }
+
+      /**
+       * Stores the entry, replacing any existing entry with the same key.
+       *
+       * @return {@code true} if the key was not present
+       */
+      boolean put(SerializedEntry entry) {
+         if (table == 0) {
+            long tableSize = 8L << bits;
+            table = OffHeapMemory.allocateZeroed(tableSize);
+            memoryUsage += tableSize;
+         }
+         long size = entry.size();
+         long address = OffHeapMemory.allocate(size);
+         OffHeapMemory.putInt(address + HASH_OFFSET, entry.hash);
+         OffHeapMemory.putInt(address + KEY_LENGTH_OFFSET, entry.key.length);
+         OffHeapMemory.putInt(address + VALUE_LENGTH_OFFSET, entry.value.length);
+         OffHeapMemory.putInt(address + METADATA_LENGTH_OFFSET, entry.metadata == null ? 0 : entry.metadata.length);
+         OffHeapMemory.putLong(address + CREATED_OFFSET, entry.created);
+         OffHeapMemory.putLong(address + LAST_USED_OFFSET, entry.lastUsed);
+         OffHeapMemory.putLong(address + LIFESPAN_OFFSET, entry.lifespan);
+         OffHeapMemory.putLong(address + MAX_IDLE_OFFSET, entry.maxIdle);
+         OffHeapMemory.putInt(address + FLAGS_OFFSET, REFERENCED | (entry.l1Entry ? L1_ENTRY : 0));
+         long dataAddress = address + HEADER_SIZE;
+         OffHeapMemory.write(dataAddress, entry.key);
+         OffHeapMemory.write(dataAddress + entry.key.length, entry.value);
+         if (entry.metadata != null) {
+            OffHeapMemory.write(dataAddress + entry.key.length + entry.value.length, entry.metadata);
+         }
+         memoryUsage += size;
+         protectedAddress = address;
+
+         long link = bucketAddress(bucket(entry.hash));
+         long current = OffHeapMemory.getLong(link);
+         while (current != 0) {
+            if (OffHeapMemory.getInt(current + HASH_OFFSET) == entry.hash
+                  && OffHeapMemory.getInt(current + KEY_LENGTH_OFFSET) == entry.key.length
+                  && OffHeapMemory.equals(current + HEADER_SIZE, entry.key)) {
+               OffHeapMemory.putLong(address + NEXT_OFFSET, OffHeapMemory.getLong(current + NEXT_OFFSET));
+               OffHeapMemory.putLong(link, address);
+               release(current);
+               return false;
+            }
+            link = current + NEXT_OFFSET;
+            current = OffHeapMemory.getLong(link);
+         }
+         // append, so that the order within a bucket is stable for iterators
+         OffHeapMemory.putLong(address + NEXT_OFFSET, 0);
+         OffHeapMemory.putLong(link, address);
+         count++;
+         if (count > (3 << bits) >>> 2 && bits < maxBucketBits) {
+            resize();
+         }
+         return true;
+      }
+
+      void remove(long address) {
+         long link = bucketAddress(bucket(OffHeapMemory.getInt(address + HASH_OFFSET)));
+         long current = OffHeapMemory.getLong(link);
+         while (current != 0) {
+            if (current == address) {
+               OffHeapMemory.putLong(link, OffHeapMemory.getLong(current + NEXT_OFFSET));
+               release(current);
+               count--;
+               return;
+            }
+            link = current + NEXT_OFFSET;
+            current = OffHeapMemory.getLong(link);
+         }
+      }
+
+      private void release(long address) {
+         memoryUsage -= entrySize(address);
+         OffHeapMemory.free(address);
+      }
+
+      private void resize() {
+         int newBits = bits + 1;
+         long newTableSize = 8L << newBits;
+         long newTable = OffHeapMemory.allocateZeroed(newTableSize);
+         int buckets = 1 << bits;
+         for (int i = 0; i < buckets; i++) {
+            // every old bucket splits into buckets 2i and 2i+1; keep the tails to preserve the order
+            long lowTail = newTable + ((long) (i << 1) << 3);
+            long highTail = lowTail + 8;
+            long address = OffHeapMemory.getLong(bucketAddress(i));
+            while (address != 0) {
+               long next = OffHeapMemory.getLong(address + NEXT_OFFSET);
+               OffHeapMemory.putLong(address + NEXT_OFFSET, 0);
+               int newBucket = OffHeapMemory.getInt(address + HASH_OFFSET) >>> (32 - newBits);
+               if ((newBucket & 1) == 0) {
+                  OffHeapMemory.putLong(lowTail, address);
+                  lowTail = address + NEXT_OFFSET;
+               } else {
+                  OffHeapMemory.putLong(highTail, address);
+                  highTail = address + NEXT_OFFSET;
+               }
+               address = next;
+            }
+         }
+         OffHeapMemory.free(table);
+         memoryUsage += newTableSize - (8L << bits);
+         table = newTable;
+         bits = newBits;
+         clockHand <<= 1;
+      }
+
+      private boolean isFull() {
+         if (evictionType == null || count <= 1) {
+            return false;
+         }
+         return evictionType == EvictionType.COUNT ? count > maxSizePerStripe : memoryUsage > maxSizePerStripe;
+      }
+
+      /**
+       * Sweeps the CLOCK hand over the buckets, clearing the referenced bit of recently used entries and evicting
+       * the others, until the stripe is within its bound. The entry stored last is never evicted.
+       */
+      Map<K, InternalCacheEntry<K, V>> evictIfNeeded() {
+         if (!isFull()) {
+            return null;
+         }
+         Map<K, InternalCacheEntry<K, V>> evicted = new HashMap<K, InternalCacheEntry<K, V>>();
+         int mask = (1 << bits) - 1;
+         while (isFull()) {
+            long link = bucketAddress(clockHand);
+            long current = OffHeapMemory.getLong(link);
+            while (current != 0 && isFull()) {
+               long next = OffHeapMemory.getLong(current + NEXT_OFFSET);
+               int flags = OffHeapMemory.getInt(current + FLAGS_OFFSET);
+               if (current == protectedAddress) {
+                  link = current + NEXT_OFFSET;
+               } else if ((flags & REFERENCED) != 0) {
+                  OffHeapMemory.putIntVolatile(current + FLAGS_OFFSET, flags & ~REFERENCED);
+                  link = current + NEXT_OFFSET;
+               } else {
+                  InternalCacheEntry<K, V> entry = materialize(null, current);
+                  passivator.passivate(entry);
+                  evicted.put(entry.getKey(), entry);
+                  OffHeapMemory.putLong(link, next);
+                  release(current);
+                  count--;
+               }
+               current = next;
+            }
+            if (current == 0) {
+               clockHand = (clockHand + 1) & mask;
+            }
+         }
+         if (trace) {
+            log.tracef("Evicted %d entries from off-heap stripe", evicted.size());
+         }
+         return evicted;
+      }
+
+      int purgeExpired(long now) {
+         if (table == 0) {
+            return 0;
+         }
+         int purged = 0;
+         int buckets = 1 << bits;
+         for (int i = 0; i < buckets; i++) {
+            long link = bucketAddress(i);
+            long current = OffHeapMemory.getLong(link);
+            while (current != 0) {
+               long next = OffHeapMemory.getLong(current + NEXT_OFFSET);
+               if (canExpire(current) && isExpired(current, now)) {
+                  OffHeapMemory.putLong(link, next);
+                  release(current);
+                  count--;
+                  purged++;
+               } else {
+                  link = current + NEXT_OFFSET;
+               }
+               current = next;
+            }
+         }
+         return purged;
+      }
+
+      /**
+       * Releases all the entries and, if {@code releaseTable} is {@code true}, the hash index as well.
+       */
+      void clear(boolean releaseTable) {
+         if (table == 0) {
+            return;
+         }
+         int buckets = 1 << bits;
+         for (int i = 0; i < buckets; i++) {
+            long address = OffHeapMemory.getLong(bucketAddress(i));
+            while (address != 0) {
+               long next = OffHeapMemory.getLong(address + NEXT_OFFSET);
+               release(address);
+               address = next;
+            }
+         }
+         count = 0;
+         protectedAddress = 0;
+         clockHand = 0;
+         if (releaseTable) {
+            OffHeapMemory.free(table);
+            table = 0;
+            bits = INITIAL_BUCKET_BITS;
+            memoryUsage = 0;
+         } else {
+            OffHeapMemory.zero(table, 8L << bits);
+         }
+      }
+   }
+
+   /**
+    * Weakly consistent iterator materializing one bucket at a time, under the read lock of its stripe. The position
+    * is recorded together with the size of the index it refers to, so it can be translated if the stripe resized.
+    */
+   private class EntryIterator implements Iterator<InternalCacheEntry<K, V>> {
+
+      private final KeyFilter<? super K> filter;
+      private final ArrayDeque<InternalCacheEntry<K, V>> buffer = new ArrayDeque<InternalCacheEntry<K, V>>();
+      private int stripeIndex;
+      private int bucket;
+      private int bits = -1;
+
+      EntryIterator(KeyFilter<? super K> filter) {
+         this.filter = filter;
+      }
+
+      @Override
+      public boolean hasNext() {
+         while (buffer.isEmpty() && stripeIndex < stripes.length) {
+            advance();
+         }
+         return !buffer.isEmpty();
+      }
+
+      @Override
+      public InternalCacheEntry<K, V> next() {
+         if (!hasNext()) {
+            throw new NoSuchElementException();
+         }
+         return buffer.poll();
+      }
+
+      @Override
+      public void remove() {
+         throw new UnsupportedOperationException();
+      }
+
+      private void advance() {
+         Stripe stripe = stripes[stripeIndex];
+         stripe.readLock().lock();
+         try {
+            if (bits < 0) {
+               bits = stripe.bits;
+            }
+            if (stripe.table == 0 || stripe.bits < bits) {
+               nextStripe();
+               return;
+            }
+            bucket <<= stripe.bits - bits;
+            bits = stripe.bits;
+            if (bucket >= 1 << bits) {
+               nextStripe();
+               return;
+            }
+            long address = OffHeapMemory.getLong(stripe.bucketAddress(bucket));
+            while (address != 0) {
+               if (filter == null) {
+                  buffer.add(materialize(null, address));
+               } else {
+                  K key = (K) unmarshall(address + HEADER_SIZE, OffHeapMemory.getInt(address + KEY_LENGTH_OFFSET));
+                  if (filter.accept(key)) {
+                     buffer.add(materialize(key, address));
+                  }
+               }
+               address = OffHeapMemory.getLong(address + NEXT_OFFSET);
+            }
+            bucket++;
+         } finally {
+            stripe.readLock().unlock();
+         }
+      }
+
+      private void nextStripe() {
+         stripeIndex++;
+         bucket = 0;
+         bits = -1;
+      }
+   }
+
+   private class EntrySet extends AbstractSet<InternalCacheEntry<K, V>> {
+
+      @Override
+      public boolean contains(Object o) {
+         if (!(o instanceof Map.Entry)) {
+            return false;
+         }
+
+         @SuppressWarnings("rawtypes")
+         Map.Entry e = (Map.Entry) o;
+         InternalCacheEntry ice = peek(e.getKey());
+         if (ice == null) {
+            return false;
+         }
+         return ice.getValue().equals(e.getValue());
+      }
+
+      @Override
+      public Iterator<InternalCacheEntry<K, V>> iterator() {
+         final Iterator<InternalCacheEntry<K, V>> it = new EntryIterator(null);
+         return new Iterator<InternalCacheEntry<K, V>>() {
+            @Override
+            public boolean hasNext() {
+               return it.hasNext();
+            }
+
+            @Override
+            public InternalCacheEntry<K, V> next() {
+               return CoreImmutables.immutableInternalCacheEntry(it.next());
+            }
+
+            @Override
+            public void remove() {
+               throw new UnsupportedOperationException();
+            }
+         };
+      }
+
+      @Override
+      public int size() {
+         return OffHeapDataContainer.this.size();
+      }
+   }
+
+   private class KeySet extends AbstractSet<K> {
+
+      @Override
+      public boolean contains(Object o) {
+         return peek(o) != null;
+      }
+
+      @Override
+      public Iterator<K> iterator() {
+         final Iterator<InternalCacheEntry<K, V>> it = new EntryIterator(null);
+         return new Iterator<K>() {
+            @Override
+            public boolean hasNext() {
+               return it.hasNext();
+            }
+
+            @Override
+            public K next() {
+               return it.next().getKey();
+            }
+
+            @Override
+            public void remove() {
+               throw new UnsupportedOperationException();
+            }
+         };
+      }
+
+      @Override
+      public int size() {
+         return OffHeapDataContainer.this.size();
+      }
+   }
+
+   private class Values extends AbstractCollection<V> {
+
+      @Override
+      public Iterator<V> iterator() {
+         final Iterator<InternalCacheEntry<K, V>> it = new EntryIterator(null);
+         return new Iterator<V>() {
+            @Override
+            public boolean hasNext() {
+               return it.hasNext();
+            }
+
+            @Override
+            public V next() {
+               return it.next().getValue();
+            }
+
+            @Override
+            public void remove() {
+               throw new UnsupportedOperationException();
+            }
+         };
+      }
+
+      @Override
+      public int size() {
+         return OffHeapDataContainer.this.size();
+      }
+   }
+}
@@ -0,0 +1,122 @@
+package org.infinispan.container;
+
+import sun.misc.Unsafe;
+
+import java.lang.reflect.Field;
+import java.security.AccessController;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
+
+/**
+ * Thin wrapper around {@link Unsafe} used by {@link OffHeapDataContainer} to allocate, access and release native
+ * memory. Addresses are absolute and must only be accessed while they are allocated.
+ *
+ * @since 7.1
+ */
+final class OffHeapMemory {
+
+   private static final Unsafe UNSAFE = getUnsafe();
+   private static final long BYTE_ARRAY_OFFSET = UNSAFE.arrayBaseOffset(byte[].class);
+
+   private OffHeapMemory() {
+   }
+
+   static long allocate(long size) {
+      return UNSAFE.allocateMemory(size);
+   }
+
+   static long allocateZeroed(long size) {
+      long address = UNSAFE.allocateMemory(size);
+      UNSAFE.setMemory(address, size, (byte) 0);
+      return address;
+   }
+
+   static void free(long address) {
+      UNSAFE.freeMemory(address);
+   }
+
+   static void zero(long address, long size) {
+      UNSAFE.setMemory(address, size, (byte) 0);
+   }
+
+   static long getLong(long address) {
+      return UNSAFE.getLong(address);
+   }
+
+   static void putLong(long address, long value) {
+      UNSAFE.putLong(address, value);
+   }
+
+   static long getLongVolatile(long address) {
+      return UNSAFE.getLongVolatile(null, address);
+   }
+
+   static void putLongVolatile(long address, long value) {
+      UNSAFE.putLongVolatile(null, address, value);
+   }
+
+   static int getInt(long address) {
+      return UNSAFE.getInt(address);
+   }
+
+   static void putInt(long address, int value) {
+      UNSAFE.putInt(address, value);
+   }
+
+   static int getIntVolatile(long address) {
+      return UNSAFE.getIntVolatile(null, address);
+   }
+
+   static void putIntVolatile(long address, int value) {
+      UNSAFE.putIntVolatile(null, address, value);
+   }
+
+   static void write(long address, byte[] bytes) {
+      UNSAFE.copyMemory(bytes, BYTE_ARRAY_OFFSET, null, address, bytes.length);
+   }
+
+   static byte[] read(long address, int length) {
+      byte[] bytes = new byte[length];
+      UNSAFE.copyMemory(null, address, bytes, BYTE_ARRAY_OFFSET, length);
+      return bytes;
+   }
+
+   /**
+    * Compares {@code bytes.length} bytes of native memory starting at {@code address} with {@code bytes}.
+    */
+   static boolean equals(long address, byte[] bytes) {
+      int length = bytes.length;
+      int i = 0;
+      for (; i + 8 <= length; i += 8) {
+         if (UNSAFE.getLong(address + i) != UNSAFE.getLong(bytes, BYTE_ARRAY_OFFSET + i)) {
+            return false;
+         }
+      }
+      for (; i < length; i++) {
+         if (UNSAFE.getByte(address + i) != bytes[i]) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   private static Unsafe getUnsafe() {
+      try {
+         return Unsafe.getUnsafe();
+      } catch (SecurityException tryReflectionInstead) {
+         // not loaded by the boot class loader
+      }
+      try {
+         return AccessController.doPrivileged(new PrivilegedExceptionAction<Unsafe>() {
+            @Override
+            public Unsafe run() throws Exception {
+               Field field = Unsafe.class.getDeclaredField("theUnsafe");
+               field.setAccessible(true);
+               return (Unsafe) field.get(null);
+            }
+         });
+      } catch (PrivilegedActionException e) {
+         throw new IllegalStateException("Off-heap storage requires sun.misc.Unsafe", e.getCause());
+      }
+   }
+}
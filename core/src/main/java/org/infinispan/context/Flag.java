@@ -8,6 +8,7 @@
 
 import org.infinispan.Cache;
 import org.infinispan.AdvancedCache;
+import org.infinispan.commons.io.UnsignedNumeric;
 import org.infinispan.lifecycle.ComponentStatus;
 import org.infinispan.commons.marshall.AbstractExternalizer;
 import org.infinispan.commons.util.InfinispanCollections;
@@ -281,6 +282,44 @@ public static Set<Flag> copyWithoutRemotableFlags(Set<Flag> flags) {
       }
    }
 
+   private static final Flag[] CACHED_VALUES = values();
+
+   /**
+    * Writes a set of flags as a bit mask, which is much smaller than a marshalled set of flags.
+    *
+    * @param flags the flags to write, may be {@code null}
+    */
+   public static void writeFlags(Set<Flag> flags, ObjectOutput output) throws IOException {
+      // The lowest bit distinguishes an empty set from null
+      long bits = 0;
+      if (flags != null) {
+         bits = 1;
+         for (Flag flag : flags) {
+            bits |= 1L << (flag.ordinal() + 1);
+         }
+      }
+      UnsignedNumeric.writeUnsignedLong(output, bits);
+   }
+
+   /**
+    * Reads a set of flags written with {@link #writeFlags(Set, ObjectOutput)}.
+    */
+   public static Set<Flag> readFlags(ObjectInput input) throws IOException {
+      long bits = UnsignedNumeric.readUnsignedLong(input);
+      if (bits == 0) {
+         return null;
+      } else if (bits == 1) {
+         return InfinispanCollections.emptySet();
+      }
+      EnumSet<Flag> flags = EnumSet.noneOf(Flag.class);
+      for (int i = 0; i < CACHED_VALUES.length; i++) {
+         if ((bits & (1L << (i + 1))) != 0) {
+            flags.add(CACHED_VALUES[i]);
+         }
+      }
+      return flags;
+   }
+
    public static class Externalizer extends AbstractExternalizer<Flag> {
 
       @Override
@@ -0,0 +1,174 @@
+package org.infinispan.context;
+
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.VisitableCommand;
+import org.infinispan.commands.read.GetKeyValueCommand;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commands.write.RemoveCommand;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.metadata.Metadata;
+
+import java.util.Set;
+
+/**
+ * Reuses the invocation contexts and the commands of the single-key reads and writes, so that a get, put or remove
+ * doesn't allocate them in the steady state.
+ * <p/>
+ * Recycling is disabled by default, and is enabled with the {@code infinispan.recycling} system property, read when the
+ * cache starts. The cache only acquires the contexts and commands from the recycler for the invocations that cannot
+ * reference them once they complete, and {@link org.infinispan.interceptors.InvocationContextInterceptor} releases
+ * them at the end of the invocation. The released objects go back to a small pool owned by the thread.
+ * <p/>
+ * With the {@code infinispan.recycling.debug} system property, the released objects are never reused, so that using them
+ * after the end of their invocation fails with an {@link IllegalStateException} instead of seeing the state of another
+ * invocation.
+ *
+ * @since 7.1
+ */
+@Scope(Scopes.NAMED_CACHE)
+public class InvocationRecycler {
+   public static final String RECYCLING_PROPERTY = "infinispan.recycling";
+   public static final String DEBUG_PROPERTY = "infinispan.recycling.debug";
+   // Enough for a few nested invocations, e.g. a listener writing to the cache
+   private static final int POOL_SIZE = 4;
+
+   private final boolean enabled = Boolean.getBoolean(RECYCLING_PROPERTY);
+   private final boolean debug = Boolean.getBoolean(DEBUG_PROPERTY);
+   private final ThreadLocal<Pools> pools = new ThreadLocal<Pools>() {
+      @Override
+      protected Pools initialValue() {
+         return new Pools();
+      }
+   };
+
+   private InvocationContextFactory invocationContextFactory;
+   private CommandsFactory commandsFactory;
+
+   @Inject
+   public void injectDependencies(InvocationContextFactory invocationContextFactory, CommandsFactory commandsFactory) {
+      this.invocationContextFactory = invocationContextFactory;
+      this.commandsFactory = commandsFactory;
+   }
+
+   public boolean isEnabled() {
+      return enabled;
+   }
+
+   public boolean isDebug() {
+      return debug;
+   }
+
+   public SingleKeyNonTxInvocationContext acquireContext() {
+      SingleKeyNonTxInvocationContext ctx = (SingleKeyNonTxInvocationContext) pools.get().contexts.poll();
+      if (ctx == null) {
+         ctx = (SingleKeyNonTxInvocationContext) invocationContextFactory.createSingleKeyNonTxInvocationContext();
+      }
+      ctx.setRecycleState(Recyclable.State.ACQUIRED);
+      return ctx;
+   }
+
+   public GetKeyValueCommand acquireGetKeyValueCommand(Object key, Set<Flag> flags) {
+      GetKeyValueCommand command = (GetKeyValueCommand) pools.get().gets.poll();
+      if (command == null) {
+         command = commandsFactory.buildGetKeyValueCommand(key, flags);
+      } else {
+         command.setKey(key);
+         command.setFlags(flags);
+      }
+      command.setRecycleState(Recyclable.State.ACQUIRED);
+      return command;
+   }
+
+   public PutKeyValueCommand acquirePutKeyValueCommand(Object key, Object value, Metadata metadata, Set<Flag> flags) {
+      PutKeyValueCommand command = (PutKeyValueCommand) pools.get().puts.poll();
+      if (command == null) {
+         command = commandsFactory.buildPutKeyValueCommand(key, value, metadata, flags);
+      } else {
+         command.setKey(key);
+         // Like the constructor, set the flags first because setValue() may add one
+         command.setFlags(flags);
+         command.setValue(value);
+         command.setMetadata(metadata);
+      }
+      command.setRecycleState(Recyclable.State.ACQUIRED);
+      return command;
+   }
+
+   public RemoveCommand acquireRemoveCommand(Object key, Set<Flag> flags) {
+      RemoveCommand command = (RemoveCommand) pools.get().removes.poll();
+      if (command == null) {
+         command = commandsFactory.buildRemoveCommand(key, null, flags);
+      } else {
+         command.setKey(key);
+         command.setFlags(flags);
+      }
+      command.setRecycleState(Recyclable.State.ACQUIRED);
+      return command;
+   }
+
+   /**
+    * Releases the context and the command of a completed invocation, if they were acquired from the recycler.
+    */
+   public void release(InvocationContext ctx, VisitableCommand command) {
+      if (ctx instanceof Recyclable && recycle((Recyclable) ctx)) {
+         pools.get().contexts.offer((Recyclable) ctx);
+      }
+      if (command instanceof Recyclable && recycle((Recyclable) command)) {
+         pools.get().forCommand(command).offer((Recyclable) command);
+      }
+   }
+
+   /**
+    * @return {@code true} if the object can be acquired again
+    */
+   private boolean recycle(Recyclable object) {
+      switch (object.getRecycleState()) {
+         case NOT_POOLED:
+            return false;
+         case RELEASED:
+            // The object was invoked again after the end of its invocation
+            throw new IllegalStateException(object.getClass().getSimpleName() + " was already released");
+      }
+      object.recycle();
+      object.setRecycleState(Recyclable.State.RELEASED);
+      return !debug;
+   }
+
+   private static final class Pools {
+      final Pool contexts = new Pool();
+      final Pool gets = new Pool();
+      final Pool puts = new Pool();
+      final Pool removes = new Pool();
+
+      Pool forCommand(VisitableCommand command) {
+         if (command instanceof GetKeyValueCommand) {
+            return gets;
+         } else if (command instanceof PutKeyValueCommand) {
+            return puts;
+         } else {
+            return removes;
+         }
+      }
+   }
+
+   private static final class Pool {
+      private final Recyclable[] free = new Recyclable[POOL_SIZE];
+      private int size;
+
+      Recyclable poll() {
+         if (size == 0)
+            return null;
+         Recyclable object = free[--size];
+         free[size] = null;
+         return object;
+      }
+
+      void offer(Recyclable object) {
+         if (size < POOL_SIZE) {
+            free[size++] = object;
+         }
+      }
+   }
+}
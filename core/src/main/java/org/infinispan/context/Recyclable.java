@@ -0,0 +1,35 @@
+package org.infinispan.context;
+
+/**
+ * An invocation context or command that can be reused by another invocation once the invocation it was acquired for
+ * has completed.
+ *
+ * @see InvocationRecycler
+ * @since 7.1
+ */
+public interface Recyclable {
+
+   enum State {
+      /**
+       * The object was not acquired from a pool, it is never reused.
+       */
+      NOT_POOLED,
+      /**
+       * The object was acquired from a pool and is used by an invocation.
+       */
+      ACQUIRED,
+      /**
+       * The invocation has completed, the object must not be used any more.
+       */
+      RELEASED
+   }
+
+   State getRecycleState();
+
+   void setRecycleState(State state);
+
+   /**
+    * Clears the state of the completed invocation, so that the pool doesn't keep its keys and values alive.
+    */
+   void recycle();
+}
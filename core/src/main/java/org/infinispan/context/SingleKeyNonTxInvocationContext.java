@@ -2,6 +2,7 @@
 
 import org.infinispan.commons.equivalence.Equivalence;
 import org.infinispan.commons.util.InfinispanCollections;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.remoting.transport.Address;
@@ -15,7 +16,7 @@
  * @author Sanne Grinovero
  * @since 5.1
  */
-public final class SingleKeyNonTxInvocationContext implements InvocationContext {
+public final class SingleKeyNonTxInvocationContext implements InvocationContext, Recyclable {
 
    /**
     * It is possible for the key to only be wrapped but not locked, e.g. when a get takes place.
@@ -35,6 +36,11 @@ public final class SingleKeyNonTxInvocationContext implements InvocationContext
    //(verify if this is worth it by looking at object alignment - would need a different implementation as pointing to null wouldn't help)
    private Address origin;
 
+   private boolean asyncForwardingEnabled;
+   private NotifyingFuture<Object> pendingForward;
+
+   private State recycleState = State.NOT_POOLED;
+
    public SingleKeyNonTxInvocationContext(final boolean originLocal, final Equivalence keyEquivalence) {
       this.isOriginLocal = originLocal;
       this.keyEquivalence = keyEquivalence;
@@ -86,6 +92,7 @@ private IllegalStateException illegalStateException() {
 
    @Override
    public CacheEntry lookupEntry(final Object key) {
+      assertNotReleased();
       if (key != null && this.key != null && keyEquivalence.equals(key, this.key))
          return cacheEntry;
 
@@ -99,6 +106,7 @@ public Map<Object, CacheEntry> getLookedUpEntries() {
 
    @Override
    public void putLookedUpEntry(final Object key, final CacheEntry e) {
+      assertNotReleased();
       if (this.key == null) {
          // Set the key here
          this.key = key;
@@ -167,7 +175,9 @@ public boolean isEntryRemovedInContext(final Object key) {
    @Override
    public SingleKeyNonTxInvocationContext clone() {
       try {
-         return (SingleKeyNonTxInvocationContext) super.clone();
+         SingleKeyNonTxInvocationContext dolly = (SingleKeyNonTxInvocationContext) super.clone();
+         dolly.recycleState = State.NOT_POOLED;
+         return dolly;
       } catch (CloneNotSupportedException e) {
          throw new IllegalStateException("Impossible!");
       }
@@ -177,6 +187,56 @@ public void resetState() {
       this.key = null;
       this.cacheEntry = null;
       this.isLocked = false;
+      this.pendingForward = null;
+   }
+
+   @Override
+   public State getRecycleState() {
+      return recycleState;
+   }
+
+   @Override
+   public void setRecycleState(State recycleState) {
+      this.recycleState = recycleState;
+   }
+
+   @Override
+   public void recycle() {
+      resetState();
+      classLoader = null;
+      asyncForwardingEnabled = false;
+   }
+
+   private void assertNotReleased() {
+      if (recycleState == State.RELEASED)
+         throw new IllegalStateException("Invocation context used after the end of its invocation");
+   }
+
+   /**
+    * Allows the distribution interceptor to return without waiting for the response of the primary owner, when the
+    * command is forwarded to it. The response is then available with {@link #getPendingForward()}.
+    *
+    * @since 7.1
+    */
+   public boolean isAsyncForwardingEnabled() {
+      return asyncForwardingEnabled;
+   }
+
+   public void setAsyncForwardingEnabled(boolean asyncForwardingEnabled) {
+      this.asyncForwardingEnabled = asyncForwardingEnabled;
+   }
+
+   /**
+    * @return the future result of the command forwarded to the primary owner, or {@code null} if the command was not
+    * forwarded asynchronously
+    * @since 7.1
+    */
+   public NotifyingFuture<Object> getPendingForward() {
+      return pendingForward;
+   }
+
+   public void setPendingForward(NotifyingFuture<Object> pendingForward) {
+      this.pendingForward = pendingForward;
    }
 
 }
@@ -0,0 +1,22 @@
+package org.infinispan.eviction;
+
+/**
+ * Estimates the number of bytes an entry occupies in the data container. Used to bound the data container when
+ * eviction is configured with {@link EvictionType#MEMORY}.
+ * <p />
+ * Implementations must be thread safe and must return the same size for the same key/value pair every time they are
+ * invoked, since the size is computed once when an entry is stored and again when it is removed.
+ *
+ * @since 7.1
+ */
+public interface EntrySizeCalculator<K, V> {
+
+   /**
+    * Estimates the size of an entry.
+    *
+    * @param key the key of the entry
+    * @param value the value stored in the container for the key
+    * @return the estimated number of bytes, never negative
+    */
+   long calculateSize(K key, V value);
+}
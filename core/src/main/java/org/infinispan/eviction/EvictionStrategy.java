@@ -16,7 +16,13 @@ public enum EvictionStrategy {
    @Deprecated
    FIFO, 
    LRU, 
-   LIRS;
+   LIRS,
+   /**
+    * Window TinyLFU: a small LRU admission window in front of a segmented LRU, where a frequency sketch decides
+    * whether the entries leaving the window replace the least recently used entries. Not supported by memory based
+    * eviction.
+    */
+   TINY_LFU;
 
    public boolean isEnabled() {
       return this != NONE;
@@ -0,0 +1,13 @@
+package org.infinispan.eviction;
+
+/**
+ * Supported eviction bounds. {@link #COUNT} bounds the data container by the number of entries, whereas
+ * {@link #MEMORY} bounds it by the estimated number of bytes occupied by keys, values and the entry overhead, as
+ * computed by an {@link EntrySizeCalculator}.
+ *
+ * @since 7.1
+ */
+public enum EvictionType {
+   COUNT,
+   MEMORY
+}
@@ -0,0 +1,105 @@
+package org.infinispan.eviction.impl;
+
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.entries.metadata.MetadataAware;
+import org.infinispan.eviction.EntrySizeCalculator;
+import org.infinispan.marshall.core.MarshalledValue;
+
+/**
+ * Default {@link EntrySizeCalculator} used by memory bounded data containers.
+ * <p />
+ * The size of an entry is the sum of the key size, the value size, the {@link InternalCacheEntry} overhead and the
+ * overhead of the container's own bookkeeping structures. Object sizes are estimated assuming a 64-bit JVM without
+ * compressed references, which errs on the side of overestimating the footprint.
+ * <p />
+ * <tt>byte[]</tt>, {@link String}, boxed primitives and {@link MarshalledValue} instances are sized accurately. When
+ * storeAsBinary is enabled every key and value reaching the data container is one of these types, so the calculated
+ * footprint is exact with regards to the payload. Any other type is accounted for with {@link #DEFAULT_OBJECT_SIZE};
+ * override {@link #calculateObjectSize(Object)} or plug in a different {@link EntrySizeCalculator} if these types
+ * are stored by reference.
+ *
+ * @since 7.1
+ */
+public class DefaultEntrySizeCalculator implements EntrySizeCalculator<Object, InternalCacheEntry> {
+
+   static final int OBJECT_HEADER = 16;
+   static final int ARRAY_HEADER = 16;
+   static final int REFERENCE = 8;
+   static final int LONG = 8;
+   static final int INT = 4;
+
+   /**
+    * Size assumed for instances of types the calculator cannot introspect.
+    */
+   public static final int DEFAULT_OBJECT_SIZE = 64;
+
+   /**
+    * Overhead of the hash table entry and of the eviction order links kept by the container for every entry.
+    */
+   static final long CONTAINER_ENTRY_OVERHEAD = align(OBJECT_HEADER + 3 * REFERENCE + INT)
+         + align(OBJECT_HEADER + 5 * REFERENCE + INT);
+
+   static final long METADATA_SIZE = align(OBJECT_HEADER + 2 * LONG + REFERENCE);
+
+   @Override
+   public long calculateSize(Object key, InternalCacheEntry entry) {
+      long size = CONTAINER_ENTRY_OVERHEAD + calculateObjectSize(key);
+      if (entry != null) {
+         size += calculateEntryOverhead(entry) + calculateObjectSize(entry.getValue());
+      }
+      return size;
+   }
+
+   /**
+    * Estimates the shallow size of the {@link InternalCacheEntry} wrapping a value, excluding key and value.
+    */
+   protected long calculateEntryOverhead(InternalCacheEntry entry) {
+      long size = OBJECT_HEADER + 2 * REFERENCE;
+      if (entry.getLifespan() >= 0) {
+         // lifespan and created
+         size += 2 * LONG;
+      }
+      if (entry.getMaxIdle() >= 0) {
+         // maxIdle and lastUsed
+         size += 2 * LONG;
+      }
+      if (entry instanceof MetadataAware) {
+         size += REFERENCE + METADATA_SIZE;
+      }
+      return align(size);
+   }
+
+   /**
+    * Estimates the retained size of a key or value.
+    */
+   protected long calculateObjectSize(Object o) {
+      if (o == null) {
+         return 0;
+      }
+      if (o instanceof byte[]) {
+         return align(ARRAY_HEADER + ((byte[]) o).length);
+      }
+      if (o instanceof String) {
+         // String instance (value reference and cached hash) plus its char[]
+         return align(OBJECT_HEADER + REFERENCE + INT) + align(ARRAY_HEADER + 2L * ((String) o).length());
+      }
+      if (o instanceof MarshalledValue) {
+         MarshalledValue mv = (MarshalledValue) o;
+         // MarshalledValue instance, its byte stream wrapper and the serialized form itself
+         return align(OBJECT_HEADER + 2 * REFERENCE + 2 * INT) + align(OBJECT_HEADER + REFERENCE + INT)
+               + align(ARRAY_HEADER + mv.getRaw().size());
+      }
+      if (o instanceof Long || o instanceof Double) {
+         return align(OBJECT_HEADER + LONG);
+      }
+      if (o instanceof Integer || o instanceof Float || o instanceof Short || o instanceof Character
+            || o instanceof Byte || o instanceof Boolean) {
+         return align(OBJECT_HEADER + INT);
+      }
+      return DEFAULT_OBJECT_SIZE;
+   }
+
+   static long align(long size) {
+      return (size + 7) & ~7L;
+   }
+}
@@ -15,6 +15,12 @@
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.annotations.Stop;
+import org.infinispan.jmx.annotations.DisplayType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
 import org.infinispan.util.TimeService;
@@ -25,8 +31,10 @@
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @ThreadSafe
+@MBean(objectName = "ExpirationManager", description = "Component that periodically purges expired entries from the data container.")
 public class EvictionManagerImpl<K, V> implements EvictionManager<K, V> {
    private static final Log log = LogFactory.getLog(EvictionManagerImpl.class);
    private static final boolean trace = log.isTraceEnabled();
@@ -42,6 +50,15 @@
    private boolean enabled;
    private String cacheName;
 
+   @ManagedAttribute(description = "Enables or disables the gathering of statistics by this component", displayName = "Statistics enabled", writable = true)
+   private boolean statisticsEnabled = false;
+
+   private final AtomicLong reaperPasses = new AtomicLong(0);
+   private final AtomicLong reaperPassTimeNanos = new AtomicLong(0);
+   private final AtomicLong purgedEntries = new AtomicLong(0);
+   private volatile long lastPassTimeNanos;
+   private volatile int lastPassPurgedEntries;
+
    @Inject
    public void initialize(@ComponentName(KnownComponentNames.EVICTION_SCHEDULED_EXECUTOR)
          ScheduledExecutorService executor, Cache cache, Configuration cfg, DataContainer dataContainer,
@@ -66,6 +83,7 @@ void initialize(ScheduledExecutorService executor,
    @Start(priority = 55)
    // make sure this starts after the PersistenceManager
    public void start() {
+      statisticsEnabled = configuration.jmxStatistics().enabled();
       // first check if eviction is enabled!
       enabled = configuration.expiration().reaperEnabled();
       if (enabled) {
@@ -87,12 +105,17 @@ public void processEviction() {
          try {
             if (trace) {
                log.trace("Purging data container of expired entries");
+            }
+            if (trace || statisticsEnabled) {
                start = timeService.time();
             }
-            dataContainer.purgeExpired();
+            int purged = dataContainer.purgeExpired();
+            if (statisticsEnabled) {
+               recordReaperPass(timeService.timeDuration(start, TimeUnit.NANOSECONDS), purged);
+            }
             if (trace) {
-               log.tracef("Purging data container completed in %s",
-                          Util.prettyPrintTime(timeService.timeDuration(start, TimeUnit.MILLISECONDS)));
+               log.tracef("Purging data container completed in %s, %d expired entries purged",
+                          Util.prettyPrintTime(timeService.timeDuration(start, TimeUnit.MILLISECONDS)), purged);
             }
          } catch (Exception e) {
             log.exceptionPurgingDataContainer(e);
@@ -109,6 +132,86 @@ public boolean isEnabled() {
       return enabled;
    }
 
+   private void recordReaperPass(long durationNanos, int purged) {
+      reaperPasses.incrementAndGet();
+      reaperPassTimeNanos.addAndGet(durationNanos);
+      purgedEntries.addAndGet(purged);
+      lastPassTimeNanos = durationNanos;
+      lastPassPurgedEntries = purged;
+   }
+
+   @ManagedAttribute(
+         description = "Number of times the data container has been purged of expired entries",
+         displayName = "Number of expiration reaper passes",
+         measurementType = MeasurementType.TRENDSUP,
+         displayType = DisplayType.SUMMARY
+   )
+   public long getReaperPasses() {
+      return reaperPasses.get();
+   }
+
+   @ManagedAttribute(
+         description = "Duration of the last purge of expired entries from the data container",
+         displayName = "Last expiration reaper pass time",
+         units = Units.MILLISECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   public long getLastReaperPassTime() {
+      return TimeUnit.NANOSECONDS.toMillis(lastPassTimeNanos);
+   }
+
+   @ManagedAttribute(
+         description = "Average duration of a purge of expired entries from the data container",
+         displayName = "Average expiration reaper pass time",
+         units = Units.MILLISECONDS,
+         displayType = DisplayType.SUMMARY
+   )
+   public long getAverageReaperPassTime() {
+      long passes = reaperPasses.get();
+      return passes == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(reaperPassTimeNanos.get() / passes);
+   }
+
+   @ManagedAttribute(
+         description = "Number of expired entries purged by the last reaper pass",
+         displayName = "Entries expired in the last reaper pass",
+         displayType = DisplayType.SUMMARY
+   )
+   public int getLastReaperPassExpiredEntries() {
+      return lastPassPurgedEntries;
+   }
+
+   @ManagedAttribute(
+         description = "Average number of expired entries purged per reaper pass",
+         displayName = "Average entries expired per reaper pass",
+         displayType = DisplayType.SUMMARY
+   )
+   public long getAverageReaperPassExpiredEntries() {
+      long passes = reaperPasses.get();
+      return passes == 0 ? 0 : purgedEntries.get() / passes;
+   }
+
+   @ManagedAttribute(
+         description = "Number of expired entries purged by the reaper",
+         displayName = "Number of entries expired by the reaper",
+         measurementType = MeasurementType.TRENDSUP,
+         displayType = DisplayType.SUMMARY
+   )
+   public long getReaperExpiredEntries() {
+      return purgedEntries.get();
+   }
+
+   @ManagedOperation(
+         description = "Resets statistics gathered by this component",
+         displayName = "Reset statistics"
+   )
+   public void resetStatistics() {
+      reaperPasses.set(0);
+      reaperPassTimeNanos.set(0);
+      purgedEntries.set(0);
+      lastPassTimeNanos = 0;
+      lastPassPurgedEntries = 0;
+   }
+
    @Stop(priority = 5)
    public void stop() {
       if (evictionTask != null) {
@@ -5,8 +5,12 @@
 import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.DefaultDataContainer;
+import org.infinispan.container.OffHeapDataContainer;
+import org.infinispan.eviction.EntrySizeCalculator;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.eviction.EvictionThreadPolicy;
+import org.infinispan.eviction.EvictionType;
+import org.infinispan.eviction.impl.DefaultEntrySizeCalculator;
 import org.infinispan.factories.annotations.DefaultFactoryFor;
 
 /**
@@ -25,6 +29,8 @@ public class DataContainerFactory extends AbstractNamedCacheComponentFactory imp
    public <T> T construct(Class<T> componentType) {
       if (configuration.dataContainer().dataContainer() != null) {
          return (T) configuration.dataContainer().dataContainer();
+      } else if (configuration.dataContainer().offHeap()) {
+         return (T) constructOffHeap();
       } else {
          EvictionStrategy st = configuration.eviction().strategy();
          int level = configuration.locking().concurrencyLevel();
@@ -38,6 +44,18 @@ public <T> T construct(Class<T> componentType) {
             case LRU:
             case FIFO:
             case LIRS:
+            case TINY_LFU:
+               EvictionThreadPolicy policy = configuration.eviction().threadPolicy();
+
+               if (configuration.eviction().type() == EvictionType.MEMORY) {
+                  EntrySizeCalculator sizeCalculator = configuration.eviction().sizeCalculator();
+                  if (sizeCalculator == null) {
+                     sizeCalculator = new DefaultEntrySizeCalculator();
+                  }
+                  return (T) DefaultDataContainer.memoryBoundedDataContainer(
+                     level, configuration.eviction().size(), st, policy, keyEquivalence, sizeCalculator);
+               }
+
                int maxEntries = configuration.eviction().maxEntries();
                //handle case when < 0 value signifies unbounded container 
                if(maxEntries < 0) {
@@ -45,8 +63,6 @@ public <T> T construct(Class<T> componentType) {
                          level, keyEquivalence);
                }
 
-               EvictionThreadPolicy policy = configuration.eviction().threadPolicy();
-
                return (T) DefaultDataContainer.boundedDataContainer(
                   level, maxEntries, st, policy, keyEquivalence);
             default:
@@ -55,4 +71,15 @@ public <T> T construct(Class<T> componentType) {
          }
       }
    }
+
+   private DataContainer constructOffHeap() {
+      int level = configuration.locking().concurrencyLevel();
+      if (configuration.eviction().strategy() == EvictionStrategy.NONE) {
+         return new OffHeapDataContainer(level);
+      }
+      // every eviction strategy is approximated with CLOCK
+      EvictionType type = configuration.eviction().type();
+      long size = type == EvictionType.COUNT ? configuration.eviction().maxEntries() : configuration.eviction().size();
+      return new OffHeapDataContainer(level, size, type);
+   }
 }
@@ -11,6 +11,7 @@
 import org.infinispan.context.InvocationContextContainer;
 import org.infinispan.context.InvocationContextContainerImpl;
 import org.infinispan.context.InvocationContextFactory;
+import org.infinispan.context.InvocationRecycler;
 import org.infinispan.context.NonTransactionalInvocationContextFactory;
 import org.infinispan.context.TransactionalInvocationContextFactory;
 import org.infinispan.distribution.L1Manager;
@@ -23,6 +24,7 @@
 import org.infinispan.eviction.impl.EvictionManagerImpl;
 import org.infinispan.eviction.impl.PassivationManagerImpl;
 import org.infinispan.factories.annotations.DefaultFactoryFor;
+import org.infinispan.interceptors.InterceptorProfiler;
 import org.infinispan.interceptors.locking.ClusteringDependentLogic;
 import org.infinispan.marshall.core.MarshalledEntryFactory;
 import org.infinispan.marshall.core.MarshalledEntryFactoryImpl;
@@ -64,7 +66,8 @@
                               ClusteringDependentLogic.class, L1Manager.class, TransactionFactory.class, BackupSender.class,
                               TotalOrderManager.class, ByteBufferFactory.class, MarshalledEntryFactory.class,
                               RemoteValueRetrievedListener.class, InvocationContextFactory.class, CommitManager.class,
-                              XSiteStateTransferManager.class, XSiteStateConsumer.class, XSiteStateProvider.class})
+                              XSiteStateTransferManager.class, XSiteStateConsumer.class, XSiteStateProvider.class,
+                              InterceptorProfiler.class, InvocationRecycler.class})
 public class EmptyConstructorNamedCacheFactory extends AbstractNamedCacheComponentFactory implements AutoInstantiableFactory {
 
    @Override
@@ -136,6 +139,10 @@ public <T> T construct(Class<T> componentType) {
             return (T) new XSiteStateConsumerImpl();
          } else if (componentType.equals(XSiteStateProvider.class)) {
             return (T) new XSiteStateProviderImpl();
+         } else if (componentType.equals(InterceptorProfiler.class)) {
+            return (T) new InterceptorProfiler();
+         } else if (componentType.equals(InvocationRecycler.class)) {
+            return (T) new InvocationRecycler();
          }
       }
 
@@ -19,6 +19,7 @@ public class KnownComponentNames {
    public static final String PERSISTENCE_EXECUTOR = "org.infinispan.executors.persistence";
    public static final String EVICTION_SCHEDULED_EXECUTOR = "org.infinispan.executors.eviction";
    public static final String ASYNC_REPLICATION_QUEUE_EXECUTOR = "org.infinispan.executors.replicationQueue";
+   public static final String TIMEOUT_SCHEDULE_EXECUTOR = "org.infinispan.executors.timeout";
    public static final String MODULE_COMMAND_INITIALIZERS ="org.infinispan.modules.command.initializers";
    public static final String MODULE_COMMAND_FACTORIES ="org.infinispan.modules.command.factories";
    public static final String GLOBAL_MARSHALLER = "org.infinispan.marshaller.global";
@@ -30,7 +31,7 @@ public class KnownComponentNames {
    public static final Collection<String> ALL_KNOWN_COMPONENT_NAMES = Arrays.asList(
       ASYNC_TRANSPORT_EXECUTOR, ASYNC_NOTIFICATION_EXECUTOR, PERSISTENCE_EXECUTOR, EVICTION_SCHEDULED_EXECUTOR, ASYNC_REPLICATION_QUEUE_EXECUTOR,
       MODULE_COMMAND_INITIALIZERS, MODULE_COMMAND_FACTORIES, GLOBAL_MARSHALLER, CACHE_MARSHALLER, CLASS_LOADER,
-      REMOTE_COMMAND_EXECUTOR, TOTAL_ORDER_EXECUTOR
+      REMOTE_COMMAND_EXECUTOR, TOTAL_ORDER_EXECUTOR, TIMEOUT_SCHEDULE_EXECUTOR
    );
 
    public static final Collection<String> PER_CACHE_COMPONENT_NAMES = Arrays.asList(CACHE_MARSHALLER);
@@ -47,6 +48,7 @@ public class KnownComponentNames {
       DEFAULT_THREADCOUNTS.put(PERSISTENCE_EXECUTOR, 4);
       DEFAULT_THREADCOUNTS.put(REMOTE_COMMAND_EXECUTOR, 200);
       DEFAULT_THREADCOUNTS.put(TOTAL_ORDER_EXECUTOR, 32);
+      DEFAULT_THREADCOUNTS.put(TIMEOUT_SCHEDULE_EXECUTOR, 1);
 
       DEFAULT_QUEUE_SIZE.put(ASYNC_NOTIFICATION_EXECUTOR, 100000);
       DEFAULT_QUEUE_SIZE.put(ASYNC_TRANSPORT_EXECUTOR, 100000);
@@ -55,6 +57,7 @@ public class KnownComponentNames {
       DEFAULT_QUEUE_SIZE.put(PERSISTENCE_EXECUTOR, 0);
       DEFAULT_QUEUE_SIZE.put(REMOTE_COMMAND_EXECUTOR, 0);
       DEFAULT_QUEUE_SIZE.put(TOTAL_ORDER_EXECUTOR, 0);
+      DEFAULT_QUEUE_SIZE.put(TIMEOUT_SCHEDULE_EXECUTOR, 0);
 
       DEFAULT_THREADPRIO.put(ASYNC_NOTIFICATION_EXECUTOR, Thread.MIN_PRIORITY);
       DEFAULT_THREADPRIO.put(ASYNC_REPLICATION_QUEUE_EXECUTOR, Thread.NORM_PRIORITY);
@@ -63,6 +66,7 @@ public class KnownComponentNames {
       DEFAULT_THREADPRIO.put(PERSISTENCE_EXECUTOR, Thread.NORM_PRIORITY);
       DEFAULT_THREADPRIO.put(REMOTE_COMMAND_EXECUTOR, Thread.NORM_PRIORITY);
       DEFAULT_THREADPRIO.put(TOTAL_ORDER_EXECUTOR, Thread.NORM_PRIORITY);
+      DEFAULT_THREADPRIO.put(TIMEOUT_SCHEDULE_EXECUTOR, Thread.NORM_PRIORITY);
    }
 
    public static int getDefaultThreads(String componentName) {
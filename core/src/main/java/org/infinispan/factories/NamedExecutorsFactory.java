@@ -35,6 +35,7 @@ public class NamedExecutorsFactory extends NamedComponentFactory implements Auto
    private BlockingTaskAwareExecutorService remoteCommandsExecutor;
    private ScheduledExecutorService evictionExecutor;
    private ScheduledExecutorService asyncReplicationExecutor;
+   private ScheduledExecutorService timeoutExecutor;
    private BlockingTaskAwareExecutorService totalOrderExecutor;
 
    @Override
@@ -93,6 +94,15 @@ public <T> T construct(Class<T> componentType, String componentName) {
                }
             }
             return (T) asyncReplicationExecutor;
+         } else if (componentName.equals(TIMEOUT_SCHEDULE_EXECUTOR)) {
+            synchronized (this) {
+               if (timeoutExecutor == null) {
+                  // Only runs short tasks, e.g. the expiration of timeouts, so it is not configurable
+                  timeoutExecutor = createExecutorService(null, globalConfiguration, TIMEOUT_SCHEDULE_EXECUTOR,
+                        ExecutorServiceType.SCHEDULED);
+               }
+            }
+            return (T) timeoutExecutor;
          } else if (componentName.equals(REMOTE_COMMAND_EXECUTOR)) {
             synchronized (this) {
                if (remoteCommandsExecutor == null) {
@@ -131,6 +141,7 @@ public void stop() {
       if (asyncTransportExecutor != null) asyncTransportExecutor.shutdownNow();
       if (asyncReplicationExecutor != null) asyncReplicationExecutor.shutdownNow();
       if (evictionExecutor != null) evictionExecutor.shutdownNow();
+      if (timeoutExecutor != null) timeoutExecutor.shutdownNow();
       if (totalOrderExecutor != null) totalOrderExecutor.shutdownNow();
    }
 
@@ -2,6 +2,7 @@
 
 import org.infinispan.configuration.cache.ClusteringConfiguration;
 import org.infinispan.factories.annotations.DefaultFactoryFor;
+import org.infinispan.remoting.AdaptiveReplicationQueueImpl;
 import org.infinispan.remoting.ReplicationQueue;
 import org.infinispan.remoting.ReplicationQueueImpl;
 
@@ -19,7 +20,10 @@ public <T> T construct(Class<T> componentType) {
       ClusteringConfiguration clustering = configuration.clustering();
       if ((!clustering.cacheMode().isSynchronous()) && clustering.async().useReplQueue()) {
          ReplicationQueue replQueue = clustering.async().replQueue();
-         return replQueue != null ? componentType.cast(replQueue) : (T) new ReplicationQueueImpl();
+         if (replQueue != null) {
+            return componentType.cast(replQueue);
+         }
+         return clustering.async().replQueueAdaptive() ? (T) new AdaptiveReplicationQueueImpl() : (T) new ReplicationQueueImpl();
       } else {
          return null;
       }
@@ -0,0 +1,25 @@
+package org.infinispan.filter;
+
+import org.infinispan.distribution.ch.ConsistentHash;
+
+import java.util.Set;
+
+/**
+ * Filter accepting the keys that a consistent hash maps to one of the given segments.
+ *
+ * @since 7.1
+ */
+public class SegmentKeyFilter<K> implements KeyFilter<K> {
+   private final ConsistentHash ch;
+   private final Set<Integer> segments;
+
+   public SegmentKeyFilter(ConsistentHash ch, Set<Integer> segments) {
+      this.ch = ch;
+      this.segments = segments;
+   }
+
+   @Override
+   public boolean accept(K key) {
+      return segments.contains(ch.getSegment(key));
+   }
+}
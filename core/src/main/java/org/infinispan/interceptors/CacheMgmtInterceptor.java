@@ -2,6 +2,7 @@
 
 import org.infinispan.commands.FlagAffectedCommand;
 import org.infinispan.commands.read.AbstractDataCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetCacheEntryCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.write.EvictCommand;
@@ -10,9 +11,12 @@
 import org.infinispan.commands.write.RemoveCommand;
 import org.infinispan.commands.write.ReplaceCommand;
 import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.commons.util.concurrent.FutureListener;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.container.DataContainer;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
+import org.infinispan.context.SingleKeyNonTxInvocationContext;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.interceptors.base.JmxStatsCommandInterceptor;
@@ -27,6 +31,7 @@
 import org.infinispan.util.logging.LogFactory;
 
 import java.util.Map;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import org.infinispan.commons.util.concurrent.jdk8backported.LongAdder;
@@ -118,6 +123,53 @@ private Object visitDataReadCommand(InvocationContext ctx, AbstractDataCommand c
       return retval;
    }
 
+   /**
+    * Records a local read that was served directly from the data container, without invoking the interceptor chain.
+    *
+    * @param start the time the read started at, as returned by {@link TimeService#time()}
+    * @param hit   whether the key was found
+    */
+   public void recordRead(long start, boolean hit) {
+      long intervalMilliseconds = timeService.timeDuration(start, TimeUnit.MILLISECONDS);
+      if (hit) {
+         hitTimes.add(intervalMilliseconds);
+         hits.increment();
+      } else {
+         missTimes.add(intervalMilliseconds);
+         misses.increment();
+      }
+   }
+
+   @Override
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      long start = 0;
+      boolean statisticsEnabled = getStatisticsEnabled(command);
+      if (statisticsEnabled)
+         start = timeService.time();
+
+      Object retval = invokeNextInterceptor(ctx, command);
+
+      if (statisticsEnabled && ctx.isOriginLocal()) {
+         long intervalMilliseconds = timeService.timeDuration(start, TimeUnit.MILLISECONDS);
+         int requests = command.getKeys().size();
+         if (requests > 0) {
+            // every key counts as a read, the time of the whole invocation is shared between them
+            int hitCount = ((Map<?, ?>) retval).size();
+            int missCount = requests - hitCount;
+            if (hitCount > 0) {
+               hits.add(hitCount);
+               hitTimes.add(intervalMilliseconds * hitCount / requests);
+            }
+            if (missCount > 0) {
+               misses.add(missCount);
+               missTimes.add(intervalMilliseconds * missCount / requests);
+            }
+         }
+      }
+
+      return retval;
+   }
+
    @Override
    public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) throws Throwable {
       long start = 0;
@@ -150,7 +202,7 @@ public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command)
       return updateStoreStatistics(ctx, command);
    }
 
-   private Object updateStoreStatistics(InvocationContext ctx, WriteCommand command) throws Throwable {
+   private Object updateStoreStatistics(InvocationContext ctx, final WriteCommand command) throws Throwable {
       long start = 0;
       boolean statisticsEnabled = getStatisticsEnabled(command);
       if (statisticsEnabled)
@@ -158,17 +210,37 @@ private Object updateStoreStatistics(InvocationContext ctx, WriteCommand command
 
       Object retval = invokeNextInterceptor(ctx, command);
 
-      if (statisticsEnabled && ctx.isOriginLocal() && command.isSuccessful()) {
-         long intervalMilliseconds = timeService.timeDuration(start, TimeUnit.MILLISECONDS);
-         storeTimes.add(intervalMilliseconds);
-         stores.increment();
+      if (statisticsEnabled && ctx.isOriginLocal()) {
+         NotifyingFuture<Object> pendingForward = getPendingForward(ctx);
+         if (pendingForward != null) {
+            final long forwardStart = start;
+            pendingForward.attachListener(new FutureListener<Object>() {
+               @Override
+               public void futureDone(Future<Object> future) {
+                  if (command.isSuccessful()) increaseStores(forwardStart);
+               }
+            });
+         } else if (command.isSuccessful()) {
+            increaseStores(start);
+         }
       }
 
       return retval;
    }
 
+   private void increaseStores(long start) {
+      long intervalMilliseconds = timeService.timeDuration(start, TimeUnit.MILLISECONDS);
+      storeTimes.add(intervalMilliseconds);
+      stores.increment();
+   }
+
+   private static NotifyingFuture<Object> getPendingForward(InvocationContext ctx) {
+      return ctx instanceof SingleKeyNonTxInvocationContext ?
+            ((SingleKeyNonTxInvocationContext) ctx).getPendingForward() : null;
+   }
+
    @Override
-   public Object visitRemoveCommand(InvocationContext ctx, RemoveCommand command) throws Throwable {
+   public Object visitRemoveCommand(InvocationContext ctx, final RemoveCommand command) throws Throwable {
       long start = 0;
       boolean statisticsEnabled = getStatisticsEnabled(command);
       if (statisticsEnabled)
@@ -177,22 +249,41 @@ public Object visitRemoveCommand(InvocationContext ctx, RemoveCommand command) t
       Object retval = invokeNextInterceptor(ctx, command);
 
       if (statisticsEnabled && ctx.isOriginLocal()) {
-         if (command.isConditional()) {
-            if (command.isSuccessful())
-               increaseRemoveHits(start);
-            else
-               increaseRemoveMisses();
+         NotifyingFuture<Object> pendingForward = getPendingForward(ctx);
+         if (pendingForward != null) {
+            final long forwardStart = start;
+            pendingForward.attachListener(new FutureListener<Object>() {
+               @Override
+               public void futureDone(Future<Object> future) {
+                  try {
+                     updateRemoveStatistics(command, future.get(), forwardStart);
+                  } catch (Exception e) {
+                     // the remove failed, nothing to record
+                  }
+               }
+            });
          } else {
-            if (retval == null)
-               increaseRemoveMisses();
-            else
-               increaseRemoveHits(start);
+            updateRemoveStatistics(command, retval, start);
          }
       }
 
       return retval;
    }
 
+   private void updateRemoveStatistics(RemoveCommand command, Object retval, long start) {
+      if (command.isConditional()) {
+         if (command.isSuccessful())
+            increaseRemoveHits(start);
+         else
+            increaseRemoveMisses();
+      } else {
+         if (retval == null)
+            increaseRemoveMisses();
+         else
+            increaseRemoveHits(start);
+      }
+   }
+
    private void increaseRemoveHits(long start) {
       long intervalMilliseconds = timeService.timeDuration(start, TimeUnit.MILLISECONDS);
       removeTimes.add(intervalMilliseconds);
@@ -342,6 +433,15 @@ public int getNumberOfEntries() {
       return dataContainer.size();
    }
 
+   @ManagedAttribute(
+         description = "Estimated number of bytes occupied by the entries currently in the cache, or -1 if the cache is not bounded by memory",
+         displayName = "Memory used by current cache entries",
+         displayType = DisplayType.SUMMARY
+   )
+   public long getDataMemoryUsed() {
+      return dataContainer.memoryUsage();
+   }
+
    @ManagedAttribute(
          description = "Number of seconds since cache started",
          displayName = "Seconds since cache started",
@@ -27,6 +27,7 @@
 import org.infinispan.jmx.annotations.ManagedOperation;
 import org.infinispan.jmx.annotations.MeasurementType;
 import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryImpl;
 import org.infinispan.metadata.EmbeddedMetadata;
 import org.infinispan.metadata.Metadata;
@@ -39,8 +40,13 @@
 import javax.transaction.Transaction;
 import javax.transaction.TransactionManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.infinispan.factories.KnownComponentNames.CACHE_MARSHALLER;
@@ -192,11 +198,13 @@ public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) t
       if (!isStoreEnabled(command) || ctx.isInTxScope()) return returnValue;
 
       Map<Object, Object> map = command.getMap();
+      List<Object> keys = new ArrayList<Object>(map.size());
       for (Object key : map.keySet()) {
          if (isProperWriter(ctx, command, key)) {
-            storeEntry(ctx, key, command);
+            keys.add(key);
          }
       }
+      storeEntries(ctx, keys, command);
       if (getStatisticsEnabled()) cacheStores.getAndAdd(map.size());
       return returnValue;
    }
@@ -216,6 +224,7 @@ protected final void store(TxInvocationContext ctx) throws Throwable {
             cacheCommand.acceptVisitor(ctx, modsBuilder);
          }
       }
+      modsBuilder.flush();
       if (getStatisticsEnabled() && modsBuilder.putCount > 0) {
          cacheStores.getAndAdd(modsBuilder.putCount);
       }
@@ -240,15 +249,58 @@ protected boolean isProperWriter(InvocationContext ctx, FlagAffectedCommand comm
       return true;
    }
 
+   /**
+    * Collects the modifications of a transaction and writes them to the stores in batches when {@link #flush()} is
+    * invoked. Only the last modification of each key is written.
+    */
    public class Updater extends AbstractVisitor {
 
       protected final boolean generateStatistics;
       int putCount;
+      private final Map<Object, MarshalledEntry> writes = new LinkedHashMap<Object, MarshalledEntry>();
+      private final Map<Object, MarshalledEntry> privateWrites = new LinkedHashMap<Object, MarshalledEntry>();
+      private final Set<Object> deletes = new LinkedHashSet<Object>();
 
       public Updater(boolean generateStatistics) {
          this.generateStatistics = generateStatistics;
       }
 
+      protected void write(MarshalledEntry entry, PersistenceManager.AccessMode mode) {
+         Object key = entry.getKey();
+         deletes.remove(key);
+         if (mode == PRIVATE) {
+            writes.remove(key);
+            privateWrites.put(key, entry);
+         } else {
+            privateWrites.remove(key);
+            writes.put(key, entry);
+         }
+      }
+
+      protected void delete(Object key) {
+         writes.remove(key);
+         privateWrites.remove(key);
+         deletes.add(key);
+      }
+
+      /**
+       * Writes the pending modifications to the stores.
+       */
+      public void flush() {
+         if (!writes.isEmpty()) {
+            persistenceManager.writeBatchToAllStores(new ArrayList<MarshalledEntry>(writes.values()), BOTH);
+            writes.clear();
+         }
+         if (!privateWrites.isEmpty()) {
+            persistenceManager.writeBatchToAllStores(new ArrayList<MarshalledEntry>(privateWrites.values()), PRIVATE);
+            privateWrites.clear();
+         }
+         if (!deletes.isEmpty()) {
+            persistenceManager.deleteBatchFromAllStores(new ArrayList<Object>(deletes), BOTH);
+            deletes.clear();
+         }
+      }
+
       @Override
       public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) throws Throwable {
          return visitSingleStore(ctx, command, command.getKey());
@@ -269,7 +321,7 @@ public Object visitApplyDeltaCommand(InvocationContext ctx, ApplyDeltaCommand co
                ice = entryFactory.create(entry);
             }
             MarshalledEntryImpl marshalledEntry = new MarshalledEntryImpl(ice.getKey(), ice.getValue(), internalMetadata(ice), marshaller);
-            persistenceManager.writeToAllStores(marshalledEntry, command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE) ? PRIVATE : BOTH);
+            write(marshalledEntry, command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE) ? PRIVATE : BOTH);
          }
          return null;
       }
@@ -291,13 +343,14 @@ public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) t
       public Object visitRemoveCommand(InvocationContext ctx, RemoveCommand command) throws Throwable {
          Object key = command.getKey();
          if (isProperWriter(ctx, command, key)) {
-            persistenceManager.deleteFromAllStores(key, BOTH);
+            delete(key);
          }
          return null;
       }
 
       @Override
       public Object visitClearCommand(InvocationContext ctx, ClearCommand command) throws Throwable {
+         flush();
          persistenceManager.clearAllStores(ctx.isOriginLocal() ? PRIVATE : BOTH);
          return null;
       }
@@ -307,7 +360,7 @@ protected Object visitSingleStore(InvocationContext ctx, FlagAffectedCommand com
             if (generateStatistics) putCount++;
             InternalCacheValue sv = getStoredValue(key, ctx);
             MarshalledEntryImpl me = new MarshalledEntryImpl(key, sv.getValue(), internalMetadata(sv), marshaller);
-            persistenceManager.writeToAllStores(me, command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE) ? PRIVATE : BOTH);
+            write(me, command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE) ? PRIVATE : BOTH);
          }
          return null;
       }
@@ -338,6 +391,29 @@ void storeEntry(InvocationContext ctx, Object key, FlagAffectedCommand command)
       if (getLog().isTraceEnabled()) getLog().tracef("Stored entry %s under key %s", sv, key);
    }
 
+   /**
+    * Writes the entries of the given keys to the stores, with one batch for the entries that skip the shared stores
+    * and one batch for the rest.
+    */
+   void storeEntries(InvocationContext ctx, Collection<Object> keys, FlagAffectedCommand command) {
+      List<MarshalledEntry> entries = new ArrayList<MarshalledEntry>(keys.size());
+      List<MarshalledEntry> privateEntries = new ArrayList<MarshalledEntry>();
+      for (Object key : keys) {
+         InternalCacheValue sv = getStoredValue(key, ctx);
+         MarshalledEntry me = new MarshalledEntryImpl(key, sv.getValue(), internalMetadata(sv), marshaller);
+         if (skipSharedStores(ctx, key, command)) {
+            privateEntries.add(me);
+         } else {
+            entries.add(me);
+         }
+      }
+      if (!entries.isEmpty())
+         persistenceManager.writeBatchToAllStores(entries, BOTH);
+      if (!privateEntries.isEmpty())
+         persistenceManager.writeBatchToAllStores(privateEntries, PRIVATE);
+      if (getLog().isTraceEnabled()) getLog().tracef("Stored entries under keys %s", keys);
+   }
+
    protected boolean skipSharedStores(InvocationContext ctx, Object key, FlagAffectedCommand command) {
       return !ctx.isOriginLocal() || command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE);
    }
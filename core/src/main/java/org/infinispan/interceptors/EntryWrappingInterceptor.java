@@ -5,6 +5,7 @@
 import org.infinispan.commands.DataCommand;
 import org.infinispan.commands.FlagAffectedCommand;
 import org.infinispan.commands.read.AbstractDataCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetCacheEntryCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.remote.GetKeysInGroupCommand;
@@ -150,6 +151,27 @@ private final Object visitDataReadCommand(InvocationContext ctx, AbstractDataCom
       }
    }
 
+   @Override
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      try {
+         for (Object key : command.getKeys()) {
+            entryFactory.wrapEntryForReading(ctx, key, null);
+         }
+         return invokeNextInterceptor(ctx, command);
+      } finally {
+         if (!ctx.isInTxScope())
+            commitContextEntries(ctx, command, null);
+         else {
+            for (Object key : command.getKeys()) {
+               CacheEntry entry = ctx.lookupEntry(key);
+               if (entry != null) {
+                  entry.setSkipLookup(true);
+               }
+            }
+         }
+      }
+   }
+
    @Override
    public final Object visitInvalidateCommand(InvocationContext ctx, InvalidateCommand command) throws Throwable {
       if (command.getKeys() != null) {
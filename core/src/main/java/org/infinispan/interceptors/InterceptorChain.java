@@ -38,9 +38,11 @@ public class InterceptorChain {
     * reference to the first interceptor in the chain
     */
    private volatile CommandInterceptor firstInChain;
+   private volatile int modificationCount;
 
    final ReentrantLock lock = new ReentrantLock();
    final ComponentMetadataRepo componentMetadataRepo;
+   private InterceptorProfiler profiler;
 
    /**
     * Constructs an interceptor chain having the supplied interceptor as first.
@@ -49,6 +51,11 @@ public InterceptorChain(ComponentMetadataRepo componentMetadataRepo) {
       this.componentMetadataRepo = componentMetadataRepo;
    }
 
+   @Inject
+   public void injectProfiler(InterceptorProfiler profiler) {
+      this.profiler = profiler;
+   }
+
    @Start
    private void printChainInfo() {
       if (log.isDebugEnabled()) {
@@ -107,6 +114,7 @@ public void addInterceptor(CommandInterceptor interceptor, int position) {
          }
          throw new IllegalArgumentException("Invalid index: " + index + " !");
       } finally {
+         chainModified();
          lock.unlock();
       }
    }
@@ -138,6 +146,7 @@ public void removeInterceptor(int position) {
          }
          throw new IllegalArgumentException("Invalid position: " + position + " !");
       } finally {
+         chainModified();
          lock.unlock();
       }
    }
@@ -194,6 +203,7 @@ public void removeInterceptor(Class<? extends CommandInterceptor> clazz) {
             it = it.getNext();
          }
       } finally {
+         chainModified();
          lock.unlock();
       }
    }
@@ -225,6 +235,7 @@ public boolean addInterceptorAfter(CommandInterceptor toAdd, Class<? extends Com
          }
          return false;
       } finally {
+         chainModified();
          lock.unlock();
       }
    }
@@ -264,6 +275,7 @@ public boolean addInterceptorBefore(CommandInterceptor toAdd, Class<? extends Co
          }
          return false;
       } finally {
+         chainModified();
          lock.unlock();
       }
    }
@@ -302,6 +314,7 @@ public boolean replaceInterceptor(CommandInterceptor replacingInterceptor, Class
          }
          return false;
       } finally {
+         chainModified();
          lock.unlock();
       }
    }
@@ -323,6 +336,7 @@ public void appendInterceptor(CommandInterceptor ci, boolean isCustom) {
       }
       // make sure we nullify the "next" pointer in the last interceptors.
       ci.setNext(null);
+      chainModified();
    }
 
    /**
@@ -330,6 +344,9 @@ public void appendInterceptor(CommandInterceptor ci, boolean isCustom) {
     */
    public Object invoke(InvocationContext ctx, VisitableCommand command) {
       try {
+         if (isProfiling()) {
+            return profiler.invoke(ctx, command, firstInChain);
+         }
          return command.acceptVisitor(ctx, firstInChain);
       } catch (CacheException e) {
          if (e.getCause() instanceof InterruptedException)
@@ -357,6 +374,29 @@ public CommandInterceptor getFirstInChain() {
     */
    public void setFirstInChain(CommandInterceptor interceptor) {
       this.firstInChain = interceptor;
+      chainModified();
+   }
+
+   /**
+    * @return the number of times the chain was modified, so that callers can tell whether it changed since they last
+    * looked at it
+    */
+   public int getModificationCount() {
+      return modificationCount;
+   }
+
+   /**
+    * @return whether the {@link InterceptorProfiler} records the commands invoked on the chain
+    */
+   public boolean isProfiling() {
+      return profiler != null && profiler.isEnabled();
+   }
+
+   private void chainModified() {
+      for (CommandInterceptor it = firstInChain; it != null; it = it.getNext()) {
+         it.resetNextByCommand();
+      }
+      modificationCount++;
    }
 
    /**
@@ -9,6 +9,7 @@
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.InvocationContextContainer;
+import org.infinispan.context.InvocationRecycler;
 import org.infinispan.context.impl.TxInvocationContext;
 import org.infinispan.factories.ComponentRegistry;
 import org.infinispan.factories.annotations.Inject;
@@ -38,6 +39,7 @@ public class InvocationContextInterceptor extends CommandInterceptor {
    private ComponentRegistry componentRegistry;
    private TransactionTable txTable;
    private InvocationContextContainer invocationContextContainer;
+   private InvocationRecycler recycler;
 
    private static final Log log = LogFactory.getLog(InvocationContextInterceptor.class);
    private static final boolean trace = log.isTraceEnabled();
@@ -59,11 +61,13 @@ private void setStopStatus() {
    }
 
    @Inject
-   public void init(TransactionManager tm, ComponentRegistry componentRegistry, TransactionTable txTable, InvocationContextContainer invocationContextContainer) {
+   public void init(TransactionManager tm, ComponentRegistry componentRegistry, TransactionTable txTable,
+                    InvocationContextContainer invocationContextContainer, InvocationRecycler recycler) {
       this.tm = tm;
       this.componentRegistry = componentRegistry;
       this.txTable = txTable;
       this.invocationContextContainer = invocationContextContainer;
+      this.recycler = recycler;
    }
 
    @Override
@@ -136,6 +140,9 @@ private Object handleAll(InvocationContext ctx, VisitableCommand command) throws
          }
       } finally {
          invocationContextContainer.clearThreadLocal();
+         if (recycler.isEnabled()) {
+            recycler.release(ctx, command);
+         }
       }
    }
 
@@ -10,6 +10,7 @@
 import org.infinispan.commands.control.LockControlCommand;
 import org.infinispan.commands.read.EntryRetrievalCommand;
 import org.infinispan.commands.read.EntrySetCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetCacheEntryCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.KeySetCommand;
@@ -305,6 +306,11 @@ public final Object visitGetCacheEntryCommand(InvocationContext ctx, GetCacheEnt
       return enlistReadAndInvokeNext(ctx, command);
    }
 
+   @Override
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      return enlistReadAndInvokeNext(ctx, command);
+   }
+
    @Override
    public EntryIterable visitEntryRetrievalCommand(InvocationContext ctx, EntryRetrievalCommand command) throws Throwable {
       // Enlistment shouldn't be needed for this command.  The remove on the iterator will internally make a remove
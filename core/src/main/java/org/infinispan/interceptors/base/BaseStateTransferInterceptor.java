@@ -2,6 +2,7 @@
 
 import org.infinispan.commands.TopologyAffectedCommand;
 import org.infinispan.commands.VisitableCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.remote.GetKeysInGroupCommand;
 import org.infinispan.commons.CacheException;
 import org.infinispan.configuration.cache.Configuration;
@@ -80,6 +81,41 @@ public Object visitGetKeysInGroupCommand(InvocationContext ctx, GetKeysInGroupCo
       }
    }
 
+   @Override
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      updateTopologyId(command);
+      final int commandTopologyId = command.getTopologyId();
+
+      if (ctx.isOriginLocal()) {
+         try {
+            return invokeNextInterceptor(ctx, command);
+         } catch (CacheException e) {
+            Throwable ce = e;
+            while (ce instanceof RemoteException) {
+               ce = ce.getCause();
+            }
+            if (!(ce instanceof OutdatedTopologyException) && !(ce instanceof SuspectException))
+               throw e;
+
+            logRetry(command);
+            // We increment the topology id so that updateTopologyIdAndWaitForTransactionData waits for the next topology.
+            // Without this, we could retry the command too fast and we could get the OutdatedTopologyException again.
+            int newTopologyId = Math.max(currentTopologyId(), commandTopologyId + 1);
+            command.setTopologyId(newTopologyId);
+            waitForTransactionData(newTopologyId);
+            return visitGetAllCommand(ctx, command);
+         }
+      } else {
+         Object result = invokeNextInterceptor(ctx, command);
+         if (currentTopologyId() != commandTopologyId) {
+            // the keys might have been read after their new owners received them
+            throw new OutdatedTopologyException("Cache topology changed while the command was executing: expected " +
+                                                      commandTopologyId + ", got " + currentTopologyId());
+         }
+         return result;
+      }
+   }
+
    protected final void logRetry(VisitableCommand command) {
       final Log log = getLog();
       if (log.isTraceEnabled()) {
@@ -7,6 +7,8 @@
 import org.infinispan.commands.VisitableCommand;
 import org.infinispan.commands.Visitor;
 import org.infinispan.commands.read.GetKeyValueCommand;
+import org.infinispan.commands.write.InvalidateCommand;
+import org.infinispan.commands.write.InvalidateL1Command;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
@@ -14,9 +16,13 @@
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
 import org.infinispan.interceptors.InterceptorChain;
+import org.infinispan.interceptors.InterceptorProfiler;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
 /**
  * This is the base class for all interceptors to extend, and implements the {@link Visitor} interface allowing it to
  * intercept invocations on {@link VisitableCommand}s.
@@ -44,10 +50,28 @@
 @Scope(Scopes.NAMED_CACHE)
 public abstract class CommandInterceptor extends AbstractVisitor {
 
+   /**
+    * Whether commands skip the interceptors that would only pass them on to the next interceptor, i.e. the ones that
+    * override neither the command's visit method nor {@link #handleDefault(InvocationContext, VisitableCommand)}.
+    * Disabled unless the {@code infinispan.interceptors.specialize} system property is {@code true} when the chain is
+    * built or modified.
+    */
+   public static final String SPECIALIZED_CHAIN_PROPERTY = "infinispan.interceptors.specialize";
+
+   private static final Method[] VISIT_METHODS = Visitor.class.getMethods();
+   private static final Object[] NO_ROUTES = new Object[0];
+
    private CommandInterceptor next;
 
+   // Whether the next interceptor only passes some commands on, so they are routed with nextByCommand
+   private boolean routeByCommand;
+   // Pairs of command class and next interceptor that does something for it. Copied on write.
+   private volatile Object[] nextByCommand = NO_ROUTES;
+
    protected Configuration cacheConfiguration;
 
+   private InterceptorProfiler profiler;
+
    private static final Log log = LogFactory.getLog(CommandInterceptor.class);
    
    protected Log getLog() {
@@ -59,6 +83,11 @@ public void injectConfiguration(Configuration configuration) {
       this.cacheConfiguration = configuration;
    }
 
+   @Inject
+   public void injectProfiler(InterceptorProfiler profiler) {
+      this.profiler = profiler;
+   }
+
    /**
     * Retrieves the next interceptor in the chain.
     *
@@ -94,7 +123,107 @@ public final void setNext(CommandInterceptor next) {
     * @throws Throwable in the event of problems
     */
    public final Object invokeNextInterceptor(InvocationContext ctx, VisitableCommand command) throws Throwable {
-      return command.acceptVisitor(ctx, next);
+      CommandInterceptor target = routeByCommand ? getNextFor(command) : next;
+      if (profiler != null && profiler.isEnabled()) {
+         return profiler.invoke(ctx, command, target);
+      }
+      return command.acceptVisitor(ctx, target);
+   }
+
+   /**
+    * Forgets which interceptors each command skips. Invoked by the {@link InterceptorChain} whenever the chain changes.
+    */
+   public final synchronized void resetNextByCommand() {
+      nextByCommand = NO_ROUTES;
+      routeByCommand = Boolean.getBoolean(SPECIALIZED_CHAIN_PROPERTY) && next != null && next.next != null && next.passesOn(VISIT_METHODS, false);
+   }
+
+   private CommandInterceptor getNextFor(VisitableCommand command) {
+      Class<?> commandClass = command.getClass();
+      // Only a few command classes are used with a cache, so a linear search is the fastest
+      Object[] routes = nextByCommand;
+      for (int i = 0; i < routes.length; i += 2) {
+         if (routes[i] == commandClass) {
+            return (CommandInterceptor) routes[i + 1];
+         }
+      }
+      return addNextFor(commandClass);
+   }
+
+   private synchronized CommandInterceptor addNextFor(Class<?> commandClass) {
+      CommandInterceptor target = next;
+      Method[] visitMethods = getVisitMethods(commandClass);
+      if (visitMethods != null) {
+         // The last interceptor is never skipped
+         while (target != null && target.next != null && target.passesOn(visitMethods, true)) {
+            target = target.next;
+         }
+      }
+      if (target != null) {
+         Object[] routes = Arrays.copyOf(nextByCommand, nextByCommand.length + 2);
+         routes[routes.length - 2] = commandClass;
+         routes[routes.length - 1] = target;
+         nextByCommand = routes;
+      }
+      return target;
+   }
+
+   /**
+    * @param all {@code true} to check that all the visit methods are not overridden, {@code false} for any of them
+    * @return whether this interceptor only passes the commands visited by the given methods on to the next interceptor
+    */
+   private boolean passesOn(Method[] visitMethods, boolean all) {
+      boolean passesOn = all;
+      for (Method visitMethod : visitMethods) {
+         boolean inherited;
+         try {
+            Method method = getClass().getMethod(visitMethod.getName(), visitMethod.getParameterTypes());
+            inherited = method.getDeclaringClass() == AbstractVisitor.class;
+         } catch (NoSuchMethodException e) {
+            inherited = false;
+         }
+         if (inherited != all) {
+            passesOn = inherited;
+            break;
+         }
+      }
+      if (!passesOn) {
+         return false;
+      }
+      for (Class<?> c = getClass(); c != CommandInterceptor.class; c = c.getSuperclass()) {
+         try {
+            c.getDeclaredMethod("handleDefault", InvocationContext.class, VisitableCommand.class);
+            return false;
+         } catch (NoSuchMethodException e) {
+            // not overridden here
+         }
+      }
+      return true;
+   }
+
+   /**
+    * @return the visitor methods that {@link AbstractVisitor} invokes for a command class, or {@code null} if they
+    * cannot be determined, e.g. for commands that are not visited with a method of their own
+    */
+   private static Method[] getVisitMethods(Class<?> commandClass) {
+      try {
+         Class<?> visited = commandClass.getMethod("acceptVisitor", InvocationContext.class, Visitor.class)
+               .getDeclaringClass();
+         for (Method method : VISIT_METHODS) {
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            if (parameterTypes.length == 2 && parameterTypes[1] == visited) {
+               if (visited == InvalidateL1Command.class) {
+                  // AbstractVisitor passes the L1 invalidations on to visitInvalidateCommand
+                  return new Method[]{method, Visitor.class.getMethod("visitInvalidateCommand", InvocationContext.class,
+                                                                      InvalidateCommand.class)};
+               }
+               return new Method[]{method};
+            }
+         }
+      } catch (NoSuchMethodException e) {
+         // not a visitable command we know of
+      }
+      return null;
    }
 
    /**
@@ -1,19 +1,27 @@
 package org.infinispan.interceptors.distribution;
 
 import org.infinispan.commands.FlagAffectedCommand;
+import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
 import org.infinispan.commands.remote.GetKeysInGroupCommand;
 import org.infinispan.commands.write.DataWriteCommand;
 import org.infinispan.commands.write.ValueMatcher;
 import org.infinispan.commands.write.WriteCommand;
 import org.infinispan.commons.CacheException;
+import org.infinispan.commons.util.concurrent.CompletableNotifyingFuture;
+import org.infinispan.commons.util.concurrent.FutureListener;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.container.entries.InternalCacheValue;
+import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
+import org.infinispan.context.SingleKeyNonTxInvocationContext;
 import org.infinispan.context.impl.TxInvocationContext;
 import org.infinispan.distribution.DistributionManager;
 import org.infinispan.distribution.RemoteValueRetrievedListener;
+import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.distribution.group.GroupManager;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.interceptors.ClusteringInterceptor;
@@ -41,9 +49,12 @@
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * Base class for distribution of entries across a cluster.
@@ -101,6 +112,117 @@ public final Object visitGetKeysInGroupCommand(InvocationContext ctx, GetKeysInG
       return invokeNextInterceptor(ctx, command);
    }
 
+   @Override
+   public Object visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
+      if (ctx.isOriginLocal() && !command.hasFlag(Flag.CACHE_MODE_LOCAL) && !command.hasFlag(Flag.SKIP_REMOTE_LOOKUP)) {
+         Map<Address, List<Object>> keysByOwner = groupRemoteKeysByPrimaryOwner(ctx, command.getKeys());
+         if (!keysByOwner.isEmpty()) {
+            remoteGetAll(ctx, command, keysByOwner);
+         }
+      }
+      return invokeNextInterceptor(ctx, command);
+   }
+
+   /**
+    * Groups the keys whose values are neither in the context nor available locally by their primary owner, so that
+    * each owner can be asked for all its keys with a single remote call.
+    */
+   private Map<Address, List<Object>> groupRemoteKeysByPrimaryOwner(InvocationContext ctx, Collection<?> keys) {
+      ConsistentHash readCH = dm.getReadConsistentHash();
+      Map<Address, List<Object>> keysByOwner = new HashMap<>();
+      for (Object key : keys) {
+         CacheEntry entry = ctx.lookupEntry(key);
+         if (entry != null && (entry.skipLookup() || !entry.isNull() && entry.getValue() != null)) {
+            continue;
+         }
+         if (isValueAvailableLocally(readCH, key)) {
+            continue;
+         }
+         Address owner = readCH.locatePrimaryOwner(key);
+         List<Object> ownerKeys = keysByOwner.get(owner);
+         if (ownerKeys == null) {
+            ownerKeys = new ArrayList<>();
+            keysByOwner.put(owner, ownerKeys);
+         }
+         ownerKeys.add(key);
+      }
+      return keysByOwner;
+   }
+
+   private void remoteGetAll(InvocationContext ctx, GetAllCommand command, Map<Address, List<Object>> keysByOwner) throws Throwable {
+      Map<Address, GetAllCommand> commands = new HashMap<>(keysByOwner.size());
+      for (Map.Entry<Address, List<Object>> e : keysByOwner.entrySet()) {
+         GetAllCommand remoteGetAll = cf.buildGetAllCommand(e.getValue(), command.getFlags());
+         remoteGetAll.setTopologyId(command.getTopologyId());
+         commands.put(e.getKey(), remoteGetAll);
+      }
+      if (trace) log.tracef("Fetching keys from their primary owners: %s", keysByOwner);
+      Map<Address, Response> responses = invokeRemotelyInParallel(commands, rpcManager.getDefaultRpcOptions(true));
+      for (Map.Entry<Address, List<Object>> e : keysByOwner.entrySet()) {
+         //noinspection unchecked
+         Map<Object, InternalCacheValue> values = (Map<Object, InternalCacheValue>) getResponseFromPrimaryOwner(e.getKey(), responses);
+         for (Object key : e.getValue()) {
+            InternalCacheValue value = values == null ? null : values.get(key);
+            if (value == null) {
+               if (rvrl != null) {
+                  rvrl.remoteValueNotFound(key);
+               }
+               continue;
+            }
+            InternalCacheEntry ice = value.toInternalCacheEntry(key);
+            if (rvrl != null) {
+               rvrl.remoteValueFound(ice);
+            }
+            wrapRemoteValueForReading(ctx, key, ice);
+         }
+      }
+   }
+
+   /**
+    * Stores an entry fetched from a remote owner in the context, so that the read command sees it.
+    */
+   protected void wrapRemoteValueForReading(InvocationContext ctx, Object key, InternalCacheEntry ice) {
+      if (!ctx.replaceValue(key, ice)) {
+         ctx.putLookedUpEntry(key, ice);
+      }
+   }
+
+   /**
+    * Sends a different command to each of the given recipients, all the commands being in flight at the same time.
+    * With synchronous options, the commands are sent with {@link RpcManager#invokeRemotelyAsync} and the calling thread
+    * then waits for all the responses.
+    *
+    * @return the responses of all the recipients
+    */
+   protected final Map<Address, Response> invokeRemotelyInParallel(Map<Address, ? extends ReplicableCommand> commands,
+                                                                   RpcOptions options) throws Throwable {
+      Map<Address, Response> responses = new HashMap<>(commands.size());
+      if (!options.responseMode().isSynchronous()) {
+         for (Map.Entry<Address, ? extends ReplicableCommand> e : commands.entrySet()) {
+            rpcManager.invokeRemotely(Collections.singletonList(e.getKey()), e.getValue(), options);
+         }
+         return responses;
+      }
+      List<NotifyingFuture<Map<Address, Response>>> futures = new ArrayList<>(commands.size());
+      for (Map.Entry<Address, ? extends ReplicableCommand> e : commands.entrySet()) {
+         futures.add(rpcManager.invokeRemotelyAsync(Collections.singletonList(e.getKey()), e.getValue(), options));
+      }
+      for (NotifyingFuture<Map<Address, Response>> future : futures) {
+         try {
+            addResponses(responses, future.get());
+         } catch (ExecutionException e) {
+            throw e.getCause();
+         }
+      }
+      return responses;
+   }
+
+   private static void addResponses(Map<Address, Response> responses, Map<Address, Response> toAdd) {
+      if (toAdd != null) {
+         responses.putAll(toAdd);
+      }
+   }
+
    @Override
    protected final InternalCacheEntry retrieveFromRemoteSource(Object key, InvocationContext ctx, boolean acquireRemoteLock, FlagAffectedCommand command, boolean isWrite) throws Exception {
       GlobalTransaction gtx = ctx.isInTxScope() ? ((TxInvocationContext)ctx).getGlobalTransaction() : null;
@@ -268,30 +390,19 @@ protected final Object handleNonTxWriteCommand(InvocationContext ctx, DataWriteC
             log.tracef("I'm not the primary owner, so sending the command to the primary owner(%s) in order to be forwarded", primaryOwner);
             boolean isSyncForwarding = isSync || isNeedReliableReturnValues(command);
 
+            if (isSyncForwarding && ctx instanceof SingleKeyNonTxInvocationContext &&
+                  ((SingleKeyNonTxInvocationContext) ctx).isAsyncForwardingEnabled()) {
+               ((SingleKeyNonTxInvocationContext) ctx).setPendingForward(
+                     forwardToPrimaryOwnerAsync(primaryOwner, command, valueMatcher));
+               return null;
+            }
+
             Map<Address, Response> addressResponseMap;
             try {
                addressResponseMap = rpcManager.invokeRemotely(Collections.singletonList(primaryOwner), command,
                      rpcManager.getDefaultRpcOptions(isSyncForwarding));
-            } catch (RemoteException e) {
-               Throwable ce = e;
-               while (ce instanceof RemoteException) {
-                  ce = ce.getCause();
-               }
-               if (ce instanceof OutdatedTopologyException) {
-                  // If the primary owner throws an OutdatedTopologyException, it must be because the command succeeded there
-                  if (trace) log.tracef("Changing the value matching policy from %s to %s (original value was %s)",
-                        command.getValueMatcher(), valueMatcher.matcherForRetry(), valueMatcher);
-                  command.setValueMatcher(valueMatcher.matcherForRetry());
-               }
-               throw e;
-            } catch (SuspectException e) {
-               // If the primary owner became suspected, we don't know if it was able to replicate it's data properly
-               // to all backup owners and notify all listeners, thus we need to retry with new matcher in case if
-               // it had updated the backup owners
-               if (trace) log.tracef("Primary owner suspected - Changing the value matching policy from %s to %s " +
-                                           "(original value was %s)", command.getValueMatcher(),
-                                     valueMatcher.matcherForRetry(), valueMatcher);
-               command.setValueMatcher(valueMatcher.matcherForRetry());
+            } catch (RemoteException | SuspectException e) {
+               switchToRetryMatcherIfNeeded(command, valueMatcher, e);
                throw e;
             }
             if (!isSyncForwarding) return localResult;
@@ -303,6 +414,55 @@ protected final Object handleNonTxWriteCommand(InvocationContext ctx, DataWriteC
       }
    }
 
+   /**
+    * Forwards the command to the primary owner without waiting for the response. The returned future is completed
+    * from the transport's response callback, after the status of the command was updated.
+    */
+   private NotifyingFuture<Object> forwardToPrimaryOwnerAsync(final Address primaryOwner, final DataWriteCommand command,
+                                                             final ValueMatcher valueMatcher) {
+      final CompletableNotifyingFuture<Object> result = new CompletableNotifyingFuture<>();
+      rpcManager.invokeRemotelyAsync(Collections.singletonList(primaryOwner), command, rpcManager.getDefaultRpcOptions(true))
+            .attachListener(new FutureListener<Map<Address, Response>>() {
+               @Override
+               public void futureDone(Future<Map<Address, Response>> future) {
+                  try {
+                     Object primaryResult = getResponseFromPrimaryOwner(primaryOwner, future.get());
+                     command.updateStatusFromRemoteResponse(primaryResult);
+                     result.complete(primaryResult);
+                  } catch (ExecutionException e) {
+                     switchToRetryMatcherIfNeeded(command, valueMatcher, e.getCause());
+                     result.completeExceptionally(e.getCause());
+                  } catch (Throwable t) {
+                     result.completeExceptionally(t);
+                  }
+               }
+            });
+      return result;
+   }
+
+   private void switchToRetryMatcherIfNeeded(DataWriteCommand command, ValueMatcher valueMatcher, Throwable t) {
+      if (t instanceof SuspectException) {
+         // If the primary owner became suspected, we don't know if it was able to replicate it's data properly
+         // to all backup owners and notify all listeners, thus we need to retry with new matcher in case if
+         // it had updated the backup owners
+         if (trace) log.tracef("Primary owner suspected - Changing the value matching policy from %s to %s " +
+                                     "(original value was %s)", command.getValueMatcher(),
+                               valueMatcher.matcherForRetry(), valueMatcher);
+         command.setValueMatcher(valueMatcher.matcherForRetry());
+         return;
+      }
+      Throwable ce = t;
+      while (ce instanceof RemoteException) {
+         ce = ce.getCause();
+      }
+      if (ce instanceof OutdatedTopologyException) {
+         // If the primary owner throws an OutdatedTopologyException, it must be because the command succeeded there
+         if (trace) log.tracef("Changing the value matching policy from %s to %s (original value was %s)",
+               command.getValueMatcher(), valueMatcher.matcherForRetry(), valueMatcher);
+         command.setValueMatcher(valueMatcher.matcherForRetry());
+      }
+   }
+
    private RpcOptions determineRpcOptionsForBackupReplication(RpcManager rpc, boolean isSync, List<Address> recipients) {
       RpcOptions options;
       if (isSync) {
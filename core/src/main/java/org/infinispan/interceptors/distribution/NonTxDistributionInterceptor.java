@@ -14,6 +14,7 @@
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
+import org.infinispan.remoting.rpc.RpcOptions;
 import org.infinispan.remoting.transport.Address;
 import org.infinispan.remoting.transport.jgroups.SuspectException;
 import org.infinispan.util.logging.Log;
@@ -93,39 +94,94 @@ public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand
       return handleNonTxWriteCommand(ctx, command);
    }
 
+   /**
+    * The originator splits the map by primary owner and sends each primary owner only its entries, all the owners
+    * being contacted in parallel. Each primary owner then forwards to every backup owner only the entries it backs up.
+    */
    @Override
    public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) throws Throwable {
+      Address localAddress = rpcManager.getAddress();
       if (ctx.isOriginLocal()) {
-         Set<Address> primaryOwners = new HashSet<Address>(command.getAffectedKeys().size());
-         for (Object k : command.getAffectedKeys()) {
-            primaryOwners.add(cdl.getPrimaryOwner(k));
+         Map<Address, Map<Object, Object>> entriesByPrimaryOwner = new HashMap<Address, Map<Object, Object>>();
+         for (Map.Entry<Object, Object> e : command.getMap().entrySet()) {
+            Address primaryOwner = cdl.getPrimaryOwner(e.getKey());
+            if (!primaryOwner.equals(localAddress)) {
+               addEntry(entriesByPrimaryOwner, primaryOwner, e);
+            }
          }
-         primaryOwners.remove(rpcManager.getAddress());
-         if (!primaryOwners.isEmpty()) {
-            rpcManager.invokeRemotely(primaryOwners, command, rpcManager.getDefaultRpcOptions(isSynchronous(command)));
+         if (!entriesByPrimaryOwner.isEmpty()) {
+            invokeRemotelyInParallel(buildPutMapCommands(command, entriesByPrimaryOwner, false),
+                                     rpcManager.getDefaultRpcOptions(isSynchronous(command)));
          }
       }
 
       if (!command.isForwarded()) {
-         //I need to forward this to all the nodes that are secondary owners
-         Set<Object> keysIOwn = new HashSet<Object>(command.getAffectedKeys().size());
-         for (Object k : command.getAffectedKeys()) {
-            if (cdl.localNodeIsPrimaryOwner(k)) {
-               keysIOwn.add(k);
+         //I need to forward to the secondary owners the entries I am the primary owner of
+         Map<Object, Object> entriesIOwn = new HashMap<Object, Object>();
+         Map<Address, Map<Object, Object>> entriesByBackupOwner = new HashMap<Address, Map<Object, Object>>();
+         boolean broadcast = false;
+         for (Map.Entry<Object, Object> e : command.getMap().entrySet()) {
+            if (!cdl.localNodeIsPrimaryOwner(e.getKey())) {
+               continue;
+            }
+            entriesIOwn.put(e.getKey(), e.getValue());
+            List<Address> owners = cdl.getOwners(e.getKey());
+            if (owners == null) {
+               // every node is an owner
+               broadcast = true;
+               continue;
+            }
+            for (Address owner : owners) {
+               if (!owner.equals(localAddress)) {
+                  addEntry(entriesByBackupOwner, owner, e);
+               }
             }
          }
-         Collection<Address> backupOwners = cdl.getOwners(keysIOwn);
-         if (backupOwners == null || !backupOwners.isEmpty()) {
-            command.setFlags(Flag.SKIP_LOCKING);
-            command.setForwarded(true);
-            rpcManager.invokeRemotely(backupOwners, command, rpcManager.getDefaultRpcOptions(isSynchronous(command)));
-            command.setForwarded(false);
+         RpcOptions rpcOptions = rpcManager.getDefaultRpcOptions(isSynchronous(command));
+         if (broadcast) {
+            rpcManager.invokeRemotely(null, buildPutMapCommand(command, entriesIOwn, true), rpcOptions);
+         } else if (!entriesByBackupOwner.isEmpty()) {
+            invokeRemotelyInParallel(buildPutMapCommands(command, entriesByBackupOwner, true), rpcOptions);
          }
       }
 
       return invokeNextInterceptor(ctx, command);
    }
 
+   private static void addEntry(Map<Address, Map<Object, Object>> entriesByOwner, Address owner,
+                                Map.Entry<Object, Object> entry) {
+      Map<Object, Object> entries = entriesByOwner.get(owner);
+      if (entries == null) {
+         entries = new HashMap<Object, Object>();
+         entriesByOwner.put(owner, entries);
+      }
+      entries.put(entry.getKey(), entry.getValue());
+   }
+
+   private Map<Address, PutMapCommand> buildPutMapCommands(PutMapCommand command,
+                                                           Map<Address, Map<Object, Object>> entriesByOwner,
+                                                           boolean forwarded) {
+      Map<Address, PutMapCommand> commands = new HashMap<Address, PutMapCommand>(entriesByOwner.size());
+      for (Map.Entry<Address, Map<Object, Object>> e : entriesByOwner.entrySet()) {
+         commands.put(e.getKey(), buildPutMapCommand(command, e.getValue(), forwarded));
+      }
+      return commands;
+   }
+
+   private PutMapCommand buildPutMapCommand(PutMapCommand command, Map<Object, Object> entries, boolean forwarded) {
+      Set<Flag> flags = EnumSet.noneOf(Flag.class);
+      if (command.getFlags() != null) {
+         flags.addAll(command.getFlags());
+      }
+      if (forwarded) {
+         flags.add(Flag.SKIP_LOCKING);
+      }
+      PutMapCommand subCommand = cf.buildPutMapCommand(entries, command.getMetadata(), flags);
+      subCommand.setForwarded(forwarded);
+      subCommand.setTopologyId(command.getTopologyId());
+      return subCommand;
+   }
+
    @Override
    public Object visitRemoveCommand(InvocationContext ctx, RemoveCommand command) throws Throwable {
       return handleNonTxWriteCommand(ctx, command);
@@ -170,6 +170,19 @@ private Object visitGetCommand(InvocationContext ctx, AbstractDataCommand comman
       return returnValue;
    }
 
+   @Override
+   protected void wrapRemoteValueForReading(InvocationContext ctx, Object key, InternalCacheEntry ice) {
+      if (useClusteredWriteSkewCheck && ctx.isInTxScope()) {
+         ((TxInvocationContext) ctx).getCacheTransaction().putLookedUpRemoteVersion(key, ice.getMetadata().version());
+      }
+      if (!ctx.replaceValue(key, ice)) {
+         ctx.putLookedUpEntry(key, ice);
+         if (ctx.isInTxScope()) {
+            ((TxInvocationContext) ctx).getCacheTransaction().replaceVersionRead(key, ice.getMetadata().version());
+         }
+      }
+   }
+
    protected void lockAndWrap(InvocationContext ctx, Object key, InternalCacheEntry ice, FlagAffectedCommand command) throws InterruptedException {
       boolean skipLocking = hasSkipLocking(command);
       long lockTimeout = getLockAcquisitionTimeout(command, skipLocking);
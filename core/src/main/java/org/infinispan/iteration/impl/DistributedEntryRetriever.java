@@ -395,20 +395,19 @@ else if (!filter.accept(key, clone.getValue(), clone.getMetadata())) {
                               cache.addListener(listener);
                            }
                            if (filter == null || converter == null && filter instanceof KeyValueFilterConverter) {
-                              loaderFilter = new CompositeKeyFilter<K>(new SegmentFilter<K>(hashToUse, segmentsToUse),
-                                                                       // We rely on this keeping a reference and not copying
-                                                                       // contents
-                                                                       new CollectionKeyFilter<K>(processedKeys));
+                              // We rely on this keeping a reference and not copying contents
+                              loaderFilter = new CollectionKeyFilter<K>(processedKeys);
                            } else {
-                              loaderFilter = new CompositeKeyFilter<K>(new SegmentFilter<K>(hashToUse, segmentsToUse),
-                                                                       new CollectionKeyFilter<K>(processedKeys),
+                              loaderFilter = new CompositeKeyFilter<K>(new CollectionKeyFilter<K>(processedKeys),
                                                                        new KeyValueFilterAsKeyFilter<K>(filter));
                            }
                            if (converter == null && filter instanceof KeyValueFilterConverter) {
                               action = new MapAction(identifier, segmentsToUse, inDoubtSegmentsToUse, batchSize, (KeyValueFilterConverter) filter, handler, queue);
                            }
-                           persistenceManager.processOnAllStores(withinThreadExecutor, loaderFilter,
-                                                                 new KeyValueActionForCacheLoaderTask(action), true, true);
+                           // segmented stores only read the entries of the requested segments
+                           persistenceManager.processOnAllStores(withinThreadExecutor, hashToUse, segmentsToUse, loaderFilter,
+                                                                 new KeyValueActionForCacheLoaderTask(action), true, true,
+                                                                 PersistenceManager.AccessMode.BOTH);
                         }
                      } finally {
                         if (listener != null) {
@@ -1187,21 +1186,6 @@ public void handleBatch(UUID identifier, boolean complete, Set<Integer> complete
       public void handleException(CacheException e);
    }
 
-   private static class SegmentFilter<K> implements KeyFilter<K> {
-      private final ConsistentHash hash;
-      private final Set<Integer> segments;
-
-      public SegmentFilter(ConsistentHash hash, Set<Integer> segments) {
-         this.hash = hash;
-         this.segments = segments;
-      }
-
-      @Override
-      public boolean accept(K key) {
-         return segments.contains(hash.getSegment(key));
-      }
-   }
-
    private class SegmentChangeListener {
       private final Set<Integer> changedSegments = new ConcurrentHashSet<Integer>();
 
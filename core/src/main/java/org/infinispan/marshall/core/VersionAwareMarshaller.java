@@ -8,18 +8,20 @@
 import org.infinispan.context.InvocationContextContainer;
 import org.infinispan.commons.io.ExposedByteArrayOutputStream;
 import org.infinispan.commons.marshall.AbstractMarshaller;
+import org.infinispan.commons.marshall.BufferSizePredictor;
 import org.infinispan.commons.marshall.NotSerializableException;
 import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.util.concurrent.ConcurrentWeakKeyHashMap;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
-import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.io.OutputStream;
+import java.util.Arrays;
 
 /**
  * A delegate to various other marshallers like {@link JBossMarshaller}. This delegating marshaller adds versioning
@@ -35,6 +37,10 @@ public class VersionAwareMarshaller extends AbstractMarshaller implements Stream
    private final boolean trace = log.isTraceEnabled();
 
    private static final int VERSION_510 = 510;
+   /**
+    * Larger buffers are not kept for reuse, so a few huge objects don't pin a lot of memory in every thread.
+    */
+   private static final int MAX_REUSABLE_BUFFER_SIZE = 64 * 1024;
 
    private JBossMarshaller defaultMarshaller;
    private String cacheName;
@@ -44,6 +50,9 @@ public class VersionAwareMarshaller extends AbstractMarshaller implements Stream
    private Configuration cfg;
    private InvocationContextContainer icc;
 
+   private final ConcurrentWeakKeyHashMap<Thread, OutputBufferHolder> outputBuffers =
+         new ConcurrentWeakKeyHashMap<Thread, OutputBufferHolder>();
+
    public void inject(Cache cache, Configuration cfg, InvocationContextContainer icc,
          ExternalizerTable extTable, GlobalConfiguration globalCfg) {
       if (cfg == null) {
@@ -72,7 +81,38 @@ public void stop() {
    @Override
    protected ByteBuffer objectToBuffer(Object obj, int estimatedSize) throws IOException, InterruptedException {
       ExposedByteArrayOutputStream baos = new ExposedByteArrayOutputStream(estimatedSize);
-      ObjectOutput out = startObjectOutput(baos, false, estimatedSize);
+      marshall(obj, baos, estimatedSize);
+      return new ByteBufferImpl(baos.getRawBuffer(), 0, baos.size());
+   }
+
+   @Override
+   public ByteBuffer objectToBuffer(Object obj) throws IOException, InterruptedException {
+      byte[] bytes = objectToByteBuffer(obj);
+      return new ByteBufferImpl(bytes, 0, bytes.length);
+   }
+
+   /**
+    * Marshalls the object into the reusable buffer of the current thread, so the only allocation is the exact-sized
+    * result. The default implementation allocates a buffer of the predicted size, which grows when the prediction is
+    * too small and is copied again when it is too large.
+    */
+   @Override
+   public byte[] objectToByteBuffer(Object obj) throws IOException, InterruptedException {
+      BufferSizePredictor sizePredictor = obj != null ? getBufferSizePredictor(obj) : null;
+      int estimatedSize = sizePredictor != null ? sizePredictor.nextSize(obj) : 1;
+      OutputBufferHolder holder = getOutputBufferHolder();
+      ExposedByteArrayOutputStream baos = holder.acquire(estimatedSize);
+      try {
+         marshall(obj, baos, estimatedSize);
+         if (sizePredictor != null) sizePredictor.recordSize(baos.size());
+         return Arrays.copyOf(baos.getRawBuffer(), baos.size());
+      } finally {
+         holder.release(baos);
+      }
+   }
+
+   private void marshall(Object obj, OutputStream os, int estimatedSize) throws IOException, InterruptedException {
+      ObjectOutput out = startObjectOutput(os, false, estimatedSize);
       try {
          defaultMarshaller.objectToObjectStream(obj, out);
       } catch (java.io.NotSerializableException nse) {
@@ -89,15 +129,25 @@ protected ByteBuffer objectToBuffer(Object obj, int estimatedSize) throws IOExce
       } finally {
          finishObjectOutput(out);
       }
-      return new ByteBufferImpl(baos.getRawBuffer(), 0, baos.size());
+   }
+
+   private OutputBufferHolder getOutputBufferHolder() {
+      Thread thread = Thread.currentThread();
+      OutputBufferHolder holder = outputBuffers.get(thread);
+      if (holder == null) {
+         holder = new OutputBufferHolder();
+         outputBuffers.put(thread, holder);
+      }
+      return holder;
    }
 
    @Override
    public Object objectFromByteBuffer(byte[] bytes, int offset, int len) throws IOException, ClassNotFoundException {
-      ByteArrayInputStream is = new ByteArrayInputStream(bytes, offset, len);
-      ObjectInput in = startObjectInput(is, false);
+      // Read straight from the array, without an InputStream in between
+      ObjectInput in = defaultMarshaller.startObjectInput(bytes, offset, len);
       Object o = null;
       try {
+         readVersion(in);
          o = defaultMarshaller.objectFromObjectStream(in);
       } finally {
          finishObjectInput(in);
@@ -140,17 +190,23 @@ public void objectToObjectStream(Object obj, ObjectOutput out) throws IOExceptio
    @Override
    public ObjectInput startObjectInput(InputStream is, boolean isReentrant) throws IOException {
       ObjectInput in = defaultMarshaller.startObjectInput(is, isReentrant);
-      int versionId;
       try {
-         versionId = in.readShort();
-         if (trace) log.tracef("Read version %s", versionId);
-      }
-      catch (Exception e) {
+         readVersion(in);
+      } catch (IOException e) {
          finishObjectInput(in);
+         throw e;
+      }
+      return in;
+   }
+
+   private void readVersion(ObjectInput in) throws IOException {
+      try {
+         int versionId = in.readShort();
+         if (trace) log.tracef("Read version %s", versionId);
+      } catch (Exception e) {
          log.unableToReadVersionId();
          throw new IOException("Unable to read version id from first two bytes of stream: " + e.getMessage());
       }
-      return in;
    }
 
    @Override
@@ -192,4 +248,28 @@ public boolean isMarshallable(Object o) throws Exception {
    public String getCacheName() {
       return cacheName;
    }
+
+   /**
+    * The reusable output buffer of a thread. A nested marshalling call on the same thread finds the holder empty and
+    * uses a throw-away buffer instead.
+    */
+   private static final class OutputBufferHolder {
+      ExposedByteArrayOutputStream buffer;
+
+      ExposedByteArrayOutputStream acquire(int estimatedSize) {
+         ExposedByteArrayOutputStream baos = buffer;
+         if (baos == null) {
+            return new ExposedByteArrayOutputStream(estimatedSize);
+         }
+         buffer = null;
+         baos.reset();
+         return baos;
+      }
+
+      void release(ExposedByteArrayOutputStream baos) {
+         if (baos.getRawBuffer().length <= MAX_REUSABLE_BUFFER_SIZE) {
+            buffer = baos;
+         }
+      }
+   }
 }
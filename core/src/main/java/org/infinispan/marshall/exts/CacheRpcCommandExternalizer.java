@@ -150,8 +150,7 @@ public CacheRpcCommand readObject(ObjectInput input) throws IOException, ClassNo
          ((ExtendedRiverUnmarshaller) paramsInput).setInfinispanMarshaller(marshaller);
 
       try {
-         Object[] args = cmdExt.readParameters(paramsInput);
-         CacheRpcCommand cacheRpcCommand = cmdExt.fromStream(methodId, args, type, cacheName);
+         CacheRpcCommand cacheRpcCommand = cmdExt.readCacheRpcCommand(paramsInput, methodId, type, cacheName);
          if (cacheRpcCommand instanceof TopologyAffectedCommand) {
             int topologyId = input.readInt();
             ((TopologyAffectedCommand)cacheRpcCommand).setTopologyId(topologyId);
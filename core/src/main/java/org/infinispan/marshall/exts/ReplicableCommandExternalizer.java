@@ -3,12 +3,16 @@
 import org.infinispan.atomic.DeltaAware;
 import org.infinispan.commands.RemoteCommandsFactory;
 import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commands.StreamableCommand;
 import org.infinispan.commands.TopologyAffectedCommand;
 import org.infinispan.commands.read.DistributedExecuteCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.remote.CacheRpcCommand;
 import org.infinispan.commands.remote.GetKeysInGroupCommand;
 import org.infinispan.commands.write.*;
+import org.infinispan.Version;
+import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.factories.GlobalComponentRegistry;
 import org.infinispan.commons.io.UnsignedNumeric;
 import org.infinispan.commons.marshall.AbstractExternalizer;
@@ -29,12 +33,34 @@
  * @since 4.0
  */
 public class ReplicableCommandExternalizer extends AbstractExternalizer<ReplicableCommand> {
+   private static final byte CORE_COMMAND = 0;
+   private static final byte MODULE_COMMAND = 1;
+   /**
+    * A core {@link StreamableCommand}, whose parameters are written with {@link StreamableCommand#writeTo(ObjectOutput)}.
+    */
+   private static final byte STREAMABLE_COMMAND = 2;
+
    private final RemoteCommandsFactory cmdFactory;
    private final GlobalComponentRegistry globalComponentRegistry;
+   private final boolean streamableEnabled;
 
    public ReplicableCommandExternalizer(RemoteCommandsFactory cmdFactory, GlobalComponentRegistry globalComponentRegistry) {
       this.cmdFactory = cmdFactory;
       this.globalComponentRegistry = globalComponentRegistry;
+      GlobalConfiguration globalConfiguration = globalComponentRegistry.getGlobalConfiguration();
+      this.streamableEnabled = globalConfiguration == null || isStreamableSupported(globalConfiguration.serialization().version());
+   }
+
+   /**
+    * The nodes running a version older than 7.1 can't read the {@link StreamableCommand} format, so it's only written
+    * if the configured marshalling version is 7.1 or newer.
+    */
+   static boolean isStreamableSupported(short marshallVersion) {
+      // The version is either in the Version.getMarshallVersion() format (e.g. 71), or in the
+      // Version.getVersionShort(String) format, if it was configured as a string
+      if (marshallVersion < Version.getVersionShort("1.0"))
+         return marshallVersion >= 71;
+      return marshallVersion >= Version.getVersionShort("7.1");
    }
 
    @Override
@@ -44,6 +70,18 @@ public void writeObject(ObjectOutput output, ReplicableCommand command) throws I
    }
 
    protected void writeCommandParameters(ObjectOutput output, ReplicableCommand command) throws IOException {
+      if (isStreamable(command)) {
+         ((StreamableCommand) command).writeTo(output);
+      } else {
+         writeParameters(output, command);
+      }
+
+      if (command instanceof TopologyAffectedCommand) {
+         output.writeInt(((TopologyAffectedCommand) command).getTopologyId());
+      }
+   }
+
+   private void writeParameters(ObjectOutput output, ReplicableCommand command) throws IOException {
       Object[] args = command.getParameters();
       int numArgs = (args == null ? 0 : args.length);
 
@@ -58,10 +96,6 @@ protected void writeCommandParameters(ObjectOutput output, ReplicableCommand com
             output.writeObject(arg);
          }
       }
-
-      if (command instanceof TopologyAffectedCommand) {
-         output.writeInt(((TopologyAffectedCommand) command).getTopologyId());
-      }
    }
 
    protected void writeCommandHeader(ObjectOutput output, ReplicableCommand command) throws IOException {
@@ -70,9 +104,11 @@ protected void writeCommandHeader(ObjectOutput output, ReplicableCommand command
       // Write an indexer to separate commands defined external to the
       // infinispan core module from the ones defined via module commands
       if (moduleCommands != null && moduleCommands.contains(command.getClass()))
-         output.writeByte(1);
+         output.writeByte(MODULE_COMMAND);
+      else if (isStreamable(command))
+         output.writeByte(STREAMABLE_COMMAND);
       else
-         output.writeByte(0);
+         output.writeByte(CORE_COMMAND);
 
       output.writeShort(command.getCommandId());
    }
@@ -81,8 +117,14 @@ protected void writeCommandHeader(ObjectOutput output, ReplicableCommand command
    public ReplicableCommand readObject(ObjectInput input) throws IOException, ClassNotFoundException {
       byte type = input.readByte();
       short methodId = input.readShort();
-      Object[] args = readParameters(input);
-      ReplicableCommand replicableCommand = cmdFactory.fromStream((byte) methodId, args, type);
+      ReplicableCommand replicableCommand;
+      if (type == STREAMABLE_COMMAND) {
+         replicableCommand = cmdFactory.newCommand((byte) methodId);
+         ((StreamableCommand) replicableCommand).readFrom(input);
+      } else {
+         Object[] args = readParameters(input);
+         replicableCommand = cmdFactory.fromStream((byte) methodId, args, type);
+      }
       if (replicableCommand instanceof TopologyAffectedCommand) {
          int topologyId = input.readInt();
          ((TopologyAffectedCommand) replicableCommand).setTopologyId(topologyId);
@@ -107,6 +149,20 @@ protected CacheRpcCommand fromStream(byte id, Object[] parameters, byte type, St
       return cmdFactory.fromStream(id, parameters, type, cacheName);
    }
 
+   /**
+    * Reads the parameters written by {@link #writeCommandParameters(ObjectOutput, ReplicableCommand)}, except the
+    * topology id, and creates the cache command.
+    */
+   protected CacheRpcCommand readCacheRpcCommand(ObjectInput input, byte id, byte type, String cacheName)
+         throws IOException, ClassNotFoundException {
+      if (type == STREAMABLE_COMMAND) {
+         CacheRpcCommand command = cmdFactory.newCacheRpcCommand(id, cacheName);
+         ((StreamableCommand) command).readFrom(input);
+         return command;
+      }
+      return fromStream(id, readParameters(input), type, cacheName);
+   }
+
    @Override
    public Integer getId() {
       return Ids.REPLICABLE_COMMAND;
@@ -120,13 +176,20 @@ public Set<Class<? extends ReplicableCommand>> getTypeClasses() {
             InvalidateCommand.class, InvalidateL1Command.class,
             PutKeyValueCommand.class,
             PutMapCommand.class, RemoveCommand.class,
-            ReplaceCommand.class, GetKeysInGroupCommand.class);
+            ReplaceCommand.class, GetKeysInGroupCommand.class, GetAllCommand.class);
       // Search only those commands that replicable and not cache specific replicable commands
       Collection<Class<? extends ReplicableCommand>> moduleCommands = globalComponentRegistry.getModuleProperties().moduleOnlyReplicableCommands();
       if (moduleCommands != null && !moduleCommands.isEmpty()) coreCommands.addAll(moduleCommands);
       return coreCommands;
    }
 
+   private boolean isStreamable(ReplicableCommand command) {
+      if (!streamableEnabled || !(command instanceof StreamableCommand))
+         return false;
+      Collection<Class<? extends ReplicableCommand>> moduleCommands = getModuleCommands();
+      return moduleCommands == null || !moduleCommands.contains(command.getClass());
+   }
+
    private Collection<Class<? extends ReplicableCommand>> getModuleCommands() {
       return globalComponentRegistry.getModuleProperties().moduleCommands();
    }
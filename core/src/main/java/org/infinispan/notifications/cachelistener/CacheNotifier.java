@@ -13,6 +13,7 @@
 import org.infinispan.topology.CacheTopology;
 import org.infinispan.transaction.xa.GlobalTransaction;
 
+import java.lang.annotation.Annotation;
 import java.util.Collection;
 
 /**
@@ -24,6 +25,12 @@
 @Scope(Scopes.NAMED_CACHE)
 public interface CacheNotifier<K, V> extends ClassLoaderAwareFilteringListenable<K, V>, ClassLoaderAwareListenable {
 
+   /**
+    * Returns whether any listener is registered for the events of the given type, e.g. {@link
+    * org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated}.
+    */
+   boolean hasListener(Class<? extends Annotation> annotation);
+
    /**
     * Notifies all registered listeners of a CacheEntryCreated event.
     */
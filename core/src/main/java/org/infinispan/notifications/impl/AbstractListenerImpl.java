@@ -150,6 +150,11 @@ private void removeListenerInvocation(Class<? extends Annotation> annotation, Ob
       l.removeAll(markedForRemoval);
    }
 
+   public boolean hasListener(Class<? extends Annotation> annotation) {
+      List<L> list = listenersMap.get(annotation);
+      return list != null && !list.isEmpty();
+   }
+
    public Set<Object> getListeners() {
       Set<Object> result = new HashSet<Object>(listenersMap.size());
       for (List<L> list : listenersMap.values()) {
@@ -5,13 +5,21 @@
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.container.entries.InternalCacheValue;
 import org.infinispan.context.InvocationContext;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.distribution.ch.impl.DefaultConsistentHash;
+import org.infinispan.distribution.ch.impl.ReplicatedConsistentHash;
+import org.infinispan.filter.CompositeKeyFilter;
 import org.infinispan.filter.KeyFilter;
+import org.infinispan.filter.SegmentKeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.metadata.InternalMetadata;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.metadata.impl.InternalMetadataImpl;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.persistence.spi.BatchCacheWriter;
+import org.infinispan.persistence.spi.CacheWriter;
+import org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.infinispan.util.logging.Log;
@@ -20,6 +28,7 @@
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -141,4 +150,77 @@ public static <K, V> InternalCacheEntry<K, V> convert(MarshalledEntry<K, V> load
          return factory.create(loaded.getKey(), loaded.getValue(), (Metadata) null);
       }
    }
+
+   /**
+    * Writes the entries to the given writer, with a single {@link BatchCacheWriter#writeBatch(Iterable)} invocation if
+    * the writer supports it, or one entry at a time otherwise.
+    */
+   @SuppressWarnings("unchecked")
+   public static void writeBatch(CacheWriter writer, Iterable<? extends MarshalledEntry> entries) {
+      if (writer instanceof BatchCacheWriter) {
+         ((BatchCacheWriter) writer).writeBatch(entries);
+      } else {
+         for (MarshalledEntry entry : entries) {
+            writer.write(entry);
+         }
+      }
+   }
+
+   /**
+    * Removes the keys from the given writer, with a single {@link BatchCacheWriter#deleteBatch(Iterable)} invocation
+    * if the writer supports it, or one key at a time otherwise.
+    */
+   @SuppressWarnings("unchecked")
+   public static void deleteBatch(CacheWriter writer, Iterable<?> keys) {
+      if (writer instanceof BatchCacheWriter) {
+         ((BatchCacheWriter) writer).deleteBatch(keys);
+      } else {
+         for (Object key : keys) {
+            writer.delete(key);
+         }
+      }
+   }
+
+   /**
+    * Iterates over the entries of the loader whose keys are mapped by the consistent hash to one of the given
+    * segments. {@link SegmentedAdvancedLoadWriteStore}s only read the entries of those segments, the entries of
+    * other loaders are filtered by key.
+    */
+   @SuppressWarnings("unchecked")
+   public static void process(AdvancedCacheLoader loader, ConsistentHash ch, Set<Integer> segments, KeyFilter filter,
+                              AdvancedCacheLoader.CacheLoaderTask task, Executor executor, boolean fetchValue,
+                              boolean fetchMetadata) {
+      if (loader instanceof SegmentedAdvancedLoadWriteStore) {
+         ((SegmentedAdvancedLoadWriteStore) loader).process(ch, segments, filter, task, executor, fetchValue, fetchMetadata);
+      } else {
+         loader.process(segmentFilter(ch, segments, filter), task, executor, fetchValue, fetchMetadata);
+      }
+   }
+
+   /**
+    * @return a filter accepting the keys mapped to one of the given segments and accepted by {@code filter}, if not
+    * {@code null}
+    */
+   @SuppressWarnings("unchecked")
+   public static <K> KeyFilter<K> segmentFilter(ConsistentHash ch, Set<Integer> segments, KeyFilter<? super K> filter) {
+      KeyFilter<K> segmentFilter = new SegmentKeyFilter<K>(ch, segments);
+      return filter == null ? segmentFilter : new CompositeKeyFilter<K>(segmentFilter, filter);
+   }
+
+   /**
+    * Whether the segment of a key only depends on the hash function and the number of segments of the consistent hash,
+    * and not on its owners. The stores can then keep their keys grouped by segment across topology changes.
+    */
+   public static boolean hasStableSegments(ConsistentHash ch) {
+      return ch.getClass() == DefaultConsistentHash.class || ch.getClass() == ReplicatedConsistentHash.class;
+   }
+
+   /**
+    * @return {@code true} if both consistent hashes have {@link #hasStableSegments(ConsistentHash) stable segments} and
+    * map every key to the same segment
+    */
+   public static boolean sameSegments(ConsistentHash ch, ConsistentHash other) {
+      return hasStableSegments(ch) && other.getClass() == ch.getClass()
+            && other.getNumSegments() == ch.getNumSegments() && other.getHashFunction().equals(ch.getHashFunction());
+   }
 }
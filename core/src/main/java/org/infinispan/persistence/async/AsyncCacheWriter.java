@@ -5,8 +5,11 @@
 import org.infinispan.Cache;
 import org.infinispan.configuration.cache.AsyncStoreConfiguration;
 import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.persistence.PersistenceUtil;
+import org.infinispan.persistence.spi.BatchCacheWriter;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.persistence.modifications.Modification;
+import org.infinispan.persistence.modifications.ModificationsList;
 import org.infinispan.persistence.modifications.Remove;
 import org.infinispan.persistence.modifications.Store;
 import org.infinispan.commons.util.CollectionFactory;
@@ -56,7 +59,7 @@
  * @author Mircea Markus
  * @since 4.0
  */
-public class AsyncCacheWriter extends DelegatingCacheWriter {
+public class AsyncCacheWriter extends DelegatingCacheWriter implements BatchCacheWriter {
    private static final Log log = LogFactory.getLog(AsyncCacheWriter.class);
    private static final boolean trace = log.isTraceEnabled();
    private static final AtomicInteger threadId = new AtomicInteger(0);
@@ -147,19 +150,46 @@ public boolean delete(Object key) {
       return true;
    }
 
+   @Override
+   public void writeBatch(Iterable entries) {
+      List<Modification> mods = new ArrayList<Modification>();
+      for (Object entry : entries) {
+         mods.add(new Store(((MarshalledEntry) entry).getKey(), (MarshalledEntry) entry));
+      }
+      if (!mods.isEmpty())
+         put(new ModificationsList(mods), mods.size());
+   }
+
+   @Override
+   public void deleteBatch(Iterable keys) {
+      List<Modification> mods = new ArrayList<Modification>();
+      for (Object key : keys) {
+         mods.add(new Remove(key));
+      }
+      if (!mods.isEmpty())
+         put(new ModificationsList(mods), mods.size());
+   }
+
    protected void applyModificationsSync(List<Modification> mods) throws PersistenceException {
+      // modifications are coalesced by key, so the stores and the removes can be applied in two separate batches
+      List<MarshalledEntry> stores = new ArrayList<MarshalledEntry>(mods.size());
+      List<Object> removes = new ArrayList<Object>();
       for (Modification m : mods) {
          switch (m.getType()) {
             case STORE:
-               actual.write(((Store) m).getStoredValue());
+               stores.add(((Store) m).getStoredValue());
                break;
             case REMOVE:
-               actual.delete(((Remove) m).getKey());
+               removes.add(((Remove) m).getKey());
                break;
             default:
                throw new IllegalArgumentException("Unknown modification type " + m.getType());
          }
       }
+      if (!stores.isEmpty())
+         PersistenceUtil.writeBatch(actual, stores);
+      if (!removes.isEmpty())
+         PersistenceUtil.deleteBatch(actual, removes);
    }
 
 
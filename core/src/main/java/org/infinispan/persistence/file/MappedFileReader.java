@@ -0,0 +1,131 @@
+package org.infinispan.persistence.file;
+
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Reads a file through read-only memory mappings, so that loading an entry copies its bytes straight from the page
+ * cache instead of going through a {@link FileChannel#read(ByteBuffer, long)} call and a temporary direct buffer.
+ * <p/>
+ * The file is mapped lazily in regions of {@link #DEFAULT_REGION_SIZE} bytes. A region is mapped once the file contains all
+ * of it, the last (partial) region is remapped as the file grows. Reads from the part of the file that is not mapped
+ * yet, and all the reads after a mapping failed (e.g. because the address space is exhausted), go through the
+ * channel.
+ * <p/>
+ * The reader never writes through the mappings, and the owner of the channel must call {@link #invalidate()} after
+ * truncating the file, so that no region that extends past the end of the file is used any more.
+ *
+ * @since 7.1
+ */
+public class MappedFileReader {
+   private static final Log log = LogFactory.getLog(MappedFileReader.class);
+
+   public static final int DEFAULT_REGION_SIZE = 64 * 1024 * 1024;
+   private static final MappedByteBuffer[] NO_REGIONS = new MappedByteBuffer[0];
+
+   private final FileChannel channel;
+   private final String name;
+   private final int regionSize;
+   private final int regionShift;
+   // Don't remap the last region unless the file grew by at least this much since it was mapped
+   private final int remapThreshold;
+   private volatile MappedByteBuffer[] regions = NO_REGIONS;
+   private volatile boolean mappingFailed;
+
+   public MappedFileReader(FileChannel channel, String name) {
+      this(channel, name, DEFAULT_REGION_SIZE);
+   }
+
+   /**
+    * @param regionSize the size of the mapped regions, must be a power of two
+    */
+   public MappedFileReader(FileChannel channel, String name, int regionSize) {
+      if (Integer.bitCount(regionSize) != 1)
+         throw new IllegalArgumentException("The region size must be a power of two: " + regionSize);
+      this.channel = channel;
+      this.name = name;
+      this.regionSize = regionSize;
+      this.regionShift = Integer.numberOfTrailingZeros(regionSize);
+      this.remapThreshold = Math.max(1, regionSize / 64);
+   }
+
+   /**
+    * Reads a sequence of bytes from the file, starting at the given position, with the semantics of {@link
+    * FileChannel#read(ByteBuffer, long)}.
+    *
+    * @return the number of bytes read, or -1 if the position is greater than or equal to the file's current size
+    */
+   public int read(ByteBuffer dst, long position) throws IOException {
+      int read = 0;
+      while (dst.hasRemaining()) {
+         int regionIndex = (int) (position >>> regionShift);
+         int regionOffset = (int) (position & (regionSize - 1));
+         MappedByteBuffer region = region(regionIndex, (int) Math.min(regionSize, (long) regionOffset + dst.remaining()));
+         if (region == null || regionOffset >= region.limit()) {
+            // not mapped (yet), let the channel read the rest
+            int channelRead = channel.read(dst, position);
+            if (channelRead < 0)
+               return read > 0 ? read : -1;
+            return read + channelRead;
+         }
+
+         int length = Math.min(dst.remaining(), region.limit() - regionOffset);
+         ByteBuffer src = region.duplicate();
+         src.position(regionOffset).limit(regionOffset + length);
+         dst.put(src);
+         read += length;
+         position += length;
+      }
+      return read;
+   }
+
+   /**
+    * Discards all the mappings, the following reads map the file again.
+    */
+   public synchronized void invalidate() {
+      regions = NO_REGIONS;
+   }
+
+   private MappedByteBuffer region(int index, int requiredLimit) throws IOException {
+      MappedByteBuffer[] regions = this.regions;
+      if (index < regions.length) {
+         MappedByteBuffer region = regions[index];
+         if (region != null && (region.limit() >= requiredLimit || region.limit() == regionSize))
+            return region;
+      }
+      if (mappingFailed)
+         return null;
+      return map(index);
+   }
+
+   private synchronized MappedByteBuffer map(int index) throws IOException {
+      MappedByteBuffer[] regions = this.regions;
+      MappedByteBuffer region = index < regions.length ? regions[index] : null;
+      long regionStart = (long) index << regionShift;
+      long length = Math.min(regionSize, channel.size() - regionStart);
+      if (length <= 0 || mappingFailed)
+         return region;
+      if (region != null && (length == region.limit() || length < regionSize && length - region.limit() < remapThreshold))
+         return region;
+
+      try {
+         region = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, length);
+      } catch (IOException e) {
+         // FileChannel.map() wraps the OutOfMemoryError thrown when the address space is exhausted
+         mappingFailed = true;
+         this.regions = NO_REGIONS;
+         log.cannotMapFile(name, e);
+         return null;
+      }
+      MappedByteBuffer[] newRegions = Arrays.copyOf(regions, Math.max(regions.length, index + 1));
+      newRegions[index] = region;
+      this.regions = newRegions;
+      return region;
+   }
+}
@@ -4,17 +4,20 @@
 import org.infinispan.commons.equivalence.AnyEquivalence;
 import org.infinispan.commons.equivalence.Equivalence;
 import org.infinispan.commons.equivalence.EquivalentLinkedHashMap;
+import org.infinispan.commons.equivalence.IdentityEquivalence;
 import org.infinispan.commons.io.ByteBufferFactory;
 import org.infinispan.commons.util.CollectionFactory;
 import org.infinispan.configuration.cache.SingleFileStoreConfiguration;
 import org.infinispan.executors.ExecutorAllCompletionService;
+import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.persistence.PersistenceUtil;
 import org.infinispan.persistence.TaskContextImpl;
-import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.persistence.spi.BatchCacheWriter;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore;
 import org.infinispan.util.KeyValuePair;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.Log;
@@ -27,7 +30,12 @@
 import java.nio.channels.FileChannel;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -53,14 +61,20 @@
  * source.
  * <p/>
  * This class is fully thread safe, yet allows for concurrent load / store
- * of individual cache entries.
+ * of individual cache entries. Free blocks are kept in size classes (one per
+ * power of two) that allocating threads claim without a global lock, and
+ * adjacent free blocks are coalesced online, whenever the number of free
+ * blocks doubles.
+ * <p/>
+ * The keys are also grouped by segment the first time the entries of some segments are requested, e.g. by state
+ * transfer, so that the following requests only go through the keys of those segments.
  *
  * @author Karsten Blees
  * @author Mircea Markus
  * @since 6.0
  */
 @ConfiguredBy(SingleFileStoreConfiguration.class)
-public class SingleFileStore<K, V> implements AdvancedLoadWriteStore<K, V> {
+public class SingleFileStore<K, V> implements SegmentedAdvancedLoadWriteStore<K, V>, BatchCacheWriter<K, V> {
    private static final Log log = LogFactory.getLog(SingleFileStore.class);
    private static final boolean trace = log.isTraceEnabled();
 
@@ -69,15 +83,30 @@
    private static final int KEYLEN_POS = 4;
    private static final int KEY_POS = 4 + 4 + 4 + 4 + 8;
    private static final int SMALLEST_ENTRY_SIZE = 128;
+   // Free blocks of size [2^i, 2^(i+1)) are kept in size class i
+   private static final int SIZE_CLASSES = 32;
+   // Marks the file position while the end of the file is being truncated
+   private static final long TRUNCATING = -1;
+   private static final int MIN_COMPACTION_THRESHOLD = 64;
+   // Number of entries read by every task of process()
+   private static final int PROCESS_BATCH_SIZE = 1000;
 
    private SingleFileStoreConfiguration configuration;
 
    protected InitializationContext ctx;
 
    private FileChannel channel;
+   // Only used when the data file is memory mapped
+   private MappedFileReader mappedReader;
    private Map<K, FileEntry> entries;
-   private SortedSet<FileEntry> freeList;
-   private long filePos = MAGIC.length;
+   // The keys grouped by segment, created by the first request for the entries of some segments
+   private volatile SegmentIndex<K> segmentIndex;
+   private final Object segmentIndexLock = new Object();
+   private ConcurrentSkipListSet<FileEntry>[] freeLists;
+   private final AtomicInteger freeEntries = new AtomicInteger();
+   private final AtomicLong filePos = new AtomicLong(MAGIC.length);
+   private final AtomicBoolean compacting = new AtomicBoolean();
+   private volatile int compactionThreshold = MIN_COMPACTION_THRESHOLD;
    private File file;
    private float fragmentationFactor = .75f;
    // Prevent clear() from truncating the file after a write() allocated the entry but before it wrote the data
@@ -107,10 +136,12 @@ public void start() {
             }
          }
          channel = new RandomAccessFile(file, "rw").getChannel();
+         if (configuration.memoryMapped())
+            mappedReader = new MappedFileReader(channel, file.getPath());
 
          // initialize data structures
          entries = newEntryMap();
-         freeList = Collections.synchronizedSortedSet(new TreeSet<FileEntry>());
+         freeLists = newFreeLists();
 
          // check file format and read persistent state if enabled for the cache
          byte[] header = new byte[MAGIC.length];
@@ -129,17 +160,30 @@ public void start() {
    }
 
    private <Key> Map<Key, FileEntry> newEntryMap() {
-      // only use LinkedHashMap (LRU) for entries when cache store is bounded
-      final Map<Key, FileEntry> entryMap;
       Equivalence<Object> keyEq = ctx.getCache().getCacheConfiguration().dataContainer().keyEquivalence();
+      // only use LinkedHashMap (LRU) for entries when cache store is bounded
       if (configuration.maxEntries() > 0)
-         entryMap = CollectionFactory.makeLinkedMap(16, 0.75f,
+         return Collections.synchronizedMap(CollectionFactory.<Key, FileEntry>makeLinkedMap(16, 0.75f,
                EquivalentLinkedHashMap.IterationOrder.ACCESS_ORDER,
-               keyEq, AnyEquivalence.<FileEntry>getInstance());
-      else
-         entryMap = CollectionFactory.makeMap(keyEq, AnyEquivalence.<FileEntry>getInstance());
+               keyEq, AnyEquivalence.<FileEntry>getInstance()));
+
+      // FileEntry instances are compared by identity, so that a conditional remove never removes an entry that was
+      // written again in the same place of the file
+      return CollectionFactory.makeConcurrentMap(16, Runtime.getRuntime().availableProcessors() * 4,
+            keyEq, new IdentityEquivalence<FileEntry>());
+   }
+
+   @SuppressWarnings("unchecked")
+   private static ConcurrentSkipListSet<FileEntry>[] newFreeLists() {
+      ConcurrentSkipListSet<FileEntry>[] freeLists = new ConcurrentSkipListSet[SIZE_CLASSES];
+      for (int i = 0; i < SIZE_CLASSES; i++) {
+         freeLists[i] = new ConcurrentSkipListSet<FileEntry>();
+      }
+      return freeLists;
+   }
 
-      return Collections.synchronizedMap(entryMap);
+   private static int sizeClass(int size) {
+      return 31 - Integer.numberOfLeadingZeros(size);
    }
 
    @Override
@@ -151,9 +195,13 @@ public void stop() {
             // reset state
             channel.close();
             channel = null;
+            mappedReader = null;
             entries = null;
-            freeList = null;
-            filePos = MAGIC.length;
+            segmentIndex = null;
+            freeLists = null;
+            freeEntries.set(0);
+            filePos.set(MAGIC.length);
+            compactionThreshold = MIN_COMPACTION_THRESHOLD;
          }
       } catch (Exception e) {
          throw new PersistenceException(e);
@@ -165,13 +213,16 @@ public void stop() {
     */
    private void rebuildIndex() throws Exception {
       ByteBuffer buf = ByteBuffer.allocate(KEY_POS);
+      long pos = MAGIC.length;
       for (; ; ) {
          // read FileEntry fields from file (size, keyLen etc.)
          buf.clear().limit(KEY_POS);
-         channel.read(buf, filePos);
+         read(buf, pos);
          // return if end of file is reached
-         if (buf.remaining() > 0)
+         if (buf.remaining() > 0) {
+            filePos.set(pos);
             return;
+         }
          buf.flip();
 
          // initialize FileEntry from buffer
@@ -180,15 +231,15 @@ private void rebuildIndex() throws Exception {
          int dataLen = buf.getInt();
          int metadataLen = buf.getInt();
          long expiryTime = buf.getLong();
-         FileEntry fe = new FileEntry(filePos, entrySize, keyLen, dataLen, metadataLen, expiryTime);
+         FileEntry fe = new FileEntry(pos, entrySize, keyLen, dataLen, metadataLen, expiryTime);
 
          // sanity check
          if (fe.size < KEY_POS + fe.keyLen + fe.dataLen + fe.metadataLen) {
-            throw log.errorReadingFileStore(file.getPath(), filePos);
+            throw log.errorReadingFileStore(file.getPath(), pos);
          }
 
          // update file pointer
-         filePos += fe.size;
+         pos += fe.size;
 
          // check if the entry is used or free
          if (fe.keyLen > 0) {
@@ -197,7 +248,7 @@ private void rebuildIndex() throws Exception {
                buf = ByteBuffer.allocate(fe.keyLen);
 
             buf.clear().limit(fe.keyLen);
-            channel.read(buf, fe.offset + KEY_POS);
+            read(buf, fe.offset + KEY_POS);
 
             // deserialize key and add to entries map
             // Marshaller should allow for provided type return for safety
@@ -205,11 +256,18 @@ private void rebuildIndex() throws Exception {
             entries.put(key, fe);
          } else {
             // add to free list
-            freeList.add(fe);
+            addFreeEntry(fe);
          }
       }
    }
 
+   /**
+    * Reads from the data file, through its memory mapping if enabled.
+    */
+   private int read(ByteBuffer buf, long position) throws IOException {
+      return mappedReader != null ? mappedReader.read(buf, position) : channel.read(buf, position);
+   }
+
    /**
     * The base class implementation calls {@link #load(Object)} for this, we can do better because
     * we keep all keys in memory.
@@ -226,33 +284,38 @@ public boolean contains(Object key) {
     * @return allocated file position and length as FileEntry object
     */
    private FileEntry allocate(int len) {
-      synchronized (freeList) {
-         // lookup a free entry of sufficient size
-         SortedSet<FileEntry> candidates = freeList.tailSet(new FileEntry(0, len));
-         for (Iterator<FileEntry> it = candidates.iterator(); it.hasNext(); ) {
-            FileEntry free = it.next();
+      // lookup a free entry of sufficient size, starting with the size class of the requested length
+      // (which may also contain smaller entries), the first one found is the best fit
+      FileEntry probe = new FileEntry(0, len);
+      for (int i = sizeClass(len); i < SIZE_CLASSES; i++) {
+         for (FileEntry free : freeLists[i].tailSet(probe)) {
             // ignore entries that are still in use by concurrent readers
             if (free.isLocked())
                continue;
 
-            // There's no race condition risk between locking the entry on
-            // loading and checking whether it's locked (or store allocation),
-            // because for the entry to be lockable, it needs to be in the
-            // entries collection, in which case it's not in the free list.
-            // The only way an entry can be found in the free list is if it's
-            // been removed, and to remove it, lock on "entries" needs to be
-            // acquired, which is also a pre-requisite for loading data.
+            // A reader can only lock an entry it found in the entries map, and it checks again that the entry
+            // is still mapped after locking it. An entry is removed from the entries map before it is freed, so
+            // a reader that locks a free entry after this check will not read from it.
 
-            // found one, remove from freeList
-            it.remove();
-            return allocateExistingEntry(free, len);
+            // found one, try to claim it (fails if another thread allocated it in the meantime)
+            if (claimFreeEntry(free))
+               return allocateExistingEntry(free, len);
          }
+      }
 
-         // no appropriate free section available, append at end of file
-         FileEntry fe = new FileEntry(filePos, len);
-         filePos += len;
-         if (trace) log.tracef("New entry allocated at %d:%d, %d free entries, file size is %d", fe.offset, fe.size, freeList.size(), filePos);
-         return fe;
+      // no appropriate free section available, append at end of file
+      for (; ; ) {
+         long pos = filePos.get();
+         if (pos == TRUNCATING) {
+            // the end of the file is being truncated, the new file size will be visible soon
+            Thread.yield();
+            continue;
+         }
+         if (filePos.compareAndSet(pos, pos + len)) {
+            FileEntry fe = new FileEntry(pos, len);
+            if (trace) log.tracef("New entry allocated at %d:%d, %d free entries, file size is %d", fe.offset, fe.size, freeEntries.get(), pos + len);
+            return fe;
+         }
       }
    }
 
@@ -267,14 +330,14 @@ private FileEntry allocateExistingEntry(FileEntry free, int len) {
             FileEntry newEntry = new FileEntry(free.offset, len);
             if (trace) log.tracef("Split entry at %d:%d, allocated %d:%d, free %d:%d, %d free entries",
                   free.offset, free.size, newEntry.offset, newEntry.size, newFreeEntry.offset, newFreeEntry.size,
-                  freeList.size());
+                  freeEntries.get());
             return newEntry;
          } catch (IOException e) {
             throw new PersistenceException("Cannot add new free entry", e);
          }
       }
 
-      if (trace) log.tracef("Existing free entry allocated at %d:%d, %d free entries", free.offset, free.size, freeList.size());
+      if (trace) log.tracef("Existing free entry allocated at %d:%d, %d free entries", free.offset, free.size, freeEntries.get());
       return free;
    }
 
@@ -290,7 +353,33 @@ private void addNewFreeEntry(FileEntry fe) throws IOException {
       buf.putLong(-1);
       buf.flip();
       channel.write(buf, fe.offset);
-      freeList.add(fe);
+      addFreeEntry(fe);
+   }
+
+   /**
+    * Adds the entry to the free list of its size class.
+    *
+    * @return {@code false} if the entry was already free
+    */
+   private boolean addFreeEntry(FileEntry fe) {
+      if (freeLists[sizeClass(fe.size)].add(fe)) {
+         freeEntries.incrementAndGet();
+         return true;
+      }
+      return false;
+   }
+
+   /**
+    * Removes the entry from the free list of its size class.
+    *
+    * @return {@code false} if the entry was already claimed by another thread
+    */
+   private boolean claimFreeEntry(FileEntry fe) {
+      if (freeLists[sizeClass(fe.size)].remove(fe)) {
+         freeEntries.decrementAndGet();
+         return true;
+      }
+      return false;
    }
 
    /**
@@ -304,62 +393,85 @@ private void free(FileEntry fe) throws IOException {
          // No need to wait for readers to unlock here, the FileEntry instance is not modified,
          // and allocate() won't return an entry as long as it has a reader.
          channel.write(ByteBuffer.wrap(ZERO_INT), fe.offset + KEYLEN_POS);
-         if (!freeList.add(fe)) {
+         if (!addFreeEntry(fe)) {
             throw new IllegalStateException(String.format("Trying to free an entry that was not allocated: %s", fe));
          }
-         if (trace) log.tracef("Deleted entry at %d:%d, there are now %d free entries", fe.offset, fe.size, freeList.size());
+         if (trace) log.tracef("Deleted entry at %d:%d, there are now %d free entries", fe.offset, fe.size, freeEntries.get());
       }
    }
 
    @Override
    public void write(MarshalledEntry<? extends K, ? extends V> marshalledEntry) {
+      resizeLock.readLock().lock();
       try {
-         // serialize cache value
-         org.infinispan.commons.io.ByteBuffer key = marshalledEntry.getKeyBytes();
-         org.infinispan.commons.io.ByteBuffer data = marshalledEntry.getValueBytes();
-         org.infinispan.commons.io.ByteBuffer metadata = marshalledEntry.getMetadataBytes();
-
-         // allocate file entry and store in cache file
-         int metadataLength = metadata == null ? 0 : metadata.getLength();
-         int len = KEY_POS + key.getLength() + data.getLength() + metadataLength;
-         FileEntry newEntry;
-         FileEntry oldEntry = null;
-         resizeLock.readLock().lock();
-         try {
-            newEntry = allocate(len);
-            long expiryTime = metadata != null ? marshalledEntry.getMetadata().expiryTime() : -1;
-            newEntry = new FileEntry(newEntry, key.getLength(), data.getLength(), metadataLength, expiryTime);
-
-            ByteBuffer buf = ByteBuffer.allocate(len);
-            buf.putInt(newEntry.size);
-            buf.putInt(newEntry.keyLen);
-            buf.putInt(newEntry.dataLen);
-            buf.putInt(newEntry.metadataLen);
-            buf.putLong(newEntry.expiryTime);
-            buf.put(key.getBuf(), key.getOffset(), key.getLength());
-            buf.put(data.getBuf(), data.getOffset(), data.getLength());
-            if (metadata != null)
-               buf.put(metadata.getBuf(), metadata.getOffset(), metadata.getLength());
-            buf.flip();
-            channel.write(buf, newEntry.offset);
-            if (trace) log.tracef("Wrote entry %s:%d at %d:%d", marshalledEntry.getKey(), len, newEntry.offset, newEntry.size);
-
-            // add the new entry to in-memory index
-            oldEntry = entries.put(marshalledEntry.getKey(), newEntry);
-
-            // if we added an entry, check if we need to evict something
-            if (oldEntry == null)
-               oldEntry = evict();
-         } finally {
-            // in case we replaced or evicted an entry, add to freeList
-            try {
-               free(oldEntry);
-            } finally {
-               resizeLock.readLock().unlock();
-            }
+         writeEntry(marshalledEntry);
+         compactIfFragmented();
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      } finally {
+         resizeLock.readLock().unlock();
+      }
+   }
+
+   @Override
+   public void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> marshalledEntries) {
+      resizeLock.readLock().lock();
+      try {
+         for (MarshalledEntry<? extends K, ? extends V> marshalledEntry : marshalledEntries) {
+            writeEntry(marshalledEntry);
          }
+         compactIfFragmented();
       } catch (Exception e) {
          throw new PersistenceException(e);
+      } finally {
+         resizeLock.readLock().unlock();
+      }
+   }
+
+   /**
+    * Note: Caller must hold the {@code resizeLock} in shared mode.
+    */
+   private void writeEntry(MarshalledEntry<? extends K, ? extends V> marshalledEntry) throws IOException {
+      // serialize cache value
+      org.infinispan.commons.io.ByteBuffer key = marshalledEntry.getKeyBytes();
+      org.infinispan.commons.io.ByteBuffer data = marshalledEntry.getValueBytes();
+      org.infinispan.commons.io.ByteBuffer metadata = marshalledEntry.getMetadataBytes();
+
+      // allocate file entry and store in cache file
+      int metadataLength = metadata == null ? 0 : metadata.getLength();
+      int len = KEY_POS + key.getLength() + data.getLength() + metadataLength;
+      FileEntry newEntry;
+      FileEntry oldEntry = null;
+      try {
+         newEntry = allocate(len);
+         long expiryTime = metadata != null ? marshalledEntry.getMetadata().expiryTime() : -1;
+         newEntry = new FileEntry(newEntry, key.getLength(), data.getLength(), metadataLength, expiryTime);
+
+         ByteBuffer buf = ByteBuffer.allocate(len);
+         buf.putInt(newEntry.size);
+         buf.putInt(newEntry.keyLen);
+         buf.putInt(newEntry.dataLen);
+         buf.putInt(newEntry.metadataLen);
+         buf.putLong(newEntry.expiryTime);
+         buf.put(key.getBuf(), key.getOffset(), key.getLength());
+         buf.put(data.getBuf(), data.getOffset(), data.getLength());
+         if (metadata != null)
+            buf.put(metadata.getBuf(), metadata.getOffset(), metadata.getLength());
+         buf.flip();
+         channel.write(buf, newEntry.offset);
+         if (trace) log.tracef("Wrote entry %s:%d at %d:%d", marshalledEntry.getKey(), len, newEntry.offset, newEntry.size);
+
+         // add the new entry to in-memory index
+         oldEntry = entries.put(marshalledEntry.getKey(), newEntry);
+
+         // if we added an entry, check if we need to evict something
+         if (oldEntry == null) {
+            addToSegmentIndex(marshalledEntry.getKey());
+            oldEntry = evict();
+         }
+      } finally {
+         // in case we replaced or evicted an entry, add to freeList
+         free(oldEntry);
       }
    }
 
@@ -372,9 +484,12 @@ private FileEntry evict() {
       if (configuration.maxEntries() > 0) {
          synchronized (entries) {
             if (entries.size() > configuration.maxEntries()) {
-               Iterator<FileEntry> it = entries.values().iterator();
-               FileEntry fe = it.next();
+               Iterator<Map.Entry<K, FileEntry>> it = entries.entrySet().iterator();
+               Map.Entry<K, FileEntry> eldest = it.next();
+               K key = eldest.getKey();
+               FileEntry fe = eldest.getValue();
                it.remove();
+               removeFromSegmentIndex(key);
                return fe;
             }
          }
@@ -387,23 +502,30 @@ public void clear() {
       resizeLock.writeLock().lock();
       try {
          synchronized (entries) {
-            synchronized (freeList) {
-               // wait until all readers are done reading file entries
-               for (FileEntry fe : entries.values())
-                  fe.waitUnlocked();
+            // wait until all readers are done reading file entries
+            for (FileEntry fe : entries.values())
+               fe.waitUnlocked();
+            for (ConcurrentSkipListSet<FileEntry> freeList : freeLists) {
                for (FileEntry fe : freeList)
                   fe.waitUnlocked();
+            }
 
-               // clear in-memory state
-               entries.clear();
+            // clear in-memory state
+            entries.clear();
+            segmentIndex = null;
+            for (ConcurrentSkipListSet<FileEntry> freeList : freeLists) {
                freeList.clear();
-
-               // reset file
-               if (trace) log.tracef("Truncating file, current size is %d", filePos);
-               channel.truncate(0);
-               channel.write(ByteBuffer.wrap(MAGIC), 0);
-               filePos = MAGIC.length;
             }
+            freeEntries.set(0);
+            compactionThreshold = MIN_COMPACTION_THRESHOLD;
+
+            // reset file
+            if (trace) log.tracef("Truncating file, current size is %d", filePos.get());
+            channel.truncate(0);
+            if (mappedReader != null)
+               mappedReader.invalidate();
+            channel.write(ByteBuffer.wrap(MAGIC), 0);
+            filePos.set(MAGIC.length);
          }
       } catch (Exception e) {
          throw new PersistenceException(e);
@@ -417,7 +539,10 @@ public boolean delete(Object key) {
       resizeLock.readLock().lock();
       try {
          FileEntry fe = entries.remove(key);
+         if (fe != null)
+            removeFromSegmentIndex(key);
          free(fe);
+         compactIfFragmented();
          return fe != null;
       } catch (Exception e) {
          throw new PersistenceException(e);
@@ -426,40 +551,56 @@ public boolean delete(Object key) {
       }
    }
 
+   @Override
+   public void deleteBatch(Iterable<Object> keys) {
+      resizeLock.readLock().lock();
+      try {
+         for (Object key : keys) {
+            FileEntry fe = entries.remove(key);
+            if (fe != null)
+               removeFromSegmentIndex(key);
+            free(fe);
+         }
+         compactIfFragmented();
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      } finally {
+         resizeLock.readLock().unlock();
+      }
+   }
+
    @Override
    public MarshalledEntry<K, V> load(Object key) {
       return _load(key, true, true);
    }
 
    private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadMetadata) {
-      final FileEntry fe;
-      final boolean expired;
+      FileEntry fe;
       resizeLock.readLock().lock();
       try {
-         synchronized (entries) {
+         for (; ; ) {
             // lookup FileEntry of the key
             fe = entries.get(key);
             if (fe == null)
                return null;
 
-            expired = fe.isExpired(timeService.wallClockTime());
-            if (expired) {
-               // if expired, remove the entry (within entries monitor)
-               entries.remove(key);
-            } else {
-               // lock entry for reading before releasing entries monitor
-               fe.lock();
+            if (fe.isExpired(timeService.wallClockTime())) {
+               // if expired, remove the entry and free its space, unless it was already replaced
+               if (removeEntry(key, fe)) {
+                  try {
+                     free(fe);
+                  } catch (IOException e) {
+                     throw new PersistenceException(e);
+                  }
+               }
+               return null;
             }
-         }
 
-         if (expired) {
-            // if expired, free the file entry (after releasing entries monitor)
-            try {
-               free(fe);
-            } catch (IOException e) {
-               throw new PersistenceException(e);
-            }
-            return null;
+            // lock entry for reading, then check that it wasn't replaced (and possibly freed) in the meantime
+            fe.lock();
+            if (entries.get(key) == fe)
+               break;
+            fe.unlock();
          }
       } finally {
          resizeLock.readLock().unlock();
@@ -470,7 +611,7 @@ private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadM
          // load serialized data from disk
          data = new byte[fe.keyLen + (loadValue || loadMetadata ? fe.dataLen : 0) + (loadMetadata ? fe.metadataLen : 0)];
          // The entry lock will prevent clear() from truncating the file at this point
-         channel.read(ByteBuffer.wrap(data), fe.offset + KEY_POS);
+         read(ByteBuffer.wrap(data), fe.offset + KEY_POS);
       } catch (Exception e) {
          throw new PersistenceException(e);
       } finally {
@@ -496,28 +637,48 @@ private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadM
    @Override
    public void process(KeyFilter<? super K> filter, final CacheLoaderTask<K, V> task, Executor executor, final boolean fetchValue, final boolean fetchMetadata) {
       filter = PersistenceUtil.notNull(filter);
-      Set<Object> keysToLoad = new HashSet<Object>(entries.size());
+      List<KeyValuePair<Object, FileEntry>> entriesToLoad = new ArrayList<KeyValuePair<Object, FileEntry>>(entries.size());
       synchronized (entries) {
-         for (K k : entries.keySet()) {
-            if (filter.accept(k))
-               keysToLoad.add(k);
+         for (Map.Entry<K, FileEntry> e : entries.entrySet()) {
+            if (filter.accept(e.getKey()))
+               entriesToLoad.add(new KeyValuePair<Object, FileEntry>(e.getKey(), e.getValue()));
          }
       }
+      processEntries(entriesToLoad, task, executor, fetchValue, fetchMetadata);
+   }
+
+   private void processEntries(List<KeyValuePair<Object, FileEntry>> entriesToLoad, final CacheLoaderTask<K, V> task,
+                               Executor executor, final boolean fetchValue, final boolean fetchMetadata) {
+      // Every task reads a contiguous region of the file, so the reads stay sequential even though the regions are
+      // read (and the entries deserialized) in parallel
+      Collections.sort(entriesToLoad, new Comparator<KeyValuePair<Object, FileEntry>>() {
+         @Override
+         public int compare(KeyValuePair<Object, FileEntry> o1, KeyValuePair<Object, FileEntry> o2) {
+            long diff = o1.getValue().offset - o2.getValue().offset;
+            return (diff == 0) ? 0 : ((diff > 0) ? 1 : -1);
+         }
+      });
 
       ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(executor);
 
       final TaskContextImpl taskContext = new TaskContextImpl();
-      for (final Object key : keysToLoad) {
+      for (int i = 0; i < entriesToLoad.size(); i += PROCESS_BATCH_SIZE) {
          if (taskContext.isStopped())
             break;
 
+         final List<KeyValuePair<Object, FileEntry>> batch =
+               entriesToLoad.subList(i, Math.min(i + PROCESS_BATCH_SIZE, entriesToLoad.size()));
          eacs.submit(new Callable<Void>() {
             @Override
             public Void call() throws Exception {
                try {
-                  final MarshalledEntry marshalledEntry = _load(key, fetchValue, fetchMetadata);
-                  if (marshalledEntry != null) {
-                     task.processEntry(marshalledEntry, taskContext);
+                  for (KeyValuePair<Object, FileEntry> entry : batch) {
+                     if (taskContext.isStopped())
+                        break;
+                     final MarshalledEntry marshalledEntry = _load(entry.getKey(), fetchValue, fetchMetadata);
+                     if (marshalledEntry != null) {
+                        task.processEntry(marshalledEntry, taskContext);
+                     }
                   }
                   return null;
                } catch (Exception e) {
@@ -533,13 +694,164 @@ public Void call() throws Exception {
       }
    }
 
+   /**
+    * Only goes through the keys of the requested segments, unless the consistent hash doesn't map keys to segments
+    * like the one the keys are grouped with.
+    */
+   @Override
+   public void process(ConsistentHash ch, Set<Integer> segments, KeyFilter<? super K> filter, CacheLoaderTask<K, V> task,
+                       Executor executor, boolean fetchValue, boolean fetchMetadata) {
+      SegmentIndex<K> index = getSegmentIndex(ch);
+      if (index == null) {
+         process(PersistenceUtil.segmentFilter(ch, segments, filter), task, executor, fetchValue, fetchMetadata);
+         return;
+      }
+      filter = PersistenceUtil.notNull(filter);
+      List<KeyValuePair<Object, FileEntry>> entriesToLoad = new ArrayList<KeyValuePair<Object, FileEntry>>();
+      for (int segment : segments) {
+         for (K key : index.getKeys(segment)) {
+            FileEntry fe = entries.get(key);
+            if (fe == null) {
+               // removed while the index was created
+               removeFromSegmentIndex(key);
+            } else if (filter.accept(key)) {
+               entriesToLoad.add(new KeyValuePair<Object, FileEntry>(key, fe));
+            }
+         }
+      }
+      processEntries(entriesToLoad, task, executor, fetchValue, fetchMetadata);
+   }
+
+   @Override
+   public void clear(ConsistentHash ch, Set<Integer> segments) {
+      List<Object> keysToRemove = new ArrayList<Object>();
+      SegmentIndex<K> index = getSegmentIndex(ch);
+      if (index == null) {
+         synchronized (entries) {
+            for (K k : entries.keySet()) {
+               if (segments.contains(ch.getSegment(k)))
+                  keysToRemove.add(k);
+            }
+         }
+      } else {
+         for (int segment : segments) {
+            for (K key : index.getKeys(segment)) {
+               if (entries.containsKey(key)) {
+                  keysToRemove.add(key);
+               } else {
+                  // removed while the index was created
+                  removeFromSegmentIndex(key);
+               }
+            }
+         }
+      }
+      deleteBatch(keysToRemove);
+   }
+
+   /**
+    * @return the keys grouped by the segments of the consistent hash, or {@code null} if it doesn't map the keys to
+    * segments only by their hash
+    */
+   private SegmentIndex<K> getSegmentIndex(ConsistentHash ch) {
+      SegmentIndex<K> index = segmentIndex;
+      if (index != null && PersistenceUtil.sameSegments(index.ch, ch))
+         return index;
+      if (!PersistenceUtil.hasStableSegments(ch))
+         return null;
+
+      synchronized (segmentIndexLock) {
+         index = segmentIndex;
+         if (index != null && PersistenceUtil.sameSegments(index.ch, ch))
+            return index;
+         // publish the index before going through the keys, so that the keys written meanwhile are added to it
+         index = new SegmentIndex<K>(ch, ctx.getCache().getCacheConfiguration().dataContainer().<K>keyEquivalence());
+         segmentIndex = index;
+         synchronized (entries) {
+            for (K key : entries.keySet())
+               index.add(key);
+         }
+         return index;
+      }
+   }
+
+   private void addToSegmentIndex(K key) {
+      SegmentIndex<K> index = segmentIndex;
+      if (index != null)
+         index.add(key);
+   }
+
+   @SuppressWarnings("unchecked")
+   private void removeFromSegmentIndex(Object key) {
+      SegmentIndex<K> index = segmentIndex;
+      if (index != null) {
+         index.remove(key);
+         // the key may have been written again before it was removed from the index
+         if (entries.containsKey(key))
+            index.add((K) key);
+      }
+   }
+
+   /**
+    * Removes an entry from the in-memory index, unless it was replaced by another entry in the meantime.
+    */
+   private boolean removeEntry(Object key, FileEntry fe) {
+      if (entries instanceof ConcurrentMap) {
+         if (!((ConcurrentMap<Object, FileEntry>) entries).remove(key, fe))
+            return false;
+         removeFromSegmentIndex(key);
+         return true;
+      }
+
+      synchronized (entries) {
+         if (entries.get(key) != fe)
+            return false;
+         entries.remove(key);
+         removeFromSegmentIndex(key);
+         return true;
+      }
+   }
+
+   /**
+    * Compacts the free entries once their number doubled since the last compaction, so that the cost of compaction
+    * is amortized over the writes and deletes that fragmented the file.
+    * <p/>
+    * Note: Caller must hold the {@code resizeLock} in shared mode.
+    */
+   private void compactIfFragmented() {
+      if (freeEntries.get() >= compactionThreshold)
+         compactFreeEntries();
+   }
+
+   /**
+    * Compacts the free entries while other threads keep reading and writing, unless another thread is already
+    * compacting them.
+    * <p/>
+    * Note: Caller must hold the {@code resizeLock} in shared mode.
+    */
+   private void compactFreeEntries() {
+      if (compacting.compareAndSet(false, true)) {
+         try {
+            processFreeEntries();
+            compactionThreshold = Math.max(MIN_COMPACTION_THRESHOLD, 2 * freeEntries.get());
+         } finally {
+            compacting.set(false);
+         }
+      }
+   }
+
    /**
     * Manipulates the free entries for optimizing disk space.
+    * <p/>
+    * Concurrent allocations are not blocked: every free entry is claimed from its size class before being
+    * truncated or merged, and it is left alone if an allocating thread claimed it first.
     */
    private void processFreeEntries() {
       // Get a reverse sorted list of free entries based on file offset
       // This helps to work backwards with free entries at end of the file
-      List<FileEntry> l  = new ArrayList<FileEntry>(freeList);
+      List<FileEntry> l = new ArrayList<FileEntry>(freeEntries.get());
+      for (ConcurrentSkipListSet<FileEntry> freeList : freeLists) {
+         l.addAll(freeList);
+      }
       Collections.sort(l, new FileEntryByOffsetComparator());
 
       truncateFile(l);
@@ -552,37 +864,49 @@ private void processFreeEntries() {
    private void truncateFile(List<FileEntry> entries) {
       long startTime = 0;
       if (trace) startTime = timeService.wallClockTime();
-        
-      int reclaimedSpace = 0;
+
+      long fileSize = filePos.get();
+      if (fileSize == TRUNCATING)
+         return;
+
+      // Till we have free entries at the end of the file,
+      // we can remove them and contract the file to release disk
+      // space.
+      long truncateOffset = fileSize;
       int removedEntries = 0;
-      long truncateOffset = -1;
-      for (Iterator<FileEntry> it = entries.iterator() ; it.hasNext(); ) {
-         FileEntry fe = it.next();
-         // Till we have free entries at the end of the file,
-         // we can remove them and contract the file to release disk
-         // space.
-         if (!fe.isLocked() && ((fe.offset + fe.size) == filePos)) {
-            truncateOffset = fe.offset;
-            filePos = fe.offset;
-            freeList.remove(fe);
-            it.remove();
-            reclaimedSpace += fe.size;
-            removedEntries++;
-         } else {
+      for (FileEntry fe : entries) {
+         if (fe.isLocked() || (fe.offset + fe.size) != truncateOffset || !claimFreeEntry(fe))
             break;
+         truncateOffset = fe.offset;
+         removedEntries++;
+      }
+      if (removedEntries == 0)
+         return;
+
+      // Block appends while truncating, an entry appended after the file was truncated must not be lost
+      if (!filePos.compareAndSet(fileSize, TRUNCATING)) {
+         // an entry was appended after the claimed entries, they are not at the end of the file any more
+         for (FileEntry fe : entries.subList(0, removedEntries)) {
+            addFreeEntry(fe);
          }
+         return;
       }
-
-      if (truncateOffset > 0) {
-         try {
-            channel.truncate(truncateOffset);
-         } catch (IOException e) {
-            throw new PersistenceException("Error while truncating file", e);
+      try {
+         channel.truncate(truncateOffset);
+         if (mappedReader != null)
+            mappedReader.invalidate();
+      } catch (IOException e) {
+         filePos.set(fileSize);
+         for (FileEntry fe : entries.subList(0, removedEntries)) {
+            addFreeEntry(fe);
          }
+         throw new PersistenceException("Error while truncating file", e);
       }
+      filePos.set(truncateOffset);
+      entries.subList(0, removedEntries).clear();
 
       if (trace) {
-         log.tracef("Removed entries: " + removedEntries + ", Reclaimed Space: " + reclaimedSpace);
+         log.tracef("Removed entries: " + removedEntries + ", Reclaimed Space: " + (fileSize - truncateOffset));
          log.tracef("Time taken for truncateFile: " + (timeService.wallClockTime() - startTime) + " (ms)");
       }
    }
@@ -593,53 +917,55 @@ private void truncateFile(List<FileEntry> entries) {
    private void mergeFreeEntries(List<FileEntry> entries) {
       long startTime = 0;
       if (trace) startTime = timeService.wallClockTime();
+      // claimed adjacent entries, in reverse order of their offset
+      List<FileEntry> run = new ArrayList<FileEntry>();
       FileEntry lastEntry = null;
-      FileEntry newEntry = null;
-      int mergeCounter = 0;
-      for (Iterator<FileEntry> it = entries.iterator() ; it.hasNext(); ) {
-         FileEntry fe = it.next();
+      for (FileEntry fe : entries) {
          if (fe.isLocked()) {
+            mergeRun(run);
+            lastEntry = null;
             continue;
          }
 
          // Merge any holes created (consecutive free entries) in the file
          if ((lastEntry != null) && (lastEntry.offset == (fe.offset + fe.size))) {
-            if (newEntry == null) {
-               newEntry = new FileEntry(fe.offset, fe.size + lastEntry.size);
-               freeList.remove(lastEntry);
-               mergeCounter++;
-            } else {
-               newEntry = new FileEntry(fe.offset, fe.size + newEntry.size);
-            }
-            freeList.remove(fe);
-            mergeCounter++;
-         } else {
-            if (newEntry != null) {
-               try {
-                  addNewFreeEntry(newEntry);
-                  if (trace) log.tracef("Merged %d entries at %d:%d, %d free entries", mergeCounter, newEntry.offset, newEntry.size, freeList.size());
-               } catch (IOException e) {
-                  throw new PersistenceException("Could not add new merged entry", e);
-               }
-               newEntry = null;
-               mergeCounter = 0;
+            if (run.isEmpty() && claimFreeEntry(lastEntry))
+               run.add(lastEntry);
+            if (!run.isEmpty() && claimFreeEntry(fe)) {
+               run.add(fe);
+               lastEntry = fe;
+               continue;
             }
          }
+         mergeRun(run);
          lastEntry = fe;
       }
-      
-      if (newEntry != null) {
+      mergeRun(run);
+
+      if (trace) log.tracef("Total time taken for mergeFreeEntries: " + (timeService.wallClockTime() - startTime) + " (ms)");
+   }
+
+   /**
+    * Replaces the claimed adjacent free entries with a single free entry.
+    */
+   private void mergeRun(List<FileEntry> run) {
+      if (run.size() == 1) {
+         // the adjacent entry was allocated before it could be claimed
+         addFreeEntry(run.get(0));
+      } else if (run.size() > 1) {
+         FileEntry first = run.get(run.size() - 1);
+         FileEntry last = run.get(0);
+         FileEntry newEntry = new FileEntry(first.offset, (int) (last.offset + last.size - first.offset));
          try {
             addNewFreeEntry(newEntry);
-            if (trace) log.tracef("Merged %d entries at %d:%d, %d free entries", mergeCounter, newEntry.offset, newEntry.size, freeList.size());
+            if (trace) log.tracef("Merged %d entries at %d:%d, %d free entries", run.size(), newEntry.offset, newEntry.size, freeEntries.get());
          } catch (IOException e) {
             throw new PersistenceException("Could not add new merged entry", e);
          }
       }
-
-      if (trace) log.tracef("Total time taken for mergeFreeEntries: " + (timeService.wallClockTime() - startTime) + " (ms)");
+      run.clear();
    }
-   
+
    @Override
    public void purge(Executor threadPool, final PurgeListener task) {
 
@@ -649,11 +975,9 @@ public void run() {
             long now = timeService.wallClockTime();
             List<KeyValuePair<Object, FileEntry>> entriesToPurge = new ArrayList<KeyValuePair<Object, FileEntry>>();
             synchronized (entries) {
-               for (Iterator<Map.Entry<K, FileEntry>> it = entries.entrySet().iterator(); it.hasNext(); ) {
-                  Map.Entry<K, FileEntry> next = it.next();
+               for (Map.Entry<K, FileEntry> next : entries.entrySet()) {
                   FileEntry fe = next.getValue();
                   if (fe.isExpired(now)) {
-                     it.remove();
                      entriesToPurge.add(new KeyValuePair<Object, FileEntry>(next.getKey(), fe));
                   }
                }
@@ -661,11 +985,10 @@ public void run() {
 
             resizeLock.readLock().lock();
             try {
-               for (Iterator<KeyValuePair<Object, FileEntry>> it = entriesToPurge.iterator(); it.hasNext(); ) {
-                  KeyValuePair<Object, FileEntry> next = it.next();
+               for (KeyValuePair<Object, FileEntry> next : entriesToPurge) {
                   FileEntry fe = next.getValue();
-                  if (fe.isExpired(now)) {
-                     it.remove();
+                  // skip the entries that were replaced after we found them
+                  if (removeEntry(next.getKey(), fe)) {
                      try {
                         free(fe);
                      } catch (Exception e) {
@@ -674,11 +997,9 @@ public void run() {
                      if (task != null) task.entryPurged(next.getKey());
                   }
                }
-               
+
                // Disk space optimizations
-               synchronized (freeList) {
-            	  processFreeEntries();
-               }
+               compactFreeEntries();
             } finally {
                resizeLock.readLock().unlock();
             }
@@ -695,18 +1016,59 @@ Map<K, FileEntry> getEntries() {
       return entries;
    }
 
+   /**
+    * @return a snapshot of the free entries of all size classes
+    */
    SortedSet<FileEntry> getFreeList() {
+      SortedSet<FileEntry> freeList = new TreeSet<FileEntry>();
+      for (ConcurrentSkipListSet<FileEntry> sizeClass : freeLists) {
+         freeList.addAll(sizeClass);
+      }
       return freeList;
    }
 
    long getFileSize() {
-      return filePos;
+      long fileSize;
+      while ((fileSize = filePos.get()) == TRUNCATING) {
+         Thread.yield();
+      }
+      return fileSize;
    }
 
    public SingleFileStoreConfiguration getConfiguration() {
       return configuration;
    }
 
+   /**
+    * The keys of the store grouped by the segments of a consistent hash. The keys removed while it was created may be
+    * added back, they are removed again the next time their segment is processed or cleared.
+    */
+   private static final class SegmentIndex<K> {
+      private final ConsistentHash ch;
+      private final ConcurrentMap<K, Boolean>[] keysBySegment;
+
+      @SuppressWarnings("unchecked")
+      SegmentIndex(ConsistentHash ch, Equivalence<K> keyEquivalence) {
+         this.ch = ch;
+         keysBySegment = new ConcurrentMap[ch.getNumSegments()];
+         for (int i = 0; i < keysBySegment.length; i++) {
+            keysBySegment[i] = CollectionFactory.makeConcurrentMap(keyEquivalence, AnyEquivalence.<Boolean>getInstance());
+         }
+      }
+
+      void add(K key) {
+         keysBySegment[ch.getSegment(key)].put(key, Boolean.TRUE);
+      }
+
+      void remove(Object key) {
+         keysBySegment[ch.getSegment(key)].remove(key);
+      }
+
+      Set<K> getKeys(int segment) {
+         return keysBySegment[segment].keySet();
+      }
+   }
+
    /**
     * Helper class to represent an entry in the cache file.
     * <p/>
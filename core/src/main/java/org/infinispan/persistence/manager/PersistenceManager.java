@@ -6,6 +6,7 @@
 
 import org.infinispan.configuration.cache.StoreConfiguration;
 import org.infinispan.context.InvocationContext;
+import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.lifecycle.Lifecycle;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
@@ -54,10 +55,41 @@ public interface PersistenceManager extends Lifecycle {
 
    void processOnAllStores(Executor executor, KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata, AccessMode mode);
 
+   /**
+    * Iterates over the entries of the stores allowed by the access mode whose keys are mapped by the consistent hash
+    * to one of the given segments. Stores implementing {@link org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore}
+    * don't read the entries of the other segments.
+    */
+   void processOnAllStores(Executor executor, ConsistentHash ch, Set<Integer> segments, KeyFilter keyFilter,
+                           AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata, AccessMode mode);
+
+   void processOnAllStores(ConsistentHash ch, Set<Integer> segments, KeyFilter keyFilter,
+                           AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata, AccessMode mode);
+
+   /**
+    * Removes the entries whose keys are mapped by the consistent hash to one of the given segments from the stores
+    * allowed by the access mode that implement {@link org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore}.
+    *
+    * @return {@code false} if some of these stores don't implement it, and still contain the entries of the segments
+    */
+   boolean clearSegmentsFromAllStores(ConsistentHash ch, Set<Integer> segments, AccessMode mode);
+
    MarshalledEntry loadFromAllStores(Object key, InvocationContext context);
 
    void writeToAllStores(MarshalledEntry marshalledEntry, AccessMode modes);
 
+   /**
+    * Writes all the entries, which must have distinct keys, to the stores allowed by the access mode. Stores
+    * implementing {@link org.infinispan.persistence.spi.BatchCacheWriter} receive them in a single batch.
+    */
+   void writeBatchToAllStores(Iterable<? extends MarshalledEntry> marshalledEntries, AccessMode mode);
+
+   /**
+    * Removes all the keys from the stores allowed by the access mode. Stores implementing {@link
+    * org.infinispan.persistence.spi.BatchCacheWriter} receive them in a single batch.
+    */
+   void deleteBatchFromAllStores(Iterable<?> keys, AccessMode mode);
+
    /**
     * Returns the store one configured with fetch persistent state, or null if none exist.
     */
@@ -10,10 +10,13 @@
 import org.infinispan.configuration.cache.CustomStoreConfiguration;
 import org.infinispan.configuration.cache.Index;
 import org.infinispan.configuration.cache.StoreConfiguration;
+import org.infinispan.container.DataContainer;
 import org.infinispan.container.entries.ImmortalCacheEntry;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.eviction.EvictionType;
 import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
@@ -23,12 +26,18 @@
 import org.infinispan.interceptors.CacheWriterInterceptor;
 import org.infinispan.interceptors.InterceptorChain;
 import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.MeasurementType;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryFactory;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.metadata.impl.InternalMetadataImpl;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
 import org.infinispan.persistence.InitializationContextImpl;
+import org.infinispan.persistence.PersistenceUtil;
 import org.infinispan.persistence.async.AdvancedAsyncCacheLoader;
 import org.infinispan.persistence.async.AdvancedAsyncCacheWriter;
 import org.infinispan.persistence.async.AsyncCacheLoader;
@@ -40,12 +49,12 @@
 import org.infinispan.persistence.spi.CacheWriter;
 import org.infinispan.persistence.spi.LocalOnlyCacheLoader;
 import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore;
 import org.infinispan.persistence.support.AdvancedSingletonCacheWriter;
 import org.infinispan.persistence.support.DelegatingCacheLoader;
 import org.infinispan.persistence.support.DelegatingCacheWriter;
 import org.infinispan.persistence.support.SingletonCacheWriter;
 import org.infinispan.util.TimeService;
-import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -57,6 +66,7 @@
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -67,6 +77,7 @@
 import static org.infinispan.factories.KnownComponentNames.PERSISTENCE_EXECUTOR;
 import static org.infinispan.persistence.manager.PersistenceManager.AccessMode.BOTH;
 
+@MBean(objectName = "PersistenceManager", description = "Component that manages the cache loaders and writers of a cache.")
 public class PersistenceManagerImpl implements PersistenceManager {
 
    private static final Log log = LogFactory.getLog(PersistenceManagerImpl.class);
@@ -92,6 +103,8 @@ public class PersistenceManagerImpl implements PersistenceManager {
    private ByteBufferFactory byteBufferFactory;
    private MarshalledEntryFactory marshalledEntryFactory;
    private volatile boolean clearOnStop;
+   private final AtomicLong preloadedEntries = new AtomicLong();
+   private volatile boolean preloading;
 
    @Inject
    public void inject(AdvancedCache<Object, Object> cache, @ComponentName(CACHE_MARSHALLER) StreamingMarshaller marshaller,
@@ -215,25 +228,72 @@ public void preload() {
       if (preloadCl == null)
          return;
 
-      long start = timeService.time();
-
+      final long start = timeService.time();
 
       final int maxEntries = getMaxEntries();
+      final int preloadRate = configuration.persistence().preloadRate();
       final AtomicInteger loadedEntries = new AtomicInteger(0);
-      final AdvancedCache<Object, Object> flaggedCache = getCacheForStateInsertion();
-      preloadCl.process(null, new AdvancedCacheLoader.CacheLoaderTask() {
-         @Override
-         public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext taskContext) throws InterruptedException {
-            if (loadedEntries.getAndIncrement() >= maxEntries) {
-               taskContext.stop();
-               return;
+      // the store deserializes the entries on the persistence executor's threads, and the entries are inserted
+      // straight into the data container unless an interceptor needs to see them
+      final DataContainer<Object, Object> dataContainer = canPreloadIntoDataContainer() ?
+            cache.getComponentRegistry().getComponent(DataContainer.class) : null;
+      final AdvancedCache<Object, Object> flaggedCache = dataContainer == null ? getCacheForStateInsertion() : null;
+      preloadedEntries.set(0);
+      preloading = true;
+      try {
+         preloadCl.process(null, new AdvancedCacheLoader.CacheLoaderTask() {
+            @Override
+            public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext taskContext) throws InterruptedException {
+               int count = loadedEntries.getAndIncrement();
+               if (count >= maxEntries) {
+                  taskContext.stop();
+                  return;
+               }
+               if (preloadRate > 0) {
+                  throttlePreload(start, count, preloadRate);
+               }
+               Metadata metadata = me.getMetadata() != null ? ((InternalMetadataImpl)me.getMetadata()).actual() : null; //the downcast will go away with ISPN-3460
+               if (dataContainer != null) {
+                  dataContainer.put(me.getKey(), me.getValue(), metadata);
+               } else {
+                  preloadKey(flaggedCache, me.getKey(), me.getValue(), metadata);
+               }
+               preloadedEntries.incrementAndGet();
             }
-            Metadata metadata = me.getMetadata() != null ? ((InternalMetadataImpl)me.getMetadata()).actual() : null; //the downcast will go away with ISPN-3460
-            preloadKey(flaggedCache, me.getKey(), me.getValue(), metadata);
-         }
-      }, new WithinThreadExecutor(), true, true);
+         }, persistenceExecutor, true, true);
+      } finally {
+         preloading = false;
+      }
+
+      log.debugf("Preloaded %s keys in %s", preloadedEntries, Util.prettyPrintTime(timeService.timeDuration(start, MILLISECONDS)));
+   }
 
-      log.debugf("Preloaded %s keys in %s", loadedEntries, Util.prettyPrintTime(timeService.timeDuration(start, MILLISECONDS)));
+   /**
+    * Delays the preload of the {@code count}-th entry until the time at which it is due if the entries are preloaded
+    * at {@code rate} entries per second.
+    */
+   private void throttlePreload(long start, int count, int rate) throws InterruptedException {
+      long delay = start + TimeUnit.SECONDS.toNanos(count) / rate - timeService.time();
+      if (delay > 0) {
+         TimeUnit.NANOSECONDS.sleep(delay);
+      }
+   }
+
+   @ManagedAttribute(
+         description = "Number of entries loaded into memory by the last (or current) preload",
+         displayName = "Number of preloaded entries",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getPreloadedEntries() {
+      return preloadedEntries.get();
+   }
+
+   @ManagedAttribute(
+         description = "Whether the cache is preloading entries from a store",
+         displayName = "Is preloading"
+   )
+   public boolean isPreloading() {
+      return preloading;
    }
 
    @Override
@@ -423,6 +483,47 @@ public void processOnAllStores(Executor executor, KeyFilter keyFilter, AdvancedC
       }
    }
 
+   @Override
+   public void processOnAllStores(ConsistentHash ch, Set<Integer> segments, KeyFilter keyFilter,
+                                  AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata, AccessMode mode) {
+      processOnAllStores(persistenceExecutor, ch, segments, keyFilter, task, fetchValue, fetchMetadata, mode);
+   }
+
+   @Override
+   public void processOnAllStores(Executor executor, ConsistentHash ch, Set<Integer> segments, KeyFilter keyFilter,
+                                  AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata, AccessMode mode) {
+      storesMutex.readLock().lock();
+      try {
+         for (CacheLoader loader : loaders) {
+            if (mode.canPerform(configMap.get(loader)) && loader instanceof AdvancedCacheLoader) {
+               PersistenceUtil.process((AdvancedCacheLoader) loader, ch, segments, keyFilter, task, executor, fetchValue, fetchMetadata);
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
+   @Override
+   public boolean clearSegmentsFromAllStores(ConsistentHash ch, Set<Integer> segments, AccessMode mode) {
+      boolean allCleared = true;
+      storesMutex.readLock().lock();
+      try {
+         for (CacheWriter w : writers) {
+            if (mode.canPerform(configMap.get(w))) {
+               if (w instanceof SegmentedAdvancedLoadWriteStore) {
+                  ((SegmentedAdvancedLoadWriteStore) w).clear(ch, segments);
+               } else {
+                  allCleared = false;
+               }
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+      return allCleared;
+   }
+
    @Override
    public MarshalledEntry loadFromAllStores(Object key, InvocationContext context) {
       storesMutex.readLock().lock();
@@ -465,6 +566,34 @@ public void writeToAllStores(MarshalledEntry marshalledEntry, AccessMode mode) {
       }
    }
 
+   @Override
+   public void writeBatchToAllStores(Iterable<? extends MarshalledEntry> marshalledEntries, AccessMode mode) {
+      storesMutex.readLock().lock();
+      try {
+         for (CacheWriter w : writers) {
+            if (mode.canPerform(configMap.get(w))) {
+               PersistenceUtil.writeBatch(w, marshalledEntries);
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
+   @Override
+   public void deleteBatchFromAllStores(Iterable<?> keys, AccessMode mode) {
+      storesMutex.readLock().lock();
+      try {
+         for (CacheWriter w : writers) {
+            if (mode.canPerform(configMap.get(w))) {
+               PersistenceUtil.deleteBatch(w, keys);
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
    @Override
    public AdvancedCacheLoader getStateTransferProvider() {
       storesMutex.readLock().lock();
@@ -588,6 +717,14 @@ private AdvancedCache<Object, Object> getCacheForStateInsertion() {
       List<Flag> flags = new ArrayList<Flag>(Arrays.asList(
             CACHE_MODE_LOCAL, SKIP_OWNERSHIP_CHECK, IGNORE_RETURN_VALUES, SKIP_CACHE_STORE, SKIP_LOCKING));
 
+      if (skipIndexingOnStateInsertion())
+         flags.add(SKIP_INDEXING);
+
+      return cache.getAdvancedCache()
+            .withFlags(flags.toArray(new Flag[flags.size()]));
+   }
+
+   private boolean skipIndexingOnStateInsertion() {
       boolean hasShared = false;
       for (CacheWriter w : writers) {
          if (configMap.get(w).shared()) {
@@ -595,16 +732,22 @@ private AdvancedCache<Object, Object> getCacheForStateInsertion() {
             break;
          }
       }
+      return !hasShared || indexShareable();
+   }
 
-      if (hasShared) {
-         if (indexShareable())
-            flags.add(SKIP_INDEXING);
-      } else {
-         flags.add(SKIP_INDEXING);
-      }
-
-      return cache.getAdvancedCache()
-            .withFlags(flags.toArray(new Flag[flags.size()]));
+   /**
+    * Preloaded entries can bypass the interceptor chain unless they have to be wrapped (store as binary, compatibility
+    * mode) or indexed, or a listener or a custom interceptor expects to see them.
+    */
+   private boolean canPreloadIntoDataContainer() {
+      if (configuration.storeAsBinary().enabled() || configuration.compatibility().enabled()
+            || !configuration.customInterceptors().interceptors().isEmpty())
+         return false;
+      if (configuration.indexing().index().isEnabled() && !skipIndexingOnStateInsertion())
+         return false;
+      CacheNotifier notifier = cache.getComponentRegistry().getComponent(CacheNotifier.class);
+      return notifier == null ||
+            !notifier.hasListener(CacheEntryCreated.class) && !notifier.hasListener(CacheEntryModified.class);
    }
 
    private boolean localIndexingEnabled() {
@@ -617,7 +760,9 @@ private boolean indexShareable() {
 
    private int getMaxEntries() {
       int ne = Integer.MAX_VALUE;
-      if (configuration.eviction().strategy().isEnabled()) ne = configuration.eviction().maxEntries();
+      // a memory bounded container evicts on its own while preloading
+      if (configuration.eviction().strategy().isEnabled() && configuration.eviction().type() == EvictionType.COUNT)
+         ne = configuration.eviction().maxEntries();
       return ne;
    }
 
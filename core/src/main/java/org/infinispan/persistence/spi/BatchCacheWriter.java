@@ -0,0 +1,32 @@
+package org.infinispan.persistence.spi;
+
+import net.jcip.annotations.ThreadSafe;
+import org.infinispan.marshall.core.MarshalledEntry;
+
+/**
+ * Optional extension of the {@link CacheWriter} for stores that can persist or remove several entries at once more
+ * efficiently than one at a time, e.g. with a single statement batch or a single flush to disk.
+ * <p/>
+ * Writers that don't implement this interface receive the entries of a batch through {@link #write(MarshalledEntry)}
+ * and {@link #delete(Object)}, one by one.
+ *
+ * @since 7.1
+ */
+@ThreadSafe
+public interface BatchCacheWriter<K, V> extends CacheWriter<K, V> {
+
+   /**
+    * Persists all the entries to the storage. The keys of the entries are distinct.
+    *
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    * @see MarshalledEntry
+    */
+   void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> entries);
+
+   /**
+    * Removes the entries mapped to the given keys from the storage, if they exist.
+    *
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    */
+   void deleteBatch(Iterable<Object> keys);
+}
@@ -0,0 +1,43 @@
+package org.infinispan.persistence.spi;
+
+import net.jcip.annotations.ThreadSafe;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.filter.KeyFilter;
+
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Optional extension of the {@link AdvancedLoadWriteStore} for stores that keep their keys grouped by segment, so that
+ * they can iterate over and remove the entries of a subset of the segments of a distributed cache without going through
+ * the keys of the other segments. Stores that would only filter all their keys by segment should not implement it.
+ * <p/>
+ * State transfer, the removal of the segments a node no longer owns and the distributed entry iteration use these
+ * methods when the store implements this interface. The keys of other stores are filtered by segment with
+ * {@link AdvancedCacheLoader#process(KeyFilter, CacheLoaderTask, Executor, boolean, boolean)}.
+ *
+ * @since 7.1
+ */
+@ThreadSafe
+public interface SegmentedAdvancedLoadWriteStore<K, V> extends AdvancedLoadWriteStore<K, V> {
+
+   /**
+    * Iterates in parallel over the entries whose keys are mapped by the consistent hash to one of the given segments,
+    * with the semantics of {@link #process(KeyFilter, CacheLoaderTask, Executor, boolean, boolean)}. The keys of the
+    * other segments are not read.
+    *
+    * @param ch       the consistent hash mapping the keys to segments
+    * @param segments the segments to iterate over
+    */
+   void process(ConsistentHash ch, Set<Integer> segments, KeyFilter<? super K> filter, CacheLoaderTask<K, V> task,
+                Executor executor, boolean fetchValue, boolean fetchMetadata);
+
+   /**
+    * Removes all the entries whose keys are mapped by the consistent hash to one of the given segments.
+    *
+    * @param ch       the consistent hash mapping the keys to segments
+    * @param segments the segments to remove
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    */
+   void clear(ConsistentHash ch, Set<Integer> segments);
+}
@@ -0,0 +1,352 @@
+package org.infinispan.remoting;
+
+import org.infinispan.atomic.Delta;
+import org.infinispan.commands.FlagAffectedCommand;
+import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commands.remote.MultipleRpcCommand;
+import org.infinispan.commands.remote.SingleRpcCommand;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commands.write.RemoveCommand;
+import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.context.Flag;
+import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.factories.annotations.ComponentName;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.remoting.rpc.ResponseMode;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link ReplicationQueue} that adapts the batches to the load, enabled with {@link
+ * org.infinispan.configuration.cache.AsyncConfiguration#replQueueAdaptive()}.
+ * <p/>
+ * When the commands arrive slower than the queue can send them, each command is sent as soon as it is added. When they
+ * arrive faster, the queue waits for about the time it takes to send a batch (at most {@code replQueueInterval}) so
+ * that the commands arriving meanwhile are sent together. A batch is sent early when it reaches {@code
+ * replQueueMaxElements} commands, or when its estimated size would not fit in a single transport message.
+ * <p/>
+ * Consecutive commands with the same recipients are sent in the same {@link MultipleRpcCommand}, and an unconditional
+ * write replaces the previous unconditional write to the same key in the batch, if both have the same flags.
+ *
+ * @since 7.1
+ */
+public class AdaptiveReplicationQueueImpl extends ReplicationQueueImpl {
+   private static final Log log = LogFactory.getLog(AdaptiveReplicationQueueImpl.class);
+
+   /**
+    * Keep a batch below the default maximum bundle size of the JGroups transport.
+    */
+   private static final int MAX_BATCH_BYTES = 60000;
+   /**
+    * Weight of the last sample in the moving averages.
+    */
+   private static final double ALPHA = 0.1;
+
+   private final Object lock = new Object();
+   // The batches waiting to be sent, in the order their first command was added
+   private final LinkedList<Batch> batches = new LinkedList<Batch>();
+   private int pendingCommands;
+   private boolean flushScheduled;
+   private long lastAddTime;
+   // Moving averages of the time between two commands, the time to send a batch, and the size of a command
+   private double arrivalIntervalNanos;
+   private volatile double sendTimeNanos;
+   private volatile double bytesPerCommand;
+
+   private StreamingMarshaller marshaller;
+   private Equivalence<Object> keyEquivalence;
+   private long maxDelayNanos;
+   private int maxBatchSize;
+
+   private final Runnable flushTask = new Runnable() {
+      @Override
+      public void run() {
+         try {
+            flush();
+         } catch (Throwable t) {
+            log.debug("Unable to flush the replication queue", t);
+         }
+      }
+   };
+
+   @Inject
+   public void injectMarshaller(@ComponentName(KnownComponentNames.GLOBAL_MARSHALLER) StreamingMarshaller marshaller) {
+      this.marshaller = marshaller;
+   }
+
+   @Override
+   @Start
+   public void start() {
+      super.start();
+      Configuration configuration = getConfiguration();
+      keyEquivalence = configuration.dataContainer().keyEquivalence();
+      maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(configuration.clustering().async().replQueueInterval());
+      maxBatchSize = Math.max(1, configuration.clustering().async().replQueueMaxElements());
+   }
+
+   @Override
+   public void add(ReplicableCommand job) {
+      add(null, job);
+   }
+
+   @Override
+   public void add(Collection<Address> recipients, ReplicableCommand job) {
+      if (job == null)
+         throw new NullPointerException("job is null");
+
+      boolean flushNow = false;
+      long delayNanos = -1;
+      synchronized (lock) {
+         long now = timeService.time();
+         if (lastAddTime != 0) {
+            arrivalIntervalNanos = average(arrivalIntervalNanos, now - lastAddTime);
+         }
+         lastAddTime = now;
+
+         Batch batch = batches.peekLast();
+         Set<Address> destination = recipients == null ? null : new HashSet<Address>(recipients);
+         if (batch == null || !batch.sameRecipients(destination)) {
+            batch = new Batch(destination, now);
+            batches.add(batch);
+         }
+         if (!batch.add(job)) {
+            pendingCommands++;
+         }
+
+         if (batch.size() >= maxBatchSize || (batch.size() + 1) * bytesPerCommand > MAX_BATCH_BYTES) {
+            flushNow = true;
+         } else if (!flushScheduled) {
+            flushScheduled = true;
+            // Idle: the commands arrive slower than they can be sent, so there's nothing to wait for
+            delayNanos = arrivalIntervalNanos >= sendTimeNanos ? 0 : Math.min(maxDelayNanos, (long) sendTimeNanos);
+         }
+      }
+
+      if (flushNow) {
+         flush();
+      } else if (delayNanos >= 0) {
+         scheduleFlush(delayNanos);
+      }
+   }
+
+   private void scheduleFlush(long delayNanos) {
+      ScheduledExecutorService executor = scheduledExecutor;
+      if (executor == null) {
+         // already stopped
+         return;
+      }
+      if (trace) log.tracef("Scheduling a flush in %d microseconds", TimeUnit.NANOSECONDS.toMicros(delayNanos));
+      try {
+         if (delayNanos == 0) {
+            executor.execute(flushTask);
+         } else {
+            executor.schedule(flushTask, delayNanos, TimeUnit.NANOSECONDS);
+         }
+      } catch (RejectedExecutionException e) {
+         // shutting down, stop() flushes the queue
+         log.trace("Unable to schedule the flush of the replication queue", e);
+      }
+   }
+
+   @Override
+   public synchronized int flush() {
+      List<Batch> toSend;
+      synchronized (lock) {
+         flushScheduled = false;
+         if (batches.isEmpty()) {
+            return 0;
+         }
+         toSend = new ArrayList<Batch>(batches);
+         batches.clear();
+         pendingCommands = 0;
+      }
+
+      int sent = 0;
+      for (Batch batch : toSend) {
+         sent += send(batch);
+      }
+      return sent;
+   }
+
+   private int send(Batch batch) {
+      List<ReplicableCommand> commands = batch.commands();
+      if (commands.isEmpty()) {
+         return 0;
+      }
+      if (trace) log.tracef("Flushing %s elements to %s", commands.size(), batch.recipients == null ? "all" : batch.recipients);
+      try {
+         long start = timeService.time();
+         MultipleRpcCommand multipleRpcCommand = commandsFactory.buildReplicateCommand(commands);
+         rpcManager.invokeRemotely(batch.recipients, multipleRpcCommand,
+                                   rpcManager.getRpcOptionsBuilder(ResponseMode.getAsyncResponseMode(getConfiguration()))
+                                         .skipReplicationQueue(true).build());
+         sendTimeNanos = average(sendTimeNanos, timeService.timeDuration(start, TimeUnit.NANOSECONDS));
+         if (marshaller != null) {
+            // the transport records the size of the marshalled command
+            int batchBytes = marshaller.getBufferSizePredictor(multipleRpcCommand).nextSize(multipleRpcCommand);
+            bytesPerCommand = average(bytesPerCommand, (double) batchBytes / commands.size());
+         }
+         recordFlush(commands.size(), batch.firstAddTime);
+      } catch (Throwable t) {
+         log.failedReplicatingQueue(commands.size(), t);
+      }
+      return commands.size();
+   }
+
+   private static double average(double average, double sample) {
+      return average == 0 ? sample : average + ALPHA * (sample - average);
+   }
+
+   @Override
+   protected List<ReplicableCommand> drainReplQueue() {
+      List<ReplicableCommand> drained = new LinkedList<ReplicableCommand>();
+      synchronized (lock) {
+         for (Batch batch : batches) {
+            drained.addAll(batch.commands());
+         }
+         batches.clear();
+         pendingCommands = 0;
+      }
+      return drained;
+   }
+
+   @Override
+   public int getElementsCount() {
+      synchronized (lock) {
+         return pendingCommands;
+      }
+   }
+
+   @Override
+   public void reset() {
+      drainReplQueue();
+   }
+
+   private static ReplicableCommand unwrap(ReplicableCommand command) {
+      return command instanceof SingleRpcCommand ? ((SingleRpcCommand) command).getCommand() : command;
+   }
+
+   /**
+    * @return the key of the write command that may replace, or be replaced by, another write to the same key, or
+    * {@code null} if the command must be sent as it is.
+    */
+   private static Object coalescableKey(ReplicableCommand command) {
+      if (command.getClass() == PutKeyValueCommand.class) {
+         PutKeyValueCommand put = (PutKeyValueCommand) command;
+         if (put.isConditional() || put.getValue() instanceof Delta || put.hasFlag(Flag.PUT_FOR_EXTERNAL_READ)
+               || put.hasFlag(Flag.DELTA_WRITE)) {
+            return null;
+         }
+         return put.getKey();
+      } else if (command.getClass() == RemoveCommand.class) {
+         RemoveCommand remove = (RemoveCommand) command;
+         return remove.isConditional() ? null : remove.getKey();
+      }
+      return null;
+   }
+
+   /**
+    * A write can only replace the previous write to the same key if it has the same effects besides the new value, e.g.
+    * a put with {@link Flag#SKIP_CACHE_STORE} must not replace a put that updates the store.
+    */
+   private static boolean canReplace(ReplicableCommand previous, ReplicableCommand command) {
+      FlagAffectedCommand previousWrite = (FlagAffectedCommand) previous;
+      FlagAffectedCommand write = (FlagAffectedCommand) command;
+      if (!flags(previousWrite).equals(flags(write)))
+         return false;
+      if (previous instanceof PutKeyValueCommand && command instanceof PutKeyValueCommand) {
+         Metadata previousMetadata = previousWrite.getMetadata();
+         return previousMetadata == null ? write.getMetadata() == null : previousMetadata.equals(write.getMetadata());
+      }
+      return true;
+   }
+
+   private static Set<Flag> flags(FlagAffectedCommand command) {
+      Set<Flag> flags = command.getFlags();
+      return flags == null ? Collections.<Flag>emptySet() : flags;
+   }
+
+   private class Batch {
+      final Set<Address> recipients;
+      final long firstAddTime;
+      final List<ReplicableCommand> commands = new ArrayList<ReplicableCommand>();
+      // The position of the last coalescable write to each key
+      final Map<Object, Integer> lastWrites = CollectionFactory.makeMap(keyEquivalence, AnyEquivalence.<Integer>getInstance());
+      int size;
+
+      Batch(Set<Address> recipients, long firstAddTime) {
+         this.recipients = recipients;
+         this.firstAddTime = firstAddTime;
+      }
+
+      boolean sameRecipients(Set<Address> otherRecipients) {
+         return recipients == null ? otherRecipients == null : recipients.equals(otherRecipients);
+      }
+
+      /**
+       * @return {@code true} if the command replaced a previous write to the same key
+       */
+      boolean add(ReplicableCommand command) {
+         ReplicableCommand unwrapped = unwrap(command);
+         Object key = coalescableKey(unwrapped);
+         Integer previous = null;
+         if (key != null) {
+            previous = lastWrites.put(key, commands.size());
+            if (previous != null) {
+               if (canReplace(unwrap(commands.get(previous)), unwrapped)) {
+                  commands.set(previous, null);
+               } else {
+                  // send both writes, in order
+                  previous = null;
+               }
+            }
+         } else {
+            // Other commands (e.g. conditional writes or transactions) may depend on the previous writes to their keys
+            Set<Object> affectedKeys = unwrapped instanceof WriteCommand ? ((WriteCommand) unwrapped).getAffectedKeys() : null;
+            if (affectedKeys == null) {
+               lastWrites.clear();
+            } else {
+               lastWrites.keySet().removeAll(affectedKeys);
+            }
+         }
+         commands.add(command);
+         if (previous == null) {
+            size++;
+            return false;
+         }
+         return true;
+      }
+
+      int size() {
+         return size;
+      }
+
+      List<ReplicableCommand> commands() {
+         List<ReplicableCommand> result = new ArrayList<ReplicableCommand>(size);
+         for (ReplicableCommand command : commands) {
+            if (command != null) result.add(command);
+         }
+         return result;
+      }
+   }
+}
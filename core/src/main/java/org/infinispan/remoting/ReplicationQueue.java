@@ -2,6 +2,9 @@
 
 import org.infinispan.commands.ReplicableCommand;
 import org.infinispan.lifecycle.Lifecycle;
+import org.infinispan.remoting.transport.Address;
+
+import java.util.Collection;
 
 /**
  * Periodically (or when certain size is exceeded) takes elements and replicates them.
@@ -25,6 +28,16 @@ public interface ReplicationQueue extends Lifecycle {
     */
    void add(ReplicableCommand job);
 
+   /**
+    * Adds a new command to the replication queue, to be sent to the given recipients. Implementations may send it to
+    * all the members of the cache instead.
+    *
+    * @param recipients the recipients of the command, or {@code null} for all the members of the cache
+    * @param job command to add to the queue
+    * @since 7.1
+    */
+   void add(Collection<Address> recipients, ReplicableCommand job);
+
    /**
     * Flushes existing jobs in the replication queue, and returns the number of jobs flushed.
     * @return the number of jobs flushed
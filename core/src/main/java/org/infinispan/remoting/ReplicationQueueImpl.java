@@ -11,11 +11,23 @@
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.annotations.Stop;
+import org.infinispan.jmx.JmxStatisticsExposer;
+import org.infinispan.jmx.annotations.DataType;
+import org.infinispan.jmx.annotations.DisplayType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.remoting.rpc.ResponseMode;
 import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.util.DefaultTimeService;
+import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
@@ -23,6 +35,8 @@
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * A default implementation of the ReplicationQueue interface.
@@ -30,9 +44,15 @@
  * @author Manik Surtani
  * @version 4.2
  */
-public class ReplicationQueueImpl implements ReplicationQueue {
+@MBean(objectName = "ReplicationQueue", description = "Batches the asynchronous replication commands")
+public class ReplicationQueueImpl implements ReplicationQueue, JmxStatisticsExposer {
    private static final Log log = LogFactory.getLog(ReplicationQueue.class);
 
+   /**
+    * Upper bounds of the batch size distribution buckets, the last bucket holds the larger batches
+    */
+   private static final int[] BATCH_SIZE_BUCKETS = {1, 10, 100, 1000};
+
    /**
     * Max elements before we flush
     */
@@ -46,14 +66,24 @@ public class ReplicationQueueImpl implements ReplicationQueue {
    /**
     * For periodical replication
     */
-   private ScheduledExecutorService scheduledExecutor = null;
-   private RpcManager rpcManager;
+   protected ScheduledExecutorService scheduledExecutor = null;
+   protected RpcManager rpcManager;
    private Configuration configuration;
    private boolean enabled;
-   private CommandsFactory commandsFactory;
+   protected CommandsFactory commandsFactory;
    private volatile ScheduledFuture<?> scheduledFuture;
-   private boolean trace;
+   protected boolean trace;
    private String cacheName;
+   protected TimeService timeService = new DefaultTimeService();
+
+   private volatile boolean statisticsEnabled;
+   private final AtomicLong flushes = new AtomicLong();
+   private final AtomicLong flushedCommands = new AtomicLong();
+   private final AtomicLong totalFlushLatency = new AtomicLong();
+   private final AtomicLong maxBatchSize = new AtomicLong();
+   private final AtomicLongArray batchSizeDistribution = new AtomicLongArray(BATCH_SIZE_BUCKETS.length + 1);
+   // when the oldest element in the queue was added
+   private volatile long oldestElementTime;
 
    /**
     * @return true if this replication queue is enabled, false otherwise.
@@ -79,6 +109,11 @@ public void injectDependencies(ScheduledExecutorService executor,
       this.cacheName = cacheName;
    }
 
+   @Inject
+   public void injectTimeService(TimeService timeService) {
+      this.timeService = timeService;
+   }
+
    /**
     * Starts the asynchronous flush queue.
     */
@@ -89,6 +124,7 @@ public void start() {
       long interval = asyncCfg.replQueueInterval();
       this.maxElements = asyncCfg.replQueueMaxElements();
       trace = log.isTraceEnabled();
+      statisticsEnabled = configuration.jmxStatistics().enabled();
       if (trace)
          log.tracef("Starting replication queue, with interval %d and maxElements %s", interval, maxElements);
 
@@ -130,6 +166,7 @@ public void add(ReplicableCommand job) {
       if (job == null)
          throw new NullPointerException("job is null");
       try {
+         if (statisticsEnabled && elements.isEmpty()) oldestElementTime = timeService.time();
          elements.put(job);
          if (elements.size() >= maxElements) flush();
       } catch (InterruptedException ie) {
@@ -137,8 +174,15 @@ public void add(ReplicableCommand job) {
       }
    }
 
+   @Override
+   public void add(Collection<Address> recipients, ReplicableCommand job) {
+      // all the commands are sent to all the members of the cache in a single batch
+      add(job);
+   }
+
    @Override
    public synchronized int flush() {
+      long oldestElementTime = this.oldestElementTime;
       List<ReplicableCommand> toReplicate = drainReplQueue();
       if (trace) log.tracef("flush(): flushing repl queue (num elements=%s)", toReplicate.size());
 
@@ -152,6 +196,7 @@ public synchronized int flush() {
             rpcManager.invokeRemotely(null, multipleRpcCommand,
                                       rpcManager.getRpcOptionsBuilder(ResponseMode.getAsyncResponseMode(configuration))
                                             .skipReplicationQueue(true).build());
+            recordFlush(toReplicateSize, oldestElementTime);
          } catch (Throwable t) {
             log.failedReplicatingQueue(toReplicate.size(), t);
          }
@@ -171,10 +216,101 @@ protected Configuration getConfiguration() {
    }
 
    @Override
+   @ManagedAttribute(description = "Number of commands waiting in the replication queue", displayName = "Number of queued commands")
    public int getElementsCount() {
       return elements.size();
    }
 
+   /**
+    * Updates the statistics after a batch of commands was sent.
+    *
+    * @param batchSize the number of commands in the batch
+    * @param oldestElementTime the time (from {@link TimeService#time()}) when the oldest command of the batch was added
+    */
+   protected final void recordFlush(int batchSize, long oldestElementTime) {
+      if (!statisticsEnabled) return;
+      flushes.incrementAndGet();
+      flushedCommands.addAndGet(batchSize);
+      totalFlushLatency.addAndGet(timeService.timeDuration(oldestElementTime, TimeUnit.NANOSECONDS));
+      long max;
+      while ((max = maxBatchSize.get()) < batchSize && !maxBatchSize.compareAndSet(max, batchSize)) {
+         // retry
+      }
+      int bucket = 0;
+      while (bucket < BATCH_SIZE_BUCKETS.length && batchSize > BATCH_SIZE_BUCKETS[bucket]) {
+         bucket++;
+      }
+      batchSizeDistribution.incrementAndGet(bucket);
+   }
+
+   @ManagedAttribute(description = "Number of batches sent by the replication queue", displayName = "Number of flushes",
+                     measurementType = MeasurementType.TRENDSUP, displayType = DisplayType.SUMMARY)
+   public long getNumberOfFlushes() {
+      return flushes.get();
+   }
+
+   @ManagedAttribute(description = "Average number of commands in a batch", displayName = "Average batch size",
+                     displayType = DisplayType.SUMMARY)
+   public double getAverageBatchSize() {
+      long count = flushes.get();
+      return count == 0 ? 0 : (double) flushedCommands.get() / count;
+   }
+
+   @ManagedAttribute(description = "Largest number of commands in a batch", displayName = "Maximum batch size")
+   public long getMaxBatchSize() {
+      return maxBatchSize.get();
+   }
+
+   @ManagedAttribute(description = "Number of batches by size: 1, 2-10, 11-100, 101-1000 and more than 1000 commands",
+                     displayName = "Batch size distribution")
+   public String getBatchSizeDistribution() {
+      StringBuilder sb = new StringBuilder("{");
+      int lowerBound = 1;
+      for (int i = 0; i < BATCH_SIZE_BUCKETS.length; i++) {
+         sb.append(lowerBound);
+         if (BATCH_SIZE_BUCKETS[i] > lowerBound) sb.append('-').append(BATCH_SIZE_BUCKETS[i]);
+         sb.append('=').append(batchSizeDistribution.get(i)).append(", ");
+         lowerBound = BATCH_SIZE_BUCKETS[i] + 1;
+      }
+      return sb.append('>').append(lowerBound - 1).append('=')
+            .append(batchSizeDistribution.get(BATCH_SIZE_BUCKETS.length)).append('}').toString();
+   }
+
+   @ManagedAttribute(description = "Average time a command waits in the replication queue before it is sent",
+                     displayName = "Average flush latency", units = Units.MILLISECONDS, displayType = DisplayType.SUMMARY)
+   public double getAverageFlushLatency() {
+      long count = flushes.get();
+      return count == 0 ? 0 : (double) TimeUnit.NANOSECONDS.toMicros(totalFlushLatency.get() / count) / 1000;
+   }
+
+   @Override
+   @ManagedOperation(description = "Resets statistics gathered by this component", displayName = "Reset statistics")
+   public void resetStatistics() {
+      flushes.set(0);
+      flushedCommands.set(0);
+      totalFlushLatency.set(0);
+      maxBatchSize.set(0);
+      for (int i = 0; i < batchSizeDistribution.length(); i++) {
+         batchSizeDistribution.set(i, 0);
+      }
+   }
+
+   @ManagedAttribute(description = "Enables or disables the gathering of statistics by this component", displayName = "Statistics enabled",
+                     dataType = DataType.TRAIT, writable = true)
+   public boolean isStatisticsEnabled() {
+      return statisticsEnabled;
+   }
+
+   @Override
+   public boolean getStatisticsEnabled() {
+      return isStatisticsEnabled();
+   }
+
+   @Override
+   public void setStatisticsEnabled(boolean enabled) {
+      this.statisticsEnabled = enabled;
+   }
+
    @Override
    public void reset() {
       elements.clear();
@@ -1,17 +1,46 @@
 package org.infinispan.remoting.inboundhandler;
 
+import org.infinispan.commands.ReplicableCommand;
 import org.infinispan.commands.TopologyAffectedCommand;
+import org.infinispan.commands.control.LockControlCommand;
 import org.infinispan.commands.remote.CacheRpcCommand;
 import org.infinispan.commands.remote.MultipleRpcCommand;
 import org.infinispan.commands.remote.SingleRpcCommand;
+import org.infinispan.commands.tx.PrepareCommand;
+import org.infinispan.commands.write.DataWriteCommand;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commands.write.RemoveCommand;
+import org.infinispan.commands.write.ReplaceCommand;
+import org.infinispan.commons.util.Util;
+import org.infinispan.commons.util.concurrent.FutureListener;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.context.Flag;
+import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.factories.annotations.ComponentName;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.interceptors.locking.ClusteringDependentLogic;
 import org.infinispan.statetransfer.StateRequestCommand;
+import org.infinispan.util.TimeService;
 import org.infinispan.util.concurrent.BlockingRunnable;
+import org.infinispan.util.concurrent.locks.LockManager;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
 /**
  * A {@link org.infinispan.remoting.inboundhandler.PerCacheInboundInvocationHandler} implementation for non-total order
  * caches.
+ * <p/>
+ * Commands that need to acquire locks on this node (writes on primary owned keys, prepares and lock control commands)
+ * are kept in the remote executor's queue while another owner holds one of their locks, instead of blocking a thread
+ * in the lock manager. They are resumed when the lock is released, or when the lock acquisition timeout expires.
  *
  * @author Pedro Ruivo
  * @since 7.1
@@ -20,6 +49,22 @@ public class NonTotalOrderPerCacheInboundInvocationHandler extends BasePerCacheI
 
    private static final Log log = LogFactory.getLog(NonTotalOrderPerCacheInboundInvocationHandler.class);
    private static final boolean trace = log.isTraceEnabled();
+   private LockManager lockManager;
+   private ClusteringDependentLogic clusteringDependentLogic;
+   private Configuration configuration;
+   private TimeService timeService;
+   private ScheduledExecutorService timeoutExecutor;
+
+   @Inject
+   public void injectLockDependencies(LockManager lockManager, ClusteringDependentLogic clusteringDependentLogic,
+                                      Configuration configuration, TimeService timeService,
+                                      @ComponentName(KnownComponentNames.TIMEOUT_SCHEDULE_EXECUTOR) ScheduledExecutorService timeoutExecutor) {
+      this.lockManager = lockManager;
+      this.clusteringDependentLogic = clusteringDependentLogic;
+      this.configuration = configuration;
+      this.timeService = timeService;
+      this.timeoutExecutor = timeoutExecutor;
+   }
 
    @Override
    public void handle(CacheRpcCommand command, Reply reply, DeliverOrder order) {
@@ -50,12 +95,58 @@ public void handle(CacheRpcCommand command, Reply reply, DeliverOrder order) {
                runnable = createDefaultRunnable(command, reply, commandTopologyId, true, onExecutorService);
                break;
          }
+         if (onExecutorService) {
+            runnable = wrapLockAware(command, runnable);
+         }
          handleRunnable(runnable, onExecutorService);
       } catch (Throwable throwable) {
          reply.reply(exceptionHandlingCommand(command, throwable));
       }
    }
 
+   private BlockingRunnable wrapLockAware(CacheRpcCommand command, BlockingRunnable runnable) {
+      if (configuration.deadlockDetection().enabled()) {
+         // the deadlock detection needs the thread to spin in the lock manager
+         return runnable;
+      }
+      Object lockOwner = null;
+      Collection<?> keys = null;
+      switch (command.getCommandId()) {
+         case SingleRpcCommand.COMMAND_ID:
+            ReplicableCommand innerCmd = ((SingleRpcCommand) command).getCommand();
+            switch (innerCmd.getCommandId()) {
+               case PutKeyValueCommand.COMMAND_ID:
+               case RemoveCommand.COMMAND_ID:
+               case ReplaceCommand.COMMAND_ID:
+                  DataWriteCommand writeCommand = (DataWriteCommand) innerCmd;
+                  if (!writeCommand.hasFlag(Flag.SKIP_LOCKING) && !writeCommand.hasFlag(Flag.ZERO_LOCK_ACQUISITION_TIMEOUT)) {
+                     keys = Collections.singletonList(writeCommand.getKey());
+                  }
+                  break;
+            }
+            break;
+         case PrepareCommand.COMMAND_ID:
+            Object[] affectedKeys = ((PrepareCommand) command).getAffectedKeysToLock(false);
+            if (affectedKeys != null) {
+               keys = Arrays.asList(affectedKeys);
+               lockOwner = ((PrepareCommand) command).getGlobalTransaction();
+            }
+            break;
+         case LockControlCommand.COMMAND_ID:
+            LockControlCommand lockControlCommand = (LockControlCommand) command;
+            if (!lockControlCommand.isUnlock() && !lockControlCommand.hasFlag(Flag.ZERO_LOCK_ACQUISITION_TIMEOUT)) {
+               keys = lockControlCommand.getKeys();
+               lockOwner = lockControlCommand.getGlobalTransaction();
+            }
+            break;
+      }
+      if (keys == null || keys.isEmpty()) {
+         return runnable;
+      }
+      long timeout = configuration.locking().lockAcquisitionTimeout();
+      return new LockAwareRunnable(command, runnable, keys, lockOwner, timeout);
+   }
+
    @Override
    protected Log getLog() {
       return log;
@@ -65,4 +156,96 @@ protected Log getLog() {
    protected boolean isTraceEnabled() {
       return trace;
    }
+
+   /**
+    * Parks the command while one of its keys is locked by another owner. The lock is not acquired here: the command
+    * acquires it as usual once it runs, and it is parked again if another command got the lock first.
+    */
+   private class LockAwareRunnable implements BlockingRunnable, FutureListener<Void> {
+      private final CacheRpcCommand command;
+      private final BlockingRunnable delegate;
+      private final Collection<?> keys;
+      private final Object lockOwner;
+      private final long deadline;
+      private volatile NotifyingFuture<Void> pendingRelease;
+      private volatile boolean registering;
+      private boolean timeoutScheduled;
+
+      private LockAwareRunnable(CacheRpcCommand command, BlockingRunnable delegate, Collection<?> keys,
+                                Object lockOwner, long timeout) {
+         this.command = command;
+         this.delegate = delegate;
+         this.keys = keys;
+         this.lockOwner = lockOwner;
+         this.deadline = timeService.expectedEndTime(timeout, TimeUnit.MILLISECONDS);
+      }
+
+      @Override
+      public boolean isReady() {
+         if (!delegate.isReady()) {
+            return false;
+         }
+         NotifyingFuture<Void> pending = pendingRelease;
+         if (pending != null && !pending.isDone()) {
+            return isExpired();
+         }
+         for (Object key : keys) {
+            // only the primary owner acquires the lock, and the ownership is known once the topology is installed
+            if (!clusteringDependentLogic.localNodeIsPrimaryOwner(key)) {
+               continue;
+            }
+            NotifyingFuture<Void> release;
+            while ((release = lockManager.awaitLockRelease(key, lockOwner)) != null) {
+               pendingRelease = release;
+               // the listener must not check the pending tasks from this thread, we are already checking them
+               registering = true;
+               release.attachListener(this);
+               registering = false;
+               if (!release.isDone()) {
+                  if (trace) {
+                     log.tracef("Key %s is locked, parking command %s", Util.toStr(key), command);
+                  }
+                  scheduleTimeout();
+                  return isExpired();
+               }
+            }
+         }
+         return true;
+      }
+
+      @Override
+      public void futureDone(Future<Void> future) {
+         if (!registering) {
+            remoteCommandsExecutor.checkForReadyTasks();
+         }
+      }
+
+      @Override
+      public void run() {
+         // if the timeout expired, the command still runs and fails in the lock manager after the same timeout
+         delegate.run();
+      }
+
+      private boolean isExpired() {
+         return timeService.isTimeExpired(deadline);
+      }
+
+      private void scheduleTimeout() {
+         if (timeoutScheduled) {
+            return;
+         }
+         timeoutScheduled = true;
+         timeoutExecutor.schedule(new Runnable() {
+            @Override
+            public void run() {
+               remoteCommandsExecutor.checkForReadyTasks();
+            }
+         }, timeService.remainingTime(deadline, TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+      }
+
+      @Override
+      public String toString() {
+         return "LockAwareRunnable{command=" + command + ", keys=" + keys + '}';
+      }
+   }
 }
@@ -6,6 +6,7 @@
 import org.infinispan.remoting.responses.Response;
 import org.infinispan.remoting.transport.Address;
 import org.infinispan.remoting.transport.Transport;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.commons.util.concurrent.NotifyingNotifiableFuture;
 
 import java.util.Collection;
@@ -239,6 +240,23 @@ void invokeRemotelyInFuture(Collection<Address> recipients, ReplicableCommand rp
    void invokeRemotelyInFuture(NotifyingNotifiableFuture<Map<Address, Response>> future, Collection<Address> recipients,
                                ReplicableCommand rpc, RpcOptions options);
 
+   /**
+    * The same as {@link #invokeRemotely(java.util.Collection, org.infinispan.commands.ReplicableCommand, RpcOptions)}
+    * except that the calling thread doesn't wait for the responses, and no other thread does either: the returned
+    * future is completed by the transport when the responses arrive.
+    *
+    * @param recipients a list of Addresses to invoke the call on.  If this is {@code null}, the call is broadcast to the
+    *                   entire cluster.
+    * @param rpc        command to execute remotely.
+    * @param options    it configures the invocation, like in {@link #invokeRemotely(java.util.Collection,
+    *                   org.infinispan.commands.ReplicableCommand, RpcOptions)}.
+    * @return a future of the map of responses from each member contacted. It is completed with the exception that
+    *         {@code invokeRemotely} would have thrown if the invocation failed.
+    * @since 7.1
+    */
+   NotifyingFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<Address> recipients, ReplicableCommand rpc,
+                                                               RpcOptions options);
+
    /**
     * @return a reference to the underlying transport.
     */
@@ -5,6 +5,9 @@
 import org.infinispan.commands.TopologyAffectedCommand;
 import org.infinispan.commands.remote.CacheRpcCommand;
 import org.infinispan.commons.CacheException;
+import org.infinispan.commons.util.concurrent.CompletableNotifyingFuture;
+import org.infinispan.commons.util.concurrent.FutureListener;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.commons.util.concurrent.NotifyingNotifiableFuture;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.distribution.ch.ConsistentHash;
@@ -37,7 +40,9 @@
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -178,7 +183,7 @@ private Map<Address, Response> invokeRemotely(Collection<Address> recipients, Re
       if (trace) log.tracef("%s broadcasting call %s to recipient list %s", t.getAddress(), rpc, recipients);
 
       if (useReplicationQueue(sync)) {
-         replicationQueue.add(rpc);
+         replicationQueue.add(recipients, rpc);
          return null;
       } else {
          if (!(rpc instanceof CacheRpcCommand)) {
@@ -239,25 +244,10 @@ public Map<Address, Response> invokeRemotely(Collection<Address> recipients, Rep
          if (trace) {
             log.tracef("Using replication queue for command [%s]", rpc);
          }
-         replicationQueue.add(rpc);
+         replicationQueue.add(recipients, rpc);
          return null;
       }
-      if (!configuration.clustering().cacheMode().isClustered())
-         throw new IllegalStateException("Trying to invoke a remote command but the cache is not clustered");
-
-      // Set the topology id of the command, in case we don't have it yet
-      if (rpc instanceof TopologyAffectedCommand) {
-         TopologyAffectedCommand topologyAffectedCommand = (TopologyAffectedCommand) rpc;
-         if (topologyAffectedCommand.getTopologyId() == -1) {
-            int currentTopologyId = stateTransferManager.getCacheTopology().getTopologyId();
-            if (trace) log.tracef("Topology id missing on command %s, setting it to %d", rpc, currentTopologyId);
-            topologyAffectedCommand.setTopologyId(currentTopologyId);
-         }
-      }
-
-      if (!(rpc instanceof CacheRpcCommand)) {
-         rpc = cf.buildSingleRpcCommand(rpc);
-      }
+      rpc = prepareForInvocation(rpc);
 
       long startTimeNanos = 0;
       if (statisticsEnabled) startTimeNanos = timeService.time();
@@ -304,6 +294,86 @@ public Map<Address, Response> invokeRemotely(Collection<Address> recipients, Rep
       }
    }
 
+   @Override
+   public NotifyingFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<Address> recipients, ReplicableCommand rpc,
+                                                                      RpcOptions options) {
+      if (trace) log.tracef("%s invoking asynchronously %s to recipient list %s with options %s", t.getAddress(), rpc, recipients, options);
+
+      if (!options.skipReplicationQueue() && useReplicationQueue(options.responseMode().isSynchronous())) {
+         if (trace) {
+            log.tracef("Using replication queue for command [%s]", rpc);
+         }
+         replicationQueue.add(recipients, rpc);
+         return CompletableNotifyingFuture.completedFuture(null);
+      }
+      rpc = prepareForInvocation(rpc);
+
+      final CompletableNotifyingFuture<Map<Address, Response>> result = new CompletableNotifyingFuture<Map<Address, Response>>();
+      final long startTimeNanos = statisticsEnabled ? timeService.time() : 0;
+      final ReplicableCommand command = rpc;
+      try {
+         t.invokeRemotelyAsync(recipients, rpc, options.responseMode(), options.timeUnit().toMillis(options.timeout()),
+                               options.responseFilter(), options.deliverOrder(),
+                               configuration.clustering().cacheMode().isDistributed())
+               .attachListener(new FutureListener<Map<Address, Response>>() {
+                  @Override
+                  public void futureDone(Future<Map<Address, Response>> future) {
+                     try {
+                        Map<Address, Response> responses = future.get();
+                        if (statisticsEnabled) replicationCount.incrementAndGet();
+                        if (trace) log.tracef("Response(s) to %s is %s", command, responses);
+                        result.complete(responses);
+                     } catch (ExecutionException e) {
+                        result.completeExceptionally(replicationFailure(e.getCause()));
+                     } catch (Throwable th) {
+                        result.completeExceptionally(replicationFailure(th));
+                     } finally {
+                        if (statisticsEnabled) {
+                           totalReplicationTime.getAndAdd(timeService.timeDuration(startTimeNanos, TimeUnit.MILLISECONDS));
+                        }
+                     }
+                  }
+               });
+      } catch (Throwable th) {
+         result.completeExceptionally(replicationFailure(th));
+      }
+      return result;
+   }
+
+   private ReplicableCommand prepareForInvocation(ReplicableCommand rpc) {
+      if (!configuration.clustering().cacheMode().isClustered())
+         throw new IllegalStateException("Trying to invoke a remote command but the cache is not clustered");
+
+      // Set the topology id of the command, in case we don't have it yet
+      if (rpc instanceof TopologyAffectedCommand) {
+         TopologyAffectedCommand topologyAffectedCommand = (TopologyAffectedCommand) rpc;
+         if (topologyAffectedCommand.getTopologyId() == -1) {
+            int currentTopologyId = stateTransferManager.getCacheTopology().getTopologyId();
+            if (trace) log.tracef("Topology id missing on command %s, setting it to %d", rpc, currentTopologyId);
+            topologyAffectedCommand.setTopologyId(currentTopologyId);
+         }
+      }
+
+      if (!(rpc instanceof CacheRpcCommand)) {
+         rpc = cf.buildSingleRpcCommand(rpc);
+      }
+      return rpc;
+   }
+
+   /**
+    * Same exception handling as in {@link #invokeRemotely(java.util.Collection, ReplicableCommand, RpcOptions)}.
+    */
+   private CacheException replicationFailure(Throwable th) {
+      if (th instanceof CacheException) {
+         log.trace("replication exception: ", th);
+         if (statisticsEnabled) replicationFailures.incrementAndGet();
+         return (CacheException) th;
+      }
+      log.unexpectedErrorReplicating(th);
+      if (statisticsEnabled) replicationFailures.incrementAndGet();
+      return new CacheException(th);
+   }
+
    @Override
    public void invokeRemotelyInFuture(final NotifyingNotifiableFuture<Map<Address, Response>> future,
                                       final Collection<Address> recipients, final ReplicableCommand rpc,
@@ -1,6 +1,8 @@
 package org.infinispan.remoting.transport;
 
 import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commons.util.concurrent.CompletableNotifyingFuture;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.remoting.inboundhandler.DeliverOrder;
 import org.infinispan.remoting.responses.Response;
 import org.infinispan.remoting.rpc.ResponseFilter;
@@ -41,6 +43,23 @@ public Map<Address, Response> invokeRemotely(Collection<Address> recipients, Rep
       return afterInvokeRemotely(rpcCommand, result);
    }
 
+   /**
+    * Invokes the command synchronously, so that {@link #beforeInvokeRemotely(ReplicableCommand)} and {@link
+    * #afterInvokeRemotely(ReplicableCommand, java.util.Map)} apply to the asynchronous invocations as well.
+    */
+   @Override
+   public NotifyingFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<Address> recipients, ReplicableCommand rpcCommand,
+                                                                      ResponseMode mode, long timeout, ResponseFilter responseFilter,
+                                                                      DeliverOrder deliverOrder, boolean anycast) throws Exception {
+      CompletableNotifyingFuture<Map<Address, Response>> future = new CompletableNotifyingFuture<>();
+      try {
+         future.complete(invokeRemotely(recipients, rpcCommand, mode, timeout, responseFilter, deliverOrder, anycast));
+      } catch (Exception e) {
+         future.completeExceptionally(e);
+      }
+      return future;
+   }
+
    @Override
    public BackupResponse backupRemotely(Collection<XSiteBackup> backups, XSiteReplicateCommand rpcCommand) throws Exception {
       beforeBackupRemotely(rpcCommand);
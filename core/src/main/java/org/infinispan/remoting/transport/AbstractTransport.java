@@ -1,15 +1,22 @@
 package org.infinispan.remoting.transport;
 
+import org.infinispan.commands.ReplicableCommand;
 import org.infinispan.commons.CacheException;
+import org.infinispan.commons.util.concurrent.CompletableNotifyingFuture;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.partitionhandling.AvailabilityException;
+import org.infinispan.remoting.inboundhandler.DeliverOrder;
 import org.infinispan.remoting.responses.ExceptionResponse;
 import org.infinispan.remoting.responses.Response;
+import org.infinispan.remoting.rpc.ResponseFilter;
+import org.infinispan.remoting.rpc.ResponseMode;
 import org.infinispan.remoting.transport.jgroups.SuspectException;
 import org.infinispan.util.concurrent.TimeoutException;
 import org.infinispan.util.logging.Log;
 
+import java.util.Collection;
 import java.util.Map;
 
 /**
@@ -28,6 +35,23 @@ public void setConfiguration(GlobalConfiguration globalConfiguration) {
       this.configuration = globalConfiguration;
    }
 
+   /**
+    * Invokes the command synchronously and returns a completed future, for the transports that can't receive the
+    * responses asynchronously.
+    */
+   @Override
+   public NotifyingFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<Address> recipients, ReplicableCommand rpcCommand,
+                                                                      ResponseMode mode, long timeout, ResponseFilter responseFilter,
+                                                                      DeliverOrder deliverOrder, boolean anycast) throws Exception {
+      CompletableNotifyingFuture<Map<Address, Response>> future = new CompletableNotifyingFuture<Map<Address, Response>>();
+      try {
+         future.complete(invokeRemotely(recipients, rpcCommand, mode, timeout, responseFilter, deliverOrder, anycast));
+      } catch (Exception e) {
+         future.completeExceptionally(e);
+      }
+      return future;
+   }
+
    public final boolean checkResponse(Object responseObject, Address sender) throws Exception {
       Log log = getLog();
       if (responseObject instanceof Response) {
@@ -1,6 +1,7 @@
 package org.infinispan.remoting.transport;
 
 import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.annotations.Stop;
 import org.infinispan.factories.scopes.Scope;
@@ -73,6 +74,24 @@ Map<Address, Response> invokeRemotely(Collection<Address> recipients, Replicable
    Map<Address, Response> invokeRemotely(Collection<Address> recipients, ReplicableCommand rpcCommand, ResponseMode mode, long timeout,
                                          ResponseFilter responseFilter, DeliverOrder deliverOrder, boolean anycast) throws Exception;
 
+   /**
+    * The same as {@link #invokeRemotely(java.util.Collection, org.infinispan.commands.ReplicableCommand,
+    * org.infinispan.remoting.rpc.ResponseMode, long, org.infinispan.remoting.rpc.ResponseFilter,
+    * org.infinispan.remoting.inboundhandler.DeliverOrder, boolean)} except that the calling thread doesn't wait for the
+    * responses. The returned future is completed with the map of responses, or with the exception {@code
+    * invokeRemotely} would have thrown, once all the responses have been received or the timeout expired.
+    * <p/>
+    * Implementations that don't support asynchronous invocations may invoke the command synchronously and return a
+    * completed future.
+    *
+    * @return a future of the map of responses from each member contacted.
+    * @throws Exception if the command could not be sent.
+    * @since 7.1
+    */
+   NotifyingFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<Address> recipients, ReplicableCommand rpcCommand,
+                                                               ResponseMode mode, long timeout, ResponseFilter responseFilter,
+                                                               DeliverOrder deliverOrder, boolean anycast) throws Exception;
+
    BackupResponse backupRemotely(Collection<XSiteBackup> backups, XSiteReplicateCommand rpcCommand) throws Exception;
 
    /**
@@ -4,6 +4,7 @@
 import org.infinispan.commands.FlagAffectedCommand;
 import org.infinispan.commands.ReplicableCommand;
 import org.infinispan.commons.CacheException;
+import org.infinispan.commons.util.concurrent.CompletableNotifyingFuture;
 import org.infinispan.commons.util.Util;
 import org.infinispan.context.Flag;
 import org.infinispan.factories.GlobalComponentRegistry;
@@ -227,6 +228,118 @@ public RspList<Object> broadcastRemoteCommands(ReplicableCommand command, Respon
                                   ignoreLeavers);
    }
 
+   /**
+    * Sends the command to several recipients, like {@link #invokeRemoteCommands(java.util.List,
+    * org.infinispan.commands.ReplicableCommand, org.jgroups.blocks.ResponseMode, long, org.jgroups.blocks.RspFilter,
+    * org.infinispan.remoting.inboundhandler.DeliverOrder, boolean, boolean)}, but doesn't wait for the responses. The
+    * returned future is completed from the JGroups thread that receives the last expected response, or from the JGroups
+    * timer if the responses didn't arrive within {@code timeout} milliseconds. Like the synchronous version, it is
+    * completed with {@code null} if there are no responses or all of them are {@code null}.
+    * <p/>
+    * Unlike the synchronous version, the command is sent to an explicit list of recipients as one JGroups anycast
+    * request (i.e. as parallel unicasts), which takes care of the response filter and of the suspected recipients.
+    *
+    * @param recipients the recipients, or {@code null} to broadcast the command. Must <b>not</b> contain self.
+    */
+   public CompletableNotifyingFuture<RspList<Object>> invokeRemoteCommandsAsync(final List<Address> recipients,
+                                                                             ReplicableCommand command, ResponseMode mode,
+                                                                             long timeout, RspFilter filter,
+                                                                             DeliverOrder deliverOrder) {
+      if (trace) log.tracef("Replication task sending %s asynchronously to addresses %s with response mode %s", command, recipients, mode);
+      final CompletableNotifyingFuture<RspList<Object>> result = new CompletableNotifyingFuture<>();
+      try {
+         boolean rsvp = isRsvpCommand(command);
+         Buffer buf = marshallCall(req_marshaller, command);
+         RequestOptions opts = new RequestOptions(mode, timeout, false, filter);
+         Message message;
+         if (deliverOrder == DeliverOrder.TOTAL) {
+            message = constructMessage(buf, new AnycastAddress(recipients), mode, rsvp, deliverOrder);
+         } else {
+            opts.setExclusionList(getChannel().getAddress());
+            opts.setAnycasting(recipients != null && !FORCE_MCAST);
+            message = constructMessage(buf, null, mode, rsvp, deliverOrder);
+         }
+         NotifyingFuture<RspList<Object>> future = castMessageWithFuture(recipients, message, opts);
+         completeWhenDone(future, result, timeout, recipients, new ResultTransformer<RspList<Object>>() {
+            @Override
+            public RspList<Object> transform(RspList<Object> response) {
+               return response.isEmpty() || containsOnlyNulls(response) ? null : response;
+            }
+         });
+      } catch (Exception e) {
+         result.completeExceptionally(translateException(e, recipients));
+      }
+      return result;
+   }
+
+   /**
+    * Sends the command to a single recipient, like {@link #invokeRemoteCommand(org.jgroups.Address,
+    * org.infinispan.commands.ReplicableCommand, org.jgroups.blocks.ResponseMode, long,
+    * org.infinispan.remoting.inboundhandler.DeliverOrder, boolean)}, but doesn't wait for the response. The returned
+    * future is completed with the response, which the caller must still check, from the JGroups thread that receives
+    * it, or from the JGroups timer if it didn't arrive within {@code timeout} milliseconds.
+    */
+   public CompletableNotifyingFuture<Object> invokeRemoteCommandAsync(final Address recipient, ReplicableCommand command,
+                                                                      ResponseMode mode, long timeout,
+                                                                      DeliverOrder deliverOrder) {
+      if (trace) log.tracef("Replication task sending %s asynchronously to single recipient %s with response mode %s", command, recipient, mode);
+      final CompletableNotifyingFuture<Object> result = new CompletableNotifyingFuture<>();
+      try {
+         boolean rsvp = isRsvpCommand(command);
+         Buffer buf = marshallCall(req_marshaller, command);
+         NotifyingFuture<Object> future = sendMessageWithFuture(constructMessage(buf, recipient, mode, rsvp, deliverOrder),
+                                                                new RequestOptions(mode, timeout));
+         completeWhenDone(future, result, timeout, recipient, null);
+      } catch (Exception e) {
+         result.completeExceptionally(translateException(e, recipient));
+      }
+      return result;
+   }
+
+   private interface ResultTransformer<T> {
+      T transform(T result);
+   }
+
+   private <T> void completeWhenDone(final NotifyingFuture<T> future, final CompletableNotifyingFuture<T> result,
+                                     final long timeout, final Object recipients, final ResultTransformer<T> transformer) {
+      // JGroups doesn't time out requests that nobody waits for
+      final Future<?> timeoutTask = getChannel().getProtocolStack().getTransport().getTimer().schedule(new Runnable() {
+         @Override
+         public void run() {
+            TimeoutException e = new TimeoutException(formatString("Timed out after %s waiting for a response from %s",
+                                                                   prettyPrintTime(timeout), recipients));
+            if (result.completeExceptionally(e)) {
+               future.cancel(true);
+            }
+         }
+      }, timeout, MILLISECONDS);
+      future.setListener(new FutureListener<T>() {
+         @Override
+         public void futureDone(Future<T> done) {
+            timeoutTask.cancel(false);
+            try {
+               T response = done.get();
+               result.complete(transformer == null ? response : transformer.transform(response));
+            } catch (ExecutionException e) {
+               result.completeExceptionally(translateException(e.getCause(), recipients));
+            } catch (Throwable t) {
+               result.completeExceptionally(translateException(t, recipients));
+            }
+         }
+      });
+   }
+
+   private static Throwable translateException(Throwable t, Object recipients) {
+      if (t instanceof SuspectedException) {
+         return new SuspectException("One of the nodes " + recipients + " was suspected", (SuspectedException) t);
+      } else if (t instanceof org.jgroups.TimeoutException) {
+         return new TimeoutException("One of the nodes " + recipients + " timed out", t);
+      } else if (t instanceof Exception) {
+         return rewrapAsCacheException(t);
+      }
+      return t;
+   }
+
    private boolean containsOnlyNulls(RspList<Object> l) {
       for (Rsp<Object> r : l.values()) {
          if (r.getValue() != null || !r.wasReceived() || r.wasSuspected()) return false;
@@ -10,6 +10,9 @@
 import org.infinispan.commons.util.InfinispanCollections;
 import org.infinispan.commons.util.TypedProperties;
 import org.infinispan.commons.util.Util;
+import org.infinispan.commons.util.concurrent.CompletableNotifyingFuture;
+import org.infinispan.commons.util.concurrent.FutureListener;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.configuration.global.TransportConfiguration;
 import org.infinispan.configuration.parsing.XmlConfigHelper;
 import org.infinispan.factories.GlobalComponentRegistry;
@@ -63,6 +66,7 @@
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.locks.Condition;
@@ -580,19 +584,108 @@ public Map<Address, Response> invokeRemotely(Collection<Address> recipients, Rep
             responses = Collections.singletonMap(fromJGroupsAddress(singleJGAddress), singleResponse);
          }
       } else {
-         Map<Address, Response> retval = new HashMap<>(rsps.size());
+         responses = parseResponses(rsps, responseFilter, ignoreLeavers);
+      }
+      return responses;
+   }
+
+   @Override
+   public NotifyingFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<Address> recipients, final ReplicableCommand rpcCommand,
+                                                                      ResponseMode mode, long timeout, final ResponseFilter responseFilter,
+                                                                      DeliverOrder deliverOrder, boolean anycast) throws Exception {
+      if (!mode.isSynchronous() || recipients != null && recipients.isEmpty()) {
+         // there's nothing to wait for
+         return CompletableNotifyingFuture.completedFuture(invokeRemotely(recipients, rpcCommand, mode, timeout,
+                                                                          responseFilter, deliverOrder, anycast));
+      }
+      boolean totalOrder = deliverOrder == DeliverOrder.TOTAL;
+
+      if (trace)
+         log.tracef("dests=%s, command=%s, mode=%s, timeout=%s, async", recipients, rpcCommand, mode, timeout);
+      final boolean ignoreLeavers = mode == ResponseMode.SYNCHRONOUS_IGNORE_LEAVERS || mode == ResponseMode.WAIT_FOR_VALID_RESPONSE;
+      if (recipients != null && !getMembers().containsAll(recipients)) {
+         if (ignoreLeavers) {
+            recipients = new HashSet<>(recipients);
+            recipients.retainAll(getMembers());
+         } else {
+            throw new SuspectException("One or more nodes have left the cluster while replicating command " + rpcCommand);
+         }
+      }
 
-         boolean noValidResponses = true;
-         for (Rsp<Object> rsp : rsps.values()) {
-            noValidResponses &= parseResponseAndAddToResponseList(rsp.getValue(), rsp.getException(), retval, rsp.wasSuspected(), rsp.wasReceived(), fromJGroupsAddress(rsp.getSender()),
-                                                                  responseFilter != null, ignoreLeavers);
+      List<org.jgroups.Address> jgAddressList = toJGroupsAddressListExcludingSelf(recipients, totalOrder);
+      if (jgAddressList == null && !totalOrder) {
+         ArrayList<Address> others = new ArrayList<>(members);
+         others.remove(getAddress());
+         if (others.isEmpty()) {
+            return CompletableNotifyingFuture.completedFuture(InfinispanCollections.<Address, Response>emptyMap());
+         }
+         if (others.size() == 1) {
+            jgAddressList = Collections.singletonList(toJGroupsAddress(others.get(0)));
          }
+      } else if (jgAddressList != null && jgAddressList.isEmpty()) {
+         return CompletableNotifyingFuture.completedFuture(InfinispanCollections.<Address, Response>emptyMap());
+      }
 
-         if (noValidResponses)
-            throw new TimeoutException("Timed out waiting for valid responses!");
-         responses = retval;
+      final CompletableNotifyingFuture<Map<Address, Response>> result = new CompletableNotifyingFuture<>();
+      if (!ignoreLeavers && !totalOrder && jgAddressList != null && jgAddressList.size() == 1) {
+         final org.jgroups.Address singleJGAddress = jgAddressList.get(0);
+         dispatcher.invokeRemoteCommandAsync(singleJGAddress, rpcCommand, toJGroupsMode(mode), timeout, deliverOrder)
+               .attachListener(new FutureListener<Object>() {
+                  @Override
+                  public void futureDone(Future<Object> future) {
+                     try {
+                        Object response = future.get();
+                        Address sender = fromJGroupsAddress(singleJGAddress);
+                        if (response != null && !checkResponse(response, sender)) {
+                           if (trace) log.tracef("Invalid response from %s", sender);
+                           throw new TimeoutException("Received an invalid response " + response + " from " + sender);
+                        }
+                        if (response == null && rpcCommand instanceof ClusteredGetCommand) {
+                           result.complete(InfinispanCollections.<Address, Response>emptyMap());
+                        } else {
+                           result.complete(Collections.singletonMap(sender, (Response) response));
+                        }
+                     } catch (ExecutionException e) {
+                        result.completeExceptionally(e.getCause());
+                     } catch (Throwable t) {
+                        result.completeExceptionally(t);
+                     }
+                  }
+               });
+      } else {
+         dispatcher.invokeRemoteCommandsAsync(jgAddressList, rpcCommand, toJGroupsMode(mode), timeout,
+                                              toJGroupsFilter(responseFilter), deliverOrder)
+               .attachListener(new FutureListener<RspList<Object>>() {
+                  @Override
+                  public void futureDone(Future<RspList<Object>> future) {
+                     try {
+                        RspList<Object> rsps = future.get();
+                        result.complete(rsps == null ? InfinispanCollections.<Address, Response>emptyMap() :
+                                              parseResponses(rsps, responseFilter, ignoreLeavers));
+                     } catch (ExecutionException e) {
+                        result.completeExceptionally(e.getCause());
+                     } catch (Throwable t) {
+                        result.completeExceptionally(t);
+                     }
+                  }
+               });
       }
-      return responses;
+      return result;
+   }
+
+   private Map<Address, Response> parseResponses(RspList<Object> rsps, ResponseFilter responseFilter,
+                                                 boolean ignoreLeavers) throws Exception {
+      Map<Address, Response> retval = new HashMap<>(rsps.size());
+
+      boolean noValidResponses = true;
+      for (Rsp<Object> rsp : rsps.values()) {
+         noValidResponses &= parseResponseAndAddToResponseList(rsp.getValue(), rsp.getException(), retval, rsp.wasSuspected(), rsp.wasReceived(), fromJGroupsAddress(rsp.getSender()),
+                                                               responseFilter != null, ignoreLeavers);
+      }
+
+      if (noValidResponses)
+         throw new TimeoutException("Timed out waiting for valid responses!");
+      return retval;
    }
 
    @Override
@@ -9,6 +9,7 @@
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.filter.CollectionKeyFilter;
+import org.infinispan.persistence.PersistenceUtil;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
 import org.infinispan.marshall.core.MarshalledEntry;
@@ -157,18 +158,16 @@ public void run() {
                AdvancedCacheLoader.CacheLoaderTask task = new AdvancedCacheLoader.CacheLoaderTask() {
                   @Override
                   public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext taskContext) throws InterruptedException {
-                        int segmentId = readCh.getSegment(me.getKey());
-                        if (segments.contains(segmentId)) {
-                           try {
-                              InternalCacheEntry icv = entryFactory.create(me.getKey(), me.getValue(), me.getMetadata());
-                              sendEntry(icv, segmentId);
-                           } catch (CacheException e) {
-                              log.failedLoadingValueFromCacheStore(me.getKey(), e);
-                           }
-                        }
+                     try {
+                        InternalCacheEntry icv = entryFactory.create(me.getKey(), me.getValue(), me.getMetadata());
+                        sendEntry(icv, readCh.getSegment(me.getKey()));
+                     } catch (CacheException e) {
+                        log.failedLoadingValueFromCacheStore(me.getKey(), e);
                      }
-                  };
-               stProvider.process(filter, task, new WithinThreadExecutor(), true, true);
+                  }
+               };
+               // only read the entries of the transferred segments from the store
+               PersistenceUtil.process(stProvider, readCh, segments, filter, task, new WithinThreadExecutor(), true, true);
             } catch (CacheException e) {
                log.failedLoadingKeysFromCacheStore(e);
             }
@@ -907,21 +907,22 @@ public void apply(Object o, InternalCacheEntry<Object, Object> ice) {
       // gather all keys from cache store that belong to the segments that are being removed/moved to L1
       if (!removedSegments.isEmpty()) {
          try {
-            KeyFilter filter = new KeyFilter() {
-               @Override
-               public boolean accept(Object key) {
-                  if (dataContainer.containsKey(key))
-                     return false;
-                  int keySegment = getSegment(key);
-                  return (removedSegments.contains(keySegment));
-               }
-            };
-            persistenceManager.processOnAllStores(filter, new AdvancedCacheLoader.CacheLoaderTask() {
-               @Override
-               public void processEntry(MarshalledEntry marshalledEntry, AdvancedCacheLoader.TaskContext taskContext) throws InterruptedException {
-                  keysToRemove.add(marshalledEntry.getKey());
-               }
-            }, false, false, PRIVATE);
+            ConsistentHash ch = cacheTopology.getReadConsistentHash();
+            // segmented stores remove the entries of the segments by themselves
+            if (!persistenceManager.clearSegmentsFromAllStores(ch, removedSegments, PRIVATE)) {
+               KeyFilter filter = new KeyFilter() {
+                  @Override
+                  public boolean accept(Object key) {
+                     return !dataContainer.containsKey(key);
+                  }
+               };
+               persistenceManager.processOnAllStores(ch, removedSegments, filter, new AdvancedCacheLoader.CacheLoaderTask() {
+                  @Override
+                  public void processEntry(MarshalledEntry marshalledEntry, AdvancedCacheLoader.TaskContext taskContext) throws InterruptedException {
+                     keysToRemove.add(marshalledEntry.getKey());
+                  }
+               }, false, false, PRIVATE);
+            }
          } catch (CacheException e) {
             log.failedLoadingKeysFromCacheStore(e);
          }
@@ -1,12 +1,20 @@
 package org.infinispan.statetransfer;
 
+import org.infinispan.commands.StreamableCommand;
 import org.infinispan.commands.remote.BaseRpcCommand;
+import org.infinispan.commons.io.UnsignedNumeric;
+import org.infinispan.commons.marshall.MarshallUtil;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.remoting.transport.Address;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * This command is used by a StateProvider to push cache entries to a StateConsumer.
@@ -14,7 +22,7 @@
  * @author anistor@redhat.com
  * @since 5.2
  */
-public class StateResponseCommand extends BaseRpcCommand {
+public class StateResponseCommand extends BaseRpcCommand implements StreamableCommand {
 
    private static final Log log = LogFactory.getLog(StateResponseCommand.class);
 
@@ -98,6 +106,25 @@ public void setParameters(int commandId, Object[] parameters) {
       stateChunks = (Collection<StateChunk>) parameters[i];
    }
 
+   @Override
+   public void writeTo(ObjectOutput output) throws IOException {
+      output.writeObject(getOrigin());
+      output.writeInt(topologyId);
+      MarshallUtil.marshallCollection(stateChunks, output);
+   }
+
+   @Override
+   public void readFrom(ObjectInput input) throws IOException, ClassNotFoundException {
+      setOrigin((Address) input.readObject());
+      topologyId = input.readInt();
+      int size = UnsignedNumeric.readUnsignedInt(input);
+      List<StateChunk> chunks = new ArrayList<StateChunk>(size);
+      for (int i = 0; i < size; i++) {
+         chunks.add((StateChunk) input.readObject());
+      }
+      stateChunks = chunks;
+   }
+
    @Override
    public String toString() {
       return "StateResponseCommand{" +
@@ -9,12 +9,15 @@
  */
 
 package org.infinispan.util.concurrent;
+import org.infinispan.commons.equivalence.AnyEquivalence;
 import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.equivalence.EquivalentHashMap;
 import org.infinispan.commons.equivalence.EquivalentLinkedHashMap;
 import org.infinispan.commons.util.InfinispanCollections;
 import org.infinispan.commons.util.concurrent.ParallelIterableMap;
 import org.infinispan.commons.util.concurrent.jdk8backported.ForkJoinPool;
 import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.eviction.EntrySizeCalculator;
 import org.infinispan.executors.ExecutorAllCompletionService;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
@@ -153,6 +156,12 @@
    
    private static final int CANCELLATION_CHECK_FREQUENCY = 64;
 
+   /**
+    * The initial capacity of each segment of a memory bounded map. Memory bounded maps cannot
+    * be sized upfront, so their segments are rehashed as they grow.
+    */
+   static final int MEMORY_BOUNDED_SEGMENT_CAPACITY = 16;
+
    /* ---------------- Fields -------------- */
 
    /**
@@ -178,7 +187,9 @@
    private transient final Equivalence<? super K> keyEquivalence;
    private transient final Equivalence<? super V> valueEquivalence;
    private transient final EvictionListener<? super K, ? super V> evictionListener;
+   private transient final EntrySizeCalculator<? super K, ? super V> sizeCalculator;
    private final int evictCap;
+   private final long evictMemoryCap;
    
    private final ExecutorService executor;
 
@@ -265,6 +276,20 @@ static <K, V> HashEntry<K, V>[] newArray(int i) {
       }
    }
 
+   /**
+    * HashEntry used by memory bounded maps. It remembers the size the entry was accounted for, since the value it
+    * references may be mutated in place after it has been stored.
+    * <p/>
+    * The size is only read and written while holding the Segment lock.
+    */
+   private static final class SizedHashEntry<K, V> extends HashEntry<K, V> {
+      long size;
+
+      SizedHashEntry(K key, int hash, HashEntry<K, V> next, V value) {
+         super(key, hash, next, value);
+      }
+   }
+
    private enum Recency {
       HIR_RESIDENT, LIR_RESIDENT, HIR_NONRESIDENT
    }
@@ -289,6 +314,13 @@ public <K, V> EvictionPolicy<K, V> make(Segment<K, V> s, int capacity, float lf)
             return new BatchWrapper<K, V>(s, capacity * 10,
                    new LIRS<K, V>(s, capacity));
          }
+      },
+      TINY_LFU {
+         @Override
+         public <K, V> EvictionPolicy<K, V> make(Segment<K, V> s, int capacity, float lf) {
+            return new BatchWrapper<K, V>(s, capacity * 10,
+                   new TinyLFU<K, V>(s, capacity));
+         }
       };
 
       abstract <K, V> EvictionPolicy<K, V> make(Segment<K, V> s, int capacity, float lf);
@@ -359,6 +391,16 @@ public void onEntryRemoved(Object key) {
        */
       void onEntryRemove(HashEntry<K, V> e);
 
+      /**
+       * Invoked to notify EvictionPolicy implementation that the entries in Segment exceed its
+       * memory bound. Implementations should evict entries until Segment is within the bound again.
+       * <p>
+       * Only invoked for memory bounded maps, while holding a lock on Segment.
+       *
+       * @return non null set of evicted entries.
+       */
+      Set<HashEntry<K, V>> onMemoryExceeded();
+
       /**
        * Invoked to notify EvictionPolicy implementation that all Segment entries have been
        * cleared.
@@ -389,6 +431,11 @@ public void onEntryRemove(HashEntry<K, V> e) {
          // Do nothing.
       }
 
+      @Override
+      public Set<HashEntry<K, V>> onMemoryExceeded() {
+         return InfinispanCollections.emptySet();
+      }
+
       @Override
       public HashEntry<K, V> createNewEntry(K key, int hash, HashEntry<K, V> next, V value) {
          return new HashEntry<K, V>(key, hash, next, value);
@@ -472,6 +519,13 @@ public void onEntryRemove(HashEntry<K, V> e) {
          eviction.onEntryRemove(e);
       }
 
+      @Override
+      public Set<HashEntry<K, V>> onMemoryExceeded() {
+         // same as for misses, the eviction order has to be up to date
+         processEnqueuedHits();
+         return eviction.onMemoryExceeded();
+      }
+
       @Override
       public void clear() {
          eviction.clear();
@@ -559,7 +613,8 @@ public void clear() {
       }
 
       protected boolean isAboveThreshold(){
-         return size() > trimDownSize;
+         // memory bounded segments are trimmed down by onMemoryExceeded() instead
+         return !segment.isMemoryBounded() && size() > trimDownSize;
       }
 
       @Override
@@ -573,8 +628,27 @@ protected boolean removeEldestEntry(Map.Entry<HashEntry<K,V>,V> eldest) {
          return aboveThreshold;
       }
 
+      @Override
+      public Set<HashEntry<K, V>> onMemoryExceeded() {
+         Set<HashEntry<K, V>> evictedEntries = new HashSet<HashEntry<K, V>>();
+         while (segment.isMemoryExceeded() && !isEmpty()) {
+            HashEntry<K, V> eldest = keySet().iterator().next();
+            // the entry kept here may be stale if the segment has been rehashed, so use the removed value instead
+            V value = segment.remove(eldest.key, eldest.hash, null, true);
+            // make sure the loop progresses even if the segment did not contain the entry any more
+            remove(eldest);
+            if (value != null) {
+               evictedEntries.add(new HashEntry<K, V>(eldest.key, eldest.hash, null, value));
+            }
+         }
+         return evictedEntries;
+      }
+
       @Override
       public HashEntry<K, V> createNewEntry(K key, int hash, HashEntry<K, V> next, V value) {
+         if (segment.map.sizeCalculator != null) {
+            return new SizedHashEntry<K, V>(key, hash, next, value);
+         }
          return new HashEntry<K, V>(key, hash, next, value);
       }
    }
@@ -1087,6 +1161,11 @@ public void onEntryRemove(HashEntry<K, V> e) {
       public void clear() {
       }
 
+      @Override
+      public Set<HashEntry<K, V>> onMemoryExceeded() {
+         throw new UnsupportedOperationException("LIRS does not support memory based eviction");
+      }
+
       /**
        * Returns the entry at the bottom of the stack.
        */
@@ -1118,6 +1197,259 @@ public HashEntry<K, V> createNewEntry(K key, int hash, HashEntry<K, V> next, V v
       }
    }
 
+   /**
+    * Window TinyLFU eviction policy: new entries are admitted to a small LRU window, and entries leaving the window
+    * compete with the least recently used entry of the main segmented LRU area, keeping the one that was accessed more
+    * often according to a {@link FrequencySketch}. The window lets recent bursts of new keys stay in the cache, while
+    * the admission filter protects the frequently accessed entries from being evicted by scans.
+    * <p/>
+    * See "TinyLFU: A Highly Efficient Cache Admission Policy" by Einziger, Friedman and Manes,
+    * http://arxiv.org/abs/1512.00727
+    * <p/>
+    * Like the other policies, it is wrapped in a {@link BatchWrapper}, so hits are buffered and only applied while
+    * holding the Segment lock.
+    */
+   static final class TinyLFU<K, V> implements EvictionPolicy<K, V> {
+
+      /** The percentage of the segment capacity dedicated to the admission window. */
+      private static final float WINDOW = 0.01f;
+
+      /** The percentage of the main area dedicated to entries accessed more than once. */
+      private static final float PROTECTED = 0.8f;
+
+      private static final int WINDOW_QUEUE = 0;
+      private static final int PROBATION_QUEUE = 1;
+      private static final int PROTECTED_QUEUE = 2;
+
+      private final Segment<K, V> segment;
+      private final int maximumSize;
+      private final int maximumWindowSize;
+      private final int maximumProtectedSize;
+      private final FrequencySketch sketch;
+      private final Map<K, Node<K>> nodes;
+
+      private final Node<K> window = new Node<K>(null, 0);
+      private final Node<K> probation = new Node<K>(null, 0);
+      private final Node<K> protectedQueue = new Node<K>(null, 0);
+      private int windowSize;
+      private int protectedSize;
+
+      /**
+       * The node of the last entry removed from the segment. A removal that is immediately followed by a miss for the
+       * same key is the segment copying an entry preceding a removed one in its bucket, and the node keeps its place.
+       */
+      private Node<K> removed;
+
+      private boolean evicting;
+
+      public TinyLFU(Segment<K, V> s, int capacity) {
+         this.segment = s;
+         this.maximumSize = Math.max(capacity, 1);
+         this.maximumWindowSize = Math.max(1, (int) (WINDOW * maximumSize));
+         this.maximumProtectedSize = (int) (PROTECTED * (maximumSize - maximumWindowSize));
+         this.sketch = new FrequencySketch(maximumSize);
+         this.nodes = new EquivalentHashMap<K, Node<K>>(s.map.keyEquivalence, AnyEquivalence.<Node<K>>getInstance());
+      }
+
+      @Override
+      public HashEntry<K, V> createNewEntry(K key, int hash, HashEntry<K, V> next, V value) {
+         if (segment.map.sizeCalculator != null) {
+            return new SizedHashEntry<K, V>(key, hash, next, value);
+         }
+         return new HashEntry<K, V>(key, hash, next, value);
+      }
+
+      @Override
+      public Set<HashEntry<K, V>> onEntryMiss(HashEntry<K, V> e) {
+         if (removed != null && segment.map.keyEquivalence.equals(removed.key, e.key)) {
+            // the entry was only copied
+            removed = null;
+            return InfinispanCollections.emptySet();
+         }
+         unlinkRemoved();
+
+         Node<K> node = new Node<K>(e.key, e.hash);
+         Node<K> previous = nodes.put(e.key, node);
+         if (previous != null && previous.queue >= 0) {
+            unlink(previous);
+         }
+         linkLast(window, node, WINDOW_QUEUE);
+         sketch.increment(e.hash);
+         if (evicting) {
+            return InfinispanCollections.emptySet();
+         }
+         return evict();
+      }
+
+      @Override
+      public void onEntryHit(HashEntry<K, V> e) {
+         Node<K> node = nodes.get(e.key);
+         if (node == null) {
+            // the hit was buffered and the entry removed in the meantime
+            return;
+         }
+         sketch.increment(node.hash);
+         switch (node.queue) {
+            case PROBATION_QUEUE:
+               unlink(node);
+               linkLast(protectedQueue, node, PROTECTED_QUEUE);
+               while (protectedSize > maximumProtectedSize) {
+                  Node<K> demoted = protectedQueue.next;
+                  unlink(demoted);
+                  linkLast(probation, demoted, PROBATION_QUEUE);
+               }
+               break;
+            default:
+               moveToLast(node);
+               break;
+         }
+      }
+
+      @Override
+      public void onEntryRemove(HashEntry<K, V> e) {
+         unlinkRemoved();
+         Node<K> node = nodes.get(e.key);
+         if (node != null) {
+            removed = node;
+         }
+      }
+
+      @Override
+      public Set<HashEntry<K, V>> onMemoryExceeded() {
+         throw new UnsupportedOperationException("TinyLFU does not support memory based eviction");
+      }
+
+      @Override
+      public void clear() {
+         nodes.clear();
+         window.prev = window.next = window;
+         probation.prev = probation.next = probation;
+         protectedQueue.prev = protectedQueue.next = protectedQueue;
+         windowSize = 0;
+         protectedSize = 0;
+         removed = null;
+         sketch.clear();
+      }
+
+      /**
+       * Moves the entries overflowing the window to the main area, then evicts either the entries leaving the window
+       * or the least recently used entries of the main area, whichever were accessed less frequently, until the
+       * segment is within its capacity again.
+       */
+      private Set<HashEntry<K, V>> evict() {
+         while (windowSize > maximumWindowSize) {
+            Node<K> node = window.next;
+            unlink(node);
+            linkLast(probation, node, PROBATION_QUEUE);
+         }
+         Set<HashEntry<K, V>> evicted = null;
+         while (nodes.size() > maximumSize) {
+            Node<K> victim = first();
+            Node<K> candidate = probation.prev;
+            if (candidate != victim && candidate != probation
+                  && sketch.frequency(candidate.hash) <= sketch.frequency(victim.hash)) {
+               victim = candidate;
+            }
+            HashEntry<K, V> entry = evict(victim);
+            if (entry != null) {
+               if (evicted == null) {
+                  evicted = new HashSet<HashEntry<K, V>>();
+               }
+               evicted.add(entry);
+            }
+         }
+         return evicted == null ? InfinispanCollections.<HashEntry<K, V>>emptySet() : evicted;
+      }
+
+      private HashEntry<K, V> evict(Node<K> victim) {
+         V value;
+         evicting = true;
+         try {
+            value = segment.remove(victim.key, victim.hash, null, true);
+         } finally {
+            evicting = false;
+         }
+         unlinkRemoved();
+         // make sure the loop progresses even if the segment did not contain the entry any more
+         if (victim.queue >= 0) {
+            discard(victim);
+         }
+         return value == null ? null : new HashEntry<K, V>(victim.key, victim.hash, null, value);
+      }
+
+      /**
+       * @return the least recently used entry of the probation area, falling back to the protected area and the window
+       */
+      private Node<K> first() {
+         if (probation.next != probation) {
+            return probation.next;
+         } else if (protectedQueue.next != protectedQueue) {
+            return protectedQueue.next;
+         }
+         return window.next;
+      }
+
+      private void unlinkRemoved() {
+         if (removed != null) {
+            if (removed.queue >= 0) {
+               discard(removed);
+            }
+            removed = null;
+         }
+      }
+
+      private void discard(Node<K> node) {
+         unlink(node);
+         if (nodes.get(node.key) == node) {
+            nodes.remove(node.key);
+         }
+      }
+
+      private void linkLast(Node<K> head, Node<K> node, int queue) {
+         node.queue = queue;
+         node.prev = head.prev;
+         node.next = head;
+         head.prev.next = node;
+         head.prev = node;
+         if (queue == WINDOW_QUEUE) {
+            windowSize++;
+         } else if (queue == PROTECTED_QUEUE) {
+            protectedSize++;
+         }
+      }
+
+      private void moveToLast(Node<K> node) {
+         int queue = node.queue;
+         unlink(node);
+         linkLast(queue == WINDOW_QUEUE ? window : protectedQueue, node, queue);
+      }
+
+      private void unlink(Node<K> node) {
+         node.prev.next = node.next;
+         node.next.prev = node.prev;
+         node.prev = node.next = null;
+         if (node.queue == WINDOW_QUEUE) {
+            windowSize--;
+         } else if (node.queue == PROTECTED_QUEUE) {
+            protectedSize--;
+         }
+         node.queue = -1;
+      }
+
+      private static final class Node<K> {
+         final K key;
+         final int hash;
+         Node<K> prev = this;
+         Node<K> next = this;
+         int queue = -1;
+
+         Node(K key, int hash) {
+            this.key = key;
+            this.hash = hash;
+         }
+      }
+   }
+
    /**
     * Segments are specialized versions of hash tables.  This
     * subclasses from ReentrantLock opportunistically, just to
@@ -1202,6 +1534,12 @@ public HashEntry<K, V> createNewEntry(K key, int hash, HashEntry<K, V> next, V v
 
       transient final BoundedConcurrentHashMap map;
 
+      /**
+       * The estimated number of bytes used by the entries in this segment, when the map is
+       * memory bounded. Only modified while holding the segment lock.
+       */
+      transient volatile long memoryUsage;
+
       Segment(int cap, float lf, Eviction es, BoundedConcurrentHashMap map) {
          this.map = map;
          loadFactor = lf;
@@ -1209,12 +1547,65 @@ public HashEntry<K, V> createNewEntry(K key, int hash, HashEntry<K, V> next, V v
          setTable(HashEntry.<K, V> newArray(cap));
          // disable rehashing if eviction is enabled (rehashing in this map
          // implementation involves recreating all entries, which breaks the
-         // order maintained by the eviction algorithms)
-         if (es != Eviction.NONE) {
+         // order maintained by the eviction algorithms). Memory bounded maps
+         // cannot be sized upfront, so they keep rehashing: their LRU policy
+         // identifies entries by key and doesn't depend on entry identity.
+         if (es != Eviction.NONE && !isMemoryBounded()) {
             threshold = Integer.MAX_VALUE;
          }
       }
 
+      boolean isMemoryBounded() {
+         return map.sizeCalculator != null;
+      }
+
+      boolean isMemoryExceeded() {
+         return isMemoryBounded() && memoryUsage > map.evictMemoryCap;
+      }
+
+      /**
+       * Updates the memory usage after an entry has been added or its value has changed.
+       * Call only while holding lock.
+       */
+      @SuppressWarnings("unchecked")
+      private void addMemoryUsage(HashEntry<K,V> e) {
+         if (e instanceof SizedHashEntry) {
+            SizedHashEntry<K,V> sized = (SizedHashEntry<K,V>) e;
+            long size = map.sizeCalculator.calculateSize(e.key, e.value);
+            memoryUsage += size - sized.size;
+            sized.size = size;
+         }
+      }
+
+      /**
+       * Updates the memory usage after an entry has been removed.
+       * Call only while holding lock.
+       */
+      private void removeMemoryUsage(HashEntry<K,V> e) {
+         if (e instanceof SizedHashEntry) {
+            memoryUsage -= ((SizedHashEntry<K,V>) e).size;
+         }
+      }
+
+      /**
+       * Recreates an entry with a different next entry, preserving its accounted size.
+       */
+      private HashEntry<K,V> copyEntry(HashEntry<K,V> e, HashEntry<K,V> next) {
+         HashEntry<K,V> copy = eviction.createNewEntry(e.key, e.hash, next, e.value);
+         if (e instanceof SizedHashEntry && copy instanceof SizedHashEntry) {
+            ((SizedHashEntry<K,V>) copy).size = ((SizedHashEntry<K,V>) e).size;
+         }
+         return copy;
+      }
+
+      /**
+       * Evicts entries if the segment exceeds its memory bound.
+       * Call only while holding lock.
+       */
+      private Set<HashEntry<K,V>> evictIfMemoryExceeded() {
+         return isMemoryExceeded() ? eviction.onMemoryExceeded() : null;
+      }
+
       @SuppressWarnings("unchecked")
       static <K,V> Segment<K,V>[] newArray(int i) {
          return new Segment[i];
@@ -1320,6 +1711,7 @@ boolean containsValue(Object value) {
 
       boolean replace(K key, int hash, V oldValue, V newValue) {
          lock();
+         Set<HashEntry<K, V>> evicted = null;
          try {
             HashEntry<K, V> e = getFirst(hash);
             while (e != null && (e.hash != hash || !map.keyEquivalence.equals(key, e.key))) {
@@ -1330,16 +1722,20 @@ boolean replace(K key, int hash, V oldValue, V newValue) {
             if (e != null && map.valueEquivalence.equals(oldValue, e.value)) {
                replaced = true;
                e.value = newValue;
+               addMemoryUsage(e);
                eviction.onEntryHit(e);
+               evicted = evictIfMemoryExceeded();
             }
             return replaced;
          } finally {
             unlock();
+            notifyEvictionListener(evicted);
          }
       }
 
       V replace(K key, int hash, V newValue) {
          lock();
+         Set<HashEntry<K, V>> evicted = null;
          try {
             HashEntry<K, V> e = getFirst(hash);
             while (e != null && (e.hash != hash || !key.equals(e.key))) {
@@ -1350,11 +1746,14 @@ V replace(K key, int hash, V newValue) {
             if (e != null) {
                oldValue = e.value;
                e.value = newValue;
+               addMemoryUsage(e);
                eviction.onEntryHit(e);
+               evicted = evictIfMemoryExceeded();
             }
             return oldValue;
          } finally {
             unlock();
+            notifyEvictionListener(evicted);
          }
       }
 
@@ -1379,7 +1778,9 @@ V put(K key, int hash, V value, boolean onlyIfAbsent) {
                oldValue = e.value;
                if (!onlyIfAbsent) {
                   e.value = value;
+                  addMemoryUsage(e);
                   eviction.onEntryHit(e);
+                  evicted = evictIfMemoryExceeded();
                }
             } else {
                oldValue = null;
@@ -1387,10 +1788,15 @@ V put(K key, int hash, V value, boolean onlyIfAbsent) {
                count = c; // write-volatile
                // add a new entry
                tab[index] = eviction.createNewEntry(key, hash, first, value);
+               addMemoryUsage(tab[index]);
                // notify a miss
                evicted = eviction.onEntryMiss(tab[index]);
                // When entry not present, attempt to activate if necessary
                map.evictionListener.onEntryActivated(key);
+               if (isMemoryExceeded()) {
+                  // count based eviction is disabled for memory bounded maps, so the miss never evicts
+                  evicted = eviction.onMemoryExceeded();
+               }
             }
             return oldValue;
          } finally {
@@ -1454,7 +1860,7 @@ void rehash() {
                   for (HashEntry<K,V> p = e; p != lastRun; p = p.next) {
                      int k = p.hash & sizeMask;
                      HashEntry<K,V> n = newTable[k];
-                     newTable[k] = eviction.createNewEntry(p.key, p.hash, n, p.value);
+                     newTable[k] = copyEntry(p, n);
                   }
                }
             }
@@ -1495,13 +1901,14 @@ V remove(Object key, int hash, Object value, boolean isEvict) {
 
                   // e was removed
                   eviction.onEntryRemove(e);
+                  removeMemoryUsage(e);
 
                   HashEntry<K, V> newFirst = e.next;
                   for (HashEntry<K, V> p = first; p != e; p = p.next) {
                      // TODO A remove operation makes the map behave like all the other keys in the bucket were just added???
                      // allow p to be GC-ed
                      eviction.onEntryRemove(p);
-                     newFirst = eviction.createNewEntry(p.key, p.hash, newFirst, p.value);
+                     newFirst = copyEntry(p, newFirst);
                      // and notify eviction algorithm about new hash entries
                      eviction.onEntryMiss(newFirst);
                   }
@@ -1540,6 +1947,7 @@ void clear() {
                }
                ++modCount;
                eviction.clear();
+               memoryUsage = 0;
                count = 0; // write-volatile
             } finally {
                unlock();
@@ -1594,19 +2002,56 @@ private void notifyEvictionListener(Set<HashEntry<K, V>> evicted) {
    public BoundedConcurrentHashMap(int capacity, int concurrencyLevel,
          Eviction evictionStrategy, EvictionListener<? super K, ? super V> evictionListener,
          Equivalence<? super K> keyEquivalence, Equivalence<? super V> valueEquivalence) {
+      this(capacity, concurrencyLevel, evictionStrategy, evictionListener, keyEquivalence, valueEquivalence, null);
+   }
+
+   /**
+    * Creates a new, empty map bounded by the estimated memory its entries occupy, with the specified
+    * concurrency level and eviction strategy.
+    *
+    * @param maxMemory
+    *            is the upper bound, in bytes, for the sum of the sizes of the elements in this map
+    *
+    * @param concurrencyLevel
+    *            the estimated number of concurrently updating threads. The implementation performs
+    *            internal sizing to try to accommodate this many threads.
+    *
+    * @param evictionStrategy
+    *            the algorithm used to evict elements from this map. Only {@link Eviction#LRU} is supported.
+    *
+    * @param evictionListener
+    *            the evicton listener callback to be notified about evicted elements
+    *
+    * @param sizeCalculator
+    *            estimates the size of each element in this map
+    *
+    * @throws IllegalArgumentException
+    *             if the maximum memory is negative, the concurrencyLevel is nonpositive or the
+    *             eviction strategy is not {@link Eviction#LRU}.
+    */
+   public BoundedConcurrentHashMap(long maxMemory, int concurrencyLevel,
+         Eviction evictionStrategy, EvictionListener<? super K, ? super V> evictionListener,
+         Equivalence<? super K> keyEquivalence, Equivalence<? super V> valueEquivalence,
+         EntrySizeCalculator<? super K, ? super V> sizeCalculator) {
       this.keyEquivalence = keyEquivalence;
       this.valueEquivalence = valueEquivalence;
+      this.sizeCalculator = sizeCalculator;
 
-      if (capacity < 0 || concurrencyLevel <= 0) {
+      if (maxMemory < 0 || concurrencyLevel <= 0) {
          throw new IllegalArgumentException();
       }
 
-      concurrencyLevel = Math.min(capacity / 2, concurrencyLevel); // concurrencyLevel cannot be > capacity/2
-      concurrencyLevel = Math.max(concurrencyLevel, 1); // concurrencyLevel cannot be less than 1
+      if (sizeCalculator == null) {
+         int capacity = (int) Math.min(maxMemory, Integer.MAX_VALUE);
+         concurrencyLevel = Math.min(capacity / 2, concurrencyLevel); // concurrencyLevel cannot be > capacity/2
+         concurrencyLevel = Math.max(concurrencyLevel, 1); // concurrencyLevel cannot be less than 1
 
-      // minimum two elements per segment
-      if (capacity < concurrencyLevel * 2 && capacity != 1) {
-         throw new IllegalArgumentException("Maximum capacity has to be at least twice the concurrencyLevel");
+         // minimum two elements per segment
+         if (capacity < concurrencyLevel * 2 && capacity != 1) {
+            throw new IllegalArgumentException("Maximum capacity has to be at least twice the concurrencyLevel");
+         }
+      } else if (evictionStrategy != Eviction.LRU) {
+         throw new IllegalArgumentException("Memory based eviction is only supported by the LRU eviction strategy");
       }
 
       if (evictionStrategy == null || evictionListener == null) {
@@ -1632,16 +2077,24 @@ public BoundedConcurrentHashMap(int capacity, int concurrencyLevel,
       segmentMask = ssize - 1;
       this.segments = Segment.newArray(ssize);
 
-      if (capacity > MAXIMUM_CAPACITY) {
-         capacity = MAXIMUM_CAPACITY;
-      }
-      int c = capacity / ssize;
       int cap = 1;
-      while (cap < c) {
-         cap <<= 1;
-      }
+      if (sizeCalculator == null) {
+         long capacity = maxMemory;
+         if (capacity > MAXIMUM_CAPACITY) {
+            capacity = MAXIMUM_CAPACITY;
+         }
+         int c = (int) capacity / ssize;
+         while (cap < c) {
+            cap <<= 1;
+         }
 
-      this.evictCap = c;
+         this.evictCap = c;
+         this.evictMemoryCap = -1;
+      } else {
+         cap = MEMORY_BOUNDED_SEGMENT_CAPACITY;
+         this.evictCap = cap;
+         this.evictMemoryCap = maxMemory / ssize;
+      }
 
       for (int i = 0; i < this.segments.length; ++i) {
          this.segments[i] = new Segment<K, V>(cap, DEFAULT_LOAD_FACTOR, evictionStrategy, this);
@@ -2011,6 +2464,24 @@ public void unlock(Object key) {
       segmentFor(hash(keyEquivalence.hashCode(key))).unlock();
    }
 
+   /**
+    * Returns the estimated number of bytes used by the mappings in this map, as computed by the
+    * {@link EntrySizeCalculator} the map was created with. The value is not a consistent snapshot
+    * if the map is being concurrently modified.
+    *
+    * @return the estimated memory usage, or <tt>-1</tt> if this map is not bounded by memory
+    */
+   public long memoryUsage() {
+      if (sizeCalculator == null) {
+         return -1;
+      }
+      long sum = 0;
+      for (Segment<K, V> segment : segments) {
+         sum += segment.memoryUsage;
+      }
+      return sum;
+   }
+
    /**
     * {@inheritDoc}
     *
@@ -0,0 +1,103 @@
+package org.infinispan.util.concurrent;
+
+/**
+ * A probabilistic estimate of the popularity of keys within a time window, used as the admission filter of the
+ * TinyLFU eviction policy.
+ * <p />
+ * The sketch is a Count-Min Sketch with four rows of 4-bit counters packed in a single {@code long[]}: each long holds
+ * sixteen counters and a key maps to one counter in each of four longs. Counters saturate at 15. Once the number of
+ * recorded accesses reaches ten times the maximum number of entries, all the counters are halved so that the sketch
+ * reflects the recent history ("freshness" mechanism of the TinyLFU paper).
+ * <p />
+ * See "TinyLFU: A Highly Efficient Cache Admission Policy" by Einziger, Friedman and Manes,
+ * http://arxiv.org/abs/1512.00727
+ * <p />
+ * This class is not thread safe: the caller must guard it, e.g. with the lock of the segment owning it.
+ *
+ * @since 7.1
+ */
+final class FrequencySketch {
+
+   private static final long[] SEEDS = {
+         0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+   private static final long RESET_MASK = 0x7777777777777777L;
+   private static final long ONE_MASK = 0x1111111111111111L;
+
+   private final long[] table;
+   private final int tableMask;
+   private final int sampleSize;
+   private int size;
+
+   FrequencySketch(int maximumSize) {
+      int capacity = 1;
+      while (capacity < Math.max(maximumSize, 4)) {
+         capacity <<= 1;
+      }
+      table = new long[capacity];
+      tableMask = capacity - 1;
+      sampleSize = maximumSize <= 0 ? 10 : 10 * maximumSize;
+   }
+
+   /**
+    * @return the estimated number of occurrences of the key with the given hash, at most 15
+    */
+   int frequency(int hash) {
+      int start = (hash & 3) << 2;
+      int frequency = Integer.MAX_VALUE;
+      for (int i = 0; i < 4; i++) {
+         int index = indexOf(hash, i);
+         int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+         frequency = Math.min(frequency, count);
+      }
+      return frequency;
+   }
+
+   /**
+    * Records an access to the key with the given hash, aging the counters if the sample size has been reached.
+    */
+   void increment(int hash) {
+      int start = (hash & 3) << 2;
+      boolean added = false;
+      for (int i = 0; i < 4; i++) {
+         added |= incrementAt(indexOf(hash, i), start + i);
+      }
+      if (added && ++size == sampleSize) {
+         reset();
+      }
+   }
+
+   void clear() {
+      for (int i = 0; i < table.length; i++) {
+         table[i] = 0;
+      }
+      size = 0;
+   }
+
+   private boolean incrementAt(int index, int counter) {
+      int offset = counter << 2;
+      long mask = 0xfL << offset;
+      if ((table[index] & mask) != mask) {
+         table[index] += 1L << offset;
+         return true;
+      }
+      return false;
+   }
+
+   /**
+    * Halves every counter, adjusting the size for the odd counters truncated by the shift.
+    */
+   private void reset() {
+      int odd = 0;
+      for (int i = 0; i < table.length; i++) {
+         odd += Long.bitCount(table[i] & ONE_MASK);
+         table[i] = (table[i] >>> 1) & RESET_MASK;
+      }
+      size = (size >>> 1) - (odd >>> 2);
+   }
+
+   private int indexOf(int hash, int row) {
+      long h = (hash + SEEDS[row]) * SEEDS[row];
+      h += h >>> 32;
+      return ((int) h) & tableMask;
+   }
+}
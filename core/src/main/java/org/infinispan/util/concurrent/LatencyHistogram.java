@@ -0,0 +1,109 @@
+package org.infinispan.util.concurrent;
+
+import org.infinispan.commons.util.concurrent.jdk8backported.LongAdder;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations, in nanoseconds, that can be updated concurrently without locking.
+ * <p/>
+ * Like HdrHistogram, the buckets are linear inside each power of 2, so that every recorded value is counted in a bucket
+ * whose width is at most 1/16 (6.25%) of the value, and a bucket is only an array slot. The percentiles are computed
+ * from the buckets, so they have the same precision.
+ * <p/>
+ * {@link #reset()} is not atomic: a value recorded concurrently may be partially cleared.
+ *
+ * @since 7.1
+ */
+public class LatencyHistogram {
+   private static final int SUB_BUCKET_BITS = 4;
+   private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+   private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+   private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+   private final LongAdder count = new LongAdder();
+   private final LongAdder sum = new LongAdder();
+   private final AtomicLong max = new AtomicLong();
+
+   public void record(long nanos) {
+      if (nanos < 0) {
+         nanos = 0;
+      }
+      counts.incrementAndGet(bucket(nanos));
+      count.increment();
+      sum.add(nanos);
+      long currentMax;
+      while (nanos > (currentMax = max.get())) {
+         if (max.compareAndSet(currentMax, nanos))
+            break;
+      }
+   }
+
+   public long getCount() {
+      return count.sum();
+   }
+
+   public long getTotalNanos() {
+      return sum.sum();
+   }
+
+   public long getMaxNanos() {
+      return max.get();
+   }
+
+   public double getMeanNanos() {
+      long count = getCount();
+      return count == 0 ? 0 : (double) getTotalNanos() / count;
+   }
+
+   /**
+    * @param percentile between 0 and 100
+    * @return the highest value that is counted in the same bucket as the value at the given percentile
+    */
+   public long getValueAtPercentile(double percentile) {
+      long total = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+         total += counts.get(i);
+      }
+      if (total == 0) {
+         return 0;
+      }
+      long rank = Math.max(1, (long) Math.ceil(total * Math.min(percentile, 100) / 100));
+      long seen = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+         seen += counts.get(i);
+         if (seen >= rank) {
+            return Math.min(highestValueInBucket(i), getMaxNanos());
+         }
+      }
+      return getMaxNanos();
+   }
+
+   public void reset() {
+      for (int i = 0; i < BUCKETS; i++) {
+         counts.set(i, 0);
+      }
+      count.reset();
+      sum.reset();
+      max.set(0);
+   }
+
+   static int bucket(long value) {
+      if (value < SUB_BUCKETS) {
+         return (int) value;
+      }
+      int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - 1 - SUB_BUCKET_BITS;
+      // The sub-bucket is given by the bits following the highest bit
+      return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+   }
+
+   static long highestValueInBucket(int bucket) {
+      if (bucket < SUB_BUCKETS) {
+         return bucket;
+      }
+      int shift = bucket / SUB_BUCKETS - 1;
+      long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+      return lowest + (1L << shift) - 1;
+   }
+}
@@ -1,5 +1,6 @@
 package org.infinispan.util.concurrent.locks;
 
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.util.concurrent.TimeoutException;
@@ -128,4 +129,15 @@ public interface LockManager {
     */
    boolean acquireLockNoCheck(InvocationContext ctx, Object key, long timeoutMillis, boolean skipLocking) throws InterruptedException, TimeoutException;
 
+   /**
+    * Checks whether {@code lockOwner} would have to wait to acquire the lock on {@code key}, without blocking.
+    *
+    * @param key       key to lock
+    * @param lockOwner the owner that wants to acquire the lock, or {@code null} if any owner makes it wait
+    * @return {@code null} if the lock is available, otherwise a future completed when the lock is released
+    * @see org.infinispan.util.concurrent.locks.containers.LockContainer#awaitRelease(Object, Object)
+    * @since 7.1
+    */
+   NotifyingFuture<Void> awaitLockRelease(Object key, Object lockOwner);
+
 }
@@ -1,6 +1,7 @@
 package org.infinispan.util.concurrent.locks;
 
 import org.infinispan.commons.util.Util;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.context.InvocationContext;
@@ -8,6 +9,8 @@
 import org.infinispan.jmx.annotations.DataType;
 import org.infinispan.jmx.annotations.MBean;
 import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.Parameter;
 import org.infinispan.marshall.core.MarshalledValue;
 import org.infinispan.util.concurrent.TimeoutException;
 import org.infinispan.util.concurrent.locks.containers.*;
@@ -16,6 +19,8 @@
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -155,6 +160,47 @@ public int getLockId(Object key) {
       return lockContainer.getLockId(key);
    }
 
+   @Override
+   public NotifyingFuture<Void> awaitLockRelease(Object key, Object lockOwner) {
+      return lockContainer.awaitRelease(lockOwner, key);
+   }
+
+   /**
+    * @return the number of requests waiting for each busy lock, keyed by the cache key (or the stripe index when using
+    * lock striping)
+    * @see LockContainer#getLockQueueDepths()
+    */
+   public Map<Object, Integer> getLockQueueDepths() {
+      return lockContainer.getLockQueueDepths();
+   }
+
+   @ManagedAttribute(description = "The number of requests waiting to acquire a lock.", displayName = "Number of queued lock requests")
+   public int getNumberOfQueuedLockRequests() {
+      int queued = 0;
+      for (Integer depth : lockContainer.getLockQueueDepths().values()) {
+         queued += depth;
+      }
+      return queued;
+   }
+
+   @ManagedOperation(description = "Shows the keys with the most requests waiting for their lock, and the number of waiting requests", displayName = "Show lock queue depths")
+   public String showLockQueueDepths(@Parameter(name = "maxKeys", description = "The maximum number of keys to show") int maxKeys) {
+      List<Map.Entry<Object, Integer>> depths = new ArrayList<Map.Entry<Object, Integer>>(lockContainer.getLockQueueDepths().entrySet());
+      Collections.sort(depths, new Comparator<Map.Entry<Object, Integer>>() {
+         @Override
+         public int compare(Map.Entry<Object, Integer> e1, Map.Entry<Object, Integer> e2) {
+            return e2.getValue().compareTo(e1.getValue());
+         }
+      });
+      StringBuilder sb = new StringBuilder("{");
+      for (int i = 0; i < Math.min(maxKeys, depths.size()); i++) {
+         if (i > 0) sb.append(", ");
+         Map.Entry<Object, Integer> e = depths.get(i);
+         sb.append(toStr(e.getKey())).append('=').append(e.getValue());
+      }
+      return sb.append('}').toString();
+   }
+
 //   @Override
 //   public final boolean acquireLock(InvocationContext ctx, Object key, boolean skipLocking) throws InterruptedException, TimeoutException {
 //      return acquireLock(ctx, key, -1, skipLocking);
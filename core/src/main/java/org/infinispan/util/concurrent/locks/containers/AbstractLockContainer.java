@@ -1,12 +1,33 @@
 package org.infinispan.util.concurrent.locks.containers;
 
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.util.ByRef;
+import org.infinispan.commons.util.concurrent.CompletableNotifyingFuture;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
+import org.infinispan.commons.util.concurrent.jdk8backported.EquivalentConcurrentHashMapV8;
 import org.infinispan.util.logging.Log;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 
+import static org.infinispan.commons.util.Util.toStr;
+
 public abstract class AbstractLockContainer<L extends Lock> implements LockContainer<L> {
 
+   // Keyed by waiterKey(key), so that all the keys sharing a lock share the waiters
+   private final EquivalentConcurrentHashMapV8<Object, List<CompletableNotifyingFuture<Void>>> waiters;
+   // Incremented before a waiter is registered, so that releasing a lock doesn't touch the waiters map when it's empty
+   private final AtomicInteger waiterCount = new AtomicInteger();
+
+   protected AbstractLockContainer(Equivalence<Object> waiterKeyEquivalence) {
+      waiters = new EquivalentConcurrentHashMapV8<Object, List<CompletableNotifyingFuture<Void>>>(
+            waiterKeyEquivalence, AnyEquivalence.getInstance());
+   }
+
    /**
     * Releases a lock and swallows any IllegalMonitorStateExceptions - so it is safe to call this method even if the
     * lock is not locked, or not locked by the current thread.
@@ -23,6 +44,88 @@ protected void safeRelease(L toRelease, Object lockOwner) {
       }
    }
 
+   @Override
+   public NotifyingFuture<Void> awaitRelease(final Object lockOwner, final Object key) {
+      if (!isLockedByOther(lockOwner, key))
+         return null;
+
+      waiterCount.incrementAndGet();
+      final ByRef<CompletableNotifyingFuture<Void>> waiter = ByRef.create(null);
+      waiters.compute(waiterKey(key), new EquivalentConcurrentHashMapV8.BiFun<Object, List<CompletableNotifyingFuture<Void>>, List<CompletableNotifyingFuture<Void>>>() {
+         @Override
+         public List<CompletableNotifyingFuture<Void>> apply(Object waiterKey, List<CompletableNotifyingFuture<Void>> list) {
+            // This happens atomically with the notification in notifyWaiters()
+            if (!isLockedByOther(lockOwner, key))
+               return list;
+
+            if (list == null) {
+               list = new ArrayList<CompletableNotifyingFuture<Void>>(2);
+            }
+            CompletableNotifyingFuture<Void> future = new CompletableNotifyingFuture<Void>();
+            list.add(future);
+            waiter.set(future);
+            return list;
+         }
+      });
+      if (waiter.get() == null) {
+         waiterCount.decrementAndGet();
+      } else if (getLog().isTraceEnabled()) {
+         getLog().tracef("Lock for key %s is busy, queued a waiter for %s", toStr(key), lockOwner);
+      }
+      return waiter.get();
+   }
+
+   /**
+    * Completes the futures returned by {@link #awaitRelease(Object, Object)} for the given key. Must be invoked every
+    * time a lock is released.
+    */
+   protected final void notifyWaiters(final Object key) {
+      if (waiterCount.get() == 0)
+         return;
+
+      final ByRef<List<CompletableNotifyingFuture<Void>>> released = ByRef.create(null);
+      waiters.computeIfPresent(waiterKey(key), new EquivalentConcurrentHashMapV8.BiFun<Object, List<CompletableNotifyingFuture<Void>>, List<CompletableNotifyingFuture<Void>>>() {
+         @Override
+         public List<CompletableNotifyingFuture<Void>> apply(Object waiterKey, List<CompletableNotifyingFuture<Void>> list) {
+            // Still held (reentrant lock, or acquired by a waiting thread): the waiters are notified on the next release
+            if (isLocked(key))
+               return list;
+            released.set(list);
+            return null;
+         }
+      });
+
+      List<CompletableNotifyingFuture<Void>> list = released.get();
+      if (list != null) {
+         waiterCount.addAndGet(-list.size());
+         for (CompletableNotifyingFuture<Void> future : list) {
+            future.complete(null);
+         }
+      }
+   }
+
+   /**
+    * @return the number of waiters registered with {@link #awaitRelease(Object, Object)} for the given waiter key
+    */
+   protected final int getWaiterCount(Object waiterKey) {
+      List<CompletableNotifyingFuture<Void>> list = waiters.get(waiterKey);
+      return list == null ? 0 : list.size();
+   }
+
+   private boolean isLockedByOther(Object lockOwner, Object key) {
+      return isLocked(key) && (lockOwner == null || !ownsLock(key, lockOwner));
+   }
+
+   /**
+    * @return the key under which the waiters for the lock guarding {@code key} are registered
+    */
+   protected abstract Object waiterKey(Object key);
+
+   /**
+    * @return the number of threads waiting to acquire the given lock
+    */
+   protected abstract int getQueueLength(L lock);
+
    protected abstract void unlock(L toRelease, Object ctx);
 
    protected abstract boolean tryLock(L lock, long timeout, TimeUnit unit, Object lockOwner) throws InterruptedException;
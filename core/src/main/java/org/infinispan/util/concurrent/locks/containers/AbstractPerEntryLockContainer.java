@@ -8,6 +8,8 @@
 import org.infinispan.util.concurrent.locks.RefCountingLock;
 import org.infinispan.util.logging.Log;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import static org.infinispan.commons.util.Util.toStr;
@@ -24,6 +26,7 @@
    protected final EquivalentConcurrentHashMapV8<Object, L> locks;
 
    protected AbstractPerEntryLockContainer(int concurrencyLevel, Equivalence<Object> keyEquivalence) {
+      super(keyEquivalence);
       locks = new EquivalentConcurrentHashMapV8<Object, L>(
             16, concurrencyLevel, keyEquivalence, AnyEquivalence.getInstance());
    }
@@ -123,6 +126,24 @@ public L apply(Object key, L lock) {
             return remove ? null : lock;
          }
       });
+      notifyWaiters(key);
+   }
+
+   @Override
+   public Map<Object, Integer> getLockQueueDepths() {
+      Map<Object, Integer> depths = new HashMap<Object, Integer>();
+      for (Map.Entry<Object, L> e : locks.entrySet()) {
+         int depth = getQueueLength(e.getValue()) + getWaiterCount(e.getKey());
+         if (depth > 0) {
+            depths.put(e.getKey(), depth);
+         }
+      }
+      return depths;
+   }
+
+   @Override
+   protected final Object waiterKey(Object key) {
+      return key;
    }
 
    @Override
@@ -1,8 +1,11 @@
 package org.infinispan.util.concurrent.locks.containers;
 
 import net.jcip.annotations.ThreadSafe;
+import org.infinispan.commons.equivalence.AnyEquivalence;
 import org.infinispan.commons.equivalence.Equivalence;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 
@@ -19,6 +22,7 @@
    private final Equivalence<Object> keyEquivalence;
 
    protected AbstractStripedLockContainer(Equivalence<Object> keyEquivalence) {
+      super(AnyEquivalence.getInstance());
       this.keyEquivalence = keyEquivalence;
    }
 
@@ -75,8 +79,31 @@ public L acquireLock(Object lockOwner, Object key, long timeout, TimeUnit unit)
    public void releaseLock(Object lockOwner, Object key) {
       final L lock = getLock(key);
       safeRelease(lock, lockOwner);
+      notifyWaiters(key);
    }
 
+   @Override
+   public Map<Object, Integer> getLockQueueDepths() {
+      Map<Object, Integer> depths = new HashMap<Object, Integer>();
+      for (int i = 0; i < size(); i++) {
+         int depth = getQueueLength(getLockAt(i)) + getWaiterCount(i);
+         if (depth > 0) {
+            depths.put(i, depth);
+         }
+      }
+      return depths;
+   }
+
+   @Override
+   protected final Object waiterKey(Object key) {
+      return hashToIndex(key);
+   }
+
+   /**
+    * @return the lock of the given stripe
+    */
+   protected abstract L getLockAt(int index);
+
    @Override
    public int getLockId(Object key) {
       return hashToIndex(key);
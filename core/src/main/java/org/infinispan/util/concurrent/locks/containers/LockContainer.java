@@ -1,5 +1,8 @@
 package org.infinispan.util.concurrent.locks.containers;
 
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
+
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 
@@ -73,4 +76,30 @@
     * @return the ID of the lock.
     */
    int getLockId(Object key);
+
+   /**
+    * Checks whether the lock for the given key is held by an owner other than {@code lockOwner}, and if it is, returns
+    * a future that is completed when the lock is released. This allows a caller to wait for a busy lock without
+    * parking a thread, and to try {@link #acquireLock(Object, Object, long, TimeUnit)} again once it's available.
+    * <p />
+    * The lock is not reserved for the caller, so the lock may be busy again when it tries to acquire it.
+    *
+    * @param lockOwner the owner that wants to acquire the lock, or {@code null} if the lock is busy regardless of its
+    *                  owner
+    * @param key       the key to lock
+    * @return {@code null} if the lock can be acquired without waiting, or a future completed when the lock is released
+    * @since 7.1
+    */
+   NotifyingFuture<Void> awaitRelease(Object lockOwner, Object key);
+
+   /**
+    * Returns the number of requests waiting for each lock that has any, counting both the threads blocked in {@link
+    * #acquireLock(Object, Object, long, TimeUnit)} and the futures returned by {@link #awaitRelease(Object, Object)}.
+    * <p />
+    * With lock-per-entry containers the map is keyed by the cache keys, with lock striping by the stripe indexes.
+    *
+    * @return the queue depth for each lock with waiting requests
+    * @since 7.1
+    */
+   Map<Object, Integer> getLockQueueDepths();
 }
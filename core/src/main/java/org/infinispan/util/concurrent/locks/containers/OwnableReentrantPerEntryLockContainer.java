@@ -62,4 +62,9 @@ protected void lock(OwnableRefCountingReentrantLock lock, Object lockOwner) {
    protected void unlock(OwnableRefCountingReentrantLock l, Object owner) {
       l.unlock(owner);
    }
+
+   @Override
+   protected int getQueueLength(OwnableRefCountingReentrantLock lock) {
+      return lock.getQueueLength();
+   }
 }
@@ -92,4 +92,14 @@ protected void lock(OwnableReentrantLock lock, Object lockOwner) {
    protected void unlock(OwnableReentrantLock l, Object owner) {
       l.unlock(owner);
    }
+
+   @Override
+   protected int getQueueLength(OwnableReentrantLock lock) {
+      return lock.getQueueLength();
+   }
+
+   @Override
+   protected OwnableReentrantLock getLockAt(int index) {
+      return sharedLocks[index];
+   }
 }
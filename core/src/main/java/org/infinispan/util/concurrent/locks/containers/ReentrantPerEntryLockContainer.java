@@ -62,4 +62,9 @@ protected boolean tryLock(VisibleOwnerRefCountingReentrantLock lock, long timeou
    protected void lock(VisibleOwnerRefCountingReentrantLock lock, Object lockOwner) {
       lock.lock();
    }
+
+   @Override
+   protected int getQueueLength(VisibleOwnerRefCountingReentrantLock lock) {
+      return lock.getQueueLength();
+   }
 }
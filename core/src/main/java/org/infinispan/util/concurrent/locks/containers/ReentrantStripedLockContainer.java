@@ -95,4 +95,14 @@ protected boolean tryLock(VisibleOwnerReentrantLock lock, long timeout, TimeUnit
    protected void lock(VisibleOwnerReentrantLock lock, Object lockOwner) {
       lock.lock();
    }
+
+   @Override
+   protected int getQueueLength(VisibleOwnerReentrantLock lock) {
+      return lock.getQueueLength();
+   }
+
+   @Override
+   protected VisibleOwnerReentrantLock getLockAt(int index) {
+      return sharedLocks[index];
+   }
 }
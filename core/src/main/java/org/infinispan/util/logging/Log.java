@@ -1216,4 +1216,8 @@ void asyncStoreShutdownTimeoutTooHigh(long configuredAsyncStopTimeout,
    @LogMessage(level = WARN)
    @Message(value = "Unable to read rebalancing status from coordinator %s", id = 329)
    void errorReadingRebalancingStatus(Address coordinator, @Cause Exception e);
+
+   @LogMessage(level = WARN)
+   @Message(value = "Unable to memory map file %s, reading it through its channel instead", id = 330)
+   void cannotMapFile(String file, @Cause Throwable cause);
 }
@@ -0,0 +1,101 @@
+package org.infinispan.api;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.Flag;
+import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.interceptors.CacheMgmtInterceptor;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests {@link org.infinispan.AdvancedCache#getAll(java.util.Set)} in a local cache.
+ *
+ * @since 7.1
+ */
+@Test(groups = "functional", testName = "api.GetAllTest")
+public class GetAllTest extends SingleCacheManagerTest {
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      builder.persistence().passivation(true).addStore(DummyInMemoryStoreConfigurationBuilder.class)
+            .eviction().maxEntries(10).strategy(EvictionStrategy.LRU)
+            .jmxStatistics().enable();
+      return TestCacheManagerFactory.createCacheManager(builder);
+   }
+
+   public void testGetAll() {
+      cache.put("k1", "v1");
+      cache.put("k2", "v2");
+      cache.put("k3", "v3");
+      cache.remove("k3");
+
+      Map<Object, Object> result = cache.getAdvancedCache().getAll(new HashSet<Object>(Arrays.asList("k1", "k2", "k3", "k4")));
+      assertEquals(2, result.size());
+      assertEquals("v1", result.get("k1"));
+      assertEquals("v2", result.get("k2"));
+      assertFalse(result.containsKey("k3"));
+      assertFalse(result.containsKey("k4"));
+   }
+
+   public void testGetAllLoadsFromStore() {
+      for (int i = 0; i < 50; i++) {
+         cache.put("key" + i, "value" + i);
+      }
+      assertTrue(cache.getAdvancedCache().getDataContainer().size() < 50);
+
+      HashSet<Object> keys = new HashSet<Object>();
+      for (int i = 0; i < 50; i++) {
+         keys.add("key" + i);
+      }
+      Map<Object, Object> result = cache.getAdvancedCache().getAll(keys);
+      assertEquals(50, result.size());
+      for (int i = 0; i < 50; i++) {
+         assertEquals("value" + i, result.get("key" + i));
+      }
+
+      // evict everything from memory and check the store is skipped
+      for (int i = 0; i < 50; i++) {
+         cache.evict("key" + i);
+      }
+      result = cache.getAdvancedCache().withFlags(Flag.SKIP_CACHE_LOAD).getAll(keys);
+      assertTrue(result.isEmpty());
+   }
+
+   public void testStatistics() {
+      CacheMgmtInterceptor mgmtInterceptor = TestingUtil.findInterceptor(cache, CacheMgmtInterceptor.class);
+      mgmtInterceptor.resetStatistics();
+
+      cache.put("a", "1");
+      cache.put("b", "2");
+      Map<Object, Object> result = cache.getAdvancedCache().getAll(new HashSet<Object>(Arrays.asList("a", "b", "c")));
+      assertEquals(2, result.size());
+
+      assertEquals(2, mgmtInterceptor.getHits());
+      assertEquals(1, mgmtInterceptor.getMisses());
+   }
+
+   public void testResultIsImmutable() {
+      cache.put("a", "1");
+      Map<Object, Object> result = cache.getAdvancedCache().getAll(Collections.singleton("a"));
+      try {
+         result.put("b", "2");
+         throw new AssertionError("The result of getAll should be immutable");
+      } catch (UnsupportedOperationException e) {
+         // expected
+      }
+   }
+}
@@ -0,0 +1,163 @@
+package org.infinispan.api;
+
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.read.GetKeyValueCommand;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.Flag;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.interceptors.InterceptorProfiler;
+import org.infinispan.interceptors.base.BaseCustomInterceptor;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryVisited;
+import org.infinispan.notifications.cachelistener.event.CacheEntryVisitedEvent;
+import org.infinispan.stats.Stats;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
+
+/**
+ * Tests that the reads of a local cache skip the interceptor chain only when it would not do anything else than
+ * reading the data container.
+ *
+ * @since 7.1
+ */
+@Test(groups = "functional", testName = "api.LocalReadFastPathTest")
+public class LocalReadFastPathTest extends SingleCacheManagerTest {
+
+   private final AtomicInteger readsThroughChain = new AtomicInteger();
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.jmxStatistics().enable();
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(builder);
+      // Count the read commands, which are only built for reads that go through the chain
+      CommandsFactory commandsFactory = spy(TestingUtil.extractComponent(cm.getCache(), CommandsFactory.class));
+      doAnswer(new Answer<Object>() {
+         @Override
+         public Object answer(InvocationOnMock invocation) throws Throwable {
+            readsThroughChain.incrementAndGet();
+            return invocation.callRealMethod();
+         }
+      }).when(commandsFactory).buildGetKeyValueCommand(any(), any(EnumSet.class));
+      TestingUtil.replaceComponent(cm.getCache(), CommandsFactory.class, commandsFactory, true);
+      return cm;
+   }
+
+   @BeforeMethod
+   public void resetStatistics() {
+      cache.clear();
+      cache.getAdvancedCache().getStats().reset();
+      readsThroughChain.set(0);
+   }
+
+   public void testReadSkipsChain() {
+      cache.put("k", "v");
+      assertEquals("v", cache.get("k"));
+      assertNull(cache.get("missing"));
+      assertEquals(0, readsThroughChain());
+
+      Stats stats = cache.getAdvancedCache().getStats();
+      assertEquals(1, stats.getHits());
+      assertEquals(1, stats.getMisses());
+   }
+
+   public void testExpiredEntryNotReturned() {
+      cache.put("k", "v", 10, TimeUnit.MILLISECONDS);
+      TestingUtil.sleepThread(50);
+      assertNull(cache.get("k"));
+      assertEquals(0, cache.getAdvancedCache().getDataContainer().size());
+   }
+
+   public void testReadWithFlagsUsesChain() {
+      cache.put("k", "v");
+      assertEquals("v", cache.getAdvancedCache().withFlags(Flag.SKIP_STATISTICS).get("k"));
+      assertEquals(1, readsThroughChain());
+      assertEquals(0, cache.getAdvancedCache().getStats().getHits());
+   }
+
+   public void testReadWithVisitedListenerUsesChain() {
+      VisitedListener listener = new VisitedListener();
+      cache.addListener(listener);
+      try {
+         cache.put("k", "v");
+         assertEquals("v", cache.get("k"));
+         assertEquals(2, listener.visits.get());
+         assertEquals(1, readsThroughChain());
+      } finally {
+         cache.removeListener(listener);
+      }
+      assertEquals("v", cache.get("k"));
+      assertEquals(1, readsThroughChain());
+   }
+
+   public void testReadWithCustomInterceptorUsesChain() {
+      GetInterceptor interceptor = new GetInterceptor();
+      cache.getAdvancedCache().addInterceptor(interceptor, 1);
+      try {
+         cache.put("k", "v");
+         assertEquals("v", cache.get("k"));
+         assertEquals(1, interceptor.gets.get());
+      } finally {
+         cache.getAdvancedCache().removeInterceptor(GetInterceptor.class);
+      }
+      assertEquals("v", cache.get("k"));
+      assertEquals(1, interceptor.gets.get());
+      assertEquals(1, readsThroughChain());
+   }
+
+   public void testReadWithProfilerUsesChain() {
+      InterceptorProfiler profiler = TestingUtil.extractComponent(cache, InterceptorProfiler.class);
+      profiler.setEnabled(true);
+      try {
+         cache.put("k", "v");
+         assertEquals("v", cache.get("k"));
+         assertEquals(1, readsThroughChain());
+      } finally {
+         profiler.setEnabled(false);
+      }
+      assertEquals("v", cache.get("k"));
+      assertEquals(1, readsThroughChain());
+   }
+
+   private int readsThroughChain() {
+      return readsThroughChain.get();
+   }
+
+   @Listener
+   public static class VisitedListener {
+      final AtomicInteger visits = new AtomicInteger();
+
+      @CacheEntryVisited
+      public void entryVisited(CacheEntryVisitedEvent event) {
+         assertNotNull(event.getValue());
+         visits.incrementAndGet();
+      }
+   }
+
+   static class GetInterceptor extends BaseCustomInterceptor {
+      final AtomicInteger gets = new AtomicInteger();
+
+      @Override
+      public Object visitGetKeyValueCommand(InvocationContext ctx, GetKeyValueCommand command) throws Throwable {
+         gets.incrementAndGet();
+         return invokeNextInterceptor(ctx, command);
+      }
+   }
+}
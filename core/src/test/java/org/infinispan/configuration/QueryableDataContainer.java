@@ -76,6 +76,12 @@ public int size() {
       return delegate.size();
    }
 
+   @Override
+   public long memoryUsage() {
+      loggedOperations.add("memoryUsage()" );
+      return delegate.memoryUsage();
+   }
+
    @Override
    public void clear() {
       loggedOperations.add("clear()" );
@@ -101,9 +107,9 @@ public Set<InternalCacheEntry<Object, Object>> entrySet() {
    }
 
    @Override
-   public void purgeExpired() {
+   public int purgeExpired() {
       loggedOperations.add("purgeExpired()" );
-      delegate.purgeExpired();
+      return delegate.purgeExpired();
    }
 
    @Override
@@ -55,6 +55,7 @@ public void testParseAndConstructUnifiedXmlFile71() throws IOException {
          @Override
          public void call() {
             configurationCheck70(cm);
+            assertTrue(cm.getCacheConfiguration("repl").clustering().async().replQueueAdaptive());
          }
       });
    }
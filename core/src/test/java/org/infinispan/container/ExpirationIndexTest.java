@@ -0,0 +1,65 @@
+package org.infinispan.container;
+
+import org.infinispan.commons.equivalence.ByteArrayEquivalence;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests {@link ExpirationIndex}.
+ *
+ * @since 7.1
+ */
+@Test(groups = "unit", testName = "container.ExpirationIndexTest")
+public class ExpirationIndexTest extends AbstractInfinispanTest {
+
+   public void testPollDue() {
+      ExpirationIndex<String> index = new ExpirationIndex<String>(null, 10);
+      index.add("a", 5);
+      index.add("b", 15);
+      index.add("c", 25);
+      index.add("d", 1000);
+      assertEquals(4, index.size());
+
+      assertEquals(Collections.singletonList("a"), index.pollDue(9));
+      // the bucket containing the current time is included
+      assertEquals(new HashSet<String>(Arrays.asList("b", "c")), new HashSet<String>(index.pollDue(21)));
+      assertTrue(index.pollDue(999).isEmpty());
+      assertEquals(1, index.size());
+   }
+
+   public void testAddReplacesDeadline() {
+      ExpirationIndex<String> index = new ExpirationIndex<String>(null, 10);
+      index.add("a", 5);
+      index.add("a", 500);
+      assertTrue(index.pollDue(100).isEmpty());
+      assertEquals(Collections.singletonList("a"), index.pollDue(500));
+   }
+
+   public void testRemove() {
+      ExpirationIndex<String> index = new ExpirationIndex<String>(null, 10);
+      index.add("a", 5);
+      index.add("b", 5);
+      index.remove("a");
+      index.remove("c");
+      assertEquals(Collections.singletonList("b"), index.pollDue(100));
+      assertEquals(0, index.size());
+   }
+
+   public void testKeyEquivalence() {
+      ExpirationIndex<byte[]> index = new ExpirationIndex<byte[]>(ByteArrayEquivalence.INSTANCE, 10);
+      index.add(new byte[]{1, 2}, 5);
+      index.add(new byte[]{1, 2}, 50);
+      assertEquals(1, index.size());
+      index.remove(new byte[]{1, 2});
+      List<byte[]> due = index.pollDue(100);
+      assertTrue(due.isEmpty());
+   }
+}
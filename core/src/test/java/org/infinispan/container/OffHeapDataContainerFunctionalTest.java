@@ -0,0 +1,57 @@
+package org.infinispan.container;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests a cache configured to store its entries off-heap.
+ *
+ * @since 7.1
+ */
+@Test(groups = "functional", testName = "container.OffHeapDataContainerFunctionalTest")
+public class OffHeapDataContainerFunctionalTest extends SingleCacheManagerTest {
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      builder.dataContainer().offHeap(true)
+            .eviction().strategy(EvictionStrategy.LRU).maxEntries(128)
+            .locking().concurrencyLevel(4);
+      return TestCacheManagerFactory.createCacheManager(builder);
+   }
+
+   public void testOperations() throws InterruptedException {
+      assertTrue(cache.getAdvancedCache().getDataContainer() instanceof OffHeapDataContainer);
+
+      cache.put("k1", "v1");
+      cache.put("k2", "v2", 1, TimeUnit.MILLISECONDS);
+      assertEquals("v1", cache.get("k1"));
+      assertEquals("v1", cache.replace("k1", "v11"));
+      assertEquals("v11", cache.get("k1"));
+      assertEquals("v11", cache.remove("k1"));
+      assertNull(cache.get("k1"));
+
+      Thread.sleep(10);
+      cache.getAdvancedCache().getDataContainer().purgeExpired();
+      assertNull(cache.get("k2"));
+
+      for (int i = 0; i < 1000; i++) {
+         cache.put(i, "value" + i);
+      }
+      assertTrue(cache.size() <= 128);
+      assertTrue(cache.getAdvancedCache().getDataContainer().memoryUsage() > 0);
+
+      cache.clear();
+      assertEquals(0, cache.size());
+   }
+}
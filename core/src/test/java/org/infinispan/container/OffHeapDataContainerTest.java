@@ -0,0 +1,171 @@
+package org.infinispan.container;
+
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.eviction.ActivationManager;
+import org.infinispan.eviction.EvictionManager;
+import org.infinispan.eviction.EvictionType;
+import org.infinispan.eviction.PassivationManager;
+import org.infinispan.marshall.TestObjectStreamMarshaller;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.mockito.Mockito;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Runs the {@link SimpleDataContainerTest} suite against an {@link OffHeapDataContainer}, plus the eviction and
+ * iteration cases specific to it.
+ *
+ * @since 7.1
+ */
+@Test(groups = "unit", testName = "container.OffHeapDataContainerTest")
+public class OffHeapDataContainerTest extends SimpleDataContainerTest {
+
+   private TestObjectStreamMarshaller marshaller;
+   private final Set<OffHeapDataContainer> containers = new HashSet<OffHeapDataContainer>();
+
+   @BeforeClass
+   public void createMarshaller() {
+      marshaller = new TestObjectStreamMarshaller();
+   }
+
+   @AfterClass(alwaysRun = true)
+   public void stopMarshaller() {
+      marshaller.stop();
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void releaseContainers() {
+      for (OffHeapDataContainer container : containers) {
+         container.clear();
+         container.releaseMemory();
+         assertEquals(0, container.memoryUsage());
+      }
+      containers.clear();
+   }
+
+   @Override
+   protected DataContainer createContainer() {
+      return createContainer(-1, null, mock(EvictionManager.class), mock(PassivationManager.class));
+   }
+
+   private OffHeapDataContainer createContainer(long maxSize, EvictionType type, EvictionManager evictionManager,
+                                                PassivationManager passivationManager) {
+      OffHeapDataContainer<Object, String> dc = new OffHeapDataContainer<Object, String>(16, maxSize, type);
+      InternalEntryFactoryImpl internalEntryFactory = new InternalEntryFactoryImpl();
+      internalEntryFactory.injectTimeService(TIME_SERVICE);
+      dc.initialize(evictionManager, passivationManager, internalEntryFactory, mock(ActivationManager.class),
+                    TIME_SERVICE, marshaller);
+      containers.add(dc);
+      return dc;
+   }
+
+   /**
+    * Entries are materialized on every read, so the last used timestamp is only visible on the entries read later.
+    */
+   @Override
+   public void testUpdatingLastUsed() throws Exception {
+      dc.put("k", "v", new EmbeddedMetadata.Builder().maxIdle(600000, TimeUnit.MILLISECONDS).build());
+      long lastUsed = dc.get("k").getLastUsed();
+      Thread.sleep(100); // for time calc granularity
+      assertTrue(dc.get("k").getLastUsed() > lastUsed);
+      assertEquals(600000, dc.peek("k").getMaxIdle());
+   }
+
+   /**
+    * Entries have identity equality and are materialized on every read, so compare their contents instead.
+    */
+   @Override
+   public void testEntrySet() {
+      dc.put("k1", "v1", new EmbeddedMetadata.Builder().lifespan(100, TimeUnit.MINUTES).build());
+      dc.put("k2", "v2", new EmbeddedMetadata.Builder().build());
+      dc.put("k3", "v3", new EmbeddedMetadata.Builder().maxIdle(100, TimeUnit.MINUTES).build());
+
+      Set<String> actual = new HashSet<String>();
+      for (Map.Entry<Object, String> e : dc.entrySet()) {
+         assertTrue(dc.entrySet().contains(e));
+         actual.add(e.getKey() + "=" + e.getValue());
+      }
+
+      Set<String> expected = new HashSet<String>();
+      expected.add("k1=v1");
+      expected.add("k2=v2");
+      expected.add("k3=v3");
+      assertEquals(expected, actual);
+   }
+
+   public void testRemoveAndClear() {
+      for (int i = 0; i < 100; i++) dc.put(i, "v" + i, new EmbeddedMetadata.Builder().build());
+      assertEquals(100, dc.size());
+      assertTrue(dc.memoryUsage() > 100 * OffHeapDataContainer.HEADER_SIZE);
+
+      InternalCacheEntry removed = dc.remove(42);
+      assertEquals("v42", removed.getValue());
+      assertNull(dc.remove(42));
+      assertFalse(dc.containsKey(42));
+      assertEquals(99, dc.size());
+
+      dc.clear();
+      assertEquals(0, dc.size());
+      assertNull(dc.get(1));
+      assertFalse(dc.iterator().hasNext());
+   }
+
+   public void testIterationAcrossResize() {
+      for (int i = 0; i < 50; i++) dc.put(i, "v", new EmbeddedMetadata.Builder().build());
+
+      Set<Object> seen = new HashSet<Object>();
+      Iterator<InternalCacheEntry<Object, String>> it = dc.iterator();
+      for (int i = 0; i < 10; i++) {
+         assertTrue(seen.add(it.next().getKey()));
+      }
+      // grow every stripe's index while iterating
+      for (int i = 50; i < 5000; i++) dc.put(i, "v", new EmbeddedMetadata.Builder().build());
+      while (it.hasNext()) {
+         assertTrue(seen.add(it.next().getKey()));
+      }
+      for (int i = 0; i < 50; i++) {
+         assertTrue("Did not see key " + i, seen.contains(i));
+      }
+   }
+
+   public void testCountBoundedEviction() {
+      EvictionManager evictionManager = mock(EvictionManager.class);
+      PassivationManager passivationManager = mock(PassivationManager.class);
+      DataContainer<Object, String> bounded = createContainer(160, EvictionType.COUNT, evictionManager, passivationManager);
+      for (int i = 0; i < 1000; i++) {
+         bounded.put(i, "v" + i, new EmbeddedMetadata.Builder().build());
+         assertTrue(bounded.size() <= 160);
+         // the entry just written is never the one evicted
+         assertTrue(bounded.containsKey(i));
+      }
+      verify(evictionManager, atLeastOnce()).onEntryEviction(Mockito.<Map<Object, InternalCacheEntry<Object, String>>>any());
+      verify(passivationManager, atLeastOnce()).passivate(Mockito.<InternalCacheEntry>any());
+   }
+
+   public void testMemoryBoundedEviction() {
+      long maxMemory = 64 * 1024;
+      DataContainer<Object, String> bounded = createContainer(maxMemory, EvictionType.MEMORY,
+                                                              mock(EvictionManager.class), mock(PassivationManager.class));
+      for (int i = 0; i < 1000; i++) {
+         bounded.put(i, "value-" + i, new EmbeddedMetadata.Builder().build());
+         assertTrue(bounded.memoryUsage() <= maxMemory);
+      }
+      assertTrue(bounded.size() < 1000);
+   }
+}
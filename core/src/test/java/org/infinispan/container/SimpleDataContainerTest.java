@@ -1,6 +1,10 @@
 package org.infinispan.container;
 
 import org.infinispan.eviction.ActivationManager;
+import org.infinispan.eviction.EvictionManager;
+import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.eviction.EvictionThreadPolicy;
+import org.infinispan.eviction.PassivationManager;
 import org.infinispan.metadata.EmbeddedMetadata;
 import org.infinispan.commons.equivalence.AnyEquivalence;
 import org.infinispan.container.entries.ImmortalCacheEntry;
@@ -83,6 +87,49 @@ public void testExpiredData() throws InterruptedException {
       assert dc.size() == 0;
    }
    
+   public void testPurgeExpiredOnlyRemovesExpiredEntries() throws InterruptedException {
+      for (int i = 0; i < 10; i++) {
+         dc.put("immortal" + i, "v", new EmbeddedMetadata.Builder().build());
+         dc.put("mortal" + i, "v", new EmbeddedMetadata.Builder().lifespan(0, TimeUnit.MINUTES).build());
+         dc.put("transient" + i, "v", new EmbeddedMetadata.Builder().maxIdle(100, TimeUnit.MINUTES).build());
+      }
+      // replaced by an immortal entry, so it must not be purged
+      dc.put("mortal0", "v", new EmbeddedMetadata.Builder().build());
+      Thread.sleep(10);
+
+      assertEquals(9, dc.purgeExpired());
+      assertEquals(21, dc.size());
+      assertEquals(0, dc.purgeExpired());
+      assert dc.containsKey("mortal0");
+      assert dc.containsKey("transient0");
+   }
+
+   public void testLazyExpirationRemovesFromIndex() throws InterruptedException {
+      dc.put("k1", "v", new EmbeddedMetadata.Builder().lifespan(1, TimeUnit.MILLISECONDS).build());
+      dc.put("k2", "v", new EmbeddedMetadata.Builder().lifespan(1, TimeUnit.MILLISECONDS).build());
+      assertEquals(2, ((DefaultDataContainer) dc).expirationIndexSize());
+      Thread.sleep(10);
+
+      assert dc.get("k1") == null;
+      assert !dc.containsKey("k2");
+      assertEquals(0, ((DefaultDataContainer) dc).expirationIndexSize());
+   }
+
+   public void testEvictionRemovesFromIndex() {
+      int maxEntries = 16;
+      DefaultDataContainer<Object, String> bounded = (DefaultDataContainer<Object, String>) DefaultDataContainer.<Object, String>boundedDataContainer(
+            1, maxEntries, EvictionStrategy.LRU, EvictionThreadPolicy.DEFAULT, AnyEquivalence.getInstance());
+      InternalEntryFactoryImpl internalEntryFactory = new InternalEntryFactoryImpl();
+      internalEntryFactory.injectTimeService(TIME_SERVICE);
+      bounded.initialize(mock(EvictionManager.class), mock(PassivationManager.class), internalEntryFactory,
+                         mock(ActivationManager.class), null, TIME_SERVICE);
+      for (int i = 0; i < maxEntries * 10; i++) {
+         bounded.put("k" + i, "v", new EmbeddedMetadata.Builder().lifespan(1, TimeUnit.HOURS).build());
+      }
+      assert bounded.size() <= maxEntries;
+      assertEquals(bounded.size(), bounded.expirationIndexSize());
+   }
+
    public void testResetOfCreationTime() throws Exception {
       long now = System.currentTimeMillis();
       dc.put("k", "v", new EmbeddedMetadata.Builder().lifespan(1000, TimeUnit.SECONDS).build());
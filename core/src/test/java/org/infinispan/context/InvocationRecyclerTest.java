@@ -0,0 +1,157 @@
+package org.infinispan.context;
+
+import org.infinispan.Cache;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.interceptors.InterceptorChain;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
+import org.infinispan.notifications.cachelistener.event.CacheEntryModifiedEvent;
+import org.infinispan.test.CacheManagerCallable;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotSame;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertSame;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+/**
+ * Tests that the single-key invocations of a local cache reuse their context and command when recycling is enabled.
+ *
+ * @since 7.1
+ */
+@Test(groups = "functional", testName = "context.InvocationRecyclerTest")
+public class InvocationRecyclerTest extends SingleCacheManagerTest {
+
+   private InvocationRecycler recycler;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      System.setProperty(InvocationRecycler.RECYCLING_PROPERTY, "true");
+      try {
+         EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(new ConfigurationBuilder());
+         recycler = TestingUtil.extractComponent(cm.getCache(), InvocationRecycler.class);
+         return cm;
+      } finally {
+         System.clearProperty(InvocationRecycler.RECYCLING_PROPERTY);
+      }
+   }
+
+   public void testOperations() {
+      assertNull(cache.put("k", "v1"));
+      assertEquals("v1", cache.put("k", "v2"));
+      assertEquals("v2", cache.putIfAbsent("k", "v3"));
+      assertEquals("v2", cache.get("k"));
+      assertEquals("v2", cache.getAdvancedCache().withFlags(Flag.SKIP_STATISTICS).get("k"));
+      assertEquals("v2", cache.remove("k"));
+      assertNull(cache.remove("k"));
+      assertNull(cache.get("k"));
+
+      cache.getAdvancedCache().withFlags(Flag.IGNORE_RETURN_VALUES).put("k", "v4");
+      // The flags of the previous put must not be kept
+      assertEquals("v4", cache.put("k", "v5"));
+   }
+
+   public void testCommandReused() {
+      cache.put("k", "v0");
+      PutKeyValueCommand command = recycler.acquirePutKeyValueCommand("a", "b", null, null);
+      recycler.release(null, command);
+      assertEquals(Recyclable.State.RELEASED, command.getRecycleState());
+      assertNull(command.getKey());
+      assertNull(command.getValue());
+
+      // The put acquires the command from the pool of the thread, and releases it when it completes
+      CommandObserver observer = new CommandObserver(command);
+      cache.addListener(observer);
+      try {
+         cache.put("k", "v");
+      } finally {
+         cache.removeListener(observer);
+      }
+      assertEquals(Recyclable.State.ACQUIRED, observer.states.get(0));
+      assertEquals("k", observer.keys.get(0));
+      assertEquals(Recyclable.State.RELEASED, command.getRecycleState());
+      assertNull(command.getKey());
+
+      assertSame(command, recycler.acquirePutKeyValueCommand("a", "b", null, null));
+      recycler.release(null, command);
+   }
+
+   public void testUseAfterRelease() {
+      InterceptorChain chain = TestingUtil.extractComponent(cache, InterceptorChain.class);
+      InvocationContext ctx = recycler.acquireContext();
+      PutKeyValueCommand command = recycler.acquirePutKeyValueCommand("k", "v", null, null);
+      chain.invoke(ctx, command);
+      assertEquals("v", cache.get("k"));
+
+      try {
+         chain.invoke(ctx, command);
+         fail("The released context and command must not be invoked again");
+      } catch (IllegalStateException e) {
+         // expected
+      }
+      try {
+         command.perform(ctx);
+         fail("The released command must not be performed");
+      } catch (IllegalStateException e) {
+         // expected
+      } catch (Throwable t) {
+         throw new AssertionError(t);
+      }
+   }
+
+   public void testNotReusedInDebugMode() {
+      System.setProperty(InvocationRecycler.RECYCLING_PROPERTY, "true");
+      System.setProperty(InvocationRecycler.DEBUG_PROPERTY, "true");
+      EmbeddedCacheManager debugCm;
+      try {
+         debugCm = TestCacheManagerFactory.createCacheManager(new ConfigurationBuilder());
+         debugCm.getCache();
+      } finally {
+         System.clearProperty(InvocationRecycler.RECYCLING_PROPERTY);
+         System.clearProperty(InvocationRecycler.DEBUG_PROPERTY);
+      }
+      TestingUtil.withCacheManager(new CacheManagerCallable(debugCm) {
+         @Override
+         public void call() {
+            Cache<Object, Object> debugCache = cm.getCache();
+            InvocationRecycler debugRecycler = TestingUtil.extractComponent(debugCache, InvocationRecycler.class);
+            assertTrue(debugRecycler.isDebug());
+            debugCache.put("k", "v");
+            assertEquals("v", debugCache.get("k"));
+
+            InvocationContext ctx = debugRecycler.acquireContext();
+            debugRecycler.release(ctx, null);
+            assertNotSame(ctx, debugRecycler.acquireContext());
+         }
+      });
+   }
+
+   @Listener
+   public static class CommandObserver {
+      final PutKeyValueCommand command;
+      final List<Recyclable.State> states = new ArrayList<Recyclable.State>();
+      final List<Object> keys = new ArrayList<Object>();
+
+      CommandObserver(PutKeyValueCommand command) {
+         this.command = command;
+      }
+
+      @CacheEntryModified
+      public void entryModified(CacheEntryModifiedEvent event) {
+         if (!event.isPre()) {
+            states.add(command.getRecycleState());
+            keys.add(command.getKey());
+         }
+      }
+   }
+}
@@ -0,0 +1,113 @@
+package org.infinispan.distribution;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.Flag;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.util.CountingRpcManager;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests {@link org.infinispan.AdvancedCache#getAll(java.util.Set)} and the per owner routing of
+ * {@link Cache#putAll(java.util.Map)} in a distributed cache.
+ *
+ * @since 7.1
+ */
+@Test(groups = "functional", testName = "distribution.DistGetAllTest")
+public class DistGetAllTest extends MultipleCacheManagersTest {
+
+   private static final int NUM_NODES = 4;
+
+   protected boolean transactional;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, transactional);
+      builder.clustering().hash().numOwners(2).l1().disable();
+      createClusteredCaches(NUM_NODES, builder);
+   }
+
+   public void testGetAllFromAllOwners() {
+      Map<Object, Object> data = populate("testGetAllFromAllOwners");
+      Set<Object> keys = new HashSet<Object>(data.keySet());
+      keys.add("missing");
+
+      Cache<Object, Object> cache = cache(0);
+      CountingRpcManager rpcManager = CountingRpcManager.replaceRpcManager(cache);
+      Map<Object, Object> result = cache.getAdvancedCache().getAll(keys);
+
+      assertEquals(data, result);
+      // a single remote call per primary owner, no single key remote gets
+      assertEquals(0, rpcManager.clusterGet);
+      assertTrue("Too many remote calls: " + rpcManager.otherCount, rpcManager.otherCount <= NUM_NODES - 1);
+   }
+
+   public void testGetAllWithSkipRemoteLookup() {
+      Map<Object, Object> data = populate("testGetAllWithSkipRemoteLookup");
+
+      Cache<Object, Object> cache = cache(0);
+      Map<Object, Object> result = cache.getAdvancedCache().withFlags(Flag.SKIP_REMOTE_LOOKUP).getAll(data.keySet());
+
+      Map<Object, Object> expected = new HashMap<Object, Object>();
+      for (Map.Entry<Object, Object> e : data.entrySet()) {
+         if (DistributionTestHelper.isOwner(cache, e.getKey())) {
+            expected.put(e.getKey(), e.getValue());
+         }
+      }
+      assertEquals(expected, result);
+   }
+
+   public void testGetAllEmpty() {
+      assertTrue(cache(0).getAdvancedCache().getAll(new HashSet<Object>()).isEmpty());
+   }
+
+   public void testPutAllReachesOnlyOwners() {
+      Map<Object, Object> data = populate("testPutAllReachesOnlyOwners");
+      for (Map.Entry<Object, Object> e : data.entrySet()) {
+         for (Cache<Object, Object> c : caches()) {
+            Object stored = c.getAdvancedCache().getDataContainer().get(e.getKey()) == null ? null :
+                  c.getAdvancedCache().getDataContainer().get(e.getKey()).getValue();
+            if (DistributionTestHelper.isOwner(c, e.getKey())) {
+               assertEquals(e.getValue(), stored);
+            } else {
+               assertNull(stored);
+            }
+         }
+      }
+   }
+
+   public void testPutAllThenGetAllFromEveryNode() {
+      Map<Object, Object> data = populate("testPutAllThenGetAllFromEveryNode");
+      for (Cache<Object, Object> c : caches()) {
+         assertEquals(data, c.getAdvancedCache().getAll(data.keySet()));
+      }
+      Map<Object, Object> update = new HashMap<Object, Object>();
+      for (Object key : data.keySet()) {
+         update.put(key, "updated");
+      }
+      cache(1).putAll(update);
+      Map<Object, Object> result = cache(2).getAdvancedCache().getAll(data.keySet());
+      assertEquals(update, result);
+      assertFalse(result.containsValue(data.values().iterator().next()));
+   }
+
+   private Map<Object, Object> populate(String prefix) {
+      Map<Object, Object> data = new HashMap<Object, Object>();
+      for (int i = 0; i < 40; i++) {
+         data.put(prefix + "-k" + i, prefix + "-v" + i);
+      }
+      cache(0).putAll(data);
+      return data;
+   }
+}
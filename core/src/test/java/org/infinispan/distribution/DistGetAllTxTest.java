@@ -0,0 +1,14 @@
+package org.infinispan.distribution;
+
+import org.testng.annotations.Test;
+
+/**
+ * @since 7.1
+ */
+@Test(groups = "functional", testName = "distribution.DistGetAllTxTest")
+public class DistGetAllTxTest extends DistGetAllTest {
+
+   public DistGetAllTxTest() {
+      transactional = true;
+   }
+}
@@ -2,15 +2,20 @@
 
 import org.infinispan.AdvancedCache;
 import org.infinispan.Cache;
+import org.infinispan.commons.util.concurrent.FutureListener;
 import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.context.Flag;
 import org.testng.annotations.Test;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.infinispan.test.TestingUtil.k;
 import static org.infinispan.test.TestingUtil.v;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 /**
  * Non-transactional tests for asynchronous methods in a distributed
@@ -135,6 +140,49 @@ public void testLocalAsyncGet(Method m) throws Exception {
       assert f.get() == null;
    }
 
+   public void testAsyncPutFromNonOwner(Method m) throws Exception {
+      Cache<Object, String> nonOwnerCache = getNonOwner(k(m));
+      NotifyingFuture<String> f = nonOwnerCache.putAsync(k(m), v(m));
+      assertEquals(null, f.get());
+      f = nonOwnerCache.putAsync(k(m), v(m, 1));
+      assertEquals(v(m), f.get());
+      assertEquals(v(m, 1), getOwner(k(m)).get(k(m)));
+      assertEquals(v(m, 1), nonOwnerCache.get(k(m)));
+   }
+
+   public void testAsyncRemoveFromNonOwner(Method m) throws Exception {
+      getOwner(k(m)).put(k(m), v(m));
+      Cache<Object, String> nonOwnerCache = getNonOwner(k(m));
+      NotifyingFuture<String> f = nonOwnerCache.removeAsync(k(m));
+      assertEquals(v(m), f.get());
+      assertEquals(null, getOwner(k(m)).get(k(m)));
+      f = nonOwnerCache.removeAsync(k(m));
+      assertEquals(null, f.get());
+   }
+
+   public void testAsyncConditionalRemoveFromNonOwner(Method m) throws Exception {
+      getOwner(k(m)).put(k(m), v(m));
+      Cache<Object, String> nonOwnerCache = getNonOwner(k(m));
+      assertEquals(Boolean.FALSE, nonOwnerCache.removeAsync(k(m), v(m, 1)).get());
+      assertEquals(v(m), getOwner(k(m)).get(k(m)));
+      assertEquals(Boolean.TRUE, nonOwnerCache.removeAsync(k(m), v(m)).get());
+      assertEquals(null, getOwner(k(m)).get(k(m)));
+   }
+
+   public void testAsyncPutFromNonOwnerNotifiesListener(Method m) throws Exception {
+      final CountDownLatch latch = new CountDownLatch(1);
+      NotifyingFuture<String> f = getNonOwner(k(m)).putAsync(k(m), v(m));
+      f.attachListener(new FutureListener<String>() {
+         @Override
+         public void futureDone(Future<String> future) {
+            latch.countDown();
+         }
+      });
+      assertTrue(latch.await(10, TimeUnit.SECONDS));
+      assertTrue(f.isDone());
+      assertEquals(v(m), getOwner(k(m)).get(k(m)));
+   }
+
    protected Cache<Object, String> getOwner(Object key) {
       return getOwners(key)[0];
    }
@@ -7,11 +7,14 @@
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.testng.AssertJUnit.assertEquals;
 
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.DataContainer;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.eviction.impl.EvictionManagerImpl;
+import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.test.AbstractInfinispanTest;
 import org.testng.annotations.Test;
 
@@ -55,4 +58,29 @@ public void testWakeupInterval() {
       assert em.evictionTask == mockFuture;
       verify(mockService).scheduleWithFixedDelay(any(Runnable.class), anyLong(), anyLong(), any(TimeUnit.class)); // expect that the executor was never used!!
    }
+
+   public void testReaperStatistics() {
+      EvictionManagerImpl em = new EvictionManagerImpl();
+      Configuration cfg = getCfg().expiration().wakeUpInterval(0L).jmxStatistics().enable().build();
+
+      DataContainer dataContainer = mock(DataContainer.class);
+      when(dataContainer.purgeExpired()).thenReturn(3, 5);
+      em.initialize(mock(ScheduledExecutorService.class), "", cfg, dataContainer, mock(PersistenceManager.class),
+                    null, TIME_SERVICE);
+      em.start();
+
+      em.processEviction();
+      assertEquals(1, em.getReaperPasses());
+      assertEquals(3, em.getLastReaperPassExpiredEntries());
+      em.processEviction();
+      assertEquals(2, em.getReaperPasses());
+      assertEquals(5, em.getLastReaperPassExpiredEntries());
+      assertEquals(8, em.getReaperExpiredEntries());
+      assertEquals(4, em.getAverageReaperPassExpiredEntries());
+
+      em.resetStatistics();
+      assertEquals(0, em.getReaperPasses());
+      assertEquals(0, em.getReaperExpiredEntries());
+      assertEquals(0, em.getAverageReaperPassTime());
+   }
 }
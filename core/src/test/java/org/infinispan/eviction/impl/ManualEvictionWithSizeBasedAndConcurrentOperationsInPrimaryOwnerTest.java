@@ -456,6 +456,11 @@ public int size() {
          return delegate.size();
       }
 
+      @Override
+      public long memoryUsage() {
+         return delegate.memoryUsage();
+      }
+
       @Override
       @Stop(priority = 999)
       public void clear() {
@@ -478,8 +483,8 @@ public Set<InternalCacheEntry<K, V>> entrySet() {
       }
 
       @Override
-      public void purgeExpired() {
-         delegate.purgeExpired();
+      public int purgeExpired() {
+         return delegate.purgeExpired();
       }
 
       @Override
@@ -0,0 +1,63 @@
+package org.infinispan.eviction.impl;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.DataContainer;
+import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.eviction.EvictionType;
+import org.infinispan.interceptors.CacheMgmtInterceptor;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests that a cache with {@link EvictionType#MEMORY} eviction stays within its memory bound.
+ *
+ * @since 7.1
+ */
+@Test(groups = "functional", testName = "eviction.MemoryBasedEvictionFunctionalTest")
+public class MemoryBasedEvictionFunctionalTest extends SingleCacheManagerTest {
+
+   private static final long MAX_MEMORY = 64 * 1024;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      builder.eviction().type(EvictionType.MEMORY).size(MAX_MEMORY).strategy(EvictionStrategy.LRU)
+            .locking().concurrencyLevel(4)
+            .storeAsBinary().enable()
+            .jmxStatistics().enable();
+      return TestCacheManagerFactory.createCacheManager(builder);
+   }
+
+   public void testMemoryBound() {
+      DataContainer dataContainer = cache.getAdvancedCache().getDataContainer();
+      for (int i = 0; i < 1000; i++) {
+         cache.put("key-" + i, new byte[i % 512]);
+         assertTrue("Memory used " + dataContainer.memoryUsage() + " exceeds " + MAX_MEMORY,
+                    dataContainer.memoryUsage() <= MAX_MEMORY);
+      }
+      assertTrue(dataContainer.size() < 1000);
+      assertTrue(dataContainer.memoryUsage() > 0);
+
+      CacheMgmtInterceptor mgmtInterceptor = TestingUtil.findInterceptor(cache, CacheMgmtInterceptor.class);
+      assertEquals(dataContainer.memoryUsage(), mgmtInterceptor.getDataMemoryUsed());
+
+      cache.clear();
+      assertEquals(0, dataContainer.memoryUsage());
+   }
+
+   public void testLargerEntryReplacesSmallerOnes() {
+      for (int i = 0; i < 10; i++) {
+         cache.put("small-" + i, new byte[128]);
+      }
+      // the bound is split across the 4 segments of the container
+      cache.put("large", new byte[(int) MAX_MEMORY / 8]);
+      assertTrue(cache.containsKey("large"));
+      assertTrue(cache.getAdvancedCache().getDataContainer().memoryUsage() <= MAX_MEMORY);
+   }
+}
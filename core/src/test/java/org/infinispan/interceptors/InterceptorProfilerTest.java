@@ -0,0 +1,70 @@
+package org.infinispan.interceptors;
+
+import org.infinispan.commands.read.GetKeyValueCommand;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.util.concurrent.LatencyHistogram;
+import org.testng.annotations.Test;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * @since 7.1
+ */
+@Test(groups = "functional", testName = "interceptors.InterceptorProfilerTest")
+public class InterceptorProfilerTest extends SingleCacheManagerTest {
+
+   private InterceptorProfiler profiler;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(new ConfigurationBuilder());
+      profiler = TestingUtil.extractComponent(cm.getCache(), InterceptorProfiler.class);
+      return cm;
+   }
+
+   public void testDisabledByDefault() {
+      assertFalse(profiler.isEnabled());
+      cache.put("k", "v");
+      assertNull(profiler.getSelfTime(CallInterceptor.class, PutKeyValueCommand.class));
+   }
+
+   public void testSelfTime() {
+      profiler.setEnabled(true);
+      try {
+         for (int i = 0; i < 10; i++) {
+            cache.put("k" + i, "v" + i);
+            cache.get("k" + i);
+         }
+      } finally {
+         profiler.setEnabled(false);
+      }
+
+      // The first interceptor is invoked by the chain, the last one by the interceptor before it
+      InterceptorChain chain = TestingUtil.extractComponent(cache, InterceptorChain.class);
+      Class<? extends CommandInterceptor> first = chain.getFirstInChain().getClass();
+      assertEquals(10, profiler.getSelfTime(first, PutKeyValueCommand.class).getCount());
+      assertEquals(10, profiler.getSelfTime(EntryWrappingInterceptor.class, PutKeyValueCommand.class).getCount());
+      assertEquals(10, profiler.getSelfTime(CallInterceptor.class, PutKeyValueCommand.class).getCount());
+      assertEquals(10, profiler.getSelfTime(CallInterceptor.class, GetKeyValueCommand.class).getCount());
+
+      String profile = profiler.printProfile();
+      assertTrue(profile, profile.contains("CallInterceptor/PutKeyValueCommand: count=10"));
+
+      profiler.resetStatistics();
+      LatencyHistogram selfTime = profiler.getSelfTime(CallInterceptor.class, PutKeyValueCommand.class);
+      assertEquals(0, selfTime.getCount());
+      assertEquals("", profiler.printProfile());
+
+      cache.put("k", "v");
+      assertEquals(0, selfTime.getCount());
+   }
+}
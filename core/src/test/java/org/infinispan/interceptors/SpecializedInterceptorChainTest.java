@@ -0,0 +1,100 @@
+package org.infinispan.interceptors;
+
+import org.infinispan.commands.read.GetKeyValueCommand;
+import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.InterceptorConfiguration;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.interceptors.base.BaseCustomInterceptor;
+import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
+
+/**
+ * Tests that the commands skip the interceptors that only pass them on when {@link
+ * CommandInterceptor#SPECIALIZED_CHAIN_PROPERTY} is enabled, and that the chain can still be modified.
+ *
+ * @since 7.1
+ */
+@Test(groups = "functional", testName = "interceptors.SpecializedInterceptorChainTest")
+public class SpecializedInterceptorChainTest extends SingleCacheManagerTest {
+
+   private final ClearInterceptor clearInterceptor = new ClearInterceptor();
+   private InterceptorProfiler profiler;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      System.setProperty(CommandInterceptor.SPECIALIZED_CHAIN_PROPERTY, "true");
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.customInterceptors().addInterceptor().interceptor(clearInterceptor)
+            .position(InterceptorConfiguration.Position.LAST);
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(builder);
+      profiler = TestingUtil.extractComponent(cm.getCache(), InterceptorProfiler.class);
+      profiler.setEnabled(true);
+      return cm;
+   }
+
+   @AfterClass(alwaysRun = true)
+   public void clearProperty() {
+      System.clearProperty(CommandInterceptor.SPECIALIZED_CHAIN_PROPERTY);
+   }
+
+   public void testPassThroughInterceptorSkipped() {
+      profiler.resetStatistics();
+      cache.put("k", "v");
+      assertEquals("v", cache.get("k"));
+      cache.clear();
+      assertEquals(1, clearInterceptor.clears.get());
+      assertNull(profiler.getSelfTime(ClearInterceptor.class, PutKeyValueCommand.class));
+      assertNull(profiler.getSelfTime(ClearInterceptor.class, GetKeyValueCommand.class));
+      assertEquals(1, profiler.getSelfTime(ClearInterceptor.class, ClearCommand.class).getCount());
+      assertEquals(1, profiler.getSelfTime(CallInterceptor.class, GetKeyValueCommand.class).getCount());
+   }
+
+   public void testInterceptorAddedAfterFirstInvocation() {
+      cache.put("k1", "v1");
+      PutInterceptor putInterceptor = new PutInterceptor();
+      cache.getAdvancedCache().addInterceptorBefore(putInterceptor, ClearInterceptor.class);
+      try {
+         cache.put("k2", "v2");
+         assertEquals("v2", cache.get("k2"));
+         assertEquals(1, putInterceptor.puts.get());
+         assertNotNull(profiler.getSelfTime(PutInterceptor.class, PutKeyValueCommand.class));
+      } finally {
+         cache.getAdvancedCache().removeInterceptor(PutInterceptor.class);
+      }
+      cache.put("k3", "v3");
+      assertEquals(1, putInterceptor.puts.get());
+   }
+
+   static class ClearInterceptor extends BaseCustomInterceptor {
+      final AtomicInteger clears = new AtomicInteger();
+
+      @Override
+      public Object visitClearCommand(InvocationContext ctx, ClearCommand command) throws Throwable {
+         clears.incrementAndGet();
+         return invokeNextInterceptor(ctx, command);
+      }
+   }
+
+   static class PutInterceptor extends BaseCustomInterceptor {
+      final AtomicInteger puts = new AtomicInteger();
+
+      @Override
+      public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) throws Throwable {
+         puts.incrementAndGet();
+         return invokeNextInterceptor(ctx, command);
+      }
+   }
+}
@@ -7,6 +7,7 @@
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.container.entries.ImmortalCacheEntry;
 import org.infinispan.distribution.MagicKey;
+import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.eviction.PassivationManager;
 import org.infinispan.filter.CollectionKeyFilter;
 import org.infinispan.filter.KeyFilter;
@@ -37,6 +38,7 @@
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anySetOf;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.withSettings;
 import static org.testng.Assert.assertEquals;
@@ -292,8 +294,9 @@ public Object answer(InvocationOnMock invocation) throws Throwable {
 
             return forwardedAnswer.answer(invocation);
          }
-      }).when(mockManager).processOnAllStores(any(Executor.class),      any(KeyFilter.class), any(AdvancedCacheLoader.CacheLoaderTask.class),
-                                                  anyBoolean(), anyBoolean());
+      }).when(mockManager).processOnAllStores(any(Executor.class), any(ConsistentHash.class), anySetOf(Integer.class),
+                                              any(KeyFilter.class), any(AdvancedCacheLoader.CacheLoaderTask.class),
+                                              anyBoolean(), anyBoolean(), any(PersistenceManager.AccessMode.class));
       TestingUtil.replaceComponent(cache, PersistenceManager.class, mockManager, true);
       return pm;
    }
@@ -0,0 +1,67 @@
+package org.infinispan.lock;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.util.concurrent.locks.containers.LockContainer;
+import org.infinispan.util.concurrent.locks.containers.OwnableReentrantPerEntryLockContainer;
+import org.infinispan.util.concurrent.locks.containers.OwnableReentrantStripedLockContainer;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests {@link LockContainer#awaitRelease(Object, Object)} and {@link LockContainer#getLockQueueDepths()}.
+ *
+ * @since 7.1
+ */
+@Test(groups = "unit", testName = "lock.LockContainerAwaitReleaseTest")
+public class LockContainerAwaitReleaseTest extends AbstractInfinispanTest {
+
+   public void testPerEntryContainer() throws Exception {
+      doTest(new OwnableReentrantPerEntryLockContainer(16, AnyEquivalence.getInstance()));
+   }
+
+   public void testStripedContainer() throws Exception {
+      doTest(new OwnableReentrantStripedLockContainer(16, AnyEquivalence.getInstance()));
+   }
+
+   private void doTest(LockContainer<?> container) throws Exception {
+      Object owner1 = "owner1";
+      Object owner2 = "owner2";
+      assertNull(container.awaitRelease(owner2, "k"));
+
+      assertNotNull(container.acquireLock(owner1, "k", 0, TimeUnit.MILLISECONDS));
+      // the lock owner never waits for its own lock
+      assertNull(container.awaitRelease(owner1, "k"));
+
+      NotifyingFuture<Void> release1 = container.awaitRelease(owner2, "k");
+      NotifyingFuture<Void> release2 = container.awaitRelease(owner2, "k");
+      assertNotNull(release1);
+      assertNotNull(release2);
+      assertFalse(release1.isDone());
+
+      Map<Object, Integer> depths = container.getLockQueueDepths();
+      assertEquals(1, depths.size());
+      // keyed by the stripe index with lock striping
+      assertEquals(2, (int) depths.values().iterator().next());
+
+      // a reentrant acquisition must be released completely before the waiters are notified
+      assertNotNull(container.acquireLock(owner1, "k", 0, TimeUnit.MILLISECONDS));
+      container.releaseLock(owner1, "k");
+      assertFalse(release1.isDone());
+
+      container.releaseLock(owner1, "k");
+      assertTrue(release1.isDone());
+      assertTrue(release2.isDone());
+      assertTrue(container.getLockQueueDepths().isEmpty());
+      assertNull(container.awaitRelease(owner2, "k"));
+   }
+}
@@ -0,0 +1,117 @@
+package org.infinispan.lock;
+
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.transaction.LockingMode;
+import org.infinispan.util.concurrent.TimeoutException;
+import org.infinispan.util.concurrent.locks.LockManager;
+import org.infinispan.util.concurrent.locks.LockManagerImpl;
+import org.testng.annotations.Test;
+
+import javax.transaction.Transaction;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+/**
+ * Tests that the remote lock requests waiting for a busy lock on the primary owner are resumed when the lock is
+ * released, that they time out while the lock is held, and that they are visible in the lock queue depths.
+ *
+ * @since 7.1
+ */
+@Test(groups = "functional", testName = "lock.RemoteLockQueueTest")
+public class RemoteLockQueueTest extends MultipleCacheManagersTest {
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, true);
+      builder.transaction().lockingMode(LockingMode.PESSIMISTIC)
+            .locking().lockAcquisitionTimeout(2, TimeUnit.SECONDS);
+      createCluster(builder, 2);
+      waitForClusterToForm();
+   }
+
+   public void testQueuedRequestResumedOnRelease() throws Exception {
+      final Object key = getKeyForCache(0);
+      Transaction tx = lockOnPrimaryOwner(key);
+
+      Future<Void> future = putFromNonOwner(key, "v2");
+      assertQueued(key);
+      assertFalse(future.isDone());
+
+      tm(0).resume(tx);
+      tm(0).commit();
+
+      future.get(10, TimeUnit.SECONDS);
+      assertEquals("v2", cache(0).get(key));
+      assertEquals(0, lockManager().getNumberOfQueuedLockRequests());
+   }
+
+   public void testQueuedRequestTimesOut() throws Exception {
+      final Object key = getKeyForCache(0);
+      Transaction tx = lockOnPrimaryOwner(key);
+
+      Future<Void> future = putFromNonOwner(key, "v2");
+      assertQueued(key);
+      try {
+         future.get(10, TimeUnit.SECONDS);
+         fail("The lock request should have timed out");
+      } catch (ExecutionException e) {
+         Throwable cause = e.getCause();
+         while (cause != null && !(cause instanceof TimeoutException)) {
+            cause = cause.getCause();
+         }
+         assertTrue("Unexpected exception " + e, cause != null);
+      } finally {
+         tm(0).resume(tx);
+         tm(0).rollback();
+      }
+      assertEquals(0, lockManager().getNumberOfQueuedLockRequests());
+   }
+
+   private Transaction lockOnPrimaryOwner(Object key) throws Exception {
+      tm(0).begin();
+      cache(0).getAdvancedCache().lock(key);
+      return tm(0).suspend();
+   }
+
+   private Future<Void> putFromNonOwner(final Object key, final Object value) {
+      return fork(new Callable<Void>() {
+         @Override
+         public Void call() throws Exception {
+            tm(1).begin();
+            try {
+               cache(1).put(key, value);
+               tm(1).commit();
+            } catch (Exception e) {
+               tm(1).rollback();
+               throw e;
+            }
+            return null;
+         }
+      });
+   }
+
+   private void assertQueued(final Object key) {
+      eventually(new Condition() {
+         @Override
+         public boolean isSatisfied() throws Exception {
+            return lockManager().getNumberOfQueuedLockRequests() == 1;
+         }
+      });
+      assertTrue(lockManager().showLockQueueDepths(10).contains("=1"));
+      assertTrue(lockManager().isLocked(key));
+   }
+
+   private LockManagerImpl lockManager() {
+      return (LockManagerImpl) TestingUtil.extractComponent(cache(0), LockManager.class);
+   }
+}
@@ -0,0 +1,106 @@
+package org.infinispan.marshall;
+
+import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commands.remote.ClusteredGetCommand;
+import org.infinispan.commands.remote.SingleRpcCommand;
+import org.infinispan.commands.write.InvalidateCommand;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commands.write.RemoveCommand;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.context.Flag;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.EnumSet;
+
+/**
+ * Compares the size and the marshalling and unmarshalling time of the commands written in the
+ * {@link org.infinispan.commands.StreamableCommand} format, and of the same commands written as parameter arrays
+ * (marshalling version 7.0).
+ * <p/>
+ * The number of iterations can be changed with the {@code iterations} system property.
+ *
+ * @since 7.1
+ */
+@Test(groups = "profiling", testName = "marshall.CommandMarshallingBenchmarkTest")
+public class CommandMarshallingBenchmarkTest extends AbstractInfinispanTest {
+   private static final int ITERATIONS = Integer.getInteger("iterations", 200000);
+
+   private EmbeddedCacheManager currentCm;
+   private EmbeddedCacheManager legacyCm;
+
+   @BeforeClass
+   protected void setUp() {
+      currentCm = TestCacheManagerFactory.createCacheManager(new GlobalConfigurationBuilder(), new ConfigurationBuilder());
+      GlobalConfigurationBuilder legacyBuilder = new GlobalConfigurationBuilder();
+      legacyBuilder.serialization().version("7.0");
+      legacyCm = TestCacheManagerFactory.createCacheManager(legacyBuilder, new ConfigurationBuilder());
+   }
+
+   @AfterClass(alwaysRun = true)
+   protected void tearDown() {
+      TestingUtil.killCacheManagers(currentCm, legacyCm);
+   }
+
+   public void testPutKeyValueCommand() throws Exception {
+      measure(new PutKeyValueCommand("key", "value", false, null, new EmbeddedMetadata.Builder().build(),
+                                     EnumSet.of(Flag.IGNORE_RETURN_VALUES), AnyEquivalence.getInstance()));
+   }
+
+   public void testRemoveCommand() throws Exception {
+      measure(new RemoveCommand("key", null, null, Collections.<Flag>emptySet(), AnyEquivalence.getInstance()));
+   }
+
+   public void testInvalidateCommand() throws Exception {
+      measure(new InvalidateCommand(null, null, "key1", "key2", "key3"));
+   }
+
+   public void testClusteredGetCommand() throws Exception {
+      measure(new ClusteredGetCommand("key", EmbeddedCacheManager.DEFAULT_CACHE_NAME, null, false, null,
+                                      AnyEquivalence.getInstance()));
+   }
+
+   public void testSingleRpcCommand() throws Exception {
+      measure(new SingleRpcCommand(EmbeddedCacheManager.DEFAULT_CACHE_NAME,
+                                   new PutKeyValueCommand("key", "value", false, null, new EmbeddedMetadata.Builder().build(),
+                                                          Collections.<Flag>emptySet(), AnyEquivalence.getInstance())));
+   }
+
+   private void measure(ReplicableCommand command) throws Exception {
+      String name = command.getClass().getSimpleName();
+      measure(name + " (streamable)", TestingUtil.extractCacheMarshaller(currentCm.getCache()), command);
+      measure(name + " (parameters)", TestingUtil.extractCacheMarshaller(legacyCm.getCache()), command);
+   }
+
+   private void measure(String name, StreamingMarshaller marshaller, ReplicableCommand command) throws Exception {
+      byte[] bytes = marshaller.objectToByteBuffer(command);
+      // warm up the JIT
+      for (int i = 0; i < ITERATIONS; i++) {
+         marshaller.objectFromByteBuffer(marshaller.objectToByteBuffer(command));
+      }
+
+      long start = System.nanoTime();
+      for (int i = 0; i < ITERATIONS; i++) {
+         marshaller.objectToByteBuffer(command);
+      }
+      long marshallNanos = (System.nanoTime() - start) / ITERATIONS;
+
+      start = System.nanoTime();
+      for (int i = 0; i < ITERATIONS; i++) {
+         marshaller.objectFromByteBuffer(bytes);
+      }
+      long unmarshallNanos = (System.nanoTime() - start) / ITERATIONS;
+      log.infof("%s: %d bytes, marshalling %d ns/op, unmarshalling %d ns/op", name, bytes.length, marshallNanos,
+                unmarshallNanos);
+   }
+}
@@ -0,0 +1,129 @@
+package org.infinispan.marshall;
+
+import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commands.remote.ClusteredGetCommand;
+import org.infinispan.commands.remote.MultipleRpcCommand;
+import org.infinispan.commands.remote.SingleRpcCommand;
+import org.infinispan.commands.write.InvalidateCommand;
+import org.infinispan.commands.write.InvalidateL1Command;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commands.write.RemoveCommand;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.context.Flag;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.remoting.transport.jgroups.JGroupsAddress;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.jgroups.stack.IpAddress;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests that the commands written in the {@link org.infinispan.commands.StreamableCommand} format can be read back,
+ * that the format is smaller than the parameter array, and that a node configured with an older marshalling version
+ * writes the old format, which the newer nodes still read.
+ *
+ * @since 7.1
+ */
+@Test(groups = "functional", testName = "marshall.StreamableCommandMarshallingTest")
+public class StreamableCommandMarshallingTest extends AbstractInfinispanTest {
+
+   private EmbeddedCacheManager currentCm;
+   private EmbeddedCacheManager legacyCm;
+   private StreamingMarshaller current;
+   private StreamingMarshaller legacy;
+
+   @BeforeClass
+   public void setUp() {
+      currentCm = TestCacheManagerFactory.createCacheManager(new GlobalConfigurationBuilder(), new ConfigurationBuilder());
+      GlobalConfigurationBuilder legacyBuilder = new GlobalConfigurationBuilder();
+      legacyBuilder.serialization().version("7.0");
+      legacyCm = TestCacheManagerFactory.createCacheManager(legacyBuilder, new ConfigurationBuilder());
+      current = TestingUtil.extractCacheMarshaller(currentCm.getCache());
+      legacy = TestingUtil.extractCacheMarshaller(legacyCm.getCache());
+   }
+
+   @AfterClass(alwaysRun = true)
+   public void tearDown() {
+      TestingUtil.killCacheManagers(currentCm, legacyCm);
+   }
+
+   public void testPutKeyValueCommand() throws Exception {
+      PutKeyValueCommand put = new PutKeyValueCommand("key", "value", true, null,
+            new EmbeddedMetadata.Builder().lifespan(1, TimeUnit.MINUTES).build(),
+            EnumSet.of(Flag.SKIP_CACHE_LOAD, Flag.IGNORE_RETURN_VALUES), AnyEquivalence.getInstance());
+      put.setTopologyId(5);
+      PutKeyValueCommand read = (PutKeyValueCommand) assertSmallerAndCompatible(put);
+      assertEquals(put, read);
+      assertEquals(put.getMetadata(), read.getMetadata());
+      assertEquals(put.getValueMatcher(), read.getValueMatcher());
+      assertEquals(5, read.getTopologyId());
+      assertEquals(EnumSet.of(Flag.SKIP_CACHE_LOAD, Flag.IGNORE_RETURN_VALUES), read.getFlags());
+   }
+
+   public void testRemoveCommand() throws Exception {
+      RemoveCommand remove = new RemoveCommand("key", "value", null, Collections.<Flag>emptySet(),
+                                               AnyEquivalence.getInstance());
+      RemoveCommand read = (RemoveCommand) assertSmallerAndCompatible(remove);
+      assertEquals(remove, read);
+      assertEquals(remove.getValueMatcher(), read.getValueMatcher());
+      assertEquals(Collections.<Flag>emptySet(), read.getFlags());
+   }
+
+   public void testInvalidateCommands() throws Exception {
+      InvalidateCommand invalidate = new InvalidateCommand(null, null, "key1", "key2");
+      InvalidateCommand read = (InvalidateCommand) assertSmallerAndCompatible(invalidate);
+      assertEquals(Arrays.asList(invalidate.getKeys()), Arrays.asList(read.getKeys()));
+
+      JGroupsAddress origin = new JGroupsAddress(new IpAddress(12345));
+      InvalidateL1Command invalidateL1 = new InvalidateL1Command(origin, null, null, null, null,
+                                                                 Collections.<Flag>emptySet(),
+                                                                 Arrays.<Object>asList("key1", "key2"));
+      InvalidateL1Command readL1 = (InvalidateL1Command) assertSmallerAndCompatible(invalidateL1);
+      assertEquals(Arrays.asList(invalidateL1.getKeys()), Arrays.asList(readL1.getKeys()));
+      assertEquals(Arrays.asList(invalidateL1.getParameters()), Arrays.asList(readL1.getParameters()));
+   }
+
+   public void testCacheRpcCommands() throws Exception {
+      String cacheName = EmbeddedCacheManager.DEFAULT_CACHE_NAME;
+      ClusteredGetCommand get = new ClusteredGetCommand("key", cacheName, EnumSet.of(Flag.SKIP_LOCKING), false, null,
+                                                        AnyEquivalence.getInstance());
+      assertEquals(get, assertSmallerAndCompatible(get));
+
+      PutKeyValueCommand put = new PutKeyValueCommand("key", "value", false, null, new EmbeddedMetadata.Builder().build(),
+                                                      Collections.<Flag>emptySet(), AnyEquivalence.getInstance());
+      SingleRpcCommand single = new SingleRpcCommand(cacheName, put);
+      assertEquals(single, assertSmallerAndCompatible(single));
+
+      MultipleRpcCommand multiple = new MultipleRpcCommand(Arrays.<ReplicableCommand>asList(put, get), cacheName);
+      assertEquals(multiple, assertSmallerAndCompatible(multiple));
+   }
+
+   private Object assertSmallerAndCompatible(ReplicableCommand command) throws Exception {
+      byte[] compact = current.objectToByteBuffer(command);
+      byte[] parameters = legacy.objectToByteBuffer(command);
+      assertTrue("The compact format (" + compact.length + " bytes) should be smaller than the parameters ("
+                       + parameters.length + " bytes)", compact.length < parameters.length);
+
+      // Both formats can be read
+      Object fromLegacy = current.objectFromByteBuffer(parameters);
+      assertEquals(command.getClass(), fromLegacy.getClass());
+      assertEquals(Arrays.asList(command.getParameters()),
+                   Arrays.asList(((ReplicableCommand) fromLegacy).getParameters()));
+      return current.objectFromByteBuffer(compact);
+   }
+}
@@ -1,6 +1,7 @@
 package org.infinispan.marshall;
 
 import org.infinispan.Cache;
+import org.infinispan.commons.io.ByteBuffer;
 import org.infinispan.commons.util.Util;
 import org.infinispan.metadata.EmbeddedMetadata;
 import org.infinispan.atomic.impl.AtomicHashMap;
@@ -189,6 +190,24 @@ public void testMarshalledValueMarshalling() throws Exception {
       marshallAndAssertEquality(mv);
    }
 
+   public void testReusedOutputBuffer() throws Exception {
+      char[] chars = new char[10000];
+      Arrays.fill(chars, 'x');
+      String large = new String(chars);
+      ByteBuffer largeBuffer = marshaller.objectToBuffer(large);
+      ByteBuffer smallBuffer = marshaller.objectToBuffer("small");
+      // the results are exact-sized copies, not views of the reused buffer
+      assertEquals(largeBuffer.getLength(), largeBuffer.getBuf().length);
+      assertEquals(smallBuffer.getLength(), smallBuffer.getBuf().length);
+      assertEquals(large, marshaller.objectFromByteBuffer(largeBuffer.getBuf(), 0, largeBuffer.getLength()));
+      assertEquals("small", marshaller.objectFromByteBuffer(smallBuffer.getBuf(), 0, smallBuffer.getLength()));
+
+      // unmarshalling reads the region of the array in place
+      byte[] padded = new byte[smallBuffer.getLength() + 20];
+      System.arraycopy(smallBuffer.getBuf(), 0, padded, 10, smallBuffer.getLength());
+      assertEquals("small", marshaller.objectFromByteBuffer(padded, 10, smallBuffer.getLength()));
+   }
+
    public void testMarshalledValueGetMarshalling() throws Exception {
       Pojo ext = new Pojo();
       MarshalledValue mv = new MarshalledValue(ext, marshaller);
@@ -26,6 +26,7 @@
 import org.infinispan.context.InvocationContext;
 import org.infinispan.manager.CacheContainer;
 import org.infinispan.metadata.Metadata;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryVisited;
 import org.infinispan.test.AbstractInfinispanTest;
 import org.infinispan.test.TestingUtil;
 import org.infinispan.test.fwk.TestCacheManagerFactory;
@@ -61,6 +62,8 @@ public void setUp() throws Exception {
       cache = cm.getCache();
       skipListenerCache = cm.getCache().getAdvancedCache().withFlags(Flag.SKIP_LISTENER_NOTIFICATION);
       mockNotifier = mock(CacheNotifier.class);
+      // Local reads only go through the interceptor chain when there are listeners for them
+      when(mockNotifier.hasListener(CacheEntryVisited.class)).thenReturn(true);
       origNotifier = TestingUtil.replaceComponent(cache, CacheNotifier.class, mockNotifier, true);
    }
 
@@ -5,10 +5,12 @@
 import static org.testng.AssertJUnit.*;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.infinispan.filter.CollectionKeyFilter;
@@ -18,15 +20,22 @@
 import org.infinispan.container.InternalEntryFactoryImpl;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.container.entries.InternalCacheValue;
+import org.infinispan.commons.hash.MurmurHash3;
+import org.infinispan.distribution.TestAddress;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.distribution.ch.impl.DefaultConsistentHashFactory;
 import org.infinispan.marshall.TestObjectStreamMarshaller;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryImpl;
 import org.infinispan.marshall.core.MarshalledValue;
 import org.infinispan.metadata.InternalMetadata;
+import org.infinispan.persistence.spi.AdvancedCacheLoader;
 import org.infinispan.persistence.spi.AdvancedCacheWriter;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore;
 import org.infinispan.test.AbstractInfinispanTest;
 import org.infinispan.test.TestingUtil;
 import org.infinispan.test.fwk.TestInternalCacheEntryFactory;
@@ -379,6 +388,89 @@ public void testStoreAndRemove() throws PersistenceException {
       assertEquals("k4", set.iterator().next().getKey());
    }
 
+   public void testWriteAndDeleteBatch() throws PersistenceException {
+      assertIsEmpty();
+
+      cl.write(marshalledEntry("k1", "v1", null));
+      List<MarshalledEntry> entries = new ArrayList<>();
+      for (int i = 1; i <= 10; i++) {
+         entries.add(marshalledEntry("k" + i, "v" + i + "-batch", null));
+      }
+      PersistenceUtil.writeBatch(cl, entries);
+
+      Set<MarshalledEntry> set = TestingUtil.allEntries(cl);
+      assertSize(set, 10);
+      for (int i = 1; i <= 10; i++) {
+         assertEquals("v" + i + "-batch", unwrap(cl.load("k" + i).getValue()));
+      }
+
+      PersistenceUtil.deleteBatch(cl, Arrays.asList("k1", "k2", "k3", "missing"));
+      set = TestingUtil.allEntries(cl);
+      assertSize(set, 7);
+      assertNull(cl.load("k1"));
+      assertNull(cl.load("k3"));
+      assertNotNull(cl.load("k4"));
+   }
+
+   public void testProcessAndClearSegments() throws PersistenceException {
+      if (!(cl instanceof SegmentedAdvancedLoadWriteStore))
+         return;
+
+      SegmentedAdvancedLoadWriteStore<Object, Object> store = (SegmentedAdvancedLoadWriteStore<Object, Object>) cl;
+      assertIsEmpty();
+      ConsistentHash ch = new DefaultConsistentHashFactory().create(MurmurHash3.getInstance(), 1, 8,
+            Arrays.<Address>asList(new TestAddress(0)), null);
+      Set<Integer> segments = new HashSet<>(Arrays.asList(0, 1, 2));
+      Set<Object> keysInSegments = new HashSet<>();
+      for (int i = 0; i < 100; i++) {
+         String key = "k" + i;
+         cl.write(marshalledEntry(key, "v" + i, null));
+         if (segments.contains(ch.getSegment(key)))
+            keysInSegments.add(key);
+      }
+
+      final Set<Object> processedKeys = new HashSet<>();
+      store.process(ch, segments, null, new AdvancedCacheLoader.CacheLoaderTask<Object, Object>() {
+         @Override
+         public void processEntry(MarshalledEntry<Object, Object> marshalledEntry, AdvancedCacheLoader.TaskContext taskContext) {
+            processedKeys.add(marshalledEntry.getKey());
+         }
+      }, new WithinThreadExecutor(), true, true);
+      assertEquals(keysInSegments, processedKeys);
+
+      store.clear(ch, segments);
+      for (int i = 0; i < 100; i++) {
+         String key = "k" + i;
+         assertEquals(key, !keysInSegments.contains(key), cl.contains(key));
+      }
+
+      // the keys written and removed since the first request, and the segments of another consistent hash
+      for (int i = 100; i < 150; i++) {
+         cl.write(marshalledEntry("k" + i, "v" + i, null));
+      }
+      for (int i = 0; i < 150; i += 2) {
+         cl.delete("k" + i);
+      }
+      ConsistentHash ch2 = new DefaultConsistentHashFactory().create(MurmurHash3.getInstance(), 1, 16,
+            Arrays.<Address>asList(new TestAddress(0)), null);
+      for (ConsistentHash c : Arrays.asList(ch, ch2)) {
+         Set<Object> expectedKeys = new HashSet<>();
+         for (int i = 1; i < 150; i += 2) {
+            String key = "k" + i;
+            if (segments.contains(c.getSegment(key)) && (i >= 100 || !keysInSegments.contains(key)))
+               expectedKeys.add(key);
+         }
+         processedKeys.clear();
+         store.process(c, segments, null, new AdvancedCacheLoader.CacheLoaderTask<Object, Object>() {
+            @Override
+            public void processEntry(MarshalledEntry<Object, Object> marshalledEntry, AdvancedCacheLoader.TaskContext taskContext) {
+               processedKeys.add(marshalledEntry.getKey());
+            }
+         }, new WithinThreadExecutor(), false, false);
+         assertEquals(expectedKeys, processedKeys);
+      }
+   }
+
    public void testPurgeExpired() throws Exception {
       assertIsEmpty();
       // Increased lifespan and idle timeouts to accommodate slower cache stores
@@ -0,0 +1,137 @@
+package org.infinispan.persistence;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.dummy.DummyInMemoryStore;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.transaction.TransactionMode;
+import org.mockito.AdditionalAnswers;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.Test;
+
+import javax.transaction.TransactionManager;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+
+/**
+ * Tests that putAll and transaction commits write their modifications to the stores in batches.
+ *
+ * @since 7.1
+ */
+@Test(groups = "functional", testName = "persistence.BatchWriteTest")
+public class BatchWriteTest extends SingleCacheManagerTest {
+
+   private static final String TX_CACHE = "txCache";
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      builder.persistence().addStore(DummyInMemoryStoreConfigurationBuilder.class).storeName(getClass().getSimpleName());
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(builder);
+
+      ConfigurationBuilder txBuilder = TestCacheManagerFactory.getDefaultCacheConfiguration(true);
+      txBuilder.transaction().transactionMode(TransactionMode.TRANSACTIONAL)
+            .persistence().addStore(DummyInMemoryStoreConfigurationBuilder.class).storeName(getClass().getSimpleName() + "-tx");
+      cm.defineConfiguration(TX_CACHE, txBuilder.build());
+      return cm;
+   }
+
+   public void testPutAllWritesOneBatch() {
+      DummyInMemoryStore store = (DummyInMemoryStore) TestingUtil.getFirstWriter(cache);
+      PersistenceManager pm = spyPersistenceManager(cache);
+
+      Map<Object, Object> data = new HashMap<Object, Object>();
+      for (int i = 0; i < 10; i++) {
+         data.put("k" + i, "v" + i);
+      }
+      cache.putAll(data);
+
+      ArgumentCaptor<Iterable> entries = ArgumentCaptor.forClass(Iterable.class);
+      verify(pm, times(1)).writeBatchToAllStores(entries.capture(), any(PersistenceManager.AccessMode.class));
+      verify(pm, never()).writeToAllStores(any(MarshalledEntry.class), any(PersistenceManager.AccessMode.class));
+      assertEquals(data.keySet(), keys(entries.getValue()));
+
+      for (Map.Entry<Object, Object> e : data.entrySet()) {
+         assertEquals(e.getValue(), store.load(e.getKey()).getValue());
+      }
+   }
+
+   public void testCommitWritesOneBatch() throws Exception {
+      Cache<Object, Object> txCache = cacheManager.getCache(TX_CACHE);
+      txCache.put("removed", "v");
+      DummyInMemoryStore store = (DummyInMemoryStore) TestingUtil.getFirstWriter(txCache);
+      PersistenceManager pm = spyPersistenceManager(txCache);
+
+      TransactionManager tm = txCache.getAdvancedCache().getTransactionManager();
+      tm.begin();
+      txCache.put("k1", "v1");
+      txCache.put("k2", "v2");
+      txCache.put("k1", "v1-updated");
+      txCache.put("k3", "v3");
+      txCache.remove("k3");
+      txCache.remove("removed");
+      tm.commit();
+
+      ArgumentCaptor<Iterable> entries = ArgumentCaptor.forClass(Iterable.class);
+      verify(pm, times(1)).writeBatchToAllStores(entries.capture(), any(PersistenceManager.AccessMode.class));
+      ArgumentCaptor<Iterable> deleted = ArgumentCaptor.forClass(Iterable.class);
+      verify(pm, times(1)).deleteBatchFromAllStores(deleted.capture(), any(PersistenceManager.AccessMode.class));
+      verify(pm, never()).writeToAllStores(any(MarshalledEntry.class), any(PersistenceManager.AccessMode.class));
+      verify(pm, never()).deleteFromAllStores(anyObject(), any(PersistenceManager.AccessMode.class));
+
+      Set<Object> expectedWrites = new HashSet<Object>();
+      expectedWrites.add("k1");
+      expectedWrites.add("k2");
+      assertEquals(expectedWrites, keys(entries.getValue()));
+      Set<Object> expectedDeletes = new HashSet<Object>();
+      expectedDeletes.add("k3");
+      expectedDeletes.add("removed");
+      assertEquals(expectedDeletes, toSet(deleted.getValue()));
+
+      assertEquals("v1-updated", store.load("k1").getValue());
+      assertEquals("v2", store.load("k2").getValue());
+      assertFalse(store.contains("k3"));
+      assertFalse(store.contains("removed"));
+   }
+
+   private PersistenceManager spyPersistenceManager(Cache<?, ?> c) {
+      PersistenceManager pm = TestingUtil.extractComponent(c, PersistenceManager.class);
+      PersistenceManager spy = mock(PersistenceManager.class, withSettings().defaultAnswer(AdditionalAnswers.delegatesTo(pm)));
+      TestingUtil.replaceComponent(c, PersistenceManager.class, spy, true);
+      return spy;
+   }
+
+   private Set<Object> keys(Iterable<?> entries) {
+      Set<Object> keys = new HashSet<Object>();
+      for (Object entry : entries) {
+         keys.add(((MarshalledEntry) entry).getKey());
+      }
+      return keys;
+   }
+
+   private Set<Object> toSet(Iterable<?> iterable) {
+      Set<Object> set = new HashSet<Object>();
+      for (Object o : iterable) {
+         set.add(o);
+      }
+      return set;
+   }
+}
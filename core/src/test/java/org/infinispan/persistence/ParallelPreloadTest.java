@@ -0,0 +1,135 @@
+package org.infinispan.persistence;
+
+import org.infinispan.Cache;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.DataContainer;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.interceptors.CacheMgmtInterceptor;
+import org.infinispan.interceptors.base.CommandInterceptor;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.persistence.manager.PersistenceManagerImpl;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests that the preload inserts the entries of a {@link org.infinispan.persistence.file.SingleFileStore} straight into
+ * the data container, unless the entries have to go through the interceptor chain, and that it honours the configured
+ * preload rate.
+ *
+ * @since 7.1
+ */
+@Test(groups = "functional", testName = "persistence.ParallelPreloadTest")
+public class ParallelPreloadTest extends AbstractInfinispanTest {
+   private static final int NUM_ENTRIES = 5000;
+
+   private String tmpDirectory;
+   private EmbeddedCacheManager cacheManager;
+
+   @BeforeMethod
+   protected void setUpTempDir() {
+      tmpDirectory = TestingUtil.tmpDirectory(this.getClass());
+   }
+
+   @AfterMethod(alwaysRun = true)
+   protected void tearDown() {
+      TestingUtil.killCacheManagers(cacheManager);
+      TestingUtil.recursiveFileRemove(tmpDirectory);
+   }
+
+   public void testPreloadIntoDataContainer() {
+      Cache<Object, Object> cache = restartWithEntries(configuration(0), NUM_ENTRIES);
+
+      assertPreloaded(cache, NUM_ENTRIES);
+      // the entries didn't go through the interceptor chain
+      assertEquals(0, TestingUtil.findInterceptor(cache, CacheMgmtInterceptor.class).getStores());
+      DataContainer<Object, Object> dataContainer = cache.getAdvancedCache().getDataContainer();
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         assertEquals("v" + i, dataContainer.get("k" + i).getValue());
+      }
+   }
+
+   public void testPreloadThroughCustomInterceptor() {
+      ConfigurationBuilder builder = configuration(0);
+      builder.customInterceptors().addInterceptor().index(0).interceptor(new PutCountingInterceptor());
+      Cache<Object, Object> cache = restartWithEntries(builder, NUM_ENTRIES);
+
+      assertPreloaded(cache, NUM_ENTRIES);
+      PutCountingInterceptor interceptor = (PutCountingInterceptor) cache.getAdvancedCache().getInterceptorChain().get(0);
+      assertEquals(NUM_ENTRIES, interceptor.puts.get());
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         assertEquals("v" + i, cache.get("k" + i));
+      }
+   }
+
+   public void testPreloadRate() {
+      int numEntries = 500;
+      int preloadRate = 1000;
+      populateStore(numEntries);
+
+      long start = System.nanoTime();
+      cacheManager = TestCacheManagerFactory.createCacheManager(configuration(preloadRate));
+      Cache<Object, Object> cache = cacheManager.getCache();
+      long duration = NANOSECONDS.toMillis(System.nanoTime() - start);
+
+      assertPreloaded(cache, numEntries);
+      long minDuration = SECONDS.toMillis(numEntries - 1) / preloadRate;
+      assertTrue("The preload took only " + duration + " ms", duration >= minDuration);
+   }
+
+   private void assertPreloaded(Cache<Object, Object> cache, int numEntries) {
+      assertEquals(numEntries, cache.getAdvancedCache().getDataContainer().size());
+      PersistenceManagerImpl pm = (PersistenceManagerImpl) TestingUtil.extractComponent(cache, PersistenceManager.class);
+      assertEquals(numEntries, pm.getPreloadedEntries());
+      assertFalse(pm.isPreloading());
+   }
+
+   private Cache<Object, Object> restartWithEntries(ConfigurationBuilder builder, int numEntries) {
+      populateStore(numEntries);
+      cacheManager = TestCacheManagerFactory.createCacheManager(builder);
+      return cacheManager.getCache();
+   }
+
+   private void populateStore(int numEntries) {
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(configuration(0));
+      try {
+         Cache<Object, Object> cache = cm.getCache();
+         for (int i = 0; i < numEntries; i++) {
+            cache.put("k" + i, "v" + i);
+         }
+      } finally {
+         TestingUtil.killCacheManagers(cm);
+      }
+   }
+
+   private ConfigurationBuilder configuration(int preloadRate) {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      builder.jmxStatistics().enable()
+            .persistence().preloadRate(preloadRate)
+               .addSingleFileStore().location(tmpDirectory).preload(true);
+      return builder;
+   }
+
+   static class PutCountingInterceptor extends CommandInterceptor {
+      final AtomicInteger puts = new AtomicInteger();
+
+      @Override
+      public Object visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) throws Throwable {
+         puts.incrementAndGet();
+         return invokeNextInterceptor(ctx, command);
+      }
+   }
+}
@@ -0,0 +1,109 @@
+package org.infinispan.persistence.file;
+
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests reading a growing file through {@link MappedFileReader}, with regions small enough to read across them.
+ *
+ * @since 7.1
+ */
+@Test(groups = "unit", testName = "persistence.file.MappedFileReaderTest")
+public class MappedFileReaderTest extends AbstractInfinispanTest {
+   private static final int REGION_SIZE = 4096;
+
+   private String tmpDirectory;
+   private RandomAccessFile file;
+   private FileChannel channel;
+   private MappedFileReader reader;
+   private byte[] content;
+
+   @BeforeMethod
+   public void setUp() throws Exception {
+      tmpDirectory = TestingUtil.tmpDirectory(this.getClass());
+      new File(tmpDirectory).mkdirs();
+      file = new RandomAccessFile(new File(tmpDirectory, "data"), "rw");
+      channel = file.getChannel();
+      reader = new MappedFileReader(channel, "data", REGION_SIZE);
+      content = new byte[0];
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void tearDown() throws Exception {
+      file.close();
+      TestingUtil.recursiveFileRemove(tmpDirectory);
+   }
+
+   public void testReadAcrossRegions() throws Exception {
+      append(REGION_SIZE * 3 + 100);
+      Random random = new Random(12345);
+      for (int i = 0; i < 1000; i++) {
+         int position = random.nextInt(content.length);
+         int length = random.nextInt(Math.min(REGION_SIZE * 2, content.length - position)) + 1;
+         assertRead(position, length);
+      }
+   }
+
+   public void testReadWhileGrowing() throws Exception {
+      append(10);
+      assertRead(0, 10);
+      for (int i = 0; i < 100; i++) {
+         int start = content.length;
+         append(REGION_SIZE / 10);
+         assertRead(start, REGION_SIZE / 10);
+         assertRead(0, content.length);
+      }
+   }
+
+   public void testReadPastEnd() throws Exception {
+      append(REGION_SIZE + 10);
+      ByteBuffer buffer = ByteBuffer.allocate(20);
+      assertEquals(10, reader.read(buffer, REGION_SIZE));
+      buffer.clear();
+      assertEquals(-1, reader.read(buffer, REGION_SIZE + 10));
+   }
+
+   public void testReadAfterTruncate() throws Exception {
+      append(REGION_SIZE * 2);
+      assertRead(0, REGION_SIZE * 2);
+
+      channel.truncate(REGION_SIZE / 2);
+      reader.invalidate();
+      content = Arrays.copyOf(content, REGION_SIZE / 2);
+      append(REGION_SIZE);
+      assertRead(0, content.length);
+   }
+
+   private void append(int length) throws Exception {
+      byte[] bytes = new byte[length];
+      new Random(content.length).nextBytes(bytes);
+      channel.write(ByteBuffer.wrap(bytes), content.length);
+      byte[] newContent = Arrays.copyOf(content, content.length + length);
+      System.arraycopy(bytes, 0, newContent, content.length, length);
+      content = newContent;
+   }
+
+   private void assertRead(int position, int length) throws Exception {
+      ByteBuffer buffer = ByteBuffer.allocate(length);
+      int read = 0;
+      while (buffer.hasRemaining()) {
+         int n = reader.read(buffer, position + read);
+         assertTrue(n > 0);
+         read += n;
+      }
+      assertTrue(Arrays.equals(Arrays.copyOfRange(content, position, position + length), buffer.array()));
+   }
+}
@@ -0,0 +1,121 @@
+package org.infinispan.persistence.file;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder;
+import org.infinispan.marshall.TestObjectStreamMarshaller;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.marshall.core.MarshalledEntryImpl;
+import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.util.PersistenceMockUtil;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+
+/**
+ * Compares the time it takes to preload all the entries of a {@link SingleFileStore}, and the latency of random
+ * loads, with the data file read through the channel and through memory mappings.
+ * <p/>
+ * The number of entries and loads can be changed with the {@code entries} and {@code loads} system properties.
+ *
+ * @since 7.1
+ */
+@Test(groups = "profiling", testName = "persistence.file.SingleFileStoreReadBenchmarkTest")
+public class SingleFileStoreReadBenchmarkTest extends AbstractInfinispanTest {
+   private static final int NUM_ENTRIES = Integer.getInteger("entries", 100000);
+   private static final int NUM_LOADS = Integer.getInteger("loads", 1000000);
+   private static final int VALUE_SIZE = 500;
+
+   private String tmpDirectory;
+   private TestObjectStreamMarshaller marshaller;
+
+   @BeforeClass
+   protected void setUp() throws Exception {
+      tmpDirectory = TestingUtil.tmpDirectory(this.getClass());
+      marshaller = new TestObjectStreamMarshaller();
+      SingleFileStore<Object, Object> store = createStore(false);
+      store.clear();
+      char[] value = new char[VALUE_SIZE];
+      Arrays.fill(value, 'v');
+      for (int i = 0; i < NUM_ENTRIES; i++) {
+         store.write(new MarshalledEntryImpl<Object, Object>("key" + i, new String(value), null, marshaller));
+      }
+      store.stop();
+   }
+
+   @AfterClass(alwaysRun = true)
+   protected void tearDown() {
+      marshaller.stop();
+      TestingUtil.recursiveFileRemove(tmpDirectory);
+   }
+
+   public void testChannelReads() {
+      measure(false);
+   }
+
+   public void testMemoryMappedReads() {
+      measure(true);
+   }
+
+   private void measure(boolean memoryMapped) {
+      // warm up the page cache and the JIT
+      for (int i = 0; i < 3; i++) {
+         preload(memoryMapped);
+      }
+
+      long preloadNanos = preload(memoryMapped);
+      SingleFileStore<Object, Object> store = createStore(memoryMapped);
+      try {
+         Random random = new Random(12345);
+         long start = System.nanoTime();
+         for (int i = 0; i < NUM_LOADS; i++) {
+            assertNotNull(store.load("key" + random.nextInt(NUM_ENTRIES)));
+         }
+         long loadNanos = (System.nanoTime() - start) / NUM_LOADS;
+         log.infof("memoryMapped=%b: preload of %d entries took %d ms, average load() latency %d ns",
+               memoryMapped, NUM_ENTRIES, NANOSECONDS.toMillis(preloadNanos), loadNanos);
+      } finally {
+         store.stop();
+      }
+   }
+
+   private long preload(boolean memoryMapped) {
+      long start = System.nanoTime();
+      SingleFileStore<Object, Object> store = createStore(memoryMapped);
+      try {
+         final AtomicInteger count = new AtomicInteger();
+         store.process(null, new AdvancedCacheLoader.CacheLoaderTask<Object, Object>() {
+            @Override
+            public void processEntry(MarshalledEntry<Object, Object> marshalledEntry, AdvancedCacheLoader.TaskContext taskContext) {
+               marshalledEntry.getValue();
+               count.incrementAndGet();
+            }
+         }, new WithinThreadExecutor(), true, true);
+         assertEquals(NUM_ENTRIES, count.get());
+         return System.nanoTime() - start;
+      } finally {
+         store.stop();
+      }
+   }
+
+   private SingleFileStore<Object, Object> createStore(boolean memoryMapped) {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      builder.persistence().addStore(SingleFileStoreConfigurationBuilder.class)
+            .location(tmpDirectory).memoryMapped(memoryMapped);
+      SingleFileStore<Object, Object> store = new SingleFileStore<Object, Object>();
+      store.init(PersistenceMockUtil.createContext(getClass().getSimpleName(), builder.build(), marshaller));
+      store.start();
+      return store;
+   }
+}
@@ -0,0 +1,122 @@
+package org.infinispan.persistence.file;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder;
+import org.infinispan.marshall.TestObjectStreamMarshaller;
+import org.infinispan.marshall.core.MarshalledEntryImpl;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.util.PersistenceMockUtil;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Measures the write throughput of the {@link SingleFileStore} with an increasing number of writer threads. The
+ * writers overwrite and delete random keys with values of random size, so the file gets fragmented and the free
+ * entries are reused and compacted while writing.
+ * <p/>
+ * The duration of every run (in seconds) and the number of keys can be changed with the {@code time} and
+ * {@code keys} system properties.
+ *
+ * @since 7.1
+ */
+@Test(groups = "profiling", testName = "persistence.file.SingleFileStoreWriteThroughputTest")
+public class SingleFileStoreWriteThroughputTest extends AbstractInfinispanTest {
+   private static final int DURATION_SECONDS = Integer.getInteger("time", 10);
+   private static final int NUM_KEYS = Integer.getInteger("keys", 10000);
+   private static final int MAX_VALUE_SIZE = 2000;
+   private static final int DELETE_PERCENTAGE = 10;
+
+   private SingleFileStore<Object, Object> store;
+   private TestObjectStreamMarshaller marshaller;
+   private String tmpDirectory;
+
+   @BeforeClass
+   protected void setUpTempDir() {
+      tmpDirectory = TestingUtil.tmpDirectory(this.getClass());
+   }
+
+   @AfterClass
+   protected void clearTempDir() {
+      TestingUtil.recursiveFileRemove(tmpDirectory);
+   }
+
+   @BeforeMethod
+   public void setUp() throws Exception {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      builder.persistence().addStore(SingleFileStoreConfigurationBuilder.class).location(tmpDirectory);
+      marshaller = new TestObjectStreamMarshaller();
+      store = new SingleFileStore<Object, Object>();
+      store.init(PersistenceMockUtil.createContext(getClass().getSimpleName(), builder.build(), marshaller));
+      store.start();
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void tearDown() {
+      if (store != null) {
+         store.clear();
+         store.stop();
+      }
+      marshaller.stop();
+   }
+
+   public void testWriteThroughput() throws Exception {
+      int maxThreads = Math.max(4, Runtime.getRuntime().availableProcessors());
+      for (int threads = 1; threads <= maxThreads; threads *= 2) {
+         store.clear();
+         long writes = runWriters(threads);
+         log.infof("%d writer threads: %d writes/s, file size %d bytes, %d entries, %d free entries", threads,
+               writes / DURATION_SECONDS, store.getFileSize(), store.size(), store.getFreeList().size());
+         assertTrue(writes > 0);
+      }
+   }
+
+   private long runWriters(int threads) throws Exception {
+      final CountDownLatch stopLatch = new CountDownLatch(1);
+      Future[] futures = new Future[threads];
+      for (int i = 0; i < threads; i++) {
+         final int seed = i;
+         futures[i] = fork(new Callable<Long>() {
+            @Override
+            public Long call() throws Exception {
+               Random random = new Random(seed);
+               long writes = 0;
+               while (stopLatch.getCount() != 0) {
+                  String key = "key" + random.nextInt(NUM_KEYS);
+                  if (random.nextInt(100) < DELETE_PERCENTAGE) {
+                     store.delete(key);
+                  } else {
+                     char[] value = new char[random.nextInt(MAX_VALUE_SIZE)];
+                     Arrays.fill(value, 'v');
+                     store.write(new MarshalledEntryImpl<Object, Object>(key, new String(value), null, marshaller));
+                  }
+                  writes++;
+               }
+               return writes;
+            }
+         });
+      }
+
+      stopLatch.await(DURATION_SECONDS, SECONDS);
+      stopLatch.countDown();
+
+      long writes = 0;
+      for (Future future : futures) {
+         writes += (Long) future.get();
+      }
+      return writes;
+   }
+}
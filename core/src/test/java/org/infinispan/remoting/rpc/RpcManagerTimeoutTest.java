@@ -12,7 +12,12 @@
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -71,6 +76,29 @@ public void testTimeoutWithTotalOrderAnycast() {
       doTest(null, true, false);
    }
 
+   public void testAsyncTimeoutWithoutFilter() throws Exception {
+      doAsyncTest(false);
+   }
+
+   public void testAsyncTimeoutWithBroadcast() throws Exception {
+      doAsyncTest(true);
+   }
+
+   public void testAsyncTimeoutSingleRecipient() throws Exception {
+      RpcManager rpcManager = advancedCache(0, CACHE_NAME).getRpcManager();
+      RpcOptions options = rpcManager.getRpcOptionsBuilder(ResponseMode.SYNCHRONOUS)
+            .timeout(1000, TimeUnit.MILLISECONDS).build();
+      List<Address> recipients = Collections.singletonList(rpcManager.getMembers().get(1));
+      assertAsyncTimeout(rpcManager.invokeRemotelyAsync(recipients, new SleepingCacheRpcCommand(CACHE_NAME, 5000), options));
+   }
+
+   public void testAsyncResponses() throws Exception {
+      RpcManager rpcManager = advancedCache(0, CACHE_NAME).getRpcManager();
+      Map<Address, Response> responses = rpcManager.invokeRemotelyAsync(null, new SleepingCacheRpcCommand(CACHE_NAME, 10),
+            rpcManager.getDefaultRpcOptions(true)).get(10, TimeUnit.SECONDS);
+      Assert.assertEquals(responses.size(), 3);
+   }
+
    @Override
    protected void createCacheManagers() throws Throwable {
       ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.REPL_SYNC, true);
@@ -97,5 +125,27 @@ private void doTest(ResponseFilter filter, boolean totalOrder, boolean broadcast
       Assert.fail("Timeout exception wasn't thrown");
    }
 
+   private void doAsyncTest(boolean broadcast) throws Exception {
+      RpcManager rpcManager = advancedCache(0, CACHE_NAME).getRpcManager();
+      RpcOptions options = rpcManager.getRpcOptionsBuilder(ResponseMode.SYNCHRONOUS)
+            .timeout(1000, TimeUnit.MILLISECONDS).build();
+      List<Address> recipients = null;
+      if (!broadcast) {
+         List<Address> members = rpcManager.getMembers();
+         recipients = Arrays.asList(members.get(2), members.get(3));
+      }
+      assertAsyncTimeout(rpcManager.invokeRemotelyAsync(recipients, new SleepingCacheRpcCommand(CACHE_NAME, 5000), options));
+   }
+
+   private void assertAsyncTimeout(Future<Map<Address, Response>> future) throws Exception {
+      try {
+         // the future must be completed by the timeout, not by the responses
+         future.get(3000, TimeUnit.MILLISECONDS);
+         Assert.fail("Timeout exception wasn't thrown");
+      } catch (ExecutionException e) {
+         Assert.assertTrue(e.getCause() instanceof TimeoutException, "Unexpected exception " + e.getCause());
+      }
+   }
+
 
 }
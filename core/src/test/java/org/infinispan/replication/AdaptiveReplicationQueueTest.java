@@ -0,0 +1,187 @@
+package org.infinispan.replication;
+
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commands.remote.MultipleRpcCommand;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commands.write.RemoveCommand;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.Flag;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.remoting.AdaptiveReplicationQueueImpl;
+import org.infinispan.remoting.rpc.ResponseMode;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.rpc.RpcOptions;
+import org.infinispan.remoting.rpc.RpcOptionsBuilder;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.AssertJUnit.assertEquals;
+
+/**
+ * Tests the batching of {@link AdaptiveReplicationQueueImpl}. The flushes are scheduled on a mock executor, so the
+ * test decides when they happen.
+ *
+ * @since 7.1
+ */
+@Test(groups = "unit", testName = "replication.AdaptiveReplicationQueueTest")
+public class AdaptiveReplicationQueueTest extends AbstractInfinispanTest {
+
+   private AdaptiveReplicationQueueImpl queue;
+   private ScheduledExecutorService executor;
+   private RpcManager rpcManager;
+
+   @BeforeMethod
+   public void setUp() {
+      executor = mock(ScheduledExecutorService.class);
+      rpcManager = mock(RpcManager.class);
+      when(rpcManager.getRpcOptionsBuilder(any(ResponseMode.class))).thenReturn(
+            new RpcOptionsBuilder(10, TimeUnit.SECONDS, ResponseMode.ASYNCHRONOUS, true));
+      CommandsFactory commandsFactory = mock(CommandsFactory.class);
+      when(commandsFactory.buildReplicateCommand(anyListOf(ReplicableCommand.class))).thenAnswer(new Answer<MultipleRpcCommand>() {
+         @Override
+         @SuppressWarnings("unchecked")
+         public MultipleRpcCommand answer(InvocationOnMock invocation) {
+            return new MultipleRpcCommand((List<ReplicableCommand>) invocation.getArguments()[0], "test");
+         }
+      });
+
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.clustering().cacheMode(CacheMode.REPL_ASYNC)
+            .async().useReplQueue(true).replQueueAdaptive(true).replQueueInterval(0).replQueueMaxElements(100)
+            .jmxStatistics().enable();
+
+      queue = new AdaptiveReplicationQueueImpl();
+      queue.injectDependencies(executor, rpcManager, builder.build(), commandsFactory, "test");
+      queue.start();
+   }
+
+   public void testIdleQueueFlushesImmediately() {
+      queue.add(put("k", "v1"));
+      // nothing was sent yet, so the queue is idle and the flush is not delayed
+      verify(executor).execute(any(Runnable.class));
+      assertEquals(1, queue.getElementsCount());
+
+      assertEquals(1, queue.flush());
+      assertEquals(0, queue.getElementsCount());
+      assertEquals(1, queue.getNumberOfFlushes());
+      assertEquals("{1=1, 2-10=0, 11-100=0, 101-1000=0, >1000=0}", queue.getBatchSizeDistribution());
+   }
+
+   public void testSuccessiveWritesCoalesced() {
+      queue.add(put("k", "v1"));
+      queue.add(put("k", "v2"));
+      queue.add(put("k2", "v1"));
+      queue.add(remove("k", null));
+      assertEquals(2, queue.getElementsCount());
+      // only the first command schedules a flush
+      verify(executor).execute(any(Runnable.class));
+
+      queue.flush();
+      ReplicableCommand[] sent = sentCommands(1).get(0).getCommands();
+      assertEquals(2, sent.length);
+      assertEquals("k2", ((PutKeyValueCommand) sent[0]).getKey());
+      assertEquals("k", ((RemoveCommand) sent[1]).getKey());
+   }
+
+   public void testConditionalWriteNotCoalesced() {
+      queue.add(put("k", "v1"));
+      queue.add(remove("k", "v1"));
+      queue.add(put("k", "v2"));
+      queue.add(new PutKeyValueCommand("k", "v3", false, null, new EmbeddedMetadata.Builder().build(),
+                                       Collections.singleton(Flag.PUT_FOR_EXTERNAL_READ), AnyEquivalence.getInstance()));
+      assertEquals(4, queue.getElementsCount());
+
+      queue.flush();
+      assertEquals(4, sentCommands(1).get(0).getCommands().length);
+   }
+
+   public void testWritesWithDifferentFlagsNotCoalesced() {
+      queue.add(put("k", "v1"));
+      queue.add(new PutKeyValueCommand("k", "v2", false, null, new EmbeddedMetadata.Builder().build(),
+                                       EnumSet.of(Flag.SKIP_CACHE_STORE), AnyEquivalence.getInstance()));
+      queue.add(new RemoveCommand("k", null, null, EnumSet.of(Flag.SKIP_INDEXING), AnyEquivalence.getInstance()));
+      queue.add(new PutKeyValueCommand("k", "v3", false, null, new EmbeddedMetadata.Builder().lifespan(1000).build(),
+                                       Collections.<Flag>emptySet(), AnyEquivalence.getInstance()));
+      // same flags and metadata as the previous write
+      queue.add(new PutKeyValueCommand("k", "v4", false, null, new EmbeddedMetadata.Builder().lifespan(1000).build(),
+                                       Collections.<Flag>emptySet(), AnyEquivalence.getInstance()));
+      assertEquals(4, queue.getElementsCount());
+
+      queue.flush();
+      ReplicableCommand[] sent = sentCommands(1).get(0).getCommands();
+      assertEquals(4, sent.length);
+      assertEquals("v1", ((PutKeyValueCommand) sent[0]).getValue());
+      assertEquals("v2", ((PutKeyValueCommand) sent[1]).getValue());
+      assertEquals(RemoveCommand.class, sent[2].getClass());
+      assertEquals("v4", ((PutKeyValueCommand) sent[3]).getValue());
+   }
+
+   @SuppressWarnings("unchecked")
+   public void testBatchPerRecipients() {
+      Address a = mock(Address.class);
+      Address b = mock(Address.class);
+      queue.add(Collections.singleton(a), put("k1", "v1"));
+      queue.add(Collections.singleton(a), put("k2", "v1"));
+      queue.add(Collections.singleton(b), put("k1", "v2"));
+      queue.add(Collections.singleton(a), put("k1", "v3"));
+      queue.add(put("k4", "v1"));
+      assertEquals(5, queue.getElementsCount());
+
+      assertEquals(5, queue.flush());
+      ArgumentCaptor<Collection> recipients = ArgumentCaptor.forClass(Collection.class);
+      ArgumentCaptor<MultipleRpcCommand> commands = ArgumentCaptor.forClass(MultipleRpcCommand.class);
+      verify(rpcManager, times(4)).invokeRemotely(recipients.capture(), commands.capture(), any(RpcOptions.class));
+      assertEquals(Arrays.asList(Collections.singleton(a), Collections.singleton(b), Collections.singleton(a), null),
+                   recipients.getAllValues());
+      assertEquals(2, commands.getAllValues().get(0).getCommands().length);
+      assertEquals(4, queue.getNumberOfFlushes());
+      assertEquals(2, queue.getMaxBatchSize());
+   }
+
+   public void testFullBatchFlushedInline() {
+      for (int i = 0; i < 100; i++) {
+         queue.add(put("k" + i, "v"));
+      }
+      assertEquals(0, queue.getElementsCount());
+      assertEquals(100, sentCommands(1).get(0).getCommands().length);
+      assertEquals("{1=0, 2-10=0, 11-100=1, 101-1000=0, >1000=0}", queue.getBatchSizeDistribution());
+   }
+
+   private List<MultipleRpcCommand> sentCommands(int count) {
+      ArgumentCaptor<MultipleRpcCommand> commands = ArgumentCaptor.forClass(MultipleRpcCommand.class);
+      verify(rpcManager, times(count)).invokeRemotely(anyCollectionOf(Address.class), commands.capture(), any(RpcOptions.class));
+      return commands.getAllValues();
+   }
+
+   private static PutKeyValueCommand put(Object key, Object value) {
+      return new PutKeyValueCommand(key, value, false, null, new EmbeddedMetadata.Builder().build(),
+                                    Collections.<Flag>emptySet(), AnyEquivalence.getInstance());
+   }
+
+   private static RemoveCommand remove(Object key, Object value) {
+      return new RemoveCommand(key, value, null, Collections.<Flag>emptySet(), AnyEquivalence.getInstance());
+   }
+}
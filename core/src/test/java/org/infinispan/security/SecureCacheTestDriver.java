@@ -363,6 +363,11 @@ public void testGetCacheEntry_Object(SecureCache<String, String> cache) {
       cache.getCacheEntry("a");
    }
 
+   @TestCachePermission(AuthorizationPermission.READ)
+   public void testGetAll_Set(SecureCache<String, String> cache) {
+      cache.getAll(Collections.singleton("a"));
+   }
+
    @TestCachePermission(AuthorizationPermission.NONE)
    public void testGetTransactionManager(SecureCache<String, String> cache) {
       cache.getTransactionManager();
@@ -449,6 +454,11 @@ public void testPutAll_Map(SecureCache<String, String> cache) {
       cache.putAll(Collections.singletonMap("a", "a"));
    }
 
+   @TestCachePermission(AuthorizationPermission.WRITE)
+   public void testPutAll_Map_Metadata(SecureCache<String, String> cache) {
+      cache.putAll(Collections.singletonMap("a", "a"), metadata);
+   }
+
    @TestCachePermission(AuthorizationPermission.NONE)
    public void testEquals_Object(SecureCache<String, String> cache) {
       cache.equals(cache);
@@ -0,0 +1,79 @@
+package org.infinispan.statetransfer;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.persistence.spi.CacheLoader;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+/**
+ * Tests that the private {@link org.infinispan.persistence.file.SingleFileStore} of a node only keeps the entries of
+ * the segments the node still owns after a rebalance, and that the moved segments are transferred from the store.
+ *
+ * @since 7.1
+ */
+@Test(groups = "functional", testName = "statetransfer.SegmentedStoreStateTransferTest")
+public class SegmentedStoreStateTransferTest extends MultipleCacheManagersTest {
+   private static final int NUM_KEYS = 100;
+
+   private final String tmpDirectory = TestingUtil.tmpDirectory(this.getClass());
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      addNode(0);
+   }
+
+   @AfterClass(alwaysRun = true)
+   protected void clearTempDir() {
+      TestingUtil.recursiveFileRemove(tmpDirectory);
+   }
+
+   public void testJoinerReceivesSegmentsFromStore() throws Exception {
+      Cache<Object, Object> c0 = cache(0);
+      for (int i = 0; i < NUM_KEYS; i++) {
+         c0.put("k" + i, "v" + i);
+      }
+      // leave the entries only in the store
+      c0.getAdvancedCache().getDataContainer().clear();
+      assertEquals(NUM_KEYS, TestingUtil.<AdvancedCacheLoader<Object, Object>, Object, Object>getFirstLoader(c0).size());
+
+      addNode(1);
+      waitForClusterToForm();
+
+      final DistributionManager dm = c0.getAdvancedCache().getDistributionManager();
+      final CacheLoader store0 = TestingUtil.getFirstLoader(cache(0));
+      final CacheLoader store1 = TestingUtil.getFirstLoader(cache(1));
+      // the segments are removed from the store after the rebalance is confirmed
+      eventually(new Condition() {
+         @Override
+         public boolean isSatisfied() throws Exception {
+            for (int i = 0; i < NUM_KEYS; i++) {
+               String key = "k" + i;
+               boolean ownedBy0 = dm.getPrimaryLocation(key).equals(address(0));
+               if (ownedBy0 != store0.contains(key) || ownedBy0 == store1.contains(key))
+                  return false;
+            }
+            return true;
+         }
+      });
+      for (int i = 0; i < NUM_KEYS; i++) {
+         String key = "k" + i;
+         assertEquals("v" + i, cache(0).get(key));
+         assertEquals("v" + i, cache(1).get(key));
+      }
+   }
+
+   private void addNode(int index) {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().hash().numOwners(1)
+            .persistence().addSingleFileStore().location(tmpDirectory + "/" + index).fetchPersistentState(true);
+      addClusterEnabledCacheManager(builder);
+   }
+}
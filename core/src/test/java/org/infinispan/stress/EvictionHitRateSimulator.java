@@ -0,0 +1,145 @@
+package org.infinispan.stress;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.util.concurrent.BoundedConcurrentHashMap;
+import org.infinispan.util.concurrent.BoundedConcurrentHashMap.Eviction;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+import org.testng.annotations.Test;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compares the hit rate of the eviction strategies of {@link BoundedConcurrentHashMap} by replaying access traces
+ * against maps of the same capacity. Every access is a read, followed by a write of the key on a miss, like a cache
+ * loading the missing entries from a slower store.
+ * <p/>
+ * The test methods replay synthetic traces. Recorded traces can be replayed with {@link #main(String[])}, passing
+ * the capacity and the trace files: the first token of every line of a trace file is the accessed key, the rest of
+ * the line is ignored.
+ *
+ * @since 7.1
+ */
+@Test(testName = "stress.EvictionHitRateSimulator", groups = "profiling")
+public class EvictionHitRateSimulator extends AbstractInfinispanTest {
+   private static final Log log = LogFactory.getLog(EvictionHitRateSimulator.class);
+
+   private static final List<Eviction> STRATEGIES = Arrays.asList(Eviction.LRU, Eviction.LIRS, Eviction.TINY_LFU);
+   private static final int CAPACITY = Integer.getInteger("size", 1000);
+   private static final int ACCESSES = Integer.getInteger("accesses", 1000000);
+
+   public void testZipf() {
+      simulate("zipf", CAPACITY, zipf(new Random(12345), CAPACITY * 100, 0.9, ACCESSES));
+   }
+
+   public void testZipfWithScans() {
+      Random random = new Random(12345);
+      List<Object> trace = new ArrayList<Object>(ACCESSES);
+      List<Object> hot = zipf(random, CAPACITY * 10, 0.9, ACCESSES);
+      int nextScanKey = Integer.MAX_VALUE / 2;
+      for (int i = 0; trace.size() < ACCESSES; i++) {
+         trace.add(hot.get(i));
+         // every now and then read a range of keys never accessed again
+         if (i % (CAPACITY * 10) == 0) {
+            for (int j = 0; j < CAPACITY * 2 && trace.size() < ACCESSES; j++) {
+               trace.add(nextScanKey++);
+            }
+         }
+      }
+      simulate("zipf-with-scans", CAPACITY, trace);
+   }
+
+   public void testLoop() {
+      // a working set slightly bigger than the cache, accessed in a loop: the worst case for LRU
+      List<Object> trace = new ArrayList<Object>(ACCESSES);
+      int workingSet = CAPACITY + CAPACITY / 4;
+      for (int i = 0; i < ACCESSES; i++) {
+         trace.add(i % workingSet);
+      }
+      simulate("loop", CAPACITY, trace);
+   }
+
+   public static void main(String[] args) throws IOException {
+      if (args.length < 2) {
+         System.err.println("Usage: EvictionHitRateSimulator <capacity> <trace file>...");
+         System.exit(1);
+      }
+      int capacity = Integer.parseInt(args[0]);
+      for (int i = 1; i < args.length; i++) {
+         for (Map.Entry<Eviction, Double> e : simulate(capacity, readTrace(args[i])).entrySet()) {
+            System.out.printf("%s %s: hit rate %.2f%%%n", args[i], e.getKey(), e.getValue() * 100);
+         }
+      }
+   }
+
+   private void simulate(String name, int capacity, List<Object> trace) {
+      for (Map.Entry<Eviction, Double> e : simulate(capacity, trace).entrySet()) {
+         log.infof("%s %s: hit rate %.2f%%", name, e.getKey(), e.getValue() * 100);
+      }
+   }
+
+   private static Map<Eviction, Double> simulate(int capacity, List<Object> trace) {
+      Map<Eviction, Double> hitRates = new EnumMap<Eviction, Double>(Eviction.class);
+      for (Eviction eviction : STRATEGIES) {
+         // a single segment, so that the capacity is not split
+         Map<Object, Object> map = new BoundedConcurrentHashMap<Object, Object>(capacity, 1, eviction,
+               AnyEquivalence.getInstance(), AnyEquivalence.getInstance());
+         long hits = 0;
+         for (Object key : trace) {
+            if (map.get(key) != null) {
+               hits++;
+            } else {
+               map.put(key, key);
+            }
+         }
+         hitRates.put(eviction, trace.isEmpty() ? 0 : (double) hits / trace.size());
+      }
+      return hitRates;
+   }
+
+   private static List<Object> readTrace(String fileName) throws IOException {
+      List<Object> trace = new ArrayList<Object>();
+      BufferedReader reader = new BufferedReader(new FileReader(fileName));
+      try {
+         String line;
+         while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (!line.isEmpty()) {
+               String[] tokens = line.split("\\s+", 2);
+               trace.add(tokens[0]);
+            }
+         }
+      } finally {
+         reader.close();
+      }
+      return trace;
+   }
+
+   /**
+    * Generates {@code length} keys in {@code [0, items)} following a Zipf distribution with the given exponent, key 0
+    * being the most popular.
+    */
+   private static List<Object> zipf(Random random, int items, double exponent, int length) {
+      double[] cumulative = new double[items];
+      double sum = 0;
+      for (int i = 0; i < items; i++) {
+         sum += 1 / Math.pow(i + 1, exponent);
+         cumulative[i] = sum;
+      }
+      List<Object> keys = new ArrayList<Object>(length);
+      for (int i = 0; i < length; i++) {
+         int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+         keys.add(index >= 0 ? index : Math.min(-index - 1, items - 1));
+      }
+      return keys;
+   }
+}
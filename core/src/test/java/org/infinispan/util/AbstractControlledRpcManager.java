@@ -1,6 +1,7 @@
 package org.infinispan.util;
 
 import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.commons.util.concurrent.NotifyingNotifiableFuture;
 import org.infinispan.remoting.RpcException;
 import org.infinispan.remoting.inboundhandler.DeliverOrder;
@@ -162,6 +163,15 @@ public void invokeRemotelyInFuture(NotifyingNotifiableFuture<Map<Address, Respon
       afterInvokeRemotely(rpc, null);
    }
 
+   @Override
+   public NotifyingFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<Address> recipients, ReplicableCommand rpc, RpcOptions options) {
+      log.trace("ControlledRpcManager.invokeRemotelyAsync");
+      beforeInvokeRemotely(rpc);
+      NotifyingFuture<Map<Address, Response>> future = realOne.invokeRemotelyAsync(recipients, rpc, options);
+      afterInvokeRemotely(rpc, null);
+      return future;
+   }
+
    @Override
    public Transport getTransport() {
       return realOne.getTransport();
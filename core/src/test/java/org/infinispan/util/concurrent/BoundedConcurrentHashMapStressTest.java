@@ -48,5 +48,9 @@ public void testLIRSRemovePerformance() {
       testRemovePerformance(BoundedConcurrentHashMap.Eviction.LIRS);
    }
 
+   public void testTinyLFURemovePerformance() {
+      testRemovePerformance(BoundedConcurrentHashMap.Eviction.TINY_LFU);
+   }
+
 
 }
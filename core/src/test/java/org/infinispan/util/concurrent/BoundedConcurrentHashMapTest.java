@@ -1,14 +1,19 @@
 package org.infinispan.util.concurrent;
 
 import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.eviction.EntrySizeCalculator;
 import org.infinispan.util.EquivalentHashMapTest;
 import org.infinispan.util.concurrent.BoundedConcurrentHashMap.Eviction;
 import org.infinispan.util.concurrent.BoundedConcurrentHashMap.EvictionListener;
 import org.infinispan.util.concurrent.BoundedConcurrentHashMap.NullEvictionListener;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -195,4 +200,131 @@ public void onEntryChosenForEviction(Integer internalCacheEntry) {
       bchm.put(3, 3); // evict 1, LRU: 0, 2, 3
       bchm.put(4, 4); // evict 0, LRU: 2, 3, 4
    }
+
+   public void testMemoryBoundedEviction() {
+      final List<Integer> evicted = new ArrayList<Integer>();
+      final EvictionListener<Integer, byte[]> l = new NullEvictionListener<Integer, byte[]>() {
+         @Override
+         public void onEntryChosenForEviction(byte[] internalCacheEntry) {
+            evicted.add(internalCacheEntry.length);
+         }
+      };
+
+      BoundedConcurrentHashMap<Integer, byte[]> bchm = new BoundedConcurrentHashMap<Integer, byte[]>(
+            100, 1, Eviction.LRU, l, AnyEquivalence.INT, AnyEquivalence.<byte[]>getInstance(), new ValueLengthCalculator());
+
+      bchm.put(0, new byte[40]); // LRU: 0
+      bchm.put(1, new byte[30]); // LRU: 0, 1
+      bchm.get(0);               // LRU: 1, 0
+      assertEquals(70, bchm.memoryUsage());
+      bchm.put(2, new byte[50]); // evict 1, LRU: 0, 2
+      assertEquals(Arrays.asList(30), evicted);
+      assertEquals(90, bchm.memoryUsage());
+      bchm.put(2, new byte[100]); // evict 0, LRU: 2
+      assertEquals(Arrays.asList(30, 40), evicted);
+      assertEquals(100, bchm.memoryUsage());
+      assertEquals(1, bchm.size());
+      bchm.remove(2);
+      assertEquals(0, bchm.memoryUsage());
+   }
+
+   public void testMemoryUsageAfterRehash() {
+      BoundedConcurrentHashMap<Integer, byte[]> bchm = new BoundedConcurrentHashMap<Integer, byte[]>(
+            Long.MAX_VALUE, 1, Eviction.LRU, new NullEvictionListener<Integer, byte[]>(), AnyEquivalence.INT,
+            AnyEquivalence.<byte[]>getInstance(), new ValueLengthCalculator());
+
+      // enough entries to force the segment to rehash several times
+      for (int i = 0; i < 1000; i++)
+         bchm.put(i, new byte[10]);
+      assertEquals(10000, bchm.memoryUsage());
+      for (int i = 0; i < 1000; i += 2)
+         bchm.remove(i);
+      assertEquals(5000, bchm.memoryUsage());
+      bchm.clear();
+      assertEquals(0, bchm.memoryUsage());
+   }
+
+   public void testTinyLFUScanResistance() {
+      Map<Integer, Integer> lru = new BoundedConcurrentHashMap<Integer, Integer>(
+            100, 1, Eviction.LRU, new NullEvictionListener<Integer, Integer>(), AnyEquivalence.INT, AnyEquivalence.INT);
+      Map<Integer, Integer> tinyLfu = new BoundedConcurrentHashMap<Integer, Integer>(
+            100, 1, Eviction.TINY_LFU, new NullEvictionListener<Integer, Integer>(), AnyEquivalence.INT, AnyEquivalence.INT);
+
+      for (Map<Integer, Integer> bchm : Arrays.asList(lru, tinyLfu)) {
+         // a hot set accessed several times, followed by a scan of keys accessed only once
+         for (int i = 0; i < 50; i++)
+            bchm.put(i, i);
+         for (int j = 0; j < 5; j++)
+            for (int i = 0; i < 50; i++)
+               assertNotNull(bchm.get(i));
+         // short enough for the frequency sketch not to age the counts of the hot set
+         for (int i = 1000; i < 1500; i++)
+            bchm.put(i, i);
+         assertTrue(bchm.size() <= 100);
+      }
+
+      for (int i = 0; i < 50; i++) {
+         assertFalse(lru.containsKey(i));
+         assertTrue("Hot key " + i + " was evicted by the scan", tinyLfu.containsKey(i));
+      }
+   }
+
+   public void testTinyLFUEvictionConsistency() {
+      final Map<Integer, Integer> evicted = new HashMap<Integer, Integer>();
+      final EvictionListener<Integer, Integer> l = new NullEvictionListener<Integer, Integer>() {
+         @Override
+         public void onEntryEviction(Map<Integer, Integer> entries) {
+            evicted.putAll(entries);
+         }
+      };
+      Map<Integer, Integer> bchm = new BoundedConcurrentHashMap<Integer, Integer>(
+            64, 1, Eviction.TINY_LFU, l, AnyEquivalence.INT, AnyEquivalence.INT);
+
+      // mix puts, reads and removals of colliding keys, so that the segment copies entries around removed ones
+      Random random = new Random(42);
+      for (int i = 0; i < 100000; i++) {
+         int key = random.nextInt(512);
+         switch (random.nextInt(4)) {
+            case 0:
+               bchm.remove(key);
+               break;
+            case 1:
+               bchm.get(key);
+               break;
+            default:
+               evicted.clear();
+               bchm.put(key, key);
+               assertTrue(bchm.containsKey(key));
+               for (Integer e : evicted.keySet()) {
+                  assertFalse(bchm.containsKey(e));
+               }
+               break;
+         }
+         assertTrue(bchm.size() <= 64);
+      }
+      bchm.clear();
+      assertTrue(bchm.isEmpty());
+      for (int i = 0; i < 64; i++)
+         bchm.put(i, i);
+      assertEquals(64, bchm.size());
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   public void testMemoryBoundedTinyLFUNotSupported() {
+      new BoundedConcurrentHashMap<Integer, byte[]>(100, 1, Eviction.TINY_LFU, new NullEvictionListener<Integer, byte[]>(),
+            AnyEquivalence.INT, AnyEquivalence.<byte[]>getInstance(), new ValueLengthCalculator());
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class)
+   public void testMemoryBoundedLIRSNotSupported() {
+      new BoundedConcurrentHashMap<Integer, byte[]>(100, 1, Eviction.LIRS, new NullEvictionListener<Integer, byte[]>(),
+            AnyEquivalence.INT, AnyEquivalence.<byte[]>getInstance(), new ValueLengthCalculator());
+   }
+
+   private static class ValueLengthCalculator implements EntrySizeCalculator<Integer, byte[]> {
+      @Override
+      public long calculateSize(Integer key, byte[] value) {
+         return value.length;
+      }
+   }
 }
@@ -0,0 +1,59 @@
+package org.infinispan.util.concurrent;
+
+import org.testng.annotations.Test;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * @since 7.1
+ */
+@Test(groups = "unit", testName = "util.concurrent.LatencyHistogramTest")
+public class LatencyHistogramTest {
+
+   public void testBucketPrecision() {
+      long[] values = {0, 1, 15, 16, 17, 31, 32, 1000, 123456789, Long.MAX_VALUE / 3, Long.MAX_VALUE};
+      for (long value : values) {
+         int bucket = LatencyHistogram.bucket(value);
+         long highest = LatencyHistogram.highestValueInBucket(bucket);
+         assertTrue("value " + value + " above bucket " + highest, value <= highest);
+         assertTrue("bucket of " + value + " too wide: " + highest, highest - value <= value / 16);
+         if (bucket > 0) {
+            assertTrue(value > LatencyHistogram.highestValueInBucket(bucket - 1));
+         }
+      }
+   }
+
+   public void testPercentiles() {
+      LatencyHistogram histogram = new LatencyHistogram();
+      for (int i = 1; i <= 1000; i++) {
+         histogram.record(i * 1000);
+      }
+      assertEquals(1000, histogram.getCount());
+      assertEquals(500500000, histogram.getTotalNanos());
+      assertEquals(1000000, histogram.getMaxNanos());
+      assertEquals(500500.0, histogram.getMeanNanos());
+      assertApproximately(500000, histogram.getValueAtPercentile(50));
+      assertApproximately(990000, histogram.getValueAtPercentile(99));
+      assertEquals(1000000, histogram.getValueAtPercentile(100));
+   }
+
+   public void testReset() {
+      LatencyHistogram histogram = new LatencyHistogram();
+      histogram.record(10);
+      histogram.record(-5);
+      assertEquals(2, histogram.getCount());
+      assertEquals(0, histogram.getValueAtPercentile(50));
+
+      histogram.reset();
+      assertEquals(0, histogram.getCount());
+      assertEquals(0, histogram.getTotalNanos());
+      assertEquals(0, histogram.getMaxNanos());
+      assertEquals(0, histogram.getValueAtPercentile(99));
+   }
+
+   private void assertApproximately(long expected, long actual) {
+      assertTrue("expected " + expected + " but was " + actual,
+                 actual >= expected && actual - expected <= expected / 16);
+   }
+}
@@ -16,6 +16,7 @@
 import org.infinispan.commands.control.LockControlCommand;
 import org.infinispan.commands.read.DistributedExecuteCommand;
 import org.infinispan.commands.read.EntrySetCommand;
+import org.infinispan.commands.read.GetAllCommand;
 import org.infinispan.commands.read.GetCacheEntryCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.KeySetCommand;
@@ -383,4 +384,9 @@ public GetCacheEntryCommand buildGetCacheEntryCommand(Object key, Set<Flag> expl
       return actual.buildGetCacheEntryCommand(key, explicitFlags);
    }
 
+   @Override
+   public GetAllCommand buildGetAllCommand(Collection<?> keys, Set<Flag> explicitFlags) {
+      return actual.buildGetAllCommand(keys, explicitFlags);
+   }
+
 }
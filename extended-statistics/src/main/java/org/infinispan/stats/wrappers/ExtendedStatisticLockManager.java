@@ -1,6 +1,7 @@
 package org.infinispan.stats.wrappers;
 
 import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.stats.CacheStatisticManager;
@@ -141,6 +142,11 @@ public boolean acquireLock(InvocationContext ctx, Object key, long timeoutMillis
       return locked;
    }
 
+   @Override
+   public NotifyingFuture<Void> awaitLockRelease(Object key, Object lockOwner) {
+      return actual.awaitLockRelease(key, lockOwner);
+   }
+
    @Override
    public boolean acquireLockNoCheck(InvocationContext ctx, Object key, long timeoutMillis, boolean skipLocking) throws InterruptedException, TimeoutException {
       LockInfo lockInfo = new LockInfo(ctx);
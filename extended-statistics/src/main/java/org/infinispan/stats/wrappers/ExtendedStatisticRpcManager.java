@@ -6,6 +6,8 @@
 import org.infinispan.commands.tx.CommitCommand;
 import org.infinispan.commands.tx.PrepareCommand;
 import org.infinispan.commands.tx.RollbackCommand;
+import org.infinispan.commons.util.concurrent.FutureListener;
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.commons.util.concurrent.NotifyingNotifiableFuture;
 import org.infinispan.remoting.RpcException;
 import org.infinispan.remoting.inboundhandler.DeliverOrder;
@@ -30,6 +32,7 @@
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
 
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.infinispan.stats.container.ExtendedStatistic.*;
@@ -194,6 +197,21 @@ public void invokeRemotelyInFuture(NotifyingNotifiableFuture<Map<Address, Respon
       updateStats(rpc, options.responseMode().isSynchronous(), timeService.timeDuration(start, NANOSECONDS), recipients);
    }
 
+   @Override
+   public NotifyingFuture<Map<Address, Response>> invokeRemotelyAsync(final Collection<Address> recipients,
+                                                                      final ReplicableCommand rpc,
+                                                                      final RpcOptions options) {
+      final long start = timeService.time();
+      NotifyingFuture<Map<Address, Response>> future = actual.invokeRemotelyAsync(recipients, rpc, options);
+      future.attachListener(new FutureListener<Map<Address, Response>>() {
+         @Override
+         public void futureDone(Future<Map<Address, Response>> future) {
+            updateStats(rpc, options.responseMode().isSynchronous(), timeService.timeDuration(start, NANOSECONDS), recipients);
+         }
+      });
+      return future;
+   }
+
    @Override
    public RpcOptionsBuilder getRpcOptionsBuilder(ResponseMode responseMode) {
       return actual.getRpcOptionsBuilder(responseMode);
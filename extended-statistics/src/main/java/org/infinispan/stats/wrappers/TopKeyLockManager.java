@@ -1,5 +1,6 @@
 package org.infinispan.stats.wrappers;
 
+import org.infinispan.commons.util.concurrent.NotifyingFuture;
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.stats.topK.StreamSummaryContainer;
@@ -104,6 +105,11 @@ public boolean acquireLock(InvocationContext ctx, Object key, long timeoutMillis
       }
    }
 
+   @Override
+   public NotifyingFuture<Void> awaitLockRelease(Object key, Object lockOwner) {
+      return current.awaitLockRelease(key, lockOwner);
+   }
+
    @Override
    public boolean acquireLockNoCheck(InvocationContext ctx, Object key, long timeoutMillis, boolean skipLocking)
          throws InterruptedException, TimeoutException {
@@ -8,6 +8,11 @@
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
@@ -31,6 +36,7 @@
 import org.infinispan.persistence.keymappers.TwoWayKey2StringMapper;
 import org.infinispan.persistence.keymappers.UnsupportedKeyTypeException;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.persistence.spi.BatchCacheWriter;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.util.KeyValuePair;
@@ -71,7 +77,7 @@
  * @see org.infinispan.persistence.keymappers.DefaultTwoWayKey2StringMapper
  */
 @ConfiguredBy(JdbcStringBasedStoreConfiguration.class)
-public class JdbcStringBasedStore implements AdvancedLoadWriteStore {
+public class JdbcStringBasedStore implements AdvancedLoadWriteStore, BatchCacheWriter {
 
    private static final Log log = LogFactory.getLog(JdbcStringBasedStore.class, Log.class);
 
@@ -186,6 +192,105 @@ public void write(MarshalledEntry entry) {
       }
    }
 
+   /**
+    * Updates the rows of the keys that exist with a JDBC batch, then inserts the missing ones with another batch. The
+    * batches are executed every {@link TableManipulation#getBatchSize()} statements.
+    */
+   @Override
+   public void writeBatch(Iterable entries) {
+      // a key cannot be both updated and inserted in the same batch, so only the last entry of a key is kept
+      Map<String, MarshalledEntry> entriesByKey = new LinkedHashMap<String, MarshalledEntry>();
+      for (Object entry : entries) {
+         MarshalledEntry marshalledEntry = (MarshalledEntry) entry;
+         entriesByKey.put(key2Str(marshalledEntry.getKey()), marshalledEntry);
+      }
+      if (entriesByKey.isEmpty()) {
+         return;
+      }
+      Connection connection = null;
+      PreparedStatement ps = null;
+      try {
+         connection = connectionFactory.getConnection();
+         String sql = tableManipulation.getUpdateRowSql();
+         if (log.isTraceEnabled()) {
+            log.tracef("Running sql '%s' for %d keys", sql, entriesByKey.size());
+         }
+         ps = connection.prepareStatement(sql);
+         List<String> batchKeys = new ArrayList<String>(tableManipulation.getBatchSize());
+         List<String> missingKeys = new ArrayList<String>();
+         for (Map.Entry<String, MarshalledEntry> e : entriesByKey.entrySet()) {
+            updateStatement(e.getValue(), e.getKey(), ps);
+            ps.addBatch();
+            batchKeys.add(e.getKey());
+            if (batchKeys.size() == tableManipulation.getBatchSize()) {
+               collectMissingKeys(connection, batchKeys, ps.executeBatch(), missingKeys);
+               batchKeys.clear();
+            }
+         }
+         if (!batchKeys.isEmpty()) {
+            collectMissingKeys(connection, batchKeys, ps.executeBatch(), missingKeys);
+         }
+         JdbcUtil.safeClose(ps);
+         ps = null;
+
+         if (!missingKeys.isEmpty()) {
+            sql = tableManipulation.getInsertRowSql();
+            if (log.isTraceEnabled()) {
+               log.tracef("Running sql '%s' for %d keys", sql, missingKeys.size());
+            }
+            ps = connection.prepareStatement(sql);
+            int batched = 0;
+            for (String keyStr : missingKeys) {
+               updateStatement(entriesByKey.get(keyStr), keyStr, ps);
+               ps.addBatch();
+               if (++batched == tableManipulation.getBatchSize()) {
+                  ps.executeBatch();
+                  batched = 0;
+               }
+            }
+            if (batched > 0) {
+               ps.executeBatch();
+            }
+         }
+      } catch (SQLException ex) {
+         log.sqlFailureStoringKeys(ex);
+         throw new PersistenceException("Error while storing string keys to database", ex);
+      } catch (InterruptedException e) {
+         if (log.isTraceEnabled()) {
+            log.trace("Interrupted while marshalling to store");
+         }
+         Thread.currentThread().interrupt();
+      } finally {
+         JdbcUtil.safeClose(ps);
+         connectionFactory.releaseConnection(connection);
+      }
+   }
+
+   private void collectMissingKeys(Connection connection, List<String> keys, int[] updateCounts,
+                                   List<String> missingKeys) throws SQLException {
+      for (int i = 0; i < keys.size(); i++) {
+         int updateCount = updateCounts[i];
+         // some drivers don't report the number of updated rows for batched statements
+         if (updateCount == 0 || (updateCount == Statement.SUCCESS_NO_INFO && !rowExists(connection, keys.get(i)))) {
+            missingKeys.add(keys.get(i));
+         }
+      }
+   }
+
+   private boolean rowExists(Connection connection, String keyStr) throws SQLException {
+      PreparedStatement ps = null;
+      ResultSet rs = null;
+      try {
+         ps = connection.prepareStatement(tableManipulation.getSelectIdRowSql());
+         ps.setString(1, keyStr);
+         rs = ps.executeQuery();
+         return rs.next();
+      } finally {
+         JdbcUtil.safeClose(rs);
+         JdbcUtil.safeClose(ps);
+      }
+   }
+
    @Override
    public MarshalledEntry load(Object key) {
       String lockingKey = key2Str(key);
@@ -244,6 +349,39 @@ public boolean delete(Object key) {
       }
    }
 
+   @Override
+   public void deleteBatch(Iterable keys) {
+      Connection connection = null;
+      PreparedStatement ps = null;
+      try {
+         String sql = tableManipulation.getDeleteRowSql();
+         connection = connectionFactory.getConnection();
+         ps = connection.prepareStatement(sql);
+         int batched = 0;
+         for (Object key : keys) {
+            String keyStr = key2Str(key);
+            if (log.isTraceEnabled()) {
+               log.tracef("Batching sql '%s' on %s", sql, keyStr);
+            }
+            ps.setString(1, keyStr);
+            ps.addBatch();
+            if (++batched == tableManipulation.getBatchSize()) {
+               ps.executeBatch();
+               batched = 0;
+            }
+         }
+         if (batched > 0) {
+            ps.executeBatch();
+         }
+      } catch (SQLException ex) {
+         log.sqlFailureRemovingKeys(ex);
+         throw new PersistenceException("Error while removing string keys from database", ex);
+      } finally {
+         JdbcUtil.safeClose(ps);
+         connectionFactory.releaseConnection(connection);
+      }
+   }
+
    @Override
    public void clear() throws PersistenceException {
       Connection conn = null;
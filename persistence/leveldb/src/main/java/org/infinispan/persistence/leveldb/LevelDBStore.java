@@ -2,10 +2,13 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletionService;
@@ -16,6 +19,7 @@
 import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.commons.configuration.ConfiguredBy;
 import org.infinispan.commons.util.Util;
+import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.executors.ExecutorAllCompletionService;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
@@ -24,9 +28,11 @@
 import org.infinispan.persistence.TaskContextImpl;
 import org.infinispan.persistence.leveldb.configuration.LevelDBStoreConfiguration;
 import org.infinispan.persistence.leveldb.logging.Log;
-import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.persistence.spi.BatchCacheWriter;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.infinispan.util.logging.LogFactory;
 import org.iq80.leveldb.CompressionType;
 import org.iq80.leveldb.DB;
@@ -34,20 +40,32 @@
 import org.iq80.leveldb.DBIterator;
 import org.iq80.leveldb.Options;
 import org.iq80.leveldb.ReadOptions;
-
+import org.iq80.leveldb.WriteBatch;
+
+/**
+ * A store keeping the entries in a LevelDB database, and the expiration times of the entries in a second database.
+ * <p/>
+ * The first time the entries of some segments are requested, e.g. by state transfer, the keys are also grouped by
+ * segment in a third database, whose keys are the segment followed by the marshalled key. The entries of a segment are
+ * then read by seeking to the segment, without going through the keys of the other segments.
+ */
 @ConfiguredBy(LevelDBStoreConfiguration.class)
-public class LevelDBStore implements AdvancedLoadWriteStore {
+public class LevelDBStore implements SegmentedAdvancedLoadWriteStore, BatchCacheWriter {
    private static final Log log = LogFactory.getLog(LevelDBStore.class, Log.class);
 
    private static final String JNI_DB_FACTORY_CLASS_NAME = "org.fusesource.leveldbjni.JniDBFactory";
    private static final String JAVA_DB_FACTORY_CLASS_NAME = "org.iq80.leveldb.impl.Iq80DBFactory";
    private static final String[] DB_FACTORY_CLASS_NAMES = new String[] { JNI_DB_FACTORY_CLASS_NAME, JAVA_DB_FACTORY_CLASS_NAME };
+   private static final byte[] EMPTY = new byte[0];
 
    private LevelDBStoreConfiguration configuration;
    private BlockingQueue<ExpiryEntry> expiryEntryQueue;
    private DBFactory dbFactory;
    private DB db;
    private DB expiredDb;
+   private DB segmentsDb;
+   // The consistent hash the keys of segmentsDb are grouped with, null while they are not grouped
+   private volatile ConsistentHash segmentsCh;
    private InitializationContext ctx;
    private Semaphore semaphore;
    private volatile boolean stopped = true;
@@ -99,6 +117,9 @@ public void start()  {
       try {
          db = openDatabase(getQualifiedLocation(), dataDbOptions());
          expiredDb = openDatabase(getQualifiedExpiredLocation(), expiredDbOptions());
+         // the consistent hash is not known yet, the keys are grouped again when requested
+         segmentsDb = reinitDatabase(getQualifiedSegmentsLocation(), segmentsDbOptions());
+         segmentsCh = null;
          stopped = false;
       } catch (IOException e) {
          throw new CacheConfigurationException("Unable to open database", e);
@@ -118,6 +139,10 @@ private String getQualifiedExpiredLocation() {
       return configuration.expiredLocation() + sanitizedCacheName();
    }
 
+   private String getQualifiedSegmentsLocation() {
+      return getQualifiedLocation() + "-segments";
+   }
+
    private Options dataDbOptions() {
       Options options = new Options().createIfMissing(true);
 
@@ -138,6 +163,10 @@ private Options expiredDbOptions() {
       return new Options().createIfMissing(true);
    }
 
+   private Options segmentsDbOptions() {
+      return new Options().createIfMissing(true);
+   }
+
    /**
     * Creates database if it doesn't exist.
     */
@@ -205,6 +234,12 @@ public void stop()  {
          } catch (IOException e) {
             log.warnUnableToCloseExpiredDb(e);
          }
+
+         try {
+            segmentsDb.close();
+         } catch (IOException e) {
+            log.warnUnableToCloseDb(e);
+         }
       } finally {
          stopped = true;
          semaphore.release(Integer.MAX_VALUE);
@@ -224,6 +259,8 @@ public void clear() {
          if (stopped) {
             throw new PersistenceException("LevelDB is stopped");
          }
+         // the keys are grouped again when requested
+         segmentsCh = null;
          DBIterator it = db.iterator(new ReadOptions().fillCache(false));
          if (configuration.clearThreshold() <= 0) {
             try {
@@ -371,6 +408,7 @@ public boolean delete(Object key)  {
                return false;
             }
             db.delete(keyBytes);
+            removeFromSegments(key, keyBytes);
          } finally {
             semaphore.release();
          }
@@ -391,6 +429,10 @@ public void write(MarshalledEntry me)  {
                throw new PersistenceException("LevelDB is stopped");
             }
             db.put(marshelledKey, marshalledEntry);
+            ConsistentHash ch = segmentsCh;
+            if (ch != null) {
+               segmentsDb.put(segmentKey(ch, me.getKey(), marshelledKey), EMPTY);
+            }
          } finally {
             semaphore.release();
          }
@@ -403,6 +445,86 @@ public void write(MarshalledEntry me)  {
       }
    }
 
+   @Override
+   public void writeBatch(Iterable entries) {
+      try {
+         WriteBatch batch = db.createWriteBatch();
+         try {
+            List<MarshalledEntry> expiring = new ArrayList<MarshalledEntry>();
+            List<Map.Entry<Object, byte[]>> keys = new ArrayList<Map.Entry<Object, byte[]>>();
+            for (Object entry : entries) {
+               MarshalledEntry me = (MarshalledEntry) entry;
+               byte[] keyBytes = marshall(me.getKey());
+               batch.put(keyBytes, marshall(me));
+               keys.add(new AbstractMap.SimpleImmutableEntry<Object, byte[]>(me.getKey(), keyBytes));
+               InternalMetadata meta = me.getMetadata();
+               if (meta != null && meta.expiryTime() > -1) {
+                  expiring.add(me);
+               }
+            }
+            semaphore.acquire();
+            try {
+               if (stopped) {
+                  throw new PersistenceException("LevelDB is stopped");
+               }
+               db.write(batch);
+               ConsistentHash ch = segmentsCh;
+               if (ch != null) {
+                  WriteBatch segmentsBatch = segmentsDb.createWriteBatch();
+                  try {
+                     for (Map.Entry<Object, byte[]> key : keys) {
+                        segmentsBatch.put(segmentKey(ch, key.getKey(), key.getValue()), EMPTY);
+                     }
+                     segmentsDb.write(segmentsBatch);
+                  } finally {
+                     segmentsBatch.close();
+                  }
+               }
+            } finally {
+               semaphore.release();
+            }
+            for (MarshalledEntry me : expiring) {
+               addNewExpiry(me);
+            }
+         } finally {
+            batch.close();
+         }
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      }
+   }
+
+   @Override
+   public void deleteBatch(Iterable keys) {
+      try {
+         WriteBatch batch = db.createWriteBatch();
+         try {
+            List<Map.Entry<Object, byte[]>> keysBytes = new ArrayList<Map.Entry<Object, byte[]>>();
+            for (Object key : keys) {
+               byte[] keyBytes = marshall(key);
+               batch.delete(keyBytes);
+               keysBytes.add(new AbstractMap.SimpleImmutableEntry<Object, byte[]>(key, keyBytes));
+            }
+            semaphore.acquire();
+            try {
+               if (stopped) {
+                  throw new PersistenceException("LevelDB is stopped");
+               }
+               db.write(batch);
+               for (Map.Entry<Object, byte[]> key : keysBytes) {
+                  removeFromSegments(key.getKey(), key.getValue());
+               }
+            } finally {
+               semaphore.release();
+            }
+         } finally {
+            batch.close();
+         }
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      }
+   }
+
    @Override
    public MarshalledEntry load(Object key)  {
       try {
@@ -503,6 +625,7 @@ public void purge(Executor executor, PurgeListener purgeListener) {
                if (me.getMetadata() != null && me.getMetadata().isExpired(now)) {
                   // somewhat inefficient to FIND then REMOVE...
                   db.delete(keyBytes);
+                  removeFromSegments(key, keyBytes);
                   purgeListener.entryPurged(key);
                   count++;
                }
@@ -528,6 +651,218 @@ public void purge(Executor executor, PurgeListener purgeListener) {
       }
    }
 
+   @Override
+   public void process(ConsistentHash ch, Set segments, KeyFilter filter, CacheLoaderTask task,
+                       Executor executor, boolean fetchValue, boolean fetchMetadata) {
+      if (!groupBySegments(ch)) {
+         process(PersistenceUtil.segmentFilter(ch, segments, filter), task, executor, fetchValue, fetchMetadata);
+         return;
+      }
+
+      int batchSize = 100;
+      ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(executor);
+      final TaskContext taskContext = new TaskContextImpl();
+
+      List<Map.Entry<byte[], byte[]>> entries = new ArrayList<Map.Entry<byte[], byte[]>>(batchSize);
+      try {
+         semaphore.acquire();
+      } catch (InterruptedException e) {
+         throw new PersistenceException("Cannot acquire semaphore: CacheStore is likely stopped.", e);
+      }
+      try {
+         if (stopped) {
+            throw new PersistenceException("LevelDB is stopped");
+         }
+         DBIterator it = segmentsDb.iterator(new ReadOptions().fillCache(false));
+         try {
+            for (Object segment : segments) {
+               byte[] prefix = segmentPrefix((Integer) segment);
+               for (it.seek(prefix); it.hasNext(); ) {
+                  byte[] segmentKey = it.next().getKey();
+                  if (!hasPrefix(segmentKey, prefix))
+                     break;
+                  byte[] keyBytes = Arrays.copyOfRange(segmentKey, prefix.length, segmentKey.length);
+                  byte[] value = db.get(keyBytes);
+                  if (value == null) {
+                     // written and removed concurrently
+                     pruneFromSegments(segmentKey, keyBytes);
+                     continue;
+                  }
+                  entries.add(new AbstractMap.SimpleImmutableEntry<byte[], byte[]>(keyBytes, value));
+                  if (entries.size() == batchSize) {
+                     final List<Map.Entry<byte[], byte[]>> batch = entries;
+                     entries = new ArrayList<Map.Entry<byte[], byte[]>>(batchSize);
+                     submitProcessTask(task, filter, eacs, taskContext, batch, fetchValue, fetchMetadata);
+                  }
+               }
+            }
+            if (!entries.isEmpty()) {
+               submitProcessTask(task, filter, eacs, taskContext, entries, fetchValue, fetchMetadata);
+            }
+
+            eacs.waitUntilAllCompleted();
+            if (eacs.isExceptionThrown()) {
+               throw new PersistenceException("Execution exception!", eacs.getFirstException());
+            }
+         } catch (Exception e) {
+            throw new PersistenceException(e);
+         } finally {
+            try {
+               it.close();
+            } catch (IOException e) {
+               log.warnUnableToCloseDbIterator(e);
+            }
+         }
+      } finally {
+         semaphore.release();
+      }
+   }
+
+   @Override
+   public void clear(ConsistentHash ch, Set segments) {
+      if (!groupBySegments(ch)) {
+         final List<Object> keys = new ArrayList<Object>();
+         process(PersistenceUtil.segmentFilter(ch, segments, null), new CacheLoaderTask() {
+            @Override
+            public void processEntry(MarshalledEntry marshalledEntry, TaskContext taskContext) {
+               keys.add(marshalledEntry.getKey());
+            }
+         }, new WithinThreadExecutor(), false, false);
+         deleteBatch(keys);
+         return;
+      }
+
+      try {
+         semaphore.acquire();
+      } catch (InterruptedException e) {
+         throw new PersistenceException("Cannot acquire semaphore: CacheStore is likely stopped.", e);
+      }
+      try {
+         if (stopped) {
+            throw new PersistenceException("LevelDB is stopped");
+         }
+         for (Object segment : segments) {
+            byte[] prefix = segmentPrefix((Integer) segment);
+            WriteBatch batch = db.createWriteBatch();
+            WriteBatch segmentsBatch = segmentsDb.createWriteBatch();
+            DBIterator it = segmentsDb.iterator(new ReadOptions().fillCache(false));
+            try {
+               for (it.seek(prefix); it.hasNext(); ) {
+                  byte[] segmentKey = it.next().getKey();
+                  if (!hasPrefix(segmentKey, prefix))
+                     break;
+                  batch.delete(Arrays.copyOfRange(segmentKey, prefix.length, segmentKey.length));
+                  segmentsBatch.delete(segmentKey);
+               }
+               db.write(batch);
+               segmentsDb.write(segmentsBatch);
+            } finally {
+               try {
+                  it.close();
+                  batch.close();
+                  segmentsBatch.close();
+               } catch (IOException e) {
+                  log.warnUnableToCloseDbIterator(e);
+               }
+            }
+         }
+      } finally {
+         semaphore.release();
+      }
+   }
+
+   /**
+    * Groups the keys by the segments of the consistent hash, unless they are already grouped the same way.
+    *
+    * @return {@code false} if the segments of the consistent hash don't only depend on the keys
+    */
+   private boolean groupBySegments(ConsistentHash ch) {
+      ConsistentHash current = segmentsCh;
+      if (current != null && PersistenceUtil.sameSegments(current, ch))
+         return true;
+      if (!PersistenceUtil.hasStableSegments(ch))
+         return false;
+
+      // block the writes while going through the keys
+      try {
+         semaphore.acquire(Integer.MAX_VALUE);
+      } catch (InterruptedException e) {
+         throw new PersistenceException("Cannot acquire semaphore", e);
+      }
+      try {
+         if (stopped) {
+            throw new PersistenceException("LevelDB is stopped");
+         }
+         current = segmentsCh;
+         if (current != null && PersistenceUtil.sameSegments(current, ch))
+            return true;
+
+         try {
+            segmentsDb.close();
+         } catch (IOException e) {
+            log.warnUnableToCloseDb(e);
+         }
+         segmentsDb = reinitDatabase(getQualifiedSegmentsLocation(), segmentsDbOptions());
+         DBIterator it = db.iterator(new ReadOptions().fillCache(false));
+         try {
+            for (it.seekToFirst(); it.hasNext(); ) {
+               byte[] keyBytes = it.next().getKey();
+               segmentsDb.put(segmentKey(ch, unmarshall(keyBytes), keyBytes), EMPTY);
+            }
+         } finally {
+            try {
+               it.close();
+            } catch (IOException e) {
+               log.warnUnableToCloseDbIterator(e);
+            }
+         }
+         segmentsCh = ch;
+         return true;
+      } catch (PersistenceException e) {
+         throw e;
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      } finally {
+         semaphore.release(Integer.MAX_VALUE);
+      }
+   }
+
+   /**
+    * Must be invoked after the key was removed from the data database, with a permit of the semaphore.
+    */
+   private void removeFromSegments(Object key, byte[] keyBytes) {
+      ConsistentHash ch = segmentsCh;
+      if (ch != null) {
+         pruneFromSegments(segmentKey(ch, key, keyBytes), keyBytes);
+      }
+   }
+
+   private void pruneFromSegments(byte[] segmentKey, byte[] keyBytes) {
+      segmentsDb.delete(segmentKey);
+      // the key may have been written again before it was removed from its segment
+      if (db.get(keyBytes) != null) {
+         segmentsDb.put(segmentKey, EMPTY);
+      }
+   }
+
+   private static byte[] segmentKey(ConsistentHash ch, Object key, byte[] keyBytes) {
+      return ByteBuffer.allocate(4 + keyBytes.length).putInt(ch.getSegment(key)).put(keyBytes).array();
+   }
+
+   private static byte[] segmentPrefix(int segment) {
+      return ByteBuffer.allocate(4).putInt(segment).array();
+   }
+
+   private static boolean hasPrefix(byte[] bytes, byte[] prefix) {
+      if (bytes.length < prefix.length)
+         return false;
+      for (int i = 0; i < prefix.length; i++) {
+         if (bytes[i] != prefix[i])
+            return false;
+      }
+      return true;
+   }
+
    private byte[] marshall(Object entry) throws IOException, InterruptedException {
       return ctx.getMarshaller().objectToByteBuffer(entry);
    }
@@ -19,6 +19,7 @@
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.infinispan.persistence.file.MappedFileReader;
 import org.infinispan.util.logging.LogFactory;
 
 /**
@@ -32,6 +33,7 @@ class FileProvider {
 
    private final File dataDir;
    private final int openFileLimit;
+   private final boolean memoryMapped;
    private final ArrayBlockingQueue<Record> recordQueue;
    private final ConcurrentMap<Integer, Record> openFiles = new ConcurrentHashMap<Integer, Record>();
    private final AtomicInteger currentOpenFiles = new AtomicInteger(0);
@@ -40,8 +42,9 @@ class FileProvider {
 
    private int nextFileId = 0;
 
-   public FileProvider(String dataDir, int openFileLimit) {
+   public FileProvider(String dataDir, int openFileLimit, boolean memoryMapped) {
       this.openFileLimit = openFileLimit;
+      this.memoryMapped = memoryMapped;
       this.recordQueue = new ArrayBlockingQueue<Record>(openFileLimit);
       this.dataDir = new File(dataDir);
       this.dataDir.mkdirs();
@@ -288,7 +291,7 @@ private Handle(Record record) {
 
       public int read(ByteBuffer buffer, long offset) throws IOException {
          if (!usable) throw new IllegalStateException();
-         return record.getFileChannel().read(buffer, offset);
+         return record.read(buffer, offset);
       }
 
       @Override
@@ -311,16 +314,20 @@ public int getFileId() {
    private class Record {
       private final int fileId;
       private FileChannel fileChannel;
+      // data files are immutable once written, but the log file keeps growing while it is read
+      private final MappedFileReader mappedReader;
       private int handleCount;
       private boolean deleteOnClose = false;
 
       private Record(FileChannel fileChannel, int fileId) {
          this.fileChannel = fileChannel;
          this.fileId = fileId;
+         this.mappedReader = memoryMapped && fileChannel != null ?
+               new MappedFileReader(fileChannel, new File(dataDir, String.valueOf(fileId)).getPath()) : null;
       }
 
-      FileChannel getFileChannel() {
-         return fileChannel;
+      int read(ByteBuffer buffer, long offset) throws IOException {
+         return mappedReader != null ? mappedReader.read(buffer, offset) : fileChannel.read(buffer, offset);
       }
 
       void increaseHandleCount() {
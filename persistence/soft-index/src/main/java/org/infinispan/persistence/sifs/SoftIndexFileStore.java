@@ -1,14 +1,23 @@
 package org.infinispan.persistence.sifs;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicLong;
 
+import org.infinispan.commons.equivalence.AnyEquivalence;
 import org.infinispan.commons.equivalence.Equivalence;
 import org.infinispan.commons.io.ByteBuffer;
 import org.infinispan.commons.io.ByteBufferFactory;
 import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.executors.ExecutorAllCompletionService;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryFactory;
@@ -16,9 +25,10 @@
 import org.infinispan.persistence.PersistenceUtil;
 import org.infinispan.persistence.TaskContextImpl;
 import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration;
-import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.persistence.spi.BatchCacheWriter;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.persistence.spi.SegmentedAdvancedLoadWriteStore;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
@@ -95,9 +105,12 @@
  * Reader threads crawl the tree from top down, locking the parent node (for reading),
  * locking child node and unlocking parent node.
  *
+ * The first time the entries of some segments of the cache are requested, e.g. by state transfer,
+ * the keys are also grouped by these segments in memory (KeysBySegment), next to the Index.
+ *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
-public class SoftIndexFileStore implements AdvancedLoadWriteStore {
+public class SoftIndexFileStore implements SegmentedAdvancedLoadWriteStore, BatchCacheWriter {
 
    private static final Log log = LogFactory.getLog(SoftIndexFileStore.class);
    private static final boolean trace = log.isTraceEnabled();
@@ -116,6 +129,8 @@ public class SoftIndexFileStore implements AdvancedLoadWriteStore {
    private TimeService timeService;
    private Equivalence<Object> keyEquivalence;
    private int maxKeyLength;
+   private volatile KeysBySegment keysBySegment;
+   private final Object keysBySegmentLock = new Object();
 
    @Override
    public void init(InitializationContext ctx) {
@@ -134,7 +149,8 @@ public void start() {
       temporaryTable = new TemporaryTable(configuration.indexQueueLength() * configuration.indexSegments(), keyEquivalence);
       storeQueue = new SyncProcessingQueue<LogRequest>();
       indexQueue = new IndexQueue(configuration.indexSegments(), configuration.indexQueueLength(), keyEquivalence);
-      fileProvider = new FileProvider(configuration.dataLocation(), configuration.openFilesLimit());
+      fileProvider = new FileProvider(configuration.dataLocation(), configuration.openFilesLimit(),
+            configuration.memoryMapped());
       compactor = new Compactor(fileProvider, temporaryTable, indexQueue, marshaller, timeService, configuration.maxFileSize(), configuration.compactionThreshold());
       logAppender = new LogAppender(storeQueue, indexQueue, temporaryTable, compactor, fileProvider, configuration.syncWrites(), configuration.maxFileSize());
       try {
@@ -210,6 +226,7 @@ public void stop() {
          temporaryTable = null;
          indexQueue = null;
          storeQueue = null;
+         keysBySegment = null;
       } catch (InterruptedException e) {
          throw new PersistenceException("Cannot stop cache store", e);
       }
@@ -223,6 +240,7 @@ public synchronized void clear() throws PersistenceException {
       } catch (InterruptedException e) {
          throw new PersistenceException("Cannot pause cache store to clear it.", e);
       }
+      keysBySegment = null;
       try {
          index.clear();
       } catch (IOException e) {
@@ -260,6 +278,39 @@ public void purge(Executor threadPool, PurgeListener listener) {
 
    @Override
    public void write(MarshalledEntry entry) {
+      checkKeyLength(entry);
+      try {
+         storeQueue.pushAndWait(LogRequest.storeRequest(entry));
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      }
+      addToSegments(entry.getKey());
+   }
+
+   /**
+    * Hands all the entries to the log appender at once, so that they are flushed to disk together when
+    * {@code syncWrites} is enabled.
+    */
+   @Override
+   public void writeBatch(Iterable entries) {
+      try {
+         List<LogRequest> requests = new ArrayList<LogRequest>();
+         for (Object entry : entries) {
+            checkKeyLength((MarshalledEntry) entry);
+            requests.add(LogRequest.storeRequest((MarshalledEntry) entry));
+         }
+         storeQueue.pushAllAndWait(requests);
+      } catch (PersistenceException e) {
+         throw e;
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      }
+      for (Object entry : entries) {
+         addToSegments(((MarshalledEntry) entry).getKey());
+      }
+   }
+
+   private void checkKeyLength(MarshalledEntry entry) {
       int keyLength = entry.getKeyBytes().getLength();
       if (keyLength > maxKeyLength) {
          throw new PersistenceException("Configuration 'maxNodeSize' is too low - with maxNodeSize="
@@ -269,11 +320,6 @@ public void write(MarshalledEntry entry) {
          // TODO this limitation could be removed by different key length encoding
          throw new PersistenceException("SoftIndexFileStore is limited to keys with serialized size <= 32767 bytes");
       }
-      try {
-         storeQueue.pushAndWait(LogRequest.storeRequest(entry));
-      } catch (Exception e) {
-         throw new PersistenceException(e);
-      }
    }
 
    @Override
@@ -281,12 +327,29 @@ public boolean delete(Object key) {
       try {
          LogRequest request = LogRequest.deleteRequest(key, toBuffer(marshaller.objectToByteBuffer(key)));
          storeQueue.pushAndWait(request);
+         removeFromSegments(key);
          return (Boolean) request.getIndexRequest().getResult();
       } catch (Exception e) {
          throw new PersistenceException(e);
       }
    }
 
+   @Override
+   public void deleteBatch(Iterable keys) {
+      try {
+         List<LogRequest> requests = new ArrayList<LogRequest>();
+         for (Object key : keys) {
+            requests.add(LogRequest.deleteRequest(key, toBuffer(marshaller.objectToByteBuffer(key))));
+         }
+         storeQueue.pushAllAndWait(requests);
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      }
+      for (Object key : keys) {
+         removeFromSegments(key);
+      }
+   }
+
    @Override
    public boolean contains(Object key) {
       try {
@@ -540,4 +603,168 @@ public void afterFile(int file) {
          }
       }
    }
+
+   /**
+    * Only goes through the keys of the requested segments, unless the consistent hash doesn't map keys to segments
+    * only by their hash.
+    */
+   @Override
+   public void process(ConsistentHash ch, Set segments, KeyFilter filter, final CacheLoaderTask task, Executor executor,
+                       final boolean fetchValue, final boolean fetchMetadata) {
+      KeysBySegment keys = getKeysBySegment(ch);
+      if (keys == null) {
+         process(PersistenceUtil.segmentFilter(ch, segments, filter), task, executor, fetchValue, fetchMetadata);
+         return;
+      }
+      final TaskContext context = new TaskContextImpl();
+      KeyFilter notNullFilter = PersistenceUtil.notNull(filter);
+      ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(executor);
+      for (Object segment : segments) {
+         for (Object key : keys.getKeys((Integer) segment)) {
+            if (context.isStopped()) {
+               break;
+            }
+            if (!notNullFilter.accept(key)) {
+               continue;
+            }
+            final MarshalledEntry entry = load(key);
+            if (entry == null) {
+               // removed or expired
+               removeFromSegments(key);
+               continue;
+            }
+            eacs.submit(new Callable<Void>() {
+               @Override
+               public Void call() throws Exception {
+                  task.processEntry(marshalledEntryFactory.newMarshalledEntry(entry.getKey(),
+                        fetchValue ? entry.getValue() : null, fetchMetadata ? entry.getMetadata() : null), context);
+                  return null;
+               }
+            });
+         }
+      }
+      eacs.waitUntilAllCompleted();
+      if (eacs.isExceptionThrown()) {
+         throw new PersistenceException("Execution exception!", eacs.getFirstException());
+      }
+   }
+
+   @Override
+   public void clear(ConsistentHash ch, Set segments) {
+      final Set<Object> keysToRemove = CollectionFactory.makeSet(keyEquivalence);
+      KeysBySegment keys = getKeysBySegment(ch);
+      if (keys == null) {
+         forEachOnDisk(false, false, new EntryFunctor() {
+            @Override
+            public boolean apply(int file, int offset, int size, byte[] serializedKey, byte[] serializedMetadata, byte[] serializedValue, long seqId, long expiration) throws Exception {
+               if (offset >= 0) {
+                  keysToRemove.add(marshaller.objectFromByteBuffer(serializedKey));
+               }
+               return true;
+            }
+         }, new FileFunctor() {
+            @Override
+            public void afterFile(int file) {
+               // noop
+            }
+         });
+         KeyFilter segmentFilter = PersistenceUtil.segmentFilter(ch, segments, null);
+         for (Iterator<Object> it = keysToRemove.iterator(); it.hasNext(); ) {
+            Object key = it.next();
+            if (!segmentFilter.accept(key) || !contains(key)) {
+               it.remove();
+            }
+         }
+      } else {
+         for (Object segment : segments) {
+            keysToRemove.addAll(keys.getKeys((Integer) segment));
+         }
+      }
+      deleteBatch(keysToRemove);
+   }
+
+   /**
+    * @return the keys grouped by the segments of the consistent hash, or {@code null} if it doesn't map the keys to
+    * segments only by their hash
+    */
+   private KeysBySegment getKeysBySegment(ConsistentHash ch) {
+      KeysBySegment keys = keysBySegment;
+      if (keys != null && PersistenceUtil.sameSegments(keys.ch, ch))
+         return keys;
+      if (!PersistenceUtil.hasStableSegments(ch))
+         return null;
+
+      synchronized (keysBySegmentLock) {
+         keys = keysBySegment;
+         if (keys != null && PersistenceUtil.sameSegments(keys.ch, ch))
+            return keys;
+         // publish the keys before reading them from disk, so that the keys written meanwhile are added
+         final KeysBySegment newKeys = new KeysBySegment(ch, keyEquivalence);
+         keysBySegment = newKeys;
+         // the older records of the keys are read as well, the keys that don't exist anymore are removed when found
+         forEachOnDisk(false, false, new EntryFunctor() {
+            @Override
+            public boolean apply(int file, int offset, int size, byte[] serializedKey, byte[] serializedMetadata, byte[] serializedValue, long seqId, long expiration) throws Exception {
+               if (offset >= 0) {
+                  newKeys.add(marshaller.objectFromByteBuffer(serializedKey));
+               }
+               return true;
+            }
+         }, new FileFunctor() {
+            @Override
+            public void afterFile(int file) {
+               // noop
+            }
+         });
+         return newKeys;
+      }
+   }
+
+   private void addToSegments(Object key) {
+      KeysBySegment keys = keysBySegment;
+      if (keys != null) {
+         keys.add(key);
+      }
+   }
+
+   private void removeFromSegments(Object key) {
+      KeysBySegment keys = keysBySegment;
+      if (keys != null) {
+         keys.remove(key);
+         // the key may have been written again before it was removed
+         if (contains(key)) {
+            keys.add(key);
+         }
+      }
+   }
+
+   /**
+    * The keys of the store grouped by the segments of a consistent hash. May contain keys that were removed or
+    * expired, they are removed when their segment is processed.
+    */
+   private static final class KeysBySegment {
+      private final ConsistentHash ch;
+      private final ConcurrentMap<Object, Boolean>[] keys;
+
+      @SuppressWarnings("unchecked")
+      KeysBySegment(ConsistentHash ch, Equivalence<Object> keyEquivalence) {
+         this.ch = ch;
+         keys = new ConcurrentMap[ch.getNumSegments()];
+         for (int i = 0; i < keys.length; i++) {
+            keys[i] = CollectionFactory.makeConcurrentMap(keyEquivalence, AnyEquivalence.<Boolean>getInstance());
+         }
+      }
+
+      void add(Object key) {
+         keys[ch.getSegment(key)].put(key, Boolean.TRUE);
+      }
+
+      void remove(Object key) {
+         keys[ch.getSegment(key)].remove(key);
+      }
+
+      Set<Object> getKeys(int segment) {
+         return keys[segment].keySet();
+      }
+   }
 }
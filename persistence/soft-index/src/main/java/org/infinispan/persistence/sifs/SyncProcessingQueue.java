@@ -1,6 +1,7 @@
 package org.infinispan.persistence.sifs;
 
 import java.util.ArrayDeque;
+import java.util.Collection;
 
 /**
  * Multiple producer-single consumer queue. The producers are expected to call pushAndWait(),
@@ -55,6 +56,22 @@ public long push(T element) {
       }
    }
 
+   /**
+    * Pushes all the elements at once and waits until the consumer has processed all of them.
+    */
+   public void pushAllAndWait(Collection<? extends T> elements) throws InterruptedException {
+      long lastIndex;
+      synchronized (queue) {
+         for (T element : elements) {
+            queue.push(element);
+         }
+         queue.notify();
+         pushIndex += elements.size();
+         lastIndex = pushIndex;
+      }
+      waitFor(lastIndex);
+   }
+
    protected void waitFor(long myIndex) throws InterruptedException {
       synchronized (sync) {
          while (myIndex > popIndex) {
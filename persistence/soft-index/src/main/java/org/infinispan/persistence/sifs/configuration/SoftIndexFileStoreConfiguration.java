@@ -25,6 +25,7 @@ public class SoftIndexFileStoreConfiguration extends AbstractStoreConfiguration
    private final boolean syncWrites;
    private final int openFilesLimit;
    private final double compactionThreshold;
+   private final boolean memoryMapped;
 
 
    public SoftIndexFileStoreConfiguration(boolean purgeOnStartup, boolean fetchPersistentState,
@@ -33,7 +34,8 @@ public SoftIndexFileStoreConfiguration(boolean purgeOnStartup, boolean fetchPers
                                           Properties properties,
                                           String dataLocation, String indexLocation, int indexSegments,
                                           int maxFileSize, int minNodeSize, int maxNodeSize, int indexQueueLength,
-                                          boolean syncWrites, int openFilesLimit, double compactionThreshold) {
+                                          boolean syncWrites, int openFilesLimit, double compactionThreshold,
+                                          boolean memoryMapped) {
       super(purgeOnStartup, fetchPersistentState, ignoreModifications, async, singletonStore, preload, shared, properties);
       this.dataLocation = dataLocation;
       this.indexLocation = indexLocation;
@@ -45,6 +47,7 @@ public SoftIndexFileStoreConfiguration(boolean purgeOnStartup, boolean fetchPers
       this.syncWrites = syncWrites;
       this.openFilesLimit = openFilesLimit;
       this.compactionThreshold = compactionThreshold;
+      this.memoryMapped = memoryMapped;
    }
 
    public String dataLocation() {
@@ -87,6 +90,10 @@ public double compactionThreshold() {
       return compactionThreshold;
    }
 
+   public boolean memoryMapped() {
+      return memoryMapped;
+   }
+
 
 
 }
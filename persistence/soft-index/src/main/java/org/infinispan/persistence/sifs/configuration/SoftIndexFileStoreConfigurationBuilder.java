@@ -19,6 +19,7 @@ public class SoftIndexFileStoreConfigurationBuilder extends AbstractStoreConfigu
    private boolean syncWrites = false;
    private int openFilesLimit = 1000;
    private double compactionThreshold = 0.5;
+   private boolean memoryMapped = false;
 
    public SoftIndexFileStoreConfigurationBuilder(PersistenceConfigurationBuilder builder) {
       super(builder);
@@ -74,6 +75,15 @@ public SoftIndexFileStoreConfigurationBuilder compactionThreshold(double compact
       return this;
    }
 
+   /**
+    * If true, the entries are read through read-only memory mappings of the data files instead of through the file
+    * channels. Defaults to false.
+    */
+   public SoftIndexFileStoreConfigurationBuilder memoryMapped(boolean memoryMapped) {
+      this.memoryMapped = memoryMapped;
+      return this;
+   }
+
    @Override
    public SoftIndexFileStoreConfiguration create() {
       return new SoftIndexFileStoreConfiguration(
@@ -81,7 +91,7 @@ public SoftIndexFileStoreConfiguration create() {
             async.create(), singletonStore.create(), preload, shared, properties,
             dataLocation, indexLocation, indexSegments,
             maxFileSize, minNodeSize < 0 ? maxNodeSize/3 : minNodeSize, maxNodeSize,
-            indexQueueLength, syncWrites, openFilesLimit, compactionThreshold);
+            indexQueueLength, syncWrites, openFilesLimit, compactionThreshold, memoryMapped);
    }
 
    @Override
@@ -96,6 +106,7 @@ public Builder<?> read(SoftIndexFileStoreConfiguration template) {
       syncWrites = template.syncWrites();
       openFilesLimit = template.openFilesLimit();
       compactionThreshold = template.compactionThreshold();
+      memoryMapped = template.memoryMapped();
 
       // AbstractStore-specific configuration
       fetchPersistentState = template.fetchPersistentState();
@@ -0,0 +1,32 @@
+package org.infinispan.persistence.sifs;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfigurationBuilder;
+import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the soft-index file store tests with the data files read through memory mappings.
+ *
+ * @since 7.1
+ */
+@Test(groups = "unit", testName = "persistence.MemoryMappedSoftIndexFileStoreTest")
+public class MemoryMappedSoftIndexFileStoreTest extends SoftIndexFileStoreTest {
+
+   @Override
+   protected AdvancedLoadWriteStore createStore() throws Exception {
+      clearTempDir();
+      store = new SoftIndexFileStore();
+      ConfigurationBuilder builder = TestCacheManagerFactory
+            .getDefaultCacheConfiguration(false);
+      builder.persistence()
+               .addStore(SoftIndexFileStoreConfigurationBuilder.class)
+                  .indexLocation(tmpDirectory).dataLocation(tmpDirectory + "/data")
+                  .memoryMapped(true);
+
+      store.init(createContext(builder.build()));
+      store.start();
+      return store;
+   }
+}
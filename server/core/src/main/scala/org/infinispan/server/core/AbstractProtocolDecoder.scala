@@ -43,6 +43,10 @@ abstract class AbstractProtocolDecoder[K, V](secure: Boolean, transport: NettyTr
    type SuitableHeader <: RequestHeader
 
    private val isTrace = isTraceEnabled
+   private val operationExecutor = transport.operationExecutor
+   // Whether the operation of the last request is in flight on the operation executor, in which case the following
+   // requests are left in the cumulation buffer until it completes
+   private var executing = false
 
    protected var header: SuitableHeader = null.asInstanceOf[SuitableHeader]
    protected var params: SuitableParameters = null.asInstanceOf[SuitableParameters]
@@ -55,7 +59,10 @@ abstract class AbstractProtocolDecoder[K, V](secure: Boolean, transport: NettyTr
    var subject: Subject = ANONYMOUS
 
    def decode(ctx: ChannelHandlerContext, in: ByteBuf, out: util.List[AnyRef]): Unit = {
-      if (secure) {
+      if (executing) {
+         // Reading past the received bytes rewinds the decoder to its last checkpoint, the start of the next request
+         in.skipBytes(in.readableBytes)
+      } else if (secure) {
          secureDecodeDispatch(ctx, in, out)
       } else {
          decodeDispatch(ctx, in, out)
@@ -165,7 +172,7 @@ abstract class AbstractProtocolDecoder[K, V](secure: Boolean, transport: NettyTr
       key = k
       if (endOfOp) {
          // If it's the end of the operation, it can only be a remove
-         writeResponse(ch, remove)
+         writeResponse(ch, CacheOperation(remove))
       } else {
          checkpointTo(DECODE_PARAMETERS)
       }
@@ -192,19 +199,75 @@ abstract class AbstractProtocolDecoder[K, V](secure: Boolean, transport: NettyTr
          case PutRequest | PutIfAbsentRequest | ReplaceRequest | ReplaceIfUnmodifiedRequest  => {
             readValue(buffer)
             header.op match {
-               case PutRequest => put
-               case PutIfAbsentRequest => putIfAbsent
-               case ReplaceRequest => replace
-               case ReplaceIfUnmodifiedRequest => replaceIfUnmodified
+               case PutRequest => CacheOperation(put)
+               case PutIfAbsentRequest => CacheOperation(putIfAbsent)
+               case ReplaceRequest => CacheOperation(replace)
+               case ReplaceIfUnmodifiedRequest => CacheOperation(replaceIfUnmodified)
             }
          }
-         case RemoveRequest => remove
+         case RemoveRequest => CacheOperation(remove)
          case _ => customDecodeValue(ctx, buffer)
       }
       writeResponse(ch, ret)
    }
 
+   /**
+    * Writes the response of a request. A {@link CacheOperation} is invoked first, by the operation executor if there's
+    * one: the channel then stops reading and decoding requests until the operation completes, so that the responses
+    * are written in the order of the requests.
+    */
    protected def writeResponse(ch: Channel, response: AnyRef): AnyRef = {
+      response match {
+         case op: CacheOperation if operationExecutor != null => execute(ch, op)
+         case op: CacheOperation => write(ch, op.invoke())
+         case _ => write(ch, response)
+      }
+   }
+
+   private def execute(ch: Channel, op: CacheOperation): AnyRef = {
+      val ctx = ch.pipeline.context(this)
+      val subject = this.subject
+      executing = true
+      ch.config.setAutoRead(false)
+      // The decoder state is only reset once the response is written, as the operation reads the request fields
+      operationExecutor.execute(new Runnable {
+         override def run(): Unit = {
+            var response: AnyRef = null
+            var error: Throwable = null
+            try {
+               response =
+                  if (secure) {
+                     Security.doAs(subject, new PrivilegedAction[AnyRef] {
+                        def run: AnyRef = op.invoke()
+                     })
+                  } else {
+                     op.invoke()
+                  }
+            } catch {
+               case t: Throwable => error = t
+            }
+            ch.eventLoop.execute(new Runnable {
+               override def run(): Unit = completeOperation(ctx, response, error)
+            })
+         }
+      })
+      null
+   }
+
+   private def completeOperation(ctx: ChannelHandlerContext, response: AnyRef, error: Throwable): Unit = {
+      executing = false
+      error match {
+         case null => write(ctx.channel, response)
+         case e: Exception => ctx.pipeline.fireExceptionCaught(createServerException(e, internalBuffer)._1)
+         case t => ctx.pipeline.fireExceptionCaught(t)
+      }
+      ctx.channel.config.setAutoRead(true)
+      // Decode the requests received while the operation was in flight
+      if (internalBuffer.isReadable)
+         channelRead(ctx, Unpooled.EMPTY_BUFFER)
+   }
+
+   private def write(ch: Channel, response: AnyRef): AnyRef = {
       try {
          if (response != null) {
             if (isTrace) trace("Write response %s", response)
@@ -314,8 +377,10 @@ abstract class AbstractProtocolDecoder[K, V](secure: Boolean, transport: NettyTr
          createNotExistResponse
    }
 
-   protected def get(buffer: ByteBuf): AnyRef =
-      createGetResponse(key, cache.getCacheEntry(readKey(buffer)._1))
+   protected def get(buffer: ByteBuf): AnyRef = {
+      val k = readKey(buffer)._1
+      CacheOperation(createGetResponse(key, cache.getCacheEntry(k)))
+   }
 
    override def exceptionCaught(ctx: ChannelHandlerContext, cause: Throwable) {
       val ch = ctx.channel
@@ -332,8 +397,10 @@ abstract class AbstractProtocolDecoder[K, V](secure: Boolean, transport: NettyTr
             }
          }
       }
-      // After writing back an error, reset params and revert to initial state
-      resetParams
+      // After writing back an error, reset params and revert to initial state, unless
+      // the operation in flight still needs them, it resets them once it completes
+      if (!executing)
+         resetParams
    }
 
    override def channelActive(ctx: ChannelHandlerContext) {
@@ -489,3 +556,17 @@ class RequestParameters(val valueLength: Int, val lifespan: Int, val maxIdle: In
 class UnknownOperationException(reason: String) extends StreamCorruptedException(reason)
 
 class PartialResponse(val buffer: Option[ByteBuf])
+
+/**
+ * The cache invocation of a completely read request, which produces its response. The decoders return it instead of
+ * invoking the cache, so that {@link AbstractProtocolDecoder#writeResponse} can invoke it on the operation executor.
+ *
+ * @since 7.1
+ */
+class CacheOperation(invocation: => AnyRef) {
+   def invoke(): AnyRef = invocation
+}
+
+object CacheOperation {
+   def apply(invocation: => AnyRef): CacheOperation = new CacheOperation(invocation)
+}
@@ -17,8 +17,9 @@ public abstract class ProtocolServerConfiguration {
    private final SslConfiguration ssl;
    private final boolean tcpNoDelay;
    private final int workerThreads;
+   private final int operationThreads;
 
-   protected ProtocolServerConfiguration(String defaultCacheName, String name, String host, int port, int idleTimeout, int recvBufSize, int sendBufSize, SslConfiguration ssl, boolean tcpNoDelay, int workerThreads) {
+   protected ProtocolServerConfiguration(String defaultCacheName, String name, String host, int port, int idleTimeout, int recvBufSize, int sendBufSize, SslConfiguration ssl, boolean tcpNoDelay, int workerThreads, int operationThreads) {
       this.defaultCacheName = defaultCacheName;
       this.name = name;
       this.host = host;
@@ -29,6 +30,7 @@ protected ProtocolServerConfiguration(String defaultCacheName, String name, Stri
       this.ssl = ssl;
       this.tcpNoDelay = tcpNoDelay;
       this.workerThreads = workerThreads;
+      this.operationThreads = operationThreads;
    }
 
    public String defaultCacheName() {
@@ -71,10 +73,14 @@ public int workerThreads() {
       return workerThreads;
    }
 
+   public int operationThreads() {
+      return operationThreads;
+   }
+
    @Override
    public String toString() {
       return "ProtocolServerConfiguration [defaultCacheName=" + defaultCacheName +", name=" + name + ", host=" + host + ", port=" + port + ", idleTimeout=" + idleTimeout + ", recvBufSize=" + recvBufSize + ", sendBufSize="
-            + sendBufSize + ", ssl=" + ssl + ", tcpNoDelay=" + tcpNoDelay + ", workerThreads=" + workerThreads + "]";
+            + sendBufSize + ", ssl=" + ssl + ", tcpNoDelay=" + tcpNoDelay + ", workerThreads=" + workerThreads + ", operationThreads=" + operationThreads + "]";
    }
 
 }
@@ -18,6 +18,7 @@
    protected final SslConfigurationBuilder ssl;
    protected boolean tcpNoDelay = true;
    protected int workerThreads = 2 * Runtime.getRuntime().availableProcessors();
+   protected int operationThreads = 0;
 
    protected ProtocolServerConfigurationBuilder(int port) {
       this.port = port;
@@ -83,6 +84,12 @@ public S workerThreads(int workerThreads) {
       return this.self();
    }
 
+   @Override
+   public S operationThreads(int operationThreads) {
+      this.operationThreads = operationThreads;
+      return this.self();
+   }
+
    @Override
    public void validate() {
       ssl.validate();
@@ -98,6 +105,9 @@ public void validate() {
       if (workerThreads < 0) {
          throw log.illegalWorkerThreads(workerThreads);
       }
+      if (operationThreads < 0) {
+         throw log.illegalOperationThreads(operationThreads);
+      }
    }
 
    @Override
@@ -111,6 +121,7 @@ public Builder<?> read(T template) {
       this.sendBufSize = template.sendBufSize();
       this.tcpNoDelay = template.tcpNoDelay();
       this.workerThreads = template.workerThreads();
+      this.operationThreads = template.operationThreads();
       this.ssl.read(template.ssl());
       return this;
    }
@@ -58,6 +58,13 @@
     */
    S workerThreads(int workerThreads);
 
+   /**
+    * Sets the number of threads invoking the cache operations of the requests, so that the worker threads only decode
+    * the requests and encode the responses. Each connection has at most one operation in flight, and stops reading
+    * requests until it completes. Defaults to 0, which invokes the cache operations on the worker threads.
+    */
+   S operationThreads(int operationThreads);
+
    /**
     * Builds a configuration object
     */
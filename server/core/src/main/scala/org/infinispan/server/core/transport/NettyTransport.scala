@@ -13,7 +13,7 @@ import org.infinispan.Cache
 import java.util
 import org.infinispan.jmx.JmxUtil
 import javax.management.ObjectName
-import java.util.concurrent.{ThreadFactory, TimeUnit}
+import java.util.concurrent.{ExecutorService, Executors, ThreadFactory, TimeUnit}
 import org.infinispan.server.core.configuration.ProtocolServerConfiguration
 import io.netty.util.concurrent.{DefaultThreadFactory, ImmediateEventExecutor}
 import io.netty.util.internal.logging.{Log4JLoggerFactory, InternalLoggerFactory}
@@ -39,6 +39,17 @@ class NettyTransport(server: ProtocolServer, handler: ChannelInitializer[Channel
    private val masterGroup = new NioEventLoopGroup(1, new DefaultThreadFactory(threadNamePrefix + "ServerMaster"))
    private val workerGroup = new NioEventLoopGroup(configuration.workerThreads, new DefaultThreadFactory(threadNamePrefix + "ServerWorker"))
 
+   /**
+    * The executor invoking the cache operations of the requests decoded by the worker threads, or null if the cache
+    * operations are invoked by the worker threads themselves. Its queue holds at most one operation per connection, as a
+    * connection stops reading requests while its operation is in flight.
+    */
+   private[core] val operationExecutor: ExecutorService =
+      if (configuration.operationThreads > 0)
+         Executors.newFixedThreadPool(configuration.operationThreads, new DefaultThreadFactory(threadNamePrefix + "ServerHandler"))
+      else
+         null
+
    private val totalBytesWritten, totalBytesRead = new AtomicLong
    private val isGlobalStatsEnabled =
       cacheManager.getCacheManagerConfiguration.globalJmxStatistics().enabled()
@@ -97,6 +108,8 @@ class NettyTransport(server: ProtocolServer, handler: ChannelInitializer[Channel
       }
       if (isDebugEnabled)
          debug("Channel group completely closed, release external resources")
+      if (operationExecutor != null)
+         operationExecutor.shutdown()
       masterGroup.shutdownGracefully()
       workerGroup.shutdownGracefully()
    }
@@ -111,6 +124,8 @@ class NettyTransport(server: ProtocolServer, handler: ChannelInitializer[Channel
 
    override def getNumberWorkerThreads = configuration.workerThreads.toString
 
+   override def getNumberOperationThreads = configuration.operationThreads.toString
+
    override def getIdleTimeout = configuration.idleTimeout.toString
 
    override def getTcpNoDelay = configuration.tcpNoDelay.toString
@@ -63,6 +63,14 @@ public interface Transport {
    )
    String getNumberWorkerThreads();
 
+   @ManagedAttribute(
+         description = "Returns the number of threads invoking the cache operations, 0 if the worker threads invoke them.",
+         displayName = "Number of operation threads",
+         dataType = DataType.TRAIT,
+         displayType = DisplayType.SUMMARY
+   )
+   String getNumberOperationThreads();
+
    @ManagedAttribute(
          description = "Returns the idle timeout.",
          displayName = "Idle timeout",
@@ -161,9 +161,11 @@ object Decoder10 extends AbstractVersionedDecoder with ServerConstants with Log
       h.op match {
          case ClearRequest => {
             // Get an optimised cache in case we can make the operation more efficient
-            cache.clear()
-            new Response(h.version, h.messageId, h.cacheName, h.clientIntel,
-                         ClearResponse, Success, h.topologyId)
+            CacheOperation {
+               cache.clear()
+               new Response(h.version, h.messageId, h.cacheName, h.clientIntel,
+                            ClearResponse, Success, h.topologyId)
+            }
          }
          case PingRequest => new Response(h.version, h.messageId, h.cacheName,
                   h.clientIntel, PingResponse, Success, h.topologyId)
@@ -175,32 +177,36 @@ object Decoder10 extends AbstractVersionedDecoder with ServerConstants with Log
          case RemoveIfUnmodifiedRequest => {
             val k = readKey(buffer)
             val params = readParameters(h, buffer)._1
-            val entry = cache.getCacheEntry(k)
-            if (entry != null) {
-               // Hacky, but CacheEntry has not been generified
-               val prev = entry.getValue.asInstanceOf[Array[Byte]]
-               val streamVersion = new NumericVersion(params.streamVersion)
-               if (entry.getMetadata.version() == streamVersion) {
-                  val removed = cache.remove(k, prev)
-                  if (removed)
-                     createResponse(h, RemoveIfUnmodifiedResponse, Success, prev)
-                  else
+            CacheOperation {
+               val entry = cache.getCacheEntry(k)
+               if (entry != null) {
+                  // Hacky, but CacheEntry has not been generified
+                  val prev = entry.getValue.asInstanceOf[Array[Byte]]
+                  val streamVersion = new NumericVersion(params.streamVersion)
+                  if (entry.getMetadata.version() == streamVersion) {
+                     val removed = cache.remove(k, prev)
+                     if (removed)
+                        createResponse(h, RemoveIfUnmodifiedResponse, Success, prev)
+                     else
+                        createResponse(h, RemoveIfUnmodifiedResponse, OperationNotExecuted, prev)
+                  } else {
                      createResponse(h, RemoveIfUnmodifiedResponse, OperationNotExecuted, prev)
+                  }
                } else {
-                  createResponse(h, RemoveIfUnmodifiedResponse, OperationNotExecuted, prev)
+                  createResponse(h, RemoveIfUnmodifiedResponse, KeyDoesNotExist, null)
                }
-            } else {
-               createResponse(h, RemoveIfUnmodifiedResponse, KeyDoesNotExist, null)
             }
          }
          case ContainsKeyRequest => {
             val k = readKey(buffer)
-            if (cache.containsKey(k))
-               new Response(h.version, h.messageId, h.cacheName, h.clientIntel,
-                            ContainsKeyResponse, Success, h.topologyId)
-            else
-               new Response(h.version, h.messageId, h.cacheName, h.clientIntel,
-                            ContainsKeyResponse, KeyDoesNotExist, h.topologyId)
+            CacheOperation {
+               if (cache.containsKey(k))
+                  new Response(h.version, h.messageId, h.cacheName, h.clientIntel,
+                               ContainsKeyResponse, Success, h.topologyId)
+               else
+                  new Response(h.version, h.messageId, h.cacheName, h.clientIntel,
+                               ContainsKeyResponse, KeyDoesNotExist, h.topologyId)
+            }
          }
          case BulkGetRequest => {
             val count = readUnsignedInt(buffer)
@@ -216,13 +222,15 @@ object Decoder10 extends AbstractVersionedDecoder with ServerConstants with Log
          }
          case GetWithMetadataRequest => {
             val k = readKey(buffer)
-            getKeyMetadata(h, k, cache)
+            CacheOperation(getKeyMetadata(h, k, cache))
          }
          case QueryRequest => {
             val query = readRangedBytes(buffer)
-            val result = server.getQueryFacades.head.query(cache, query)
-            new QueryResponse(h.version, h.messageId, h.cacheName, h.clientIntel,
-               h.topologyId, result)
+            CacheOperation {
+               val result = server.getQueryFacades.head.query(cache, query)
+               new QueryResponse(h.version, h.messageId, h.cacheName, h.clientIntel,
+                  h.topologyId, result)
+            }
          }
       }
    }
@@ -35,6 +35,7 @@ import org.infinispan.server.core.security.InetAddressPrincipal
 import java.net.InetSocketAddress
 import org.infinispan.server.core.security.simple.SimpleUserPrincipal
 import java.util.HashMap
+import java.util.HashSet
 import scala.collection.immutable
 import scala.collection.mutable
 import scala.collection.mutable.ListBuffer
@@ -78,6 +79,8 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
          case 0x25 => (AddClientListenerRequest, false)
          case 0x27 => (RemoveClientListenerRequest, false)
          case 0x29 => (SizeRequest, true)
+         case 0x2D => (PutAllRequest, false)
+         case 0x2F => (GetAllRequest, false)
          case _ => throw new HotRodUnknownOperationException(
             "Unknown operation: " + streamOp, version, messageId)
       }
@@ -203,9 +206,11 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
       h.op match {
          case ClearRequest => {
             // Get an optimised cache in case we can make the operation more efficient
-            cache.clear()
-            new Response(h.version, h.messageId, h.cacheName, h.clientIntel,
-               ClearResponse, Success, h.topologyId)
+            CacheOperation {
+               cache.clear()
+               new Response(h.version, h.messageId, h.cacheName, h.clientIntel,
+                  ClearResponse, Success, h.topologyId)
+            }
          }
          case PingRequest => new Response(h.version, h.messageId, h.cacheName,
             h.clientIntel, PingResponse, Success, h.topologyId)
@@ -271,9 +276,11 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
             }
          }
          case SizeRequest =>
-            val size = cache.size()
-            new SizeResponse(h.version, h.messageId, h.cacheName, h.clientIntel,
-               h.topologyId, size)
+            CacheOperation {
+               val size = cache.size()
+               new SizeResponse(h.version, h.messageId, h.cacheName, h.clientIntel,
+                  h.topologyId, size)
+            }
       }
    }
 
@@ -282,32 +289,36 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
          case RemoveIfUnmodifiedRequest => {
             val k = readKey(buffer)
             val params = readParameters(h, buffer)._1
-            val entry = cache.getCacheEntry(k)
-            if (entry != null) {
-               // Hacky, but CacheEntry has not been generified
-               val prev = entry.getValue
-               val streamVersion = new NumericVersion(params.streamVersion)
-               if (entry.getMetadata.version() == streamVersion) {
-                  val removed = cache.remove(k, prev)
-                  if (removed)
-                     createResponse(h, RemoveIfUnmodifiedResponse, Success, prev)
-                  else
+            CacheOperation {
+               val entry = cache.getCacheEntry(k)
+               if (entry != null) {
+                  // Hacky, but CacheEntry has not been generified
+                  val prev = entry.getValue
+                  val streamVersion = new NumericVersion(params.streamVersion)
+                  if (entry.getMetadata.version() == streamVersion) {
+                     val removed = cache.remove(k, prev)
+                     if (removed)
+                        createResponse(h, RemoveIfUnmodifiedResponse, Success, prev)
+                     else
+                        createResponse(h, RemoveIfUnmodifiedResponse, OperationNotExecuted, prev)
+                  } else {
                      createResponse(h, RemoveIfUnmodifiedResponse, OperationNotExecuted, prev)
+                  }
                } else {
-                  createResponse(h, RemoveIfUnmodifiedResponse, OperationNotExecuted, prev)
+                  createResponse(h, RemoveIfUnmodifiedResponse, KeyDoesNotExist, null)
                }
-            } else {
-               createResponse(h, RemoveIfUnmodifiedResponse, KeyDoesNotExist, null)
             }
          }
          case ContainsKeyRequest => {
             val k = readKey(buffer)
-            if (cache.containsKey(k))
-               new Response(h.version, h.messageId, h.cacheName, h.clientIntel,
-                  ContainsKeyResponse, Success, h.topologyId)
-            else
-               new Response(h.version, h.messageId, h.cacheName, h.clientIntel,
-                  ContainsKeyResponse, KeyDoesNotExist, h.topologyId)
+            CacheOperation {
+               if (cache.containsKey(k))
+                  new Response(h.version, h.messageId, h.cacheName, h.clientIntel,
+                     ContainsKeyResponse, Success, h.topologyId)
+               else
+                  new Response(h.version, h.messageId, h.cacheName, h.clientIntel,
+                     ContainsKeyResponse, KeyDoesNotExist, h.topologyId)
+            }
          }
          case BulkGetRequest => {
             val count = readUnsignedInt(buffer)
@@ -323,13 +334,15 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
          }
          case GetWithMetadataRequest => {
             val k = readKey(buffer)
-            getKeyMetadata(h, k, cache)
+            CacheOperation(getKeyMetadata(h, k, cache))
          }
          case QueryRequest => {
             val query = readRangedBytes(buffer)
-            val result = server.getQueryFacades.head.query(cache, query)
-            new QueryResponse(h.version, h.messageId, h.cacheName, h.clientIntel,
-               h.topologyId, result)
+            CacheOperation {
+               val result = server.getQueryFacades.head.query(cache, query)
+               new QueryResponse(h.version, h.messageId, h.cacheName, h.clientIntel,
+                  h.topologyId, result)
+            }
          }
          case AddClientListenerRequest =>
             val listenerId = readRangedBytes(buffer)
@@ -337,7 +350,7 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
             val filterFactoryInfo = readNamedFactory(buffer)
             val converterFactoryInfo = readNamedFactory(buffer)
             val useRawData = h.version match {
-               case VERSION_21 => buffer.readByte() == 1
+               case v if v >= VERSION_21 => buffer.readByte() == 1
                case _ => false
             }
             val reg = server.getClientListenerRegistry
@@ -351,6 +364,28 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
                createSuccessResponse(h, null)
             else
                createNotExecutedResponse(h, null)
+         case GetAllRequest =>
+            // All the keys must be read before touching the cache, the decoder replays the request until it's complete
+            val count = readUnsignedInt(buffer)
+            val keys = new HashSet[Bytes](count)
+            for (i <- 0 until count) keys.add(readRangedBytes(buffer))
+            if (isTrace) trace("About to create get all response, count = %d", count)
+            CacheOperation {
+               new GetAllResponse(h.version, h.messageId, h.cacheName, h.clientIntel,
+                  h.topologyId, cache.getAll(keys))
+            }
+         case PutAllRequest =>
+            val lifespan = readLifespanOrMaxIdle(buffer, hasFlag(h, ProtocolFlag.DefaultLifespan))
+            val maxIdle = readLifespanOrMaxIdle(buffer, hasFlag(h, ProtocolFlag.DefaultMaxIdle))
+            val count = readUnsignedInt(buffer)
+            val entries = new HashMap[Bytes, Bytes](count)
+            for (i <- 0 until count) entries.put(readRangedBytes(buffer), readRangedBytes(buffer))
+            val decoder = ch.pipeline.get("decoder").asInstanceOf[HotRodDecoder]
+            val metadata = decoder.buildMetadata(lifespan, maxIdle)
+            CacheOperation {
+               cache.putAll(entries, metadata)
+               createSuccessResponse(h, null)
+            }
       }
    }
 
@@ -460,7 +495,9 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
                  | ContainsKeyRequest
                  | BulkGetRequest
                  | GetWithMetadataRequest
-                 | BulkGetKeysRequest =>
+                 | BulkGetKeysRequest
+                 | GetAllRequest
+                 | PutAllRequest =>
                optCache = optCache.withFlags(SKIP_CACHE_LOAD)
             case _ =>
          }
@@ -472,7 +509,8 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
                  | RemoveRequest
                  | RemoveIfUnmodifiedRequest
                  | ReplaceRequest
-                 | ReplaceIfUnmodifiedRequest =>
+                 | ReplaceIfUnmodifiedRequest
+                 | PutAllRequest =>
                optCache = optCache.withFlags(SKIP_INDEXING)
             case _ =>
          }
@@ -480,7 +518,8 @@ object Decoder2x extends AbstractVersionedDecoder with ServerConstants with Log
       if (!hasFlag(h, ForceReturnPreviousValue)) {
          h.op match {
             case PutRequest
-                 | PutIfAbsentRequest =>
+                 | PutIfAbsentRequest
+                 | PutAllRequest =>
                optCache = optCache.withFlags(IGNORE_RETURN_VALUES)
             case _ =>
          }
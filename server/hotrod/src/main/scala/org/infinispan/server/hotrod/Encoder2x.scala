@@ -270,6 +270,12 @@ object Encoder2x extends AbstractVersionedEncoder with Constants with Log {
             }
          }
          case s: SizeResponse => writeUnsignedLong(s.size, buf)
+         case g: GetAllResponse =>
+            writeUnsignedInt(g.entries.size, buf)
+            for (entry <- g.entries.entrySet) {
+               writeRangedBytes(entry.getKey, buf)
+               writeRangedBytes(entry.getValue, buf)
+            }
          case e: ErrorResponse => writeString(e.msg, buf)
          case _ => if (buf == null)
             throw new IllegalArgumentException("Response received is unknown: " + r)
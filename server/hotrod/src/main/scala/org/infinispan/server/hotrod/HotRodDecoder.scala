@@ -18,6 +18,7 @@ import javax.security.sasl.SaslServer
 import org.infinispan.server.core.security.AuthorizingCallbackHandler
 import org.infinispan.configuration.cache.Configuration
 import org.infinispan.factories.ComponentRegistry
+import org.infinispan.metadata.Metadata
 
 /**
  * Top level Hot Rod decoder that after figuring out the version, delegates the rest of the reading to the
@@ -64,7 +65,7 @@ class HotRodDecoder(cacheManager: EmbeddedCacheManager, transport: NettyTranspor
       try {
          val decoder = version match {
             case VERSION_10 | VERSION_11 | VERSION_12 | VERSION_13 => Decoder10
-            case VERSION_20 | VERSION_21 => Decoder2x
+            case VERSION_20 | VERSION_21 | VERSION_22 => Decoder2x
             case _ => throw new UnknownVersionException(
                "Unknown version:" + version, version, messageId)
          }
@@ -119,6 +120,15 @@ class HotRodDecoder(cacheManager: EmbeddedCacheManager, transport: NettyTranspor
       server.getCacheRegistry(header.cacheName)
    }
 
+   /**
+    * Builds the metadata of the entries written by a multi-key operation, whose expiration parameters are not read
+    * into the request parameters.
+    */
+   def buildMetadata(lifespan: Int, maxIdle: Int): Metadata = {
+      params = new RequestParameters(-1, lifespan, maxIdle, -1)
+      buildMetadata()
+   }
+
    override def readKey(b: ByteBuf): (Array[Byte], Boolean) =
       header.decoder.readKey(header, b)
 
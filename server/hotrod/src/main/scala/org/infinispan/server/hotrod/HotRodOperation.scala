@@ -23,4 +23,6 @@ object HotRodOperation extends Enumeration(20) {
    val AddClientListenerRequest = Value
    val RemoveClientListenerRequest = Value
    val SizeRequest = Value
+   val PutAllRequest = Value
+   val GetAllRequest = Value
 }
@@ -41,6 +41,10 @@ object OperationResponse extends Enumeration {
    val CacheEntryModifiedEventResponse = Value(0x61)
    val CacheEntryRemovedEventResponse = Value(0x62)
 
+   // 2.2
+   val PutAllResponse = Value(0x2E)
+   val GetAllResponse = Value(0x30)
+
    def toResponse(request: Enumeration#Value): OperationResponse = {
       request match {
          case PutRequest => PutResponse
@@ -63,6 +67,8 @@ object OperationResponse extends Enumeration {
          case AuthRequest => AuthResponse
          case AddClientListenerRequest => AddClientListenerResponse
          case RemoveClientListenerRequest => RemoveClientListenerResponse
+         case PutAllRequest => PutAllResponse
+         case GetAllRequest => GetAllResponse
       }
    }
 
@@ -207,6 +207,20 @@ class SizeResponse(override val version: Byte, override val messageId: Long, ove
    }
 }
 
+class GetAllResponse(override val version: Byte, override val messageId: Long, override val cacheName: String, override val clientIntel: Short,
+      override val topologyId: Int, val entries: java.util.Map[Bytes, Bytes])
+      extends Response(version, messageId, cacheName, clientIntel, GetAllResponse, Success, topologyId) {
+   override def toString = {
+      new StringBuilder().append("GetAllResponse").append("{")
+            .append("version=").append(version)
+            .append(", messageId=").append(messageId)
+            .append(", operation=").append(operation)
+            .append(", status=").append(status)
+            .append(", entries=").append(entries.size)
+            .append("}").toString
+   }
+}
+
 abstract class AbstractTopologyResponse(val topologyId: Int, val serverEndpointsMap : Map[Address, ServerAddress])
 
 abstract class AbstractHashDistAwareResponse(override val topologyId: Int,
@@ -94,7 +94,7 @@ public HotRodServerConfigurationBuilder topologyStateTransfer(boolean topologySt
    @Override
    public HotRodServerConfiguration create() {
       return new HotRodServerConfiguration(defaultCacheName, proxyHost, proxyPort, topologyLockTimeout, topologyReplTimeout, topologyAwaitInitialTransfer, topologyStateTransfer, name, host, port, idleTimeout,
-            recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads, authentication.create());
+            recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads, operationThreads, authentication.create());
    }
 
    @Override
@@ -0,0 +1,23 @@
+package org.infinispan.server.hotrod
+
+import org.testng.annotations.Test
+import test.HotRodTestingUtil._
+import org.infinispan.server.hotrod.test._
+import org.infinispan.manager.EmbeddedCacheManager
+import org.infinispan.server.hotrod.configuration.HotRodServerConfigurationBuilder
+
+/**
+ * Hot Rod server functional test with the cache operations invoked by operation threads
+ * instead of the worker threads.
+ *
+ * @since 7.1
+ */
+@Test(groups = Array("functional"), testName = "server.hotrod.HotRodOperationThreadsFunctionalTest")
+class HotRodOperationThreadsFunctionalTest extends HotRodFunctionalTest {
+
+   override protected def createStartHotRodServer(cacheManager: EmbeddedCacheManager) = {
+      val builder = new HotRodServerConfigurationBuilder
+      builder.proxyHost(host).proxyPort(UniquePortThreadLocal.get.intValue).idleTimeout(0).operationThreads(2)
+      startHotRodServer(cacheManager, UniquePortThreadLocal.get.intValue, builder)
+   }
+}
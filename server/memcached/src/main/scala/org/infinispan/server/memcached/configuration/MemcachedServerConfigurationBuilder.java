@@ -33,7 +33,7 @@ public MemcachedServerConfigurationBuilder cache(String cache) {
 
    @Override
    public MemcachedServerConfiguration create() {
-      return new MemcachedServerConfiguration(defaultCacheName, name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads);
+      return new MemcachedServerConfiguration(defaultCacheName, name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads, operationThreads);
    }
 
    public MemcachedServerConfiguration build(boolean validate) {
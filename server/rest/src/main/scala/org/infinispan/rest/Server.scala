@@ -63,6 +63,8 @@ class Server(@Context request: Request, @Context servletContext: ServletContext,
             MediaType.TEXT_PLAIN_TYPE,
             TEXT_PLAIN_UTF8_TYPE
          ).build
+   lazy val entriesVariantList = Variant.VariantListBuilder.newInstance.mediaTypes(
+      MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_XML_TYPE).build
    lazy val jsonMapper = new ObjectMapper
    lazy val xstream = new XStream
    val manager = ServerBootstrap.getManagerInstance(servletContext)
@@ -73,7 +75,11 @@ class Server(@Context request: Request, @Context servletContext: ServletContext,
 
    @GET
    @Path("/{cacheName}")
-   def getKeys(@PathParam("cacheName") cacheName: String, @QueryParam("global") globalKeySet: String): Response = {
+   def getKeys(@PathParam("cacheName") cacheName: String, @QueryParam("global") globalKeySet: String,
+               @QueryParam("key") requestedKeys: java.util.List[String]): Response = {
+      if (requestedKeys != null && !requestedKeys.isEmpty)
+         return getEntries(cacheName, requestedKeys)
+
       protectCacheNotFound(request, useAsync) { (request, useAsync) => {
          val cache = manager.getCache(cacheName)
          val keys = (if (globalKeySet !=null) GlobalKeySetTask.getGlobalKeySet(cache) else cache.keySet()).asScala
@@ -116,6 +122,33 @@ class Server(@Context request: Request, @Context servletContext: ServletContext,
       }
    }
 
+   /**
+    * Reads the entries of several keys with a single getAll, so that the keys owned by other nodes are fetched with one
+    * remote call per owner. The keys without a value are left out of the response.
+    */
+   private def getEntries(cacheName: String, keys: java.util.List[String]): Response = {
+      protectCacheNotFound(request, useAsync) { (request, useAsync) =>
+         // the values are not always byte arrays, e.g. when the cache is shared with embedded applications
+         val values = manager.getCache(cacheName).getAll(new java.util.LinkedHashSet[String](keys))
+               .asInstanceOf[java.util.Map[String, Any]]
+         // keep the order of the requested keys
+         val entries = new java.util.LinkedHashMap[String, Any]
+         keys.asScala.foreach(key => {
+            val value = values.get(key)
+            if (value != null) entries.put(key, value)
+         })
+         val variant = request.selectVariant(entriesVariantList)
+         val selectedMediaType = if (variant != null) variant.getMediaType.toString else null
+         selectedMediaType match {
+            case MediaType.APPLICATION_JSON => Response.ok.`type`(MediaType.APPLICATION_JSON)
+                    .entity(streamIt(jsonMapper.writeValue(_, entries))).build
+            case MediaType.APPLICATION_XML => Response.ok.`type`(MediaType.APPLICATION_XML)
+                    .entity(streamIt(xstream.toXML(entries, _))).build
+            case _ => Response.notAcceptable(entriesVariantList).build
+         }
+      }
+   }
+
    @GET
    @Path("/{cacheName}/{cacheKey}")
    def getEntry[V](@PathParam("cacheName") cacheName: String,
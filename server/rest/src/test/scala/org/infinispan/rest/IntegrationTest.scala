@@ -192,6 +192,31 @@ class IntegrationTest extends RestServerTestBase {
       coll.getResponseBodyAsString
    }
 
+   def testGetEntries(m: Method) {
+      val cache = getCacheManager("single").getCache[String, AnyRef](BasicCacheContainer.DEFAULT_CACHE_NAME)
+      cache.put(m.getName + "1", "v1")
+      cache.put(m.getName + "2", "v2")
+
+      val get = new GetMethod(s"$fullPath?key=${m.getName}1&key=${m.getName}2&key=${m.getName}3")
+      get.setRequestHeader("Accept", "application/json")
+      call(get)
+      assertEquals(HttpServletResponse.SC_OK, get.getStatusCode)
+      assertEquals("application/json", get.getResponseHeader("Content-Type").getValue)
+      assertEquals(s"""{"${m.getName}1":"v1","${m.getName}2":"v2"}""", get.getResponseBodyAsString)
+
+      get.setRequestHeader("Accept", "application/xml")
+      call(get)
+      assertEquals(HttpServletResponse.SC_OK, get.getStatusCode)
+      assertEquals("application/xml", get.getResponseHeader("Content-Type").getValue)
+      val xml = get.getResponseBodyAsString
+      assertTrue(xml.contains(s"<string>${m.getName}2</string>"))
+      assertFalse(xml.contains(s"${m.getName}3"))
+
+      get.setRequestHeader("Accept", "text/plain")
+      call(get)
+      assertEquals(HttpServletResponse.SC_NOT_ACCEPTABLE, get.getStatusCode)
+   }
+
    def testGet(m: Method) {
       val fullPathKey = fullPath + "/" + m.getName
       val post = new PostMethod(fullPathKey)